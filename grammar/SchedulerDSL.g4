@@ -11,7 +11,10 @@ program
 
 statement
     : addSubjectStatement
+    | addComponentStatement
+    | setExamStatement
     | setAvailabilityStatement
+    | setAvailabilityRangeStatement
     | generateScheduleStatement
     | showScheduleStatement
     | clearStatement
@@ -22,18 +25,63 @@ statement
     | updatePriorityStatement 
     | showHistoryStatement
     | loadScheduleStatement 
+    | undoStatement
+    | forkPlanStatement
+    | checkoutStatement
+    | showVersionsStatement
+    | useEngineStatement
+    | listEnginesStatement
+    | markBlocksStatement
+    | replanStatement
+    | showProgressStatement
+    | addBusyStatement
+    | deleteBusyStatement
+    | listBusyStatement
+    | setReviewsStatement
+    | addConstraintStatement
+    | deleteConstraintsStatement
+    | listConstraintsStatement
     ;
 
 addSubjectStatement
     : 'add' 'subject' subjectName=STRING 'hours' hours=NUMBER 'priority' priority=PRIORITY
     ;
 
+addComponentStatement
+    : 'add' 'component' componentName=STRING 'to' subjectName=STRING 'hours' hours=NUMBER ('due' dueDate=DATE)?
+    ;
+
+setExamStatement
+    : 'set' 'exam' subjectName=STRING 'on' examDate=DATE
+    ;
+
 setAvailabilityStatement
     : 'set' 'availability' 'on' date=DATE 'capacity' capacity=NUMBER 'hours'
     ;
 
+setAvailabilityRangeStatement
+    : 'set' 'availability' 'from' startDate=DATE 'to' endDate=DATE ('on' dayPattern)? 'capacity' capacity=NUMBER 'hours'
+    ;
+
+dayPattern
+    : 'daily'
+    | 'weekdays'
+    | 'weekends'
+    | dayOfWeek (',' dayOfWeek)*
+    ;
+
+dayOfWeek
+    : 'monday'
+    | 'tuesday'
+    | 'wednesday'
+    | 'thursday'
+    | 'friday'
+    | 'saturday'
+    | 'sunday'
+    ;
+
 generateScheduleStatement
-    : 'generate' 'schedule'
+    : 'generate' 'schedule' ('with' 'engine' STRING)?
     ;
 
 showScheduleStatement
@@ -72,6 +120,75 @@ loadScheduleStatement
     : 'load' 'schedule' STRING 
     ;
 
+undoStatement
+    : 'undo'
+    ;
+
+forkPlanStatement
+    : 'fork' 'plan' STRING
+    ;
+
+checkoutStatement
+    : 'checkout' 'plan' STRING
+    | 'checkout' 'version' NUMBER
+    ;
+
+showVersionsStatement
+    : 'show' 'versions'
+    ;
+
+useEngineStatement
+    : 'use' 'engine' STRING
+    ;
+
+listEnginesStatement
+    : 'list' 'engines'
+    ;
+
+markBlocksStatement
+    : 'mark' (subjectName=STRING)? 'on' date=DATE status=('done' | 'missed' | 'planned')
+    ;
+
+replanStatement
+    : 'replan' ('from' date=DATE)?
+    ;
+
+showProgressStatement
+    : 'show' 'progress'
+    ;
+
+addBusyStatement
+    : 'add' 'busy' label=STRING 'on' date=DATE 'from' startTime=TIME 'to' endTime=TIME
+    | 'add' 'busy' label=STRING 'from' startDate=DATE 'to' endDate=DATE ('on' dayPattern)? 'from' startTime=TIME 'to' endTime=TIME
+    ;
+
+deleteBusyStatement
+    : 'delete' 'busy' STRING
+    ;
+
+listBusyStatement
+    : 'list' 'busy'
+    ;
+
+setReviewsStatement
+    : 'set' 'reviews' 'after' intervals+=NUMBER (',' intervals+=NUMBER)* 'days' ('for' minutes=NUMBER 'minutes')?
+    | 'set' 'reviews' 'off'
+    ;
+
+addConstraintStatement
+    : 'require' subjectName=STRING 'not' 'on' dayPattern
+    | 'require' subjectName=STRING side=('before' | 'after') time=TIME
+    | 'require' 'at' 'most' limit=NUMBER 'blocks' 'per' 'day' ('of' subjectName=STRING)?
+    ;
+
+deleteConstraintsStatement
+    : 'delete' 'constraints' (subjectName=STRING)?
+    ;
+
+listConstraintsStatement
+    : 'list' 'constraints'
+    ;
+
 // Lexer Rules
 PRIORITY
     : 'LOW'
@@ -85,6 +202,10 @@ DATE
     | DIGIT DIGIT '/' DIGIT DIGIT '/' DIGIT DIGIT DIGIT DIGIT  // DD/MM/YYYY
     ;
 
+TIME
+    : DIGIT DIGIT? ':' DIGIT DIGIT  // HH:MM
+    ;
+
 NUMBER
     : DIGIT+ ('.' DIGIT+)?
     ;
@@ -1,11 +1,24 @@
 package com.scheduler.chatbot.controller;
 
+import com.scheduler.chatbot.engine.ParetoExplorer;
+import com.scheduler.chatbot.model.BlockStatus;
 import com.scheduler.chatbot.model.PlanSpec;
 import com.scheduler.chatbot.persistence.ScheduleRepository;
+import com.scheduler.chatbot.service.GroupSlotService;
+import com.scheduler.chatbot.service.ScenarioService;
 import com.scheduler.chatbot.service.SchedulerFacade;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -36,6 +49,72 @@ public class ChatbotController {
         return schedulerFacade.getScheduleSummary();
     }
     
+    /**
+     * Generate a schedule, optionally with a specific engine for this request
+     */
+    @PostMapping("/schedule/generate")
+    public SchedulerFacade.ScheduleResult generateSchedule(@RequestParam(required = false) String engine) {
+        return schedulerFacade.generateSchedule(engine);
+    }
+
+    /**
+     * Blocks of the current schedule in a date range (ISO dates; default: today and the
+     * 13 days after). Rolling-horizon schedules are expanded through the end of the range.
+     */
+    @GetMapping("/schedule/blocks")
+    public SchedulerFacade.ScheduleResult getBlocks(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate start = from != null ? from : LocalDate.now();
+        return schedulerFacade.getBlocks(start, to != null ? to : start.plusDays(13));
+    }
+
+    /**
+     * Report the blocks of a date (one subject's, or all) as done, missed or planned
+     */
+    @PostMapping("/schedule/progress")
+    public SchedulerFacade.ScheduleResult markBlocks(@RequestBody ProgressRequest request) {
+        return schedulerFacade.markBlocks(request.getSubject(), request.getDate(), request.getStatus());
+    }
+
+    /**
+     * Re-solve the current schedule from a date on (default: today), keeping past and
+     * reported blocks
+     */
+    @PostMapping("/schedule/replan")
+    public SchedulerFacade.ScheduleResult replan(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from) {
+        return schedulerFacade.replan(from != null ? from : LocalDate.now());
+    }
+
+    /**
+     * Pareto front of the current plan over spreadness, buffer and interleave weights
+     */
+    @PostMapping("/schedule/pareto")
+    public SchedulerFacade.ParetoResult generateParetoFront(
+            @RequestParam(defaultValue = "" + ParetoExplorer.DEFAULT_DIVISIONS) int divisions) {
+        return schedulerFacade.generateParetoFront(divisions);
+    }
+
+    /**
+     * Import an uploaded iCalendar (.ics) file as busy time labelled {@code label}
+     */
+    @PostMapping(value = "/busy/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public SchedulerFacade.CommandResult importBusy(@RequestParam String label,
+            @RequestParam("file") MultipartFile file) throws IOException {
+        try (Reader feed = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
+            return schedulerFacade.importBusy(label, feed);
+        }
+    }
+
+    /**
+     * List available scheduling engines
+     */
+    @GetMapping("/engines")
+    public List<SchedulerFacade.EngineInfo> listEngines() {
+        return schedulerFacade.listEngines();
+    }
+    
     /**
      * Get current plan
      */
@@ -62,6 +141,57 @@ public class ChatbotController {
         return schedulerFacade.loadSchedule(request.getFilepath());
     }
 
+    /**
+     * List versions of the current plan (newest first)
+     */
+    @GetMapping("/versions")
+    public List<SchedulerFacade.VersionInfo> listVersions() {
+        return schedulerFacade.listVersions();
+    }
+
+    /**
+     * Undo the last plan change
+     */
+    @PostMapping("/versions/undo")
+    public SchedulerFacade.CommandResult undo() {
+        return schedulerFacade.undo();
+    }
+
+    /**
+     * Fork the current plan under a new name
+     */
+    @PostMapping("/versions/fork")
+    public SchedulerFacade.CommandResult forkPlan(@RequestBody VersionRequest request) {
+        return schedulerFacade.forkPlan(request.getPlan());
+    }
+
+    /**
+     * Switch to a named plan or jump to a version id
+     */
+    @PostMapping("/versions/checkout")
+    public SchedulerFacade.CommandResult checkout(@RequestBody VersionRequest request) {
+        if (request.getVersion() != null) {
+            return schedulerFacade.checkoutVersion(request.getVersion());
+        }
+        return schedulerFacade.checkoutPlan(request.getPlan());
+    }
+
+    /**
+     * Compare what-if variations of the current plan without changing it
+     */
+    @PostMapping("/scenarios")
+    public ScenarioService.Comparison compareScenarios(@RequestBody ScenarioRequest request) {
+        return schedulerFacade.compareScenarios(request.getScenarios(), request.getEngine());
+    }
+
+    /**
+     * Ranked common free slots for a study group's session
+     */
+    @PostMapping("/group/slots")
+    public List<GroupSlotService.Candidate> findGroupSlots(@RequestBody GroupSlotRequest request) {
+        return schedulerFacade.findGroupSlots(request.getMembers(), request.getQuery(), request.isIncludeCurrent());
+    }
+
     // DTOs
     public static class CommandRequest {
         private String command;
@@ -77,6 +207,27 @@ public class ChatbotController {
 
 
     
+    public static class VersionRequest {
+        private String plan;
+        private Long version;
+
+        public String getPlan() {
+            return plan;
+        }
+
+        public void setPlan(String plan) {
+            this.plan = plan;
+        }
+
+        public Long getVersion() {
+            return version;
+        }
+
+        public void setVersion(Long version) {
+            this.version = version;
+        }
+    }
+
     public static class LoadScheduleRequest {
         private String filepath;
         
@@ -88,4 +239,85 @@ public class ChatbotController {
             this.filepath = filepath;
         }
     }
+
+    public static class ProgressRequest {
+        private String subject;
+        private LocalDate date;
+        private BlockStatus status;
+
+        public String getSubject() {
+            return subject;
+        }
+
+        public void setSubject(String subject) {
+            this.subject = subject;
+        }
+
+        public LocalDate getDate() {
+            return date;
+        }
+
+        public void setDate(LocalDate date) {
+            this.date = date;
+        }
+
+        public BlockStatus getStatus() {
+            return status;
+        }
+
+        public void setStatus(BlockStatus status) {
+            this.status = status;
+        }
+    }
+
+    public static class ScenarioRequest {
+        private String engine;
+        private List<ScenarioService.Scenario> scenarios = new ArrayList<>();
+
+        public String getEngine() {
+            return engine;
+        }
+
+        public void setEngine(String engine) {
+            this.engine = engine;
+        }
+
+        public List<ScenarioService.Scenario> getScenarios() {
+            return scenarios;
+        }
+
+        public void setScenarios(List<ScenarioService.Scenario> scenarios) {
+            this.scenarios = scenarios != null ? scenarios : new ArrayList<>();
+        }
+    }
+
+    public static class GroupSlotRequest {
+        private List<GroupSlotService.Member> members = new ArrayList<>();
+        private GroupSlotService.Query query = new GroupSlotService.Query();
+        private boolean includeCurrent;
+
+        public List<GroupSlotService.Member> getMembers() {
+            return members;
+        }
+
+        public void setMembers(List<GroupSlotService.Member> members) {
+            this.members = members != null ? members : new ArrayList<>();
+        }
+
+        public GroupSlotService.Query getQuery() {
+            return query;
+        }
+
+        public void setQuery(GroupSlotService.Query query) {
+            this.query = query != null ? query : new GroupSlotService.Query();
+        }
+
+        public boolean isIncludeCurrent() {
+            return includeCurrent;
+        }
+
+        public void setIncludeCurrent(boolean includeCurrent) {
+            this.includeCurrent = includeCurrent;
+        }
+    }
 }
@@ -0,0 +1,168 @@
+package com.scheduler.chatbot.engine;
+
+import com.scheduler.chatbot.model.*;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Shared helpers for scheduling engines: priority order, shortfall report and scoring
+ */
+public abstract class AbstractSchedulingStrategy implements SchedulingStrategy {
+
+    /**
+     * Courses by priority (HIGH -> MEDIUM -> LOW), ties by id so the result does not
+     * depend on the order courses were added
+     */
+    protected List<PlanSpec.CourseSpec> sortByPriority(PlanSpec planSpec) {
+        return planSpec.getCourses().stream()
+                .sorted(Comparator.comparing(PlanSpec.CourseSpec::getPriority).reversed()
+                        .thenComparing(PlanSpec.CourseSpec::getId))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Second-half start index for the whole plan range: the rules' pinned split date when
+     * it falls inside the range, else splitIndex
+     */
+    public static int planSplitIndex(PlanSpec planSpec, LocalDate startDate, int days) {
+        LocalDate pinned = planSpec.getRules().getSplitDate();
+        if (pinned != null && pinned.isAfter(startDate) && pinned.isBefore(startDate.plusDays(days))) {
+            return (int) ChronoUnit.DAYS.between(startDate, pinned);
+        }
+        return splitIndex(planSpec, startDate, days);
+    }
+
+    /**
+     * First day index of the second half of the {@code days} days from {@code startDate},
+     * under the plan's split rule: the calendar midpoint, or the day boundary that leaves
+     * the available hours closest to half on each side (O(log n) on the availability
+     * calendar's prefix sums). With capacity weighting, a calendar whose time sits mostly
+     * late no longer starves the first half.
+     */
+    protected static int splitIndex(PlanSpec planSpec, LocalDate startDate, int days) {
+        if (days < 2 || planSpec.getRules().getSplitStrategy() != SplitStrategy.CAPACITY_WEIGHTED) {
+            return days / 2;
+        }
+        AvailabilityCalendar calendar = planSpec.getAvailabilityCalendar();
+        double half = calendar.sumBetween(startDate, startDate.plusDays(days - 1)) / 2;
+        LocalDate middle = half > 0 ? calendar.dateReaching(startDate, half) : null;
+        if (middle == null) {
+            return days / 2;
+        }
+        // The day holding the halfway point goes to whichever side keeps the halves closer
+        double before = calendar.sumBetween(startDate, middle.minusDays(1));
+        double through = before + calendar.capacityOn(middle);
+        int index = (int) ChronoUnit.DAYS.between(startDate, middle);
+        int split = half - before <= through - half ? index : index + 1;
+        return Math.max(1, Math.min(days - 1, split));
+    }
+
+    /**
+     * Handle courses with remaining unscheduled hours (shortfall)
+     */
+    protected void handleShortfall(Schedule schedule, 
+                                Map<String, Double> remainingHours,
+                                List<PlanSpec.CourseSpec> courses) {
+        
+        boolean hasShortfall = remainingHours.values().stream().anyMatch(h -> h > 0.1);
+        
+        if (hasShortfall) {
+            schedule.addExplanation("");
+            schedule.addExplanation("═══ SHORTFALL ANALYSIS ═══");
+            schedule.addExplanation("⚠ Insufficient capacity to schedule all hours");
+            
+            for (PlanSpec.CourseSpec course : courses) {
+                double remaining = remainingHours.get(course.getId());
+                if (remaining > 0.1) {
+                    schedule.addExplanation("  • " + course.getId() + ": " + 
+                                          String.format("%.1f", remaining) + 
+                                          " hours unscheduled");
+                }
+            }
+            
+            schedule.addExplanation("");
+            schedule.addExplanation("SUGGESTIONS:");
+            schedule.addExplanation("  1. Add more available days with 'set availability' command");
+            schedule.addExplanation("  2. Increase capacity on existing days");
+            schedule.addExplanation("  3. Reduce estimated hours for some subjects");
+            schedule.addExplanation("  4. Extend the study period");
+        }
+    }
+    
+    /**
+     * Calculate final schedule score
+     */
+    protected void calculateScore(Schedule schedule, PlanSpec planSpec, 
+                               Map<String, Double> remainingHours) {
+        
+        Schedule.ScheduleScore score = schedule.getScore();
+        
+        // Total scheduled hours
+        double totalHours = schedule.getBlocks().stream()
+                .mapToDouble(Schedule.ScheduledBlock::getDurationHours)
+                .sum();
+        score.setTotalScheduledHours(totalHours);
+        
+        // Calculate utilization (spreadness score)
+        double totalAvailableHours = planSpec.getTotalAvailableHours();
+        double utilizationRate = totalAvailableHours > 0 ? totalHours / totalAvailableHours : 0.0;
+        score.setSpreadnessScore(utilizationRate * 100.0);
+        
+        // Calculate completion rate (buffer score)
+        double totalRequiredHours = planSpec.getCourses().stream()
+                .mapToDouble(PlanSpec.CourseSpec::getWorkloadHours)
+                .sum();
+        double unscheduledHours = remainingHours.values().stream()
+                .mapToDouble(Double::doubleValue)
+                .sum();
+        double completionRate = totalRequiredHours > 0 ? 
+                (totalRequiredHours - unscheduledHours) / totalRequiredHours : 1.0;
+        score.setBufferScore(completionRate * 100.0);
+        
+        // Interleave score - calculate based on priority distribution
+        Map<Priority, Long> distribution = schedule.getBlocks().stream()
+                .collect(Collectors.groupingBy(Schedule.ScheduledBlock::getPriority, 
+                                              Collectors.counting()));
+        long highCount = distribution.getOrDefault(Priority.HIGH, 0L);
+        long mediumCount = distribution.getOrDefault(Priority.MEDIUM, 0L);
+        long lowCount = distribution.getOrDefault(Priority.LOW, 0L);
+        double totalBlocks = highCount + mediumCount + lowCount;
+        double interleaveScore = totalBlocks > 0 ? 
+                ((highCount * 1.5 + mediumCount * 1.2 + lowCount) / (totalBlocks * 1.5)) * 100.0 : 0.0;
+        score.setInterleaveScore(interleaveScore);
+        
+        // Calculate overall score (average of three scores, weighted by the soft preferences,
+        // which the schedule keeps for later recalculations)
+        PlanSpec.SoftPreferences prefs = planSpec.getSoftPrefs() != null
+                ? planSpec.getSoftPrefs() : new PlanSpec.SoftPreferences();
+        schedule.setScoreWeights(prefs);
+        
+        // Build course hours map (one pass over the blocks)
+        Map<String, Double> scheduledByCourse = new HashMap<>();
+        for (Schedule.ScheduledBlock block : schedule.getBlocks()) {
+            scheduledByCourse.merge(block.getCourseId(), block.getDurationHours(), Double::sum);
+        }
+        Map<String, Double> courseHours = new HashMap<>();
+        for (PlanSpec.CourseSpec course : planSpec.getCourses()) {
+            courseHours.put(course.getId(), scheduledByCourse.getOrDefault(course.getId(), 0.0));
+        }
+        score.setCourseHours(courseHours);
+        
+        // Set metadata
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("totalCourses", planSpec.getCourses().size());
+        metadata.put("totalBlocks", schedule.getBlocks().size());
+        metadata.put("totalAvailableHours", totalAvailableHours);
+        metadata.put("completionRate", completionRate);
+        metadata.put("utilizationRate", utilizationRate);
+        metadata.put("studyPeriodDays", 
+                ChronoUnit.DAYS.between(schedule.getStartDate(), 
+                        schedule.getBlocks().isEmpty() ? schedule.getStartDate() :
+                        schedule.getBlocks().stream()
+                                .map(Schedule.ScheduledBlock::getDate)
+                                .max(LocalDate::compareTo).orElse(schedule.getStartDate())) + 1);
+    }
+}
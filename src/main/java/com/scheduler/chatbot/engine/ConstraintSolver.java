@@ -0,0 +1,523 @@
+package com.scheduler.chatbot.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Finite-domain solver for block placement: one variable per block, whose domain is a
+ * BitSet of values day * positionsPerDay + position
+ *
+ * Constraints:
+ * - a value is taken by at most one variable (one block per position)
+ * - at most dayCapacity[d] variables take a value of day d
+ * - at most courseLimit[c] variables of course c take a value of the same day
+ * - the variables of a course take increasing values, in the order they were added (the
+ *   blocks of a course are interchangeable, so this only removes symmetric solutions, and
+ *   it lets per-block domains express "the first k blocks before a due date")
+ *
+ * Propagation runs to a fixpoint over a queue of changed variables. Along a course's chain
+ * it keeps bounds consistency, which is arc consistency for "<". A domain reduced to one
+ * value fixes the variable: the value leaves every other domain, and a day or course-day
+ * that fills up leaves the domains that still include it. Only the variables watching
+ * that day are visited (a variable watches the days its initial domain covers, since
+ * domains only shrink). Counting bounds then compare the variables left with the room
+ * left, per course and overall, so capacity conflicts fail at once instead of after an
+ * exponential search.
+ *
+ * Search takes the variable with the smallest domain (MRV; ties in creation order, so
+ * higher priority courses first) and tries its values from a target value upwards, then
+ * below it. A refuted value is removed before the next one is tried. Domain changes are
+ * recorded on a trail (only the values removed) and undone on backtracking; the domain
+ * sizes MRV compares are counted as values are removed and restored.
+ */
+final class ConstraintSolver {
+
+    enum Outcome {
+        SOLVED,
+        INFEASIBLE,
+        LIMIT
+    }
+
+    static final int UNFIXED = -1;
+    static final int DROPPED = -2;
+
+    private final int days;
+    private final int perDay;
+    private final int values;
+    private final int[] dayCapacity;
+    private final int[] dayUsed;
+    private final int[] courseLimit;
+    private final int[] courseDayUsed;
+    private final int[] lastOfCourse;
+    private final IntStack[] watching;
+
+    // Variables
+    private int count;
+    private BitSet[] domain = new BitSet[16];
+    private int[] domainSize = new int[16];
+    private int[] course = new int[16];
+    private int[] prev = new int[16];
+    private int[] next = new int[16];
+    private int[] target = new int[16];
+    private int[] value = new int[16];
+
+    // Propagation queue
+    private final IntStack queue = new IntStack();
+    private boolean[] queued = new boolean[16];
+    private boolean dropEmpty;
+
+    // Trail: removed values (single value, or a BitSet of a range starting at offset)
+    private final IntStack trailVar = new IntStack();
+    private final IntStack trailOffset = new IntStack();
+    private final List<BitSet> trailRange = new ArrayList<>();
+    private final IntStack fixed = new IntStack();
+    private final IntStack marks = new IntStack();
+
+    private long nodes;
+
+    ConstraintSolver(int days, int perDay, int[] dayCapacity, int courses) {
+        this.days = days;
+        this.perDay = perDay;
+        this.values = days * perDay;
+        this.dayCapacity = dayCapacity.clone();
+        this.dayUsed = new int[days];
+        this.courseLimit = new int[courses];
+        Arrays.fill(courseLimit, perDay);
+        this.courseDayUsed = new int[courses * days];
+        this.lastOfCourse = new int[courses];
+        Arrays.fill(lastOfCourse, -1);
+        this.watching = new IntStack[days];
+        for (int d = 0; d < days; d++) {
+            watching[d] = new IntStack();
+        }
+    }
+
+    void limitPerDay(int c, int limit) {
+        courseLimit[c] = Math.min(courseLimit[c], limit);
+    }
+
+    /**
+     * Add a block of course c, placed after the course's previous block; search tries
+     * values from {@code targetValue} first
+     */
+    int addVariable(int c, BitSet values, int targetValue) {
+        if (count == domain.length) {
+            int size = count * 2;
+            domain = Arrays.copyOf(domain, size);
+            domainSize = Arrays.copyOf(domainSize, size);
+            course = Arrays.copyOf(course, size);
+            prev = Arrays.copyOf(prev, size);
+            next = Arrays.copyOf(next, size);
+            target = Arrays.copyOf(target, size);
+            value = Arrays.copyOf(value, size);
+            queued = Arrays.copyOf(queued, size);
+        }
+        int x = count++;
+        domain[x] = (BitSet) values.clone();
+        domainSize[x] = values.cardinality();
+        for (int v = values.nextSetBit(0); v >= 0; ) {
+            int day = v / perDay;
+            watching[day].push(x);
+            int end = (day + 1) * perDay;
+            v = end < this.values ? values.nextSetBit(end) : -1;
+        }
+        course[x] = c;
+        target[x] = targetValue;
+        value[x] = UNFIXED;
+        prev[x] = lastOfCourse[c];
+        next[x] = -1;
+        if (prev[x] >= 0) {
+            next[prev[x]] = x;
+        }
+        lastOfCourse[c] = x;
+        return x;
+    }
+
+    int size() {
+        return count;
+    }
+
+    /**
+     * Value of variable x after solve or dive: day * positionsPerDay + position, or
+     * DROPPED when a dive could not place it
+     */
+    int valueOf(int x) {
+        return value[x];
+    }
+
+    long getNodes() {
+        return nodes;
+    }
+
+    // Search
+
+    /**
+     * Complete search (propagation plus backtracking) within {@code nodeLimit} decisions
+     */
+    Outcome solve(long nodeLimit) {
+        dropEmpty = false;
+        if (!propagateAll() || !countsHold()) {
+            return Outcome.INFEASIBLE;
+        }
+        int result = search(nodeLimit);
+        if (result == 1) {
+            return Outcome.SOLVED;
+        }
+        while (marks.size() > 0) {
+            undo();
+        }
+        return result == 0 ? Outcome.INFEASIBLE : Outcome.LIMIT;
+    }
+
+    /**
+     * Best effort without backtracking: variables that cannot be placed are dropped
+     * instead. Every constraint still holds among the variables that are placed.
+     */
+    void dive() {
+        dropEmpty = true;
+        propagateAll();
+        dropEmpty = false;
+        for (int x = select(); x >= 0; x = select()) {
+            BitSet candidates = (BitSet) domain[x].clone();
+            boolean placed = false;
+            for (int v = first(candidates, target[x]); v >= 0 && !placed; v = following(candidates, target[x], v)) {
+                mark();
+                if (assign(x, v) && propagate()) {
+                    placed = true;
+                    commit();
+                } else {
+                    undo();
+                }
+            }
+            if (!placed) {
+                drop(x);
+            }
+        }
+    }
+
+    /**
+     * 1 solved, 0 refuted, -1 node limit reached
+     */
+    private int search(long nodeLimit) {
+        int x = select();
+        if (x < 0) {
+            return 1;
+        }
+        if (++nodes > nodeLimit) {
+            return -1;
+        }
+        BitSet candidates = (BitSet) domain[x].clone();
+        for (int v = first(candidates, target[x]); v >= 0; v = following(candidates, target[x], v)) {
+            if (!domain[x].get(v)) {
+                continue;
+            }
+            mark();
+            if (assign(x, v) && propagate() && countsHold()) {
+                int result = search(nodeLimit);
+                if (result != 0) {
+                    return result;
+                }
+            }
+            undo();
+            // v is refuted here: take it out and see what that implies
+            remove(x, v, v + 1);
+            if (!propagate() || !countsHold()) {
+                return 0;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Unfixed variable with the smallest domain, -1 when all are fixed or dropped
+     */
+    private int select() {
+        int best = -1;
+        int bestSize = Integer.MAX_VALUE;
+        for (int x = 0; x < count; x++) {
+            if (value[x] == UNFIXED) {
+                int size = domainSize[x];
+                if (size < bestSize) {
+                    best = x;
+                    bestSize = size;
+                }
+            }
+        }
+        return best;
+    }
+
+    // Value order: target, the values above it, then the values below it
+
+    private static int first(BitSet candidates, int target) {
+        int v = candidates.nextSetBit(target);
+        return v >= 0 ? v : candidates.previousSetBit(target - 1);
+    }
+
+    private static int following(BitSet candidates, int target, int v) {
+        if (v >= target) {
+            int up = candidates.nextSetBit(v + 1);
+            return up >= 0 ? up : candidates.previousSetBit(target - 1);
+        }
+        return v > 0 ? candidates.previousSetBit(v - 1) : -1;
+    }
+
+    private boolean assign(int x, int v) {
+        remove(x, 0, v);
+        remove(x, v + 1, values);
+        return true;
+    }
+
+    // Propagation
+
+    private boolean propagateAll() {
+        for (int x = 0; x < count; x++) {
+            enqueue(x);
+        }
+        return propagate();
+    }
+
+    private boolean propagate() {
+        while (queue.size() > 0) {
+            int x = queue.pop();
+            queued[x] = false;
+            if (value[x] == DROPPED) {
+                continue;
+            }
+            BitSet d = domain[x];
+            if (d.isEmpty()) {
+                if (dropEmpty && value[x] == UNFIXED) {
+                    drop(x);
+                    continue;
+                }
+                clearQueue();
+                return false;
+            }
+            int lo = d.nextSetBit(0);
+            int hi = d.previousSetBit(values - 1);
+            int y = next[x];
+            if (y >= 0 && domain[y].nextSetBit(0) <= lo) {
+                remove(y, 0, lo + 1);
+            }
+            y = prev[x];
+            if (y >= 0 && domain[y].previousSetBit(values - 1) >= hi) {
+                remove(y, hi, values);
+            }
+            if (value[x] == UNFIXED && lo == hi && !fix(x, lo)) {
+                clearQueue();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean fix(int x, int v) {
+        value[x] = v;
+        fixed.push(x);
+        int day = v / perDay;
+        int c = course[x];
+        int dayFull = ++dayUsed[day] >= dayCapacity[day] ? day : -1;
+        int courseDay = c * days + day;
+        int courseFull = ++courseDayUsed[courseDay] >= courseLimit[c] ? day : -1;
+        if (dayUsed[day] > dayCapacity[day] || courseDayUsed[courseDay] > courseLimit[c]) {
+            return false;
+        }
+        int from = day * perDay;
+        IntStack watchers = watching[day];
+        for (int i = 0; i < watchers.size(); i++) {
+            int y = watchers.get(i);
+            if (y == x || value[y] != UNFIXED) {
+                continue;
+            }
+            if (dayFull >= 0 || (courseFull >= 0 && course[y] == c)) {
+                remove(y, from, from + perDay);
+            } else if (domain[y].get(v)) {
+                remove(y, v, v + 1);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Variables left against the room left: per course (day capacity, course limit and the
+     * course's values) and overall
+     */
+    private boolean countsHold() {
+        int[] left = new int[lastOfCourse.length];
+        int total = 0;
+        for (int x = 0; x < count; x++) {
+            if (value[x] == UNFIXED) {
+                left[course[x]]++;
+                total++;
+            }
+        }
+        if (total == 0) {
+            return true;
+        }
+        BitSet all = new BitSet(values);
+        BitSet union = new BitSet(values);
+        for (int c = 0; c < left.length; c++) {
+            if (left[c] == 0) {
+                continue;
+            }
+            union.clear();
+            for (int x = lastOfCourse[c]; x >= 0; x = prev[x]) {
+                if (value[x] == UNFIXED) {
+                    union.or(domain[x]);
+                }
+            }
+            all.or(union);
+            if (room(union, c) < left[c]) {
+                return false;
+            }
+        }
+        return room(all, -1) >= total;
+    }
+
+    /**
+     * Blocks the values can still take, day by day
+     */
+    private int room(BitSet union, int c) {
+        int room = 0;
+        for (int v = union.nextSetBit(0); v >= 0; ) {
+            int day = v / perDay;
+            int end = (day + 1) * perDay;
+            int open = union.get(v, end).cardinality();
+            int free = dayCapacity[day] - dayUsed[day];
+            if (c >= 0) {
+                free = Math.min(free, courseLimit[c] - courseDayUsed[c * days + day]);
+            }
+            room += Math.max(0, Math.min(open, free));
+            v = end < values ? union.nextSetBit(end) : -1;
+        }
+        return room;
+    }
+
+    private void drop(int x) {
+        value[x] = DROPPED;
+        int before = prev[x];
+        int after = next[x];
+        if (before >= 0) {
+            next[before] = after;
+        }
+        if (after >= 0) {
+            prev[after] = before;
+        }
+        int c = course[x];
+        if (lastOfCourse[c] == x) {
+            lastOfCourse[c] = before;
+        }
+    }
+
+    private void enqueue(int x) {
+        if (!queued[x]) {
+            queued[x] = true;
+            queue.push(x);
+        }
+    }
+
+    private void clearQueue() {
+        while (queue.size() > 0) {
+            queued[queue.pop()] = false;
+        }
+    }
+
+    // Trail
+
+    private void remove(int x, int from, int to) {
+        BitSet d = domain[x];
+        int v = d.nextSetBit(from);
+        if (v < 0 || v >= to) {
+            return;
+        }
+        if (d.nextSetBit(v + 1) < 0 || d.nextSetBit(v + 1) >= to) {
+            trailVar.push(x);
+            trailOffset.push(v);
+            trailRange.add(null);
+            d.clear(v);
+            domainSize[x]--;
+        } else {
+            BitSet range = d.get(from, to);
+            trailVar.push(x);
+            trailOffset.push(from);
+            trailRange.add(range);
+            d.clear(from, to);
+            domainSize[x] -= range.cardinality();
+        }
+        enqueue(x);
+    }
+
+    private void mark() {
+        marks.push(trailVar.size());
+        marks.push(fixed.size());
+    }
+
+    /**
+     * Keep the changes since the last mark (dive: placements are never taken back)
+     */
+    private void commit() {
+        int fixedMark = marks.pop();
+        int trailMark = marks.pop();
+        if (marks.size() == 0) {
+            trailVar.truncate(trailMark);
+            trailOffset.truncate(trailMark);
+            trailRange.subList(trailMark, trailRange.size()).clear();
+            fixed.truncate(fixedMark);
+        }
+    }
+
+    private void undo() {
+        int fixedMark = marks.pop();
+        int trailMark = marks.pop();
+        while (fixed.size() > fixedMark) {
+            int x = fixed.pop();
+            int day = value[x] / perDay;
+            dayUsed[day]--;
+            courseDayUsed[course[x] * days + day]--;
+            value[x] = UNFIXED;
+        }
+        while (trailVar.size() > trailMark) {
+            int x = trailVar.pop();
+            int offset = trailOffset.pop();
+            BitSet range = trailRange.remove(trailRange.size() - 1);
+            if (range == null) {
+                domain[x].set(offset);
+                domainSize[x]++;
+            } else {
+                for (int i = range.nextSetBit(0); i >= 0; i = range.nextSetBit(i + 1)) {
+                    domain[x].set(offset + i);
+                    domainSize[x]++;
+                }
+            }
+        }
+    }
+
+    private static final class IntStack {
+        private int[] items = new int[64];
+        private int size;
+
+        void push(int item) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = item;
+        }
+
+        int pop() {
+            return items[--size];
+        }
+
+        int get(int index) {
+            return items[index];
+        }
+
+        int size() {
+            return size;
+        }
+
+        void truncate(int length) {
+            size = length;
+        }
+    }
+}
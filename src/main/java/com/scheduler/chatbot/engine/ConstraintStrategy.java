@@ -0,0 +1,442 @@
+package com.scheduler.chatbot.engine;
+
+import com.scheduler.chatbot.model.*;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Block placement as a constraint satisfaction problem, for plans with hard constraints
+ *
+ * Every block of a course is a variable over (day, position) values of the plan's
+ * SlotTemplate (ConstraintSolver). Its domain starts as the free positions of the days
+ * with capacity, minus what the hard constraints forbid:
+ * - the rules' HardConstraints ("not on", "before", "after", "at most N blocks a day")
+ * - no block on or after the course's exam
+ * - component due dates: blocks are taken in earliest-due order, so the first blocks of a
+ *   course cover its earliest component and must land before that component is due
+ * Day capacity, one block per position and per-day limits are kept by propagation, and
+ * the search tries each block's share of the course's days first, so a feasible plan
+ * spreads every course over its span.
+ *
+ * When the search proves that no complete placement exists, QuickXplain finds a minimal
+ * set of the constraints above that cannot hold together (capacity and workload are the
+ * background), and the explanation names it. A search that only runs out of decisions
+ * proves nothing, so no conflict is named then. A greedy pass then places what fits under all constraints and
+ * the rest is reported as unscheduled.
+ */
+public class ConstraintStrategy extends AbstractSchedulingStrategy {
+
+    public static final String NAME = "csp";
+    public static final long DEFAULT_NODE_LIMIT = 20_000;
+
+    private static final String LIMIT_MESSAGE = "No conflict could be proven within the search limit";
+
+    private final long nodeLimit;
+
+    public ConstraintStrategy() {
+        this(DEFAULT_NODE_LIMIT);
+    }
+
+    /**
+     * @param nodeLimit decisions one search may take before it gives up
+     */
+    public ConstraintStrategy(long nodeLimit) {
+        this.nodeLimit = nodeLimit;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Constraint propagation and backtracking search for hard constraints, with conflict explanations";
+    }
+
+    @Override
+    public Schedule generate(PlanSpec planSpec, PlanSpec.ValidationResult validation) {
+        Model model = new Model(planSpec, sortByPriority(planSpec), validation.getStartDate(), validation.getEndDate());
+        List<Integer> all = model.allConditions();
+
+        Schedule schedule = new Schedule(planSpec.getPlanName(), model.startDate, validation.getEndDate());
+        schedule.addExplanation("═══ SCHEDULING ALGORITHM START ═══");
+        schedule.addExplanation(String.format("Engine: constraint search over %d blocks × %d days × %d positions",
+                model.blockCount(), model.days, model.perDay));
+        schedule.addExplanation("Hard constraints: " + model.conditions.size()
+                + " (rules, exams and component due dates)");
+        schedule.addExplanation("");
+        schedule.addExplanation("═══ CONSTRAINT SEARCH ═══");
+
+        ConstraintSolver solver = model.build(all);
+        ConstraintSolver.Outcome outcome = solver.solve(nodeLimit);
+        if (outcome == ConstraintSolver.Outcome.SOLVED) {
+            schedule.addExplanation("All blocks placed after " + solver.getNodes() + " decision(s)");
+        } else {
+            if (outcome == ConstraintSolver.Outcome.LIMIT) {
+                schedule.addExplanation("Search limit of " + nodeLimit + " decisions reached without a complete placement");
+            } else {
+                schedule.addExplanation("No placement satisfies every constraint");
+            }
+            explainConflict(schedule, model, all, outcome);
+            solver = model.build(all);
+            solver.dive();
+        }
+
+        // Read the placement back
+        int n = model.courses.size();
+        int[] placed = new int[n];
+        List<Schedule.ScheduledBlock> blocks = new ArrayList<>();
+        for (int x = 0; x < solver.size(); x++) {
+            int value = solver.valueOf(x);
+            if (value >= 0) {
+                int c = model.courseOf[x];
+                placed[c]++;
+                blocks.add(model.block(x, value));
+            }
+        }
+        blocks.sort(Comparator.comparing(Schedule.ScheduledBlock::getDate)
+                .thenComparing(Schedule.ScheduledBlock::getStartTime));
+        schedule.addBlocks(blocks);
+
+        Map<String, Double> remainingHours = new HashMap<>();
+        for (int c = 0; c < n; c++) {
+            PlanSpec.CourseSpec course = model.courses.get(c);
+            schedule.addExplanation(String.format("Course: %s (%s) - %d/%d blocks",
+                    course.getId(), course.getPriority(), placed[c], model.needed[c]));
+            remainingHours.put(course.getId(),
+                    Math.max(0, course.getWorkloadHours() - placed[c] * model.template.getBlockHours()));
+        }
+        handleShortfall(schedule, remainingHours, model.courses);
+        calculateScore(schedule, planSpec, remainingHours);
+
+        schedule.addExplanation("");
+        schedule.addExplanation("═══ SCHEDULING COMPLETE ═══");
+        return schedule;
+    }
+
+    /**
+     * Name a minimal conflicting set, or say that capacity alone is short. Only a proven
+     * conflict is explained: after a search limit nothing is claimed.
+     */
+    private void explainConflict(Schedule schedule, Model model, List<Integer> all,
+                                 ConstraintSolver.Outcome outcome) {
+        schedule.addExplanation("");
+        schedule.addExplanation("═══ CONFLICT ═══");
+        schedule.addMetadata("conflict", List.of());
+        if (outcome != ConstraintSolver.Outcome.INFEASIBLE) {
+            schedule.addExplanation(LIMIT_MESSAGE);
+            return;
+        }
+        ConstraintSolver.Outcome background = model.build(List.of()).solve(nodeLimit);
+        if (background != ConstraintSolver.Outcome.SOLVED) {
+            schedule.addExplanation(background == ConstraintSolver.Outcome.INFEASIBLE
+                    ? "The available time cannot hold every block, even without hard constraints"
+                    : LIMIT_MESSAGE);
+            return;
+        }
+        List<Integer> conflict;
+        try {
+            conflict = quickXplain(model, List.of(), false, all);
+        } catch (SearchLimitException e) {
+            schedule.addExplanation(LIMIT_MESSAGE);
+            return;
+        }
+        List<String> descriptions = new ArrayList<>();
+        for (int i : conflict) {
+            descriptions.add(model.conditions.get(i).description);
+        }
+        schedule.addExplanation("These constraints cannot hold together (each one is needed for the conflict):");
+        descriptions.forEach(d -> schedule.addExplanation("  - " + d));
+        schedule.addMetadata("conflict", descriptions);
+    }
+
+    /**
+     * Junker's QuickXplain: a minimal subset of {@code candidates} that conflicts together
+     * with {@code background}, in O(k log(n / k)) consistency checks for a conflict of k.
+     * A check that hits the search limit proves nothing, so it aborts the explanation.
+     */
+    private List<Integer> quickXplain(Model model, List<Integer> background, boolean added, List<Integer> candidates) {
+        if (added && !model.consistent(background, nodeLimit)) {
+            return List.of();
+        }
+        if (candidates.size() == 1) {
+            return candidates;
+        }
+        int half = candidates.size() / 2;
+        List<Integer> first = candidates.subList(0, half);
+        List<Integer> second = candidates.subList(half, candidates.size());
+        List<Integer> secondConflict = quickXplain(model, union(background, first), true, second);
+        List<Integer> firstConflict = quickXplain(model, union(background, secondConflict),
+                !secondConflict.isEmpty(), first);
+        return union(firstConflict, secondConflict);
+    }
+
+    private static List<Integer> union(List<Integer> a, List<Integer> b) {
+        List<Integer> result = new ArrayList<>(a);
+        result.addAll(b);
+        Collections.sort(result);
+        return result;
+    }
+
+    /**
+     * The plan's variables and explainable constraints; build() makes a solver with a
+     * subset of the constraints enabled
+     */
+    private static final class Model {
+        final PlanSpec planSpec;
+        final List<PlanSpec.CourseSpec> courses;
+        final LocalDate startDate;
+        final int days;
+        final SlotTemplate template;
+        final int perDay;
+        final int values;
+        final int[] dayCapacity;
+        final BitSet open;                    // free positions on days with capacity
+        final int[] needed;
+        final int[] courseOf;                 // variable -> course
+        final int[] dueCondition;             // variable -> component due condition, -1 if none
+        final String[] componentOf;           // variable -> component name, null for the rest
+        final List<Condition> conditions = new ArrayList<>();
+
+        Model(PlanSpec planSpec, List<PlanSpec.CourseSpec> courses, LocalDate startDate, LocalDate endDate) {
+            this.planSpec = planSpec;
+            this.courses = courses;
+            this.startDate = startDate;
+            this.days = (int) ChronoUnit.DAYS.between(startDate, endDate) + 1;
+            this.template = SlotTemplate.of(planSpec);
+            this.perDay = Math.max(1, template.size());
+            this.values = days * perDay;
+            this.dayCapacity = new int[days];
+            this.open = new BitSet(values);
+            for (int d = 0; d < days; d++) {
+                LocalDate date = startDate.plusDays(d);
+                dayCapacity[d] = template.blocksFor(date, planSpec.getAvailability(date));
+                if (dayCapacity[d] > 0) {
+                    for (int p : template.positions(date)) {
+                        open.set(d * perDay + p);
+                    }
+                }
+            }
+
+            // Rule constraints, then per course its exam and component due dates
+            for (PlanSpec.HardConstraint constraint : planSpec.getRules().getConstraints()) {
+                conditions.add(Condition.rule(constraint, forbidden(constraint)));
+            }
+            this.needed = new int[courses.size()];
+            List<Integer> variableCourses = new ArrayList<>();
+            List<Integer> variableDues = new ArrayList<>();
+            List<String> variableComponents = new ArrayList<>();
+            for (int c = 0; c < courses.size(); c++) {
+                PlanSpec.CourseSpec course = courses.get(c);
+                needed[c] = template.blocksNeeded(course.getWorkloadHours());
+                int examDay = days;
+                if (course.getExamDate() != null) {
+                    examDay = dayIndex(course.getExamDate());
+                    conditions.add(Condition.exam(c, examDay,
+                            "'" + course.getId() + "' before its exam on " + course.getExamDate()));
+                }
+                int k = 0;
+                for (PlanSpec.ComponentSpec component : componentsByDue(course)) {
+                    int blocks = Math.min(template.blocksNeeded(component.getEstimatedHours()), needed[c] - k);
+                    int condition = -1;
+                    if (component.getDueDate() != null && dayIndex(component.getDueDate()) < examDay) {
+                        condition = conditions.size();
+                        conditions.add(Condition.due(c, dayIndex(component.getDueDate()),
+                                "component '" + component.getName() + "' of '" + course.getId() + "' due "
+                                        + component.getDueDate()));
+                    }
+                    for (int b = 0; b < blocks; b++, k++) {
+                        variableCourses.add(c);
+                        variableDues.add(condition);
+                        variableComponents.add(component.getName());
+                    }
+                }
+                for (; k < needed[c]; k++) {
+                    variableCourses.add(c);
+                    variableDues.add(-1);
+                    variableComponents.add(null);
+                }
+            }
+            this.courseOf = variableCourses.stream().mapToInt(Integer::intValue).toArray();
+            this.dueCondition = variableDues.stream().mapToInt(Integer::intValue).toArray();
+            this.componentOf = variableComponents.toArray(new String[0]);
+        }
+
+        int blockCount() {
+            return courseOf.length;
+        }
+
+        List<Integer> allConditions() {
+            List<Integer> all = new ArrayList<>();
+            for (int i = 0; i < conditions.size(); i++) {
+                all.add(i);
+            }
+            return all;
+        }
+
+        /**
+         * Whether the conditions can hold together; throws when the search limit leaves it open
+         */
+        boolean consistent(List<Integer> enabled, long nodeLimit) {
+            ConstraintSolver.Outcome outcome = build(enabled).solve(nodeLimit);
+            if (outcome == ConstraintSolver.Outcome.LIMIT) {
+                throw new SearchLimitException();
+            }
+            return outcome == ConstraintSolver.Outcome.SOLVED;
+        }
+
+        /**
+         * Solver with the capacity background and the given conditions
+         */
+        ConstraintSolver build(List<Integer> enabled) {
+            boolean[] on = new boolean[conditions.size()];
+            enabled.forEach(i -> on[i] = true);
+            ConstraintSolver solver = new ConstraintSolver(days, perDay, dayCapacity, courses.size());
+            BitSet[] allowed = new BitSet[courses.size()];
+            for (int c = 0; c < courses.size(); c++) {
+                allowed[c] = (BitSet) open.clone();
+            }
+            for (int i = 0; i < conditions.size(); i++) {
+                if (!on[i]) {
+                    continue;
+                }
+                Condition condition = conditions.get(i);
+                for (int c = 0; c < courses.size(); c++) {
+                    if (condition.constraint != null) {
+                        if (!condition.constraint.appliesTo(courses.get(c).getId())) {
+                            continue;
+                        }
+                        if (condition.constraint.getKind() == PlanSpec.HardConstraint.Kind.MAX_PER_DAY) {
+                            solver.limitPerDay(c, condition.constraint.getLimit());
+                        } else {
+                            allowed[c].andNot(condition.forbidden);
+                        }
+                    } else if (condition.course == c && condition.exam) {
+                        allowed[c].clear(condition.day * perDay, values);
+                    }
+                }
+            }
+
+            // Spread each course's blocks over the days it may use
+            int x = 0;
+            for (int c = 0; c < courses.size(); c++) {
+                BitSet domain = allowed[c];
+                int firstDay = domain.isEmpty() ? 0 : domain.nextSetBit(0) / perDay;
+                int lastDay = domain.isEmpty() ? 0 : domain.previousSetBit(values - 1) / perDay;
+                int span = lastDay - firstDay + 1;
+                for (int k = 0; k < needed[c]; k++, x++) {
+                    BitSet values = domain;
+                    int due = dueCondition[x];
+                    if (due >= 0 && on[due]) {
+                        values = (BitSet) domain.clone();
+                        values.clear(conditions.get(due).day * perDay, this.values);
+                    }
+                    int targetDay = firstDay + (int) ((long) k * span / Math.max(1, needed[c]));
+                    solver.addVariable(c, values, targetDay * perDay);
+                }
+            }
+            return solver;
+        }
+
+        Schedule.ScheduledBlock block(int x, int value) {
+            PlanSpec.CourseSpec course = courses.get(courseOf[x]);
+            LocalDate date = startDate.plusDays(value / perDay);
+            int position = value % perDay;
+            String start = template.startTime(position);
+            String end = template.endTime(position);
+            Schedule.ScheduledBlock block = new Schedule.ScheduledBlock(
+                    course.getId(), date, start, end, template.getBlockMinutes());
+            block.setCourseName(course.getId());
+            block.setPriority(course.getPriority());
+            block.setDeadline(course.getExamDate());
+            block.setComponentName(componentOf[x]);
+            block.setReason(String.format("Placed by constraint search for %s%s (Priority: %s) at %s %s-%s",
+                    course.getId(), componentOf[x] != null ? " / " + componentOf[x] : "",
+                    course.getPriority(), date, start, end));
+            return block;
+        }
+
+        /**
+         * Values a rule constraint rules out, whichever course it covers
+         */
+        private BitSet forbidden(PlanSpec.HardConstraint constraint) {
+            BitSet forbidden = new BitSet(values);
+            if (constraint.getKind() == null || constraint.getKind() == PlanSpec.HardConstraint.Kind.MAX_PER_DAY) {
+                return forbidden;
+            }
+            for (int d = 0; d < days; d++) {
+                LocalDate date = startDate.plusDays(d);
+                for (int p = 0; p < template.size(); p++) {
+                    int start = template.startMinute(p);
+                    if (!constraint.allows(date, start, start + template.getBlockMinutes())) {
+                        forbidden.set(d * perDay + p);
+                    }
+                }
+            }
+            return forbidden;
+        }
+
+        private int dayIndex(LocalDate date) {
+            return (int) Math.max(0, Math.min(days, ChronoUnit.DAYS.between(startDate, date)));
+        }
+
+        /**
+         * Components earliest due first; undated ones after them
+         */
+        private static List<PlanSpec.ComponentSpec> componentsByDue(PlanSpec.CourseSpec course) {
+            if (course.getComponents() == null) {
+                return List.of();
+            }
+            List<PlanSpec.ComponentSpec> components = new ArrayList<>(course.getComponents());
+            components.sort(Comparator.comparing(PlanSpec.ComponentSpec::getDueDate,
+                    Comparator.nullsLast(Comparator.naturalOrder())));
+            return components;
+        }
+    }
+
+    /**
+     * A constraint QuickXplain may name: a rule, a course's exam or a component due date
+     */
+    private static final class Condition {
+        final String description;
+        final PlanSpec.HardConstraint constraint; // rules only
+        final BitSet forbidden;                   // rules only
+        final int course;
+        final int day;                            // exam or due day index
+        final boolean exam;
+
+        private Condition(String description, PlanSpec.HardConstraint constraint, BitSet forbidden,
+                          int course, int day, boolean exam) {
+            this.description = description;
+            this.constraint = constraint;
+            this.forbidden = forbidden;
+            this.course = course;
+            this.day = day;
+            this.exam = exam;
+        }
+
+        static Condition rule(PlanSpec.HardConstraint constraint, BitSet forbidden) {
+            return new Condition(constraint.toString(), constraint, forbidden, -1, -1, false);
+        }
+
+        static Condition exam(int course, int day, String description) {
+            return new Condition(description, null, null, course, day, true);
+        }
+
+        static Condition due(int course, int day, String description) {
+            return new Condition(description, null, null, course, day, false);
+        }
+    }
+
+    /**
+     * A consistency check ran out of search budget
+     */
+    private static final class SearchLimitException extends RuntimeException {
+        SearchLimitException() {
+            super(null, null, false, false);
+        }
+    }
+}
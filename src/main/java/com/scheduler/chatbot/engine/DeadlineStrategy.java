@@ -0,0 +1,311 @@
+package com.scheduler.chatbot.engine;
+
+import com.scheduler.chatbot.model.*;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Deadline-driven scheduling of course components (assignments, projects) and exams
+ *
+ * Work items, in blocks of the plan's SchedulingRules: every component (due on its due date, or on the exam if
+ * that is earlier) and the rest of each course's workload (due on the exam, else open).
+ * Work must be done on days before the due date.
+ * 1. Backward pass: sweep days from the end and fill each day from a heap of the items
+ *    due after it, latest deadline first. Every item lands as late as it can go, which
+ *    gives its latest start day and shows exactly which blocks cannot be done in time.
+ * 2. Forward pass: sweep days from the start and fill each day from a heap ordered by
+ *    earliest deadline (EDF). Priority pulls deadlines forward (HIGH 2 days, MEDIUM 1) so
+ *    important work finishes with a buffer; buffered deadlines are used only when the
+ *    backward pass shows all of them can be met.
+ * Slack of an item = latest start - actual start, in days.
+ * Each day is visited once per pass and each block costs O(log items) heap work, so the
+ * run is O((items + blocks) log items + days).
+ */
+public class DeadlineStrategy extends AbstractSchedulingStrategy {
+
+    public static final String NAME = "deadline";
+
+    private static final double LEAD_DAYS_PER_WEIGHT = 4.0; // buffer = (weight - 1) * 4 days
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Earliest-deadline-first over components and exams, with slack tracking";
+    }
+
+    @Override
+    public Schedule generate(PlanSpec planSpec, PlanSpec.ValidationResult validation) {
+        List<PlanSpec.CourseSpec> courses = sortByPriority(planSpec);
+        LocalDate startDate = validation.getStartDate();
+        LocalDate endDate = validation.getEndDate();
+        int days = (int) ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        SlotTemplate template = SlotTemplate.of(planSpec);
+
+        int[] dayBlocks = new int[days];
+        for (int d = 0; d < days; d++) {
+            LocalDate date = startDate.plusDays(d);
+            dayBlocks[d] = template.blocksFor(date, planSpec.getAvailability(date));
+        }
+        int perItemDay = template.getRunBlocks();
+
+        // Items in priority order: the index doubles as the tie-break rank
+        List<WorkItem> items = collectItems(courses, startDate, days, template);
+        int n = items.size();
+        int[] demand = new int[n];
+        int[] due = new int[n];
+        int[] buffered = new int[n];
+        for (int k = 0; k < n; k++) {
+            WorkItem item = items.get(k);
+            demand[k] = item.blocks;
+            due[k] = item.due;
+            int lead = item.dueDate == null ? 0
+                    : (int) Math.round((item.course.getPriority().getWeight() - 1.0) * LEAD_DAYS_PER_WEIGHT);
+            buffered[k] = Math.max(due[k] - lead, Math.min(due[k], 1));
+        }
+
+        // Backward pass on the real deadlines: blocks that fit nowhere are dropped up front
+        int[] latest = new int[n];
+        int[] late = backward(due, demand, dayBlocks, perItemDay, latest);
+        int[] work = new int[n];
+        for (int k = 0; k < n; k++) {
+            work[k] = demand[k] - late[k];
+        }
+        int[] bufferedLatest = new int[n];
+        boolean useBuffer = Arrays.stream(backward(buffered, work, dayBlocks, perItemDay, bufferedLatest)).allMatch(b -> b == 0);
+        int[] deadline = useBuffer ? buffered : due;
+        if (useBuffer) {
+            latest = bufferedLatest;
+        }
+
+        Schedule schedule = new Schedule(planSpec.getPlanName(), startDate, endDate);
+        schedule.addExplanation("═══ SCHEDULING ALGORITHM START ═══");
+        schedule.addExplanation("Engine: earliest deadline first over " + n + " work items from " + courses.size() + " courses");
+        schedule.addExplanation(useBuffer
+                ? "Priority buffers: HIGH work due 2 days early, MEDIUM 1 day"
+                : "Priority buffers dropped: capacity only allows the real deadlines");
+
+        // Forward pass: earliest (buffered) deadline first, laying out each day as it fills
+        PriorityQueue<Integer> heap = new PriorityQueue<>(
+                Comparator.<Integer>comparingInt(k -> deadline[k]).thenComparingInt(k -> k));
+        for (int k = 0; k < n; k++) {
+            if (work[k] > 0) {
+                heap.add(k);
+            }
+        }
+        int[] left = work.clone();
+        int[] first = new int[n];
+        int[] placed = new int[n];
+        Arrays.fill(first, -1);
+        List<Schedule.ScheduledBlock> blocks = new ArrayList<>();
+        List<int[]> today = new ArrayList<>();
+        for (int d = 0; d < days && !heap.isEmpty(); d++) {
+            int free = dayBlocks[d];
+            while (free > 0 && !heap.isEmpty()) {
+                int k = heap.poll();
+                if (due[k] <= d) {
+                    continue; // past due: the rest of this item can no longer be done in time
+                }
+                int take = Math.min(Math.min(perItemDay, left[k]), free);
+                today.add(new int[] {k, take});
+                left[k] -= take;
+                free -= take;
+            }
+            for (int[] entry : today) {
+                if (left[entry[0]] > 0) {
+                    heap.add(entry[0]);
+                }
+            }
+            layOut(items, today, startDate.plusDays(d), d, template, first, placed, blocks);
+            today.clear();
+        }
+        schedule.addBlocks(blocks);
+
+        schedule.addExplanation("");
+        schedule.addExplanation("═══ DEADLINES ═══");
+        int minSlack = Integer.MAX_VALUE;
+        for (int k = 0; k < n; k++) {
+            WorkItem item = items.get(k);
+            String label = item.component != null
+                    ? item.component + " (" + item.course.getId() + ")"
+                    : item.course.getId() + (item.dueDate != null ? " exam" : "");
+            StringBuilder line = new StringBuilder(String.format("%s: %d/%d blocks", label, placed[k], demand[k]));
+            if (item.dueDate != null) {
+                line.append(", due ").append(item.dueDate);
+                if (placed[k] > 0 && latest[k] >= 0) {
+                    int slack = Math.max(0, latest[k] - first[k]);
+                    minSlack = Math.min(minSlack, slack);
+                    line.append(", latest start ").append(startDate.plusDays(latest[k]))
+                            .append(", slack ").append(slack).append(slack == 1 ? " day" : " days");
+                }
+            }
+            if (placed[k] < demand[k]) {
+                line.append(" ⚠ ").append(demand[k] - placed[k]).append(" block(s) cannot be done in time");
+            }
+            schedule.addExplanation(line.toString());
+        }
+
+        Map<String, Double> placedHours = new HashMap<>();
+        for (int k = 0; k < n; k++) {
+            placedHours.merge(items.get(k).course.getId(), placed[k] * template.getBlockHours(), Double::sum);
+        }
+        Map<String, Double> remainingHours = new HashMap<>();
+        for (PlanSpec.CourseSpec course : courses) {
+            remainingHours.put(course.getId(),
+                    Math.max(0, course.getWorkloadHours() - placedHours.getOrDefault(course.getId(), 0.0)));
+        }
+        handleShortfall(schedule, remainingHours, courses);
+        calculateScore(schedule, planSpec, remainingHours);
+        schedule.addMetadata("workItems", n);
+        schedule.addMetadata("bufferedDeadlines", useBuffer);
+        if (minSlack != Integer.MAX_VALUE) {
+            schedule.addMetadata("minSlackDays", minSlack);
+        }
+
+        schedule.addExplanation("");
+        schedule.addExplanation("═══ SCHEDULING COMPLETE ═══");
+        return schedule;
+    }
+
+    /**
+     * One item per component plus one for each course's remaining workload
+     */
+    private List<WorkItem> collectItems(List<PlanSpec.CourseSpec> courses, LocalDate startDate, int days,
+                                        SlotTemplate template) {
+        List<WorkItem> items = new ArrayList<>();
+        for (PlanSpec.CourseSpec course : courses) {
+            LocalDate exam = course.getExamDate();
+            double componentHours = 0.0;
+            if (course.getComponents() != null) {
+                for (PlanSpec.ComponentSpec component : course.getComponents()) {
+                    LocalDate dueDate = component.getDueDate();
+                    if (exam != null && (dueDate == null || exam.isBefore(dueDate))) {
+                        dueDate = exam;
+                    }
+                    items.add(new WorkItem(course, component.getName(),
+                            template.blocksNeeded(component.getEstimatedHours()), dueDate, startDate, days));
+                    componentHours += component.getEstimatedHours();
+                }
+            }
+            double rest = course.getWorkloadHours() - componentHours;
+            if (rest > 1e-9) {
+                items.add(new WorkItem(course, null, template.blocksNeeded(rest), exam, startDate, days));
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Fill days from the end with the items due after each day, latest deadline first
+     * (lower priority later on ties). Records each item's latest start day (-1 if none)
+     * and returns the blocks per item that fit nowhere before its deadline.
+     */
+    private int[] backward(int[] deadline, int[] demand, int[] dayBlocks, int perItemDay, int[] latest) {
+        int n = demand.length;
+        Integer[] order = new Integer[n];
+        for (int k = 0; k < n; k++) {
+            order[k] = k;
+        }
+        Comparator<Integer> latestFirst = Comparator.<Integer>comparingInt(k -> deadline[k])
+                .thenComparingInt(k -> k).reversed();
+        Arrays.sort(order, latestFirst);
+
+        PriorityQueue<Integer> heap = new PriorityQueue<>(latestFirst);
+        int[] left = demand.clone();
+        Arrays.fill(latest, -1);
+        List<Integer> carry = new ArrayList<>();
+        int next = 0;
+        for (int d = dayBlocks.length - 1; d >= 0; d--) {
+            while (next < n && deadline[order[next]] > d) {
+                if (left[order[next]] > 0) {
+                    heap.add(order[next]);
+                }
+                next++;
+            }
+            int free = dayBlocks[d];
+            while (free > 0 && !heap.isEmpty()) {
+                int k = heap.poll();
+                int take = Math.min(Math.min(perItemDay, left[k]), free);
+                left[k] -= take;
+                free -= take;
+                latest[k] = d;
+                if (left[k] > 0) {
+                    carry.add(k);
+                }
+            }
+            heap.addAll(carry);
+            carry.clear();
+        }
+        return left;
+    }
+
+    /**
+     * Time the blocks allocated to one day: items round-robin in deadline order, each block
+     * at the next free position of the day's slot template
+     */
+    private void layOut(List<WorkItem> items, List<int[]> allocation, LocalDate date, int day,
+                        SlotTemplate template, int[] first, int[] placed, List<Schedule.ScheduledBlock> blocks) {
+        int[] left = new int[allocation.size()];
+        for (int i = 0; i < left.length; i++) {
+            left[i] = allocation.get(i)[1];
+        }
+        int slot = 0;
+        boolean any = true;
+        while (any) {
+            any = false;
+            for (int i = 0; i < left.length; i++) {
+                if (left[i] == 0) {
+                    continue;
+                }
+                any = true;
+                left[i]--;
+
+                int k = allocation.get(i)[0];
+                WorkItem item = items.get(k);
+                String start = template.startTime(date, slot);
+                String end = template.endTime(date, slot++);
+                Schedule.ScheduledBlock block = new Schedule.ScheduledBlock(
+                        item.course.getId(), date, start, end, template.getBlockMinutes());
+                block.setCourseName(item.course.getId());
+                block.setComponentName(item.component);
+                block.setPriority(item.course.getPriority());
+                block.setDeadline(item.dueDate);
+                block.setReason(String.format("Earliest deadline first: %s%s (Priority: %s)%s at %s %s-%s",
+                        item.course.getId(), item.component != null ? " / " + item.component : "",
+                        item.course.getPriority(), item.dueDate != null ? ", due " + item.dueDate : "",
+                        date, start, end));
+                blocks.add(block);
+                placed[k]++;
+                if (first[k] < 0) {
+                    first[k] = day;
+                }
+            }
+        }
+    }
+
+    /**
+     * A piece of work with one deadline: a component, or the rest of a course
+     */
+    private static class WorkItem {
+        private final PlanSpec.CourseSpec course;
+        private final String component; // null for the course's remaining workload
+        private final LocalDate dueDate; // null when open-ended
+        private final int due;           // first day index the work may no longer use
+        private final int blocks;
+
+        WorkItem(PlanSpec.CourseSpec course, String component, int blocks, LocalDate dueDate,
+                 LocalDate startDate, int days) {
+            this.course = course;
+            this.component = component;
+            this.dueDate = dueDate;
+            this.due = dueDate == null ? days
+                    : (int) Math.max(0, Math.min(days, ChronoUnit.DAYS.between(startDate, dueDate)));
+            this.blocks = blocks;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.scheduler.chatbot.engine;
+
+import com.scheduler.chatbot.model.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Priority front-loading against each course's own exam date (per-course horizon)
+ *
+ * The greedy engine splits the whole calendar at one midpoint. Here every course gets its
+ * own horizon, from the plan start to the day before its exam (or the plan end), and its
+ * front-load split is the midpoint of that horizon (by days or hours, per SchedulingRules).
+ * Courses are placed in one sweep over exam dates, earliest exam first (priority breaks
+ * ties), so later exams reuse the capacity earlier ones left. Hours that do not fit in the
+ * first half of a horizon move to its second half.
+ * Days without room are skipped through a next-free-day index (union-find), so each
+ * course jumps straight to usable days instead of scanning the calendar:
+ * O((courses + blocks) * α(days) + days) in total.
+ */
+public class ExamHorizonStrategy extends AbstractSchedulingStrategy {
+
+    public static final String NAME = "horizon";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Front-loading split at each course's own exam date, earliest exam first";
+    }
+
+    @Override
+    public Schedule generate(PlanSpec planSpec, PlanSpec.ValidationResult validation) {
+        LocalDate startDate = validation.getStartDate();
+        LocalDate endDate = validation.getEndDate();
+        int days = (int) ChronoUnit.DAYS.between(startDate, endDate) + 1;
+
+        // Earliest exam first; courses without an exam run to the plan end
+        List<PlanSpec.CourseSpec> courses = sortByPriority(planSpec);
+        List<PlanSpec.CourseSpec> byExam = new ArrayList<>(courses);
+        byExam.sort(Comparator.comparingInt(c -> horizon(c, startDate, days)));
+
+        SlotTemplate template = SlotTemplate.of(planSpec);
+        int[] dayBlocks = new int[days];
+        for (int d = 0; d < days; d++) {
+            LocalDate date = startDate.plusDays(d);
+            dayBlocks[d] = template.blocksFor(date, planSpec.getAvailability(date));
+        }
+        NextFreeDay free = new NextFreeDay(dayBlocks);
+
+        Schedule schedule = new Schedule(planSpec.getPlanName(), startDate, endDate);
+        schedule.addExplanation("═══ SCHEDULING ALGORITHM START ═══");
+        schedule.addExplanation("Total courses: " + courses.size());
+        schedule.addExplanation("Exam order: " + byExam.stream()
+                .map(c -> c.getId() + " (" + (c.getExamDate() != null ? c.getExamDate() : "no exam") + ")")
+                .collect(Collectors.joining(", ")));
+
+        List<Schedule.ScheduledBlock> blocks = new ArrayList<>();
+        Map<String, Double> remainingHours = new HashMap<>();
+        for (PlanSpec.CourseSpec course : byExam) {
+            int end = horizon(course, startDate, days);
+            int split = splitIndex(planSpec, startDate, end);
+            int needed = template.blocksNeeded(course.getWorkloadHours());
+            int firstHalf = (int) Math.round(needed * course.getPriority().getFrontLoadRatio());
+
+            schedule.addExplanation("");
+            schedule.addExplanation("Course: " + course.getId() + " (" + course.getPriority() + ")");
+            if (end == 0) {
+                schedule.addExplanation("  ⚠ Exam on the first day of the plan: no study days");
+                remainingHours.put(course.getId(), course.getWorkloadHours());
+                continue;
+            }
+            schedule.addExplanation("  Horizon: " + startDate + " to " + startDate.plusDays(end - 1)
+                    + ", split " + startDate.plusDays(split));
+
+            // Front-load share in the first half; whatever does not fit moves to the second
+            int placedFirst = place(course, 0, split, firstHalf, free, template, startDate, blocks);
+            int placedSecond = place(course, split, end, needed - placedFirst, free, template, startDate, blocks);
+            schedule.addExplanation(String.format("  First half: %d/%d blocks, second half: %d/%d blocks",
+                    placedFirst, firstHalf, placedSecond, needed - firstHalf));
+            if (placedFirst + placedSecond < needed) {
+                schedule.addExplanation("  ⚠ Only scheduled " + (placedFirst + placedSecond) + "/" + needed
+                        + " blocks before " + (course.getExamDate() != null ? "the exam" : "the plan end"));
+            }
+            remainingHours.put(course.getId(),
+                    Math.max(0, course.getWorkloadHours() - (placedFirst + placedSecond) * template.getBlockHours()));
+        }
+
+        blocks.sort(Comparator.comparing(Schedule.ScheduledBlock::getDate)
+                .thenComparing(b -> LocalTime.parse(b.getStartTime())));
+        schedule.addBlocks(blocks);
+        handleShortfall(schedule, remainingHours, courses);
+        calculateScore(schedule, planSpec, remainingHours);
+
+        schedule.addExplanation("");
+        schedule.addExplanation("═══ SCHEDULING COMPLETE ═══");
+        return schedule;
+    }
+
+    /**
+     * First day index the course may no longer use: its exam, or the day after the plan
+     */
+    private static int horizon(PlanSpec.CourseSpec course, LocalDate startDate, int days) {
+        if (course.getExamDate() == null) {
+            return days;
+        }
+        return (int) Math.max(0, Math.min(days, ChronoUnit.DAYS.between(startDate, course.getExamDate())));
+    }
+
+    /**
+     * Place up to {@code count} blocks of a course on days [from, to), earliest first,
+     * as many per day as capacity allows, each at the day's next template position;
+     * returns the number placed
+     */
+    private int place(PlanSpec.CourseSpec course, int from, int to, int count, NextFreeDay free,
+                      SlotTemplate template, LocalDate startDate, List<Schedule.ScheduledBlock> blocks) {
+        int placed = 0;
+        for (int d = free.find(from); d < to && placed < count; d = free.find(d + 1)) {
+            while (placed < count && free.remaining(d) > 0) {
+                int position = free.take(d);
+
+                LocalDate date = startDate.plusDays(d);
+                String start = template.startTime(date, position);
+                String end = template.endTime(date, position);
+                Schedule.ScheduledBlock block = new Schedule.ScheduledBlock(
+                        course.getId(), date, start, end, template.getBlockMinutes());
+                block.setCourseName(course.getId());
+                block.setPriority(course.getPriority());
+                block.setDeadline(course.getExamDate());
+                block.setReason(String.format("Allocated %s (Priority: %s) within its exam horizon at %s %s-%s",
+                        course.getId(), course.getPriority(), date, start, end));
+                blocks.add(block);
+                placed++;
+            }
+        }
+        return placed;
+    }
+}
@@ -0,0 +1,503 @@
+package com.scheduler.chatbot.engine;
+
+import com.scheduler.chatbot.model.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Priority-based front-loading engine (the original scheduling algorithm)
+ *
+ * Algorithm steps:
+ * 1. Sort courses by priority (HIGH -> MEDIUM -> LOW)
+ * 2. For each course, calculate front-load distribution (first half vs second half)
+ * 3. Split calendar into first/second half (by days or by available hours, see SchedulingRules)
+ * 4. Schedule blocks with priority-based allocation
+ * 5. Generate explanations for each placement decision
+ * 6. Calculate schedule score and metadata
+ *
+ * Block length, runs, breaks and the daily cap come from the plan's SchedulingRules through
+ * one SlotTemplate per run. Each day keeps a SlotBitmap on the template's grid holding its
+ * busy intervals and the blocks placed so far; a block takes the earliest template
+ * position the bitmap's first-fit search finds free.
+ */
+public class GreedyFrontLoadStrategy extends AbstractSchedulingStrategy {
+
+    public static final String NAME = "greedy";
+    
+    // Per-course placements behind each generated schedule, for regenerate
+    private final Map<Schedule, GenerationTrace> traces = Collections.synchronizedMap(new WeakHashMap<>());
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Priority-based front-loading, first fit per day (default)";
+    }
+
+    @Override
+    public Schedule generate(PlanSpec planSpec, PlanSpec.ValidationResult validation) {
+        return build(planSpec, validation, null);
+    }
+    
+    /**
+     * Regenerate a schedule after plan edits, keeping the allocation of a schedule this
+     * engine produced earlier (e.g. after add/update subject or one more availability day).
+     * 
+     * The two phases cover disjoint date ranges and each places courses greedily in priority
+     * order, so a course's blocks depend only on the courses before it in the same phase.
+     * Per phase, replay starts at the first course that changed or that looked at a date
+     * whose capacity changed. Courses before it keep their blocks. Replay stops as soon as
+     * the remaining courses are unchanged and daily usage again matches the previous run,
+     * since they would be placed exactly as before.
+     * A phase whose date range changed is placed in full: a replan a day later moves the
+     * start but keeps the split date (SchedulingRules.getSplitDate), so only the first half
+     * is redone. Falls back to full generation when the previous run is unknown, the end
+     * date or the day layout (SchedulingRules or busy intervals) changed, or more than half
+     * of the courses changed. The result is identical to generate.
+     */
+    @Override
+    public Schedule regenerate(PlanSpec planSpec, PlanSpec.ValidationResult validation, Schedule previous) {
+        return build(planSpec, validation, previous);
+    }
+    
+    private Schedule build(PlanSpec planSpec, PlanSpec.ValidationResult validation, Schedule previous) {
+        List<PlanSpec.CourseSpec> sortedCourses = sortByPriority(planSpec);
+        
+        // Calculate calendar split point (calendar or capacity midpoint, per the plan's rules)
+        LocalDate startDate = validation.getStartDate();
+        LocalDate endDate = validation.getEndDate();
+        long totalDays = ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        LocalDate splitDate = startDate.plusDays(planSplitIndex(planSpec, startDate, (int) totalDays));
+        
+        GenerationTrace trace = new GenerationTrace(startDate, endDate, splitDate, sortedCourses,
+                capacitySnapshot(planSpec, startDate, endDate), SlotTemplate.of(planSpec));
+        GenerationTrace last = previous != null ? traces.get(previous) : null;
+        if (last != null && !trace.sameFirstHalf(last) && !trace.sameSecondHalf(last)) {
+            last = null;
+        }
+        
+        // Courses shared at the front and back of the old and new priority order
+        int prefix = 0;
+        int suffix = 0;
+        if (last != null) {
+            int n = trace.courses.size();
+            int m = last.courses.size();
+            while (prefix < Math.min(n, m) && trace.courses.get(prefix).equals(last.courses.get(prefix))) {
+                prefix++;
+            }
+            while (suffix < Math.min(n, m) - prefix
+                    && trace.courses.get(n - 1 - suffix).equals(last.courses.get(m - 1 - suffix))) {
+                suffix++;
+            }
+            // Too many changes: bookkeeping would cost more than it saves
+            if ((n - prefix - suffix) + (m - prefix - suffix) > Math.max(n, m) / 2 + 1) {
+                last = null;
+            }
+        }
+        
+        // PHASE 1: first half (high priority courses get more blocks here)
+        // PHASE 2: second half
+        if (last == null) {
+            trace.firstHalf = runPhase(trace, planSpec, sortedCourses, true, startDate, splitDate.minusDays(1),
+                    null, 0, 0, null);
+            trace.secondHalf = runPhase(trace, planSpec, sortedCourses, false, splitDate, endDate,
+                    null, 0, 0, null);
+        } else {
+            boolean first = trace.sameFirstHalf(last);
+            boolean second = trace.sameSecondHalf(last);
+            trace.firstHalf = runPhase(trace, planSpec, sortedCourses, true, startDate, splitDate.minusDays(1),
+                    first ? last.firstHalf : null, prefix, suffix,
+                    first ? trace.firstCapacityChange(last, startDate, splitDate.minusDays(1)) : null);
+            trace.secondHalf = runPhase(trace, planSpec, sortedCourses, false, splitDate, endDate,
+                    second ? last.secondHalf : null, prefix, suffix,
+                    second ? trace.firstCapacityChange(last, splitDate, endDate) : null);
+        }
+        
+        Schedule schedule = assemble(planSpec, sortedCourses, trace);
+        schedule.addMetadata("generationMode", last == null ? "full" : "incremental");
+        schedule.addMetadata("replayedPlacements", trace.replayed);
+        
+        traces.put(schedule, trace);
+        return schedule;
+    }
+
+    /**
+     * Build the Schedule (blocks, explanations, score) from per-course placements
+     */
+    private Schedule assemble(PlanSpec planSpec, List<PlanSpec.CourseSpec> sortedCourses, GenerationTrace trace) {
+        Schedule schedule = new Schedule(planSpec.getPlanName(), trace.startDate, trace.endDate);
+        
+        schedule.addExplanation("═══ SCHEDULING ALGORITHM START ═══");
+        schedule.addExplanation("Total courses: " + sortedCourses.size());
+        schedule.addExplanation("Priority order: " + 
+                sortedCourses.stream()
+                    .map(c -> c.getId() + " (" + c.getPriority() + ")")
+                    .collect(Collectors.joining(", ")));
+        
+        schedule.addExplanation("");
+        schedule.addExplanation("═══ CALENDAR SPLIT ═══");
+        schedule.addExplanation("Start date: " + trace.startDate);
+        schedule.addExplanation("End date: " + trace.endDate);
+        schedule.addExplanation("Split date: " + trace.splitDate + " (" + planSpec.getRules().getSplitStrategy() + ")");
+        schedule.addExplanation("First half: " + trace.startDate + " to " + trace.splitDate.minusDays(1));
+        schedule.addExplanation("Second half: " + trace.splitDate + " to " + trace.endDate);
+        schedule.addExplanation("Day layout: " + trace.template);
+        
+        for (PlanSpec.CourseSpec course : sortedCourses) {
+            double totalHours = course.getWorkloadHours();
+            Priority priority = course.getPriority();
+            double frontLoadRatio = priority.getFrontLoadRatio();
+            
+            schedule.addExplanation("");
+            schedule.addExplanation("Course: " + course.getId());
+            schedule.addExplanation("  Priority: " + priority + " (weight: " + priority.getWeight() + ")");
+            schedule.addExplanation("  Total hours: " + totalHours);
+            schedule.addExplanation("  First half allocation: " + String.format("%.1f", totalHours * frontLoadRatio) + 
+                                  " hours (" + (int)(frontLoadRatio * 100) + "%)");
+            schedule.addExplanation("  Second half allocation: " + String.format("%.1f", totalHours * (1.0 - frontLoadRatio)) + 
+                                  " hours (" + (int)((1.0 - frontLoadRatio) * 100) + "%)" );
+        }
+        
+        List<Schedule.ScheduledBlock> blocks = new ArrayList<>();
+        schedule.addExplanation("");
+        schedule.addExplanation("═══ BLOCK ALLOCATION - FIRST HALF ═══");
+        for (Placement placement : trace.firstHalf) {
+            placement.explanations.forEach(schedule::addExplanation);
+            placement.blocks.forEach(b -> blocks.add(b.copy()));
+        }
+        schedule.addExplanation("");
+        schedule.addExplanation("═══ BLOCK ALLOCATION - SECOND HALF ═══");
+        for (Placement placement : trace.secondHalf) {
+            placement.explanations.forEach(schedule::addExplanation);
+            placement.blocks.forEach(b -> blocks.add(b.copy()));
+        }
+        schedule.addBlocks(blocks);
+        
+        // Track remaining hours per course (first half, then second half)
+        Map<String, Double> remainingHours = new HashMap<>();
+        for (int i = 0; i < sortedCourses.size(); i++) {
+            double remaining = sortedCourses.get(i).getWorkloadHours();
+            remaining = Math.max(0, remaining - trace.firstHalf.get(i).hoursScheduled);
+            remaining = Math.max(0, remaining - trace.secondHalf.get(i).hoursScheduled);
+            remainingHours.put(sortedCourses.get(i).getId(), remaining);
+        }
+        
+        // Handle any remaining unscheduled hours (shortfall)
+        handleShortfall(schedule, remainingHours, sortedCourses);
+        
+        // Calculate final score
+        calculateScore(schedule, planSpec, remainingHours);
+        
+        schedule.addExplanation("");
+        schedule.addExplanation("═══ SCHEDULING COMPLETE ═══");
+        return schedule;
+    }
+    
+    /**
+     * Place every course of one phase, reusing a previous run where possible
+     * (see regenerateSchedule). With no previous run this is the plain greedy pass.
+     */
+    private List<Placement> runPhase(GenerationTrace trace, PlanSpec planSpec,
+                                     List<PlanSpec.CourseSpec> courses, boolean firstHalf,
+                                     LocalDate phaseStart, LocalDate phaseEnd,
+                                     List<Placement> old, int prefix, int suffix,
+                                     LocalDate capacityChange) {
+        String phaseName = firstHalf ? "FIRST HALF" : "SECOND HALF";
+        List<Placement> result = new ArrayList<>(courses.size());
+        Map<LocalDate, Integer> dailyBlocks = new HashMap<>();
+        Map<LocalDate, SlotBitmap> dailySlots = new HashMap<>();
+        
+        int n = courses.size();
+        int m = old != null ? old.size() : 0;
+        
+        // Keep placements before the first course that changed or saw a changed date
+        int start = 0;
+        if (old != null) {
+            start = prefix;
+            for (int i = 0; i < prefix; i++) {
+                if (capacityChange != null && old.get(i).frontier != null
+                        && !old.get(i).frontier.isBefore(capacityChange)) {
+                    start = i;
+                    break;
+                }
+            }
+            for (int i = 0; i < start; i++) {
+                Placement kept = old.get(i);
+                result.add(kept);
+                for (Schedule.ScheduledBlock block : kept.blocks) {
+                    recordUsage(trace.template, block, dailyBlocks, dailySlots);
+                }
+            }
+        }
+        
+        // Usage difference between this run and the previous one at the aligned position
+        Map<LocalDate, Double> diff = new HashMap<>();
+        int changedEnd = old != null ? n - suffix : n;
+        for (int j = start; j < changedEnd; j++) {
+            Placement placement = placeCourse(planSpec, trace.template, courses.get(j), firstHalf,
+                    phaseStart, phaseEnd, dailyBlocks, dailySlots, phaseName);
+            trace.replayed++;
+            result.add(placement);
+            addUsage(diff, placement, 1);
+        }
+        if (old == null) {
+            return result;
+        }
+        for (int i = start; i < m - suffix; i++) {
+            addUsage(diff, old.get(i), -1);
+        }
+        
+        // Latest date any of the remaining previous placements looked at
+        LocalDate[] suffixFrontier = new LocalDate[m + 1];
+        for (int i = m - 1; i >= 0; i--) {
+            LocalDate f = old.get(i).frontier;
+            LocalDate later = suffixFrontier[i + 1];
+            suffixFrontier[i] = f == null ? later : (later == null || f.isAfter(later) ? f : later);
+        }
+        
+        for (int t = 0; t < suffix; t++) {
+            int j = n - suffix + t;
+            int i = m - suffix + t;
+            boolean capacityUnseen = capacityChange == null || suffixFrontier[i] == null
+                    || suffixFrontier[i].isBefore(capacityChange);
+            if (diff.isEmpty() && capacityUnseen) {
+                // Same state, same remaining courses: the rest is placed exactly as before
+                result.addAll(old.subList(i, m));
+                return result;
+            }
+            Placement placement = placeCourse(planSpec, trace.template, courses.get(j), firstHalf,
+                    phaseStart, phaseEnd, dailyBlocks, dailySlots, phaseName);
+            trace.replayed++;
+            result.add(placement);
+            addUsage(diff, placement, 1);
+            addUsage(diff, old.get(i), -1);
+        }
+        return result;
+    }
+    
+    /**
+     * Schedule blocks for a course in a specific phase (first half or second half)
+     */
+    private Placement placeCourse(PlanSpec planSpec, SlotTemplate template, PlanSpec.CourseSpec course,
+                                  boolean firstHalf, LocalDate phaseStart, LocalDate phaseEnd,
+                                  Map<LocalDate, Integer> dailyBlocks,
+                                  Map<LocalDate, SlotBitmap> dailySlots,
+                                  String phaseName) {
+        
+        double frontLoadRatio = course.getPriority().getFrontLoadRatio();
+        double hoursToSchedule = course.getWorkloadHours() * (firstHalf ? frontLoadRatio : 1.0 - frontLoadRatio);
+        Placement placement = new Placement();
+        
+        if (hoursToSchedule <= 0) {
+            return placement;
+        }
+        
+        placement.explanations.add("");
+        placement.explanations.add("Scheduling " + course.getId() + " in " + phaseName + ": " + 
+                              String.format("%.1f", hoursToSchedule) + " hours");
+        
+        int blocksNeeded = template.blocksNeeded(hoursToSchedule);
+        int blocksScheduled = 0;
+        double hoursScheduled = 0.0;
+        double blockHours = template.getBlockHours();
+        
+        // Try to schedule blocks in available days
+        LocalDate currentDate = phaseStart;
+        while (currentDate.isBefore(phaseEnd.plusDays(1)) && blocksScheduled < blocksNeeded) {
+            placement.frontier = currentDate;
+            
+            // Positions this day's capacity allows, and how many are taken
+            int dayLimit = template.blocksFor(currentDate, planSpec.getAvailability(currentDate));
+            int dayUsed = dailyBlocks.getOrDefault(currentDate, 0);
+            if (dayUsed >= dayLimit) {
+                currentDate = currentDate.plusDays(1);
+                continue;
+            }
+            
+            // The first free position of the template fixes the block's times
+            int position = findBestTimeSlot(template, currentDate, dailySlots);
+            if (position < 0) {
+                // No free position left on this day
+                currentDate = currentDate.plusDays(1);
+                continue;
+            }
+            String startTime = template.startTime(position);
+            String endTime = template.endTime(position);
+            
+            // Create block
+            Schedule.ScheduledBlock block = new Schedule.ScheduledBlock();
+            block.setCourseId(course.getId());
+            block.setCourseName(course.getId());
+            block.setDate(currentDate);
+            block.setStartTime(startTime);
+            block.setEndTime(endTime);
+            block.setDurationMinutes(template.getBlockMinutes());
+            block.setPriority(course.getPriority());
+            block.setReason(String.format(
+                "Allocated %s block %d/%d for %s (Priority: %s) at %s %s-%s",
+                phaseName, blocksScheduled + 1, blocksNeeded, 
+                course.getId(), course.getPriority(),
+                currentDate, startTime, endTime
+            ));
+            
+            placement.blocks.add(block);
+            
+            // Update tracking
+            blocksScheduled++;
+            hoursScheduled += blockHours;
+            dailyBlocks.put(currentDate, dayUsed + 1);
+            dailySlots.get(currentDate).occupy(LocalTime.parse(startTime), LocalTime.parse(endTime));
+            
+            placement.explanations.add("  ✓ Block " + blocksScheduled + ": " + currentDate + 
+                                  " " + startTime + "-" + endTime + 
+                                  " (remaining capacity: " + String.format("%.1f", (dayLimit - dayUsed - 1) * blockHours) + "h)");
+            
+            // Move on once the day is full
+            if (dayUsed + 1 >= dayLimit) {
+                currentDate = currentDate.plusDays(1);
+            }
+        }
+        
+        placement.hoursScheduled = hoursScheduled;
+        
+        if (blocksScheduled < blocksNeeded) {
+            placement.explanations.add("  ⚠ Only scheduled " + blocksScheduled + "/" + blocksNeeded + 
+                                  " blocks (" + String.format("%.1f", hoursScheduled) + "/" + 
+                                  String.format("%.1f", hoursToSchedule) + " hours) - insufficient capacity");
+        }
+        return placement;
+    }
+    
+    /**
+     * Replay a kept block into the daily count and slot trackers
+     */
+    private void recordUsage(SlotTemplate template, Schedule.ScheduledBlock block,
+                             Map<LocalDate, Integer> dailyBlocks,
+                             Map<LocalDate, SlotBitmap> dailySlots) {
+        dailyBlocks.merge(block.getDate(), 1, Integer::sum);
+        dailySlots.computeIfAbsent(block.getDate(), template::occupancy)
+                .occupy(LocalTime.parse(block.getStartTime()), LocalTime.parse(block.getEndTime()));
+    }
+    
+    /**
+     * Find best time slot for a block on a given day: the earliest template position whose
+     * time is free in the day's bitmap, or -1. Runs and breaks are built into the template
+     * positions, so the bitmap's first fit only looks for a free gap; a gap that does not
+     * start on a position moves the search to the next position.
+     */
+    private int findBestTimeSlot(SlotTemplate template, LocalDate date, Map<LocalDate, SlotBitmap> dailySlots) {
+        SlotBitmap slots = dailySlots.computeIfAbsent(date, template::occupancy);
+        int length = slots.slotsFor(template.getBlockMinutes());
+        int from = slots.slotOf(template.getDayStart());
+        while (true) {
+            int fit = slots.firstFit(length, from, 0, slots.size());
+            int position = fit < 0 ? -1 : template.positionFrom(fit * slots.getSlotMinutes());
+            if (position < 0) {
+                return -1;
+            }
+            int slot = template.startMinute(position) / slots.getSlotMinutes();
+            if (slot == fit) {
+                return position;
+            }
+            from = slot;
+        }
+    }
+    
+    private void addUsage(Map<LocalDate, Double> diff, Placement placement, int sign) {
+        for (Schedule.ScheduledBlock block : placement.blocks) {
+            double value = diff.getOrDefault(block.getDate(), 0.0) + sign * block.getDurationHours();
+            if (Math.abs(value) < 1e-9) {
+                diff.remove(block.getDate());
+            } else {
+                diff.put(block.getDate(), value);
+            }
+        }
+    }
+    
+    /**
+     * Effective capacity per day of the schedule range
+     */
+    private double[] capacitySnapshot(PlanSpec planSpec, LocalDate startDate, LocalDate endDate) {
+        double[] capacity = new double[(int) ChronoUnit.DAYS.between(startDate, endDate) + 1];
+        for (int i = 0; i < capacity.length; i++) {
+            capacity[i] = planSpec.getAvailability(startDate.plusDays(i));
+        }
+        return capacity;
+    }
+    
+    /**
+     * Blocks and explanation lines produced for one course in one phase
+     */
+    private static class Placement {
+        private final List<Schedule.ScheduledBlock> blocks = new ArrayList<>();
+        private final List<String> explanations = new ArrayList<>();
+        private double hoursScheduled;
+        private LocalDate frontier; // last date the greedy scan looked at, null if none
+    }
+    
+    /**
+     * Inputs and per-course placements of one generation run
+     */
+    private static class GenerationTrace {
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+        private final LocalDate splitDate;
+        private final List<CourseKey> courses = new ArrayList<>();
+        private final double[] capacity;
+        private final SlotTemplate template;
+        private List<Placement> firstHalf;
+        private List<Placement> secondHalf;
+        private int replayed;
+        
+        GenerationTrace(LocalDate startDate, LocalDate endDate, LocalDate splitDate,
+                        List<PlanSpec.CourseSpec> sortedCourses, double[] capacity, SlotTemplate template) {
+            this.startDate = startDate;
+            this.endDate = endDate;
+            this.splitDate = splitDate;
+            this.capacity = capacity;
+            this.template = template;
+            for (PlanSpec.CourseSpec course : sortedCourses) {
+                courses.add(new CourseKey(course.getId(), course.getPriority(), course.getWorkloadHours()));
+            }
+        }
+        
+        boolean sameFirstHalf(GenerationTrace other) {
+            return startDate.equals(other.startDate) && splitDate.equals(other.splitDate)
+                    && template.equals(other.template);
+        }
+        
+        boolean sameSecondHalf(GenerationTrace other) {
+            return splitDate.equals(other.splitDate) && endDate.equals(other.endDate)
+                    && template.equals(other.template);
+        }
+        
+        /**
+         * Earliest date in [from, to] whose capacity differs from the other run, null if none;
+         * both runs must cover the range
+         */
+        LocalDate firstCapacityChange(GenerationTrace other, LocalDate from, LocalDate to) {
+            int offset = (int) ChronoUnit.DAYS.between(other.startDate, startDate);
+            int lo = (int) ChronoUnit.DAYS.between(startDate, from);
+            int hi = (int) ChronoUnit.DAYS.between(startDate, to);
+            for (int i = lo; i <= hi; i++) {
+                if (capacity[i] != other.capacity[i + offset]) {
+                    return startDate.plusDays(i);
+                }
+            }
+            return null;
+        }
+    }
+    
+    /**
+     * The course fields the greedy placement depends on
+     */
+    private record CourseKey(String id, Priority priority, double workloadHours) {
+    }
+}
@@ -0,0 +1,43 @@
+package com.scheduler.chatbot.engine;
+
+import com.scheduler.chatbot.model.PlanSpec;
+import com.scheduler.chatbot.model.Schedule;
+
+/**
+ * Greedy schedule improved by simulated annealing (see ScheduleOptimizer)
+ *
+ * Keeps the greedy allocation per course and calendar half, and rearranges blocks for a
+ * better spreadness, buffer and interleave score. The reported score is the one
+ * Schedule.recalculateScore gives for the optimized blocks.
+ */
+public class LocalSearchStrategy extends AbstractSchedulingStrategy {
+
+    public static final String NAME = "anneal";
+
+    private final SchedulingStrategy initial;
+    private final ScheduleOptimizer optimizer;
+
+    public LocalSearchStrategy() {
+        this(new GreedyFrontLoadStrategy(), new ScheduleOptimizer());
+    }
+
+    public LocalSearchStrategy(SchedulingStrategy initial, ScheduleOptimizer optimizer) {
+        this.initial = initial;
+        this.optimizer = optimizer;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Greedy start improved by parallel simulated annealing (block moves and swaps)";
+    }
+
+    @Override
+    public Schedule generate(PlanSpec planSpec, PlanSpec.ValidationResult validation) {
+        return optimizer.optimize(initial.generate(planSpec, validation), planSpec);
+    }
+}
@@ -0,0 +1,245 @@
+package com.scheduler.chatbot.engine;
+
+import java.util.Arrays;
+
+/**
+ * Min-cost max-flow on an integer network (primal-dual)
+ *
+ * Each round runs Dijkstra on reduced costs to update the node potentials, then pushes a
+ * blocking flow (Dinic) through the edges whose reduced cost is zero, i.e. along all
+ * current shortest paths at once. The number of rounds is bounded by the number of
+ * distinct shortest-path lengths, which stays small for the bounded costs used here.
+ * Edges live in flat arrays (edge i and i ^ 1 are a pair) to keep large graphs compact.
+ */
+final class MinCostFlow {
+
+    private static final long INF = Long.MAX_VALUE / 4;
+
+    private final int nodes;
+    private final int[] head;
+    private int[] next;
+    private int[] to;
+    private int[] capacity;
+    private int[] cost;
+    private int edges;
+
+    private final long[] potential;
+    private final long[] distance;
+    private final int[] level;
+    private final int[] iterator;
+
+    MinCostFlow(int nodes, int expectedEdges) {
+        this.nodes = nodes;
+        this.head = new int[nodes];
+        Arrays.fill(head, -1);
+        int arcs = Math.max(2, expectedEdges * 2);
+        this.next = new int[arcs];
+        this.to = new int[arcs];
+        this.capacity = new int[arcs];
+        this.cost = new int[arcs];
+        this.potential = new long[nodes];
+        this.distance = new long[nodes];
+        this.level = new int[nodes];
+        this.iterator = new int[nodes];
+    }
+
+    /**
+     * Add a directed edge; costs must be non-negative. Returns the edge id for flow(id).
+     */
+    int addEdge(int from, int target, int cap, int edgeCost) {
+        if (edgeCost < 0 || cap < 0) {
+            throw new IllegalArgumentException("Capacity and cost must be non-negative");
+        }
+        if (edges + 2 > to.length) {
+            int grown = to.length * 2;
+            next = Arrays.copyOf(next, grown);
+            to = Arrays.copyOf(to, grown);
+            capacity = Arrays.copyOf(capacity, grown);
+            cost = Arrays.copyOf(cost, grown);
+        }
+        int id = edges;
+        link(from, target, cap, edgeCost);
+        link(target, from, 0, -edgeCost);
+        return id;
+    }
+
+    /**
+     * Flow currently on an edge returned by addEdge
+     */
+    int flow(int edge) {
+        return capacity[edge ^ 1];
+    }
+
+    /**
+     * Push the maximum flow from source to sink at minimum cost; returns {flow, cost}
+     */
+    long[] solve(int source, int sink) {
+        long totalFlow = 0;
+        long totalCost = 0;
+        while (shortestPaths(source, sink)) {
+            while (levels(source, sink)) {
+                System.arraycopy(head, 0, iterator, 0, nodes);
+                long pushed;
+                while ((pushed = push(source, sink, Integer.MAX_VALUE)) > 0) {
+                    totalFlow += pushed;
+                    totalCost += pushed * (potential[sink] - potential[source]);
+                }
+            }
+        }
+        return new long[] {totalFlow, totalCost};
+    }
+
+    private void link(int from, int target, int cap, int edgeCost) {
+        to[edges] = target;
+        capacity[edges] = cap;
+        cost[edges] = edgeCost;
+        next[edges] = head[from];
+        head[from] = edges++;
+    }
+
+    private long reduced(int u, int e) {
+        return cost[e] + potential[u] - potential[to[e]];
+    }
+
+    /**
+     * Dijkstra on reduced costs; folds the distances into the potentials
+     */
+    private boolean shortestPaths(int source, int sink) {
+        Arrays.fill(distance, INF);
+        distance[source] = 0;
+        LongHeap heap = new LongHeap(nodes);
+        heap.push(0, source);
+        while (!heap.isEmpty()) {
+            long d = heap.peekKey();
+            int u = heap.pop();
+            if (d > distance[u]) {
+                continue;
+            }
+            for (int e = head[u]; e >= 0; e = next[e]) {
+                if (capacity[e] > 0) {
+                    long nd = d + reduced(u, e);
+                    if (nd < distance[to[e]]) {
+                        distance[to[e]] = nd;
+                        heap.push(nd, to[e]);
+                    }
+                }
+            }
+        }
+        if (distance[sink] >= INF) {
+            return false;
+        }
+        // Nodes beyond the sink are capped at its distance so reduced costs stay >= 0
+        for (int v = 0; v < nodes; v++) {
+            potential[v] += Math.min(distance[v], distance[sink]);
+        }
+        return true;
+    }
+
+    /**
+     * BFS levels over residual edges with zero reduced cost
+     */
+    private boolean levels(int source, int sink) {
+        Arrays.fill(level, -1);
+        int[] queue = new int[nodes];
+        int read = 0;
+        int write = 0;
+        queue[write++] = source;
+        level[source] = 0;
+        while (read < write) {
+            int u = queue[read++];
+            for (int e = head[u]; e >= 0; e = next[e]) {
+                int v = to[e];
+                if (capacity[e] > 0 && level[v] < 0 && reduced(u, e) == 0) {
+                    level[v] = level[u] + 1;
+                    queue[write++] = v;
+                }
+            }
+        }
+        return level[sink] >= 0;
+    }
+
+    private long push(int u, int sink, int limit) {
+        if (u == sink) {
+            return limit;
+        }
+        for (; iterator[u] >= 0; iterator[u] = next[iterator[u]]) {
+            int e = iterator[u];
+            int v = to[e];
+            if (capacity[e] > 0 && level[v] == level[u] + 1 && reduced(u, e) == 0) {
+                long pushed = push(v, sink, Math.min(limit, capacity[e]));
+                if (pushed > 0) {
+                    capacity[e] -= pushed;
+                    capacity[e ^ 1] += pushed;
+                    return pushed;
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Binary min-heap of (key, node) pairs in flat arrays
+     */
+    private static final class LongHeap {
+        private long[] keys;
+        private int[] values;
+        private int size;
+
+        LongHeap(int capacity) {
+            keys = new long[Math.max(4, capacity)];
+            values = new int[keys.length];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        long peekKey() {
+            return keys[0];
+        }
+
+        void push(long key, int value) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (keys[parent] <= key) {
+                    break;
+                }
+                keys[i] = keys[parent];
+                values[i] = values[parent];
+                i = parent;
+            }
+            keys[i] = key;
+            values[i] = value;
+        }
+
+        int pop() {
+            int top = values[0];
+            long key = keys[--size];
+            int value = values[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && keys[child + 1] < keys[child]) {
+                    child++;
+                }
+                if (keys[child] >= key) {
+                    break;
+                }
+                keys[i] = keys[child];
+                values[i] = values[child];
+                i = child;
+            }
+            keys[i] = key;
+            values[i] = value;
+            return top;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.scheduler.chatbot.engine;
+
+import com.scheduler.chatbot.model.*;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Exact allocation of course blocks to days as a min-cost max-flow problem
+ *
+ * Network: source -> course -> course/half -> day -> sink, in blocks of the plan's
+ * SchedulingRules (SlotTemplate).
+ * - course: ceil(hours / block length) blocks
+ * - course/half: front-load target per half (priority ratio); extra blocks may move to the
+ *   other half at a penalty, so capacity is never left idle while hours go unscheduled
+ * - course/half -> day: at most a run's worth of blocks (SlotTemplate run length) per course
+ *   per day, no days on or after the exam; cost grows with the day's position in the half,
+ *   scaled by priority weight (high priority gets the early days), plus a penalty on the day
+ *   before the exam
+ * - day: the template's block count for the day's capacity
+ * Max flow gives the fewest unscheduled hours; among those, the cheapest allocation.
+ * Blocks of a day then take the template's positions in order, alternating courses, so
+ * a course's blocks on a day are contiguous only when no other course shares the day.
+ */
+public class MinCostFlowStrategy extends AbstractSchedulingStrategy {
+
+    public static final String NAME = "flow";
+
+    // Cost model
+    private static final int POSITION_COST = 20;   // cost of the last day of a half at weight 1.0
+    private static final int EXAM_EVE_COST = 10;   // studying the day before the exam leaves no buffer
+    private static final int OTHER_HALF_COST = 100; // moving a block away from its front-load half
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Min-cost max-flow allocation of blocks to days (fewest unscheduled hours)";
+    }
+
+    @Override
+    public Schedule generate(PlanSpec planSpec, PlanSpec.ValidationResult validation) {
+        List<PlanSpec.CourseSpec> courses = sortByPriority(planSpec);
+        LocalDate startDate = validation.getStartDate();
+        LocalDate endDate = validation.getEndDate();
+        int days = (int) ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        int split = planSplitIndex(planSpec, startDate, days);
+        int n = courses.size();
+        SlotTemplate template = SlotTemplate.of(planSpec);
+
+        int[] dayBlocks = new int[days];
+        for (int d = 0; d < days; d++) {
+            LocalDate date = startDate.plusDays(d);
+            dayBlocks[d] = template.blocksFor(date, planSpec.getAvailability(date));
+        }
+        int perCourseDay = template.getRunBlocks();
+
+        // Nodes: 0 source, 1 sink, 3 per course (course, first half, second half), then days
+        int source = 0;
+        int sink = 1;
+        int dayBase = 2 + 3 * n;
+        MinCostFlow network = new MinCostFlow(dayBase + days, 5 * n + n * days + days);
+        int[] needed = new int[n];
+        int[] target = new int[n];
+        int[][] dayEdges = new int[n][days];
+        for (int c = 0; c < n; c++) {
+            PlanSpec.CourseSpec course = courses.get(c);
+            int node = 2 + 3 * c;
+            needed[c] = template.blocksNeeded(course.getWorkloadHours());
+            target[c] = (int) Math.round(needed[c] * course.getPriority().getFrontLoadRatio());
+            network.addEdge(source, node, needed[c], 0);
+            network.addEdge(node, node + 1, target[c], 0);
+            network.addEdge(node, node + 2, needed[c] - target[c], 0);
+            network.addEdge(node, node + 1, needed[c], OTHER_HALF_COST);
+            network.addEdge(node, node + 2, needed[c], OTHER_HALF_COST);
+
+            int examDay = course.getExamDate() == null
+                    ? days
+                    : (int) Math.max(0, Math.min(days, ChronoUnit.DAYS.between(startDate, course.getExamDate())));
+            double weight = course.getPriority().getWeight();
+            Arrays.fill(dayEdges[c], -1);
+            for (int d = 0; d < examDay; d++) {
+                if (dayBlocks[d] == 0) {
+                    continue;
+                }
+                boolean firstHalf = d < split;
+                int halfStart = firstHalf ? 0 : split;
+                int halfLength = firstHalf ? split : days - split;
+                int cost = (int) Math.round(POSITION_COST * weight * (d - halfStart) / Math.max(1, halfLength));
+                if (d == examDay - 1 && course.getExamDate() != null) {
+                    cost += EXAM_EVE_COST;
+                }
+                dayEdges[c][d] = network.addEdge(firstHalf ? node + 1 : node + 2, dayBase + d, perCourseDay, cost);
+            }
+        }
+        for (int d = 0; d < days; d++) {
+            if (dayBlocks[d] > 0) {
+                network.addEdge(dayBase + d, sink, dayBlocks[d], 0);
+            }
+        }
+        long[] result = network.solve(source, sink);
+
+        // Read the allocation back per day and per course
+        int[][] allocation = new int[days][n];
+        int[] firstHalfBlocks = new int[n];
+        int[] placed = new int[n];
+        for (int c = 0; c < n; c++) {
+            for (int d = 0; d < days; d++) {
+                if (dayEdges[c][d] >= 0) {
+                    int blocks = network.flow(dayEdges[c][d]);
+                    allocation[d][c] = blocks;
+                    placed[c] += blocks;
+                    if (d < split) {
+                        firstHalfBlocks[c] += blocks;
+                    }
+                }
+            }
+        }
+
+        Schedule schedule = new Schedule(planSpec.getPlanName(), startDate, endDate);
+        schedule.addExplanation("═══ SCHEDULING ALGORITHM START ═══");
+        schedule.addExplanation("Engine: min-cost max-flow over " + n + " courses × " + days + " days");
+        schedule.addExplanation("Split date: " + startDate.plusDays(split));
+        schedule.addExplanation("");
+        schedule.addExplanation("═══ FLOW ALLOCATION ═══");
+        schedule.addExplanation("Blocks placed: " + result[0] + ", total cost: " + result[1]);
+        for (int c = 0; c < n; c++) {
+            PlanSpec.CourseSpec course = courses.get(c);
+            schedule.addExplanation(String.format("Course: %s (%s) - %d/%d blocks, first half %d (target %d), second half %d (target %d)",
+                    course.getId(), course.getPriority(), placed[c], needed[c],
+                    firstHalfBlocks[c], target[c], placed[c] - firstHalfBlocks[c], needed[c] - target[c]));
+        }
+
+        schedule.addBlocks(layOut(courses, allocation, startDate, template));
+
+        Map<String, Double> remainingHours = new HashMap<>();
+        for (int c = 0; c < n; c++) {
+            remainingHours.put(courses.get(c).getId(),
+                    Math.max(0, courses.get(c).getWorkloadHours() - placed[c] * template.getBlockHours()));
+        }
+        handleShortfall(schedule, remainingHours, courses);
+        calculateScore(schedule, planSpec, remainingHours);
+
+        schedule.addExplanation("");
+        schedule.addExplanation("═══ SCHEDULING COMPLETE ═══");
+        return schedule;
+    }
+
+    /**
+     * Turn per-day block counts into timed blocks, taking courses round-robin in priority
+     * order so one course's blocks on a day are not back to back when others are present
+     */
+    private List<Schedule.ScheduledBlock> layOut(List<PlanSpec.CourseSpec> courses, int[][] allocation,
+                                                 LocalDate startDate, SlotTemplate template) {
+        List<Schedule.ScheduledBlock> blocks = new ArrayList<>();
+        for (int d = 0; d < allocation.length; d++) {
+            LocalDate date = startDate.plusDays(d);
+            int[] left = allocation[d].clone();
+            int slot = 0;
+            boolean any = true;
+            while (any) {
+                any = false;
+                for (int c = 0; c < left.length; c++) {
+                    if (left[c] == 0) {
+                        continue;
+                    }
+                    any = true;
+                    left[c]--;
+                    PlanSpec.CourseSpec course = courses.get(c);
+                    String start = template.startTime(date, slot);
+                    String end = template.endTime(date, slot++);
+                    Schedule.ScheduledBlock block = new Schedule.ScheduledBlock(
+                            course.getId(), date, start, end, template.getBlockMinutes());
+                    block.setCourseName(course.getId());
+                    block.setPriority(course.getPriority());
+                    block.setDeadline(course.getExamDate());
+                    block.setReason(String.format("Allocated by min-cost flow for %s (Priority: %s) at %s %s-%s",
+                            course.getId(), course.getPriority(), date, start, end));
+                    blocks.add(block);
+                }
+            }
+        }
+        return blocks;
+    }
+}
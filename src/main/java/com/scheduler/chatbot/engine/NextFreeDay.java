@@ -0,0 +1,54 @@
+package com.scheduler.chatbot.engine;
+
+/**
+ * Remaining blocks per day with a union-find over full days: find(d) is the first
+ * day >= d that still has room (days.length when none)
+ *
+ * Used by the horizon engine, the partitioned engine's repair pass and review placement.
+ */
+final class NextFreeDay {
+    private final int[] remaining;
+    private final int[] used;
+    private final int[] parent;
+
+    NextFreeDay(int[] dayBlocks) {
+        this(dayBlocks, new int[dayBlocks.length]);
+    }
+
+    /**
+     * Days that already hold used[d] of their dayBlocks[d] blocks
+     */
+    NextFreeDay(int[] dayBlocks, int[] used) {
+        this.remaining = new int[dayBlocks.length];
+        this.used = used.clone();
+        this.parent = new int[dayBlocks.length + 1];
+        for (int d = 0; d < dayBlocks.length; d++) {
+            remaining[d] = Math.max(0, dayBlocks[d] - used[d]);
+        }
+        for (int d = 0; d <= dayBlocks.length; d++) {
+            parent[d] = d < dayBlocks.length && remaining[d] == 0 ? d + 1 : d;
+        }
+    }
+
+    int find(int d) {
+        while (parent[d] != d) {
+            parent[d] = parent[parent[d]];
+            d = parent[d];
+        }
+        return d;
+    }
+
+    int remaining(int d) {
+        return remaining[d];
+    }
+
+    /**
+     * Take the next block of the day; returns its position in the day
+     */
+    int take(int d) {
+        if (--remaining[d] == 0) {
+            parent[d] = d + 1;
+        }
+        return used[d]++;
+    }
+}
@@ -0,0 +1,207 @@
+package com.scheduler.chatbot.engine;
+
+import com.scheduler.chatbot.model.PlanSpec;
+import com.scheduler.chatbot.model.Schedule;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Trade-offs between the three soft objectives (spreadness, buffer, interleave)
+ *
+ * Generates the start schedule once, then optimizes a copy of it (ScheduleOptimizer) for
+ * every weight vector of a simplex lattice: all {a, b, c} / divisions with a + b + c =
+ * divisions, so divisions = 4 gives 15 vectors including the three single objectives.
+ * The vectors are independent tasks on a ForkJoinPool. The result is the non-dominated
+ * set (Pareto front) of the schedules found: no other schedule is at least as good on all
+ * three objectives and better on one. Schedules with the same objective scores are kept
+ * once, with the first weight vector that produced them.
+ *
+ * The front is computed with a skyline sweep in O(n log n): points sorted by spreadness
+ * (best first) are checked against a staircase of the (buffer, interleave) pairs kept so
+ * far, so each check and update is a TreeMap lookup.
+ */
+public class ParetoExplorer {
+
+    public static final int DEFAULT_DIVISIONS = 4;
+    public static final int MAX_DIVISIONS = 20;
+
+    private final SchedulingStrategy initial;
+    private final ScheduleOptimizer optimizer;
+    private final ForkJoinPool pool;
+
+    public ParetoExplorer() {
+        this(new GreedyFrontLoadStrategy(), new ScheduleOptimizer(500, 50_000, 1, 42L), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * The optimizer runs once per weight vector; give it one chain, the vectors already
+     * keep the pool busy
+     */
+    public ParetoExplorer(SchedulingStrategy initial, ScheduleOptimizer optimizer, ForkJoinPool pool) {
+        this.initial = initial;
+        this.optimizer = optimizer;
+        this.pool = pool;
+    }
+
+    /**
+     * Pareto front of the plan's schedules over the weight lattice, best spreadness first
+     */
+    public List<Point> explore(PlanSpec planSpec, PlanSpec.ValidationResult validation, int divisions) {
+        if (divisions < 1 || divisions > MAX_DIVISIONS) {
+            throw new IllegalArgumentException("Divisions must be between 1 and " + MAX_DIVISIONS);
+        }
+        Schedule start = initial.generate(planSpec, validation);
+
+        List<Callable<Point>> tasks = new ArrayList<>();
+        for (double[] weights : weightVectors(divisions)) {
+            tasks.add(() -> {
+                PlanSpec.SoftPreferences prefs = new PlanSpec.SoftPreferences();
+                prefs.setSpreadnessWeight(weights[0]);
+                prefs.setBufferWeight(weights[1]);
+                prefs.setInterleaveWeight(weights[2]);
+                return new Point(weights, optimizer.optimize(start, planSpec, prefs));
+            });
+        }
+
+        List<Point> points = new ArrayList<>(tasks.size());
+        try {
+            for (Future<Point> future : pool.invokeAll(tasks)) {
+                points.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Pareto exploration interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Pareto exploration failed", e.getCause());
+        }
+
+        double[][] objectives = new double[points.size()][];
+        for (int i = 0; i < points.size(); i++) {
+            objectives[i] = points.get(i).objectives();
+        }
+        List<Point> front = new ArrayList<>();
+        for (int i : skyline(objectives)) {
+            front.add(points.get(i));
+        }
+        front.sort(Comparator.comparingDouble(Point::getSpreadnessScore).reversed()
+                .thenComparing(Comparator.comparingDouble(Point::getBufferScore).reversed()));
+        return front;
+    }
+
+    /**
+     * All weight vectors {a, b, c} / divisions with non-negative integers a + b + c = divisions
+     */
+    public static List<double[]> weightVectors(int divisions) {
+        List<double[]> vectors = new ArrayList<>();
+        for (int a = divisions; a >= 0; a--) {
+            for (int b = divisions - a; b >= 0; b--) {
+                int c = divisions - a - b;
+                vectors.add(new double[] {(double) a / divisions, (double) b / divisions, (double) c / divisions});
+            }
+        }
+        return vectors;
+    }
+
+    /**
+     * Indices (ascending) of the non-dominated rows of three maximized objectives; of
+     * identical rows only the first is kept
+     */
+    public static int[] skyline(double[][] objectives) {
+        Integer[] order = new Integer[objectives.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        // Best first on every objective, so a point can only be dominated by one before it
+        Arrays.sort(order, (x, y) -> {
+            for (int k = 0; k < 3; k++) {
+                int c = Double.compare(objectives[y][k], objectives[x][k]);
+                if (c != 0) {
+                    return c;
+                }
+            }
+            return Integer.compare(x, y);
+        });
+
+        // Kept (buffer -> interleave): interleave strictly falls as buffer rises, so the
+        // ceiling entry of a buffer value has the best interleave of all pairs at or above it
+        TreeMap<Double, Double> staircase = new TreeMap<>();
+        List<Integer> kept = new ArrayList<>();
+        for (int i : order) {
+            double buffer = objectives[i][1];
+            double interleave = objectives[i][2];
+            Map.Entry<Double, Double> above = staircase.ceilingEntry(buffer);
+            if (above != null && above.getValue() >= interleave) {
+                continue;
+            }
+            Map.Entry<Double, Double> below = staircase.floorEntry(buffer);
+            while (below != null && below.getValue() <= interleave) {
+                staircase.remove(below.getKey());
+                below = staircase.lowerEntry(below.getKey());
+            }
+            staircase.put(buffer, interleave);
+            kept.add(i);
+        }
+        return kept.stream().mapToInt(Integer::intValue).sorted().toArray();
+    }
+
+    /**
+     * One schedule of the front with the weights that produced it
+     */
+    public static class Point {
+        private final double spreadnessWeight;
+        private final double bufferWeight;
+        private final double interleaveWeight;
+        private final double spreadnessScore;
+        private final double bufferScore;
+        private final double interleaveScore;
+        private final Schedule schedule;
+
+        Point(double[] weights, Schedule schedule) {
+            this.spreadnessWeight = weights[0];
+            this.bufferWeight = weights[1];
+            this.interleaveWeight = weights[2];
+            this.schedule = schedule;
+            // Same terms for every point, also when the optimizer returned the start schedule
+            Schedule.ScheduleScore score = ScheduleOptimizer.objectiveScore(schedule);
+            this.spreadnessScore = score.getSpreadnessScore();
+            this.bufferScore = score.getBufferScore();
+            this.interleaveScore = score.getInterleaveScore();
+        }
+
+        double[] objectives() {
+            return new double[] {spreadnessScore, bufferScore, interleaveScore};
+        }
+
+        public double getSpreadnessWeight() {
+            return spreadnessWeight;
+        }
+
+        public double getBufferWeight() {
+            return bufferWeight;
+        }
+
+        public double getInterleaveWeight() {
+            return interleaveWeight;
+        }
+
+        public double getSpreadnessScore() {
+            return spreadnessScore;
+        }
+
+        public double getBufferScore() {
+            return bufferScore;
+        }
+
+        public double getInterleaveScore() {
+            return interleaveScore;
+        }
+
+        public Schedule getSchedule() {
+            return schedule;
+        }
+    }
+}
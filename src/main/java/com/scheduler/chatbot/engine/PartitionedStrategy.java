@@ -0,0 +1,397 @@
+package com.scheduler.chatbot.engine;
+
+import com.scheduler.chatbot.model.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.Period;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Long horizons (one or two years) cut into calendar windows solved in parallel
+ *
+ * 1. The calendar is cut into consecutive windows of one Period (a month by default)
+ * 2. Each course's blocks are shared out over the windows in proportion to the blocks the
+ *    windows can still hold before its exam (largest remainder, so the shares add up
+ *    exactly); courses go earliest exam first, so later exams take what is left
+ * 3. Every window becomes a small plan of its own with those shares as workloads and is
+ *    generated by the inner engine (greedy by default); windows run on a ForkJoinPool
+ * 4. The window schedules are stitched: blocks beyond a course's share or on/after its
+ *    exam are dropped, and each day's blocks take the template positions from the top
+ * 5. Repair: blocks a window could not place carry over to the next free days, from the
+ *    window's start up to the exam, then to free days before the window
+ *
+ * Priority front-loading happens inside each window, not across the whole calendar.
+ * Windows share nothing, so the result does not depend on thread timing, and the work
+ * (courses x days) is split evenly between the cores. The repair pass skips full days
+ * through a next-free-day index.
+ */
+public class PartitionedStrategy extends AbstractSchedulingStrategy {
+
+    public static final String NAME = "partitioned";
+    public static final Period DEFAULT_WINDOW = Period.ofMonths(1);
+
+    private final SchedulingStrategy inner;
+    private final Period window;
+    private final ForkJoinPool pool;
+
+    public PartitionedStrategy() {
+        this(new GreedyFrontLoadStrategy(), DEFAULT_WINDOW, ForkJoinPool.commonPool());
+    }
+
+    public PartitionedStrategy(SchedulingStrategy inner, Period window, ForkJoinPool pool) {
+        if (window.isZero() || window.isNegative()) {
+            throw new IllegalArgumentException("Window must be a positive period");
+        }
+        this.inner = inner;
+        this.window = window;
+        this.pool = pool;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Calendar windows (" + window + ") solved in parallel by '" + inner.getName()
+                + "', stitched with a carry-over repair pass";
+    }
+
+    @Override
+    public Schedule generate(PlanSpec planSpec, PlanSpec.ValidationResult validation) {
+        LocalDate startDate = validation.getStartDate();
+        LocalDate endDate = validation.getEndDate();
+        int days = (int) ChronoUnit.DAYS.between(startDate, endDate) + 1;
+
+        SlotTemplate template = SlotTemplate.of(planSpec);
+        int[] dayBlocks = new int[days];
+        long[] prefix = new long[days + 1];
+        for (int d = 0; d < days; d++) {
+            LocalDate date = startDate.plusDays(d);
+            dayBlocks[d] = template.blocksFor(date, planSpec.getAvailability(date));
+            prefix[d + 1] = prefix[d] + dayBlocks[d];
+        }
+
+        int[] bounds = windowBounds(startDate, endDate, window);
+        int windows = bounds.length - 1;
+
+        List<PlanSpec.CourseSpec> courses = sortByPriority(planSpec);
+        int[] horizon = new int[courses.size()];
+        for (int c = 0; c < courses.size(); c++) {
+            horizon[c] = horizon(courses.get(c), startDate, days);
+        }
+        int[][] share = shareOut(courses, horizon, bounds, prefix, template);
+
+        // Window plans are built here, so only the inner engine runs concurrently
+        List<Callable<Schedule>> tasks = new ArrayList<>(windows);
+        for (int w = 0; w < windows; w++) {
+            int[] blocks = new int[courses.size()];
+            for (int c = 0; c < courses.size(); c++) {
+                blocks[c] = share[c][w];
+            }
+            PlanSpec windowPlan = windowPlan(planSpec, courses, blocks, startDate.plusDays(bounds[w]),
+                    startDate.plusDays(bounds[w + 1] - 1), template);
+            if (windowPlan.getCourses().isEmpty()) {
+                tasks.add(() -> null);
+                continue;
+            }
+            PlanSpec.ValidationResult windowValidation = new PlanSpec.ValidationResult(true,
+                    Collections::emptyList, windowPlan.getStartDate(), windowPlan.getEndDate());
+            tasks.add(() -> inner.generate(windowPlan, windowValidation));
+        }
+        List<Schedule> results = new ArrayList<>(windows);
+        try {
+            for (Future<Schedule> future : pool.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Partitioned scheduling interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Window scheduling failed", e.getCause());
+        }
+
+        // Stitch: keep each course's share per window, before its exam
+        Map<String, Integer> courseIndex = new HashMap<>();
+        for (int c = 0; c < courses.size(); c++) {
+            courseIndex.put(courses.get(c).getId(), c);
+        }
+        List<List<Schedule.ScheduledBlock>> byDay = new ArrayList<>(days);
+        for (int d = 0; d < days; d++) {
+            byDay.add(new ArrayList<>());
+        }
+        int[][] placed = new int[courses.size()][windows];
+        for (int w = 0; w < windows; w++) {
+            Schedule result = results.get(w);
+            if (result == null) {
+                continue;
+            }
+            List<Schedule.ScheduledBlock> windowBlocks = new ArrayList<>(result.getBlocks());
+            windowBlocks.sort(CHRONOLOGICAL);
+            for (Schedule.ScheduledBlock block : windowBlocks) {
+                Integer c = courseIndex.get(block.getCourseId());
+                int d = (int) ChronoUnit.DAYS.between(startDate, block.getDate());
+                if (c == null || d >= horizon[c] || placed[c][w] >= share[c][w]) {
+                    continue;
+                }
+                placed[c][w]++;
+                Schedule.ScheduledBlock kept = block.copy();
+                kept.setDeadline(courses.get(c).getExamDate());
+                byDay.get(d).add(kept);
+            }
+        }
+        int[] used = new int[days];
+        List<Schedule.ScheduledBlock> blocks = new ArrayList<>();
+        for (int d = 0; d < days; d++) {
+            for (Schedule.ScheduledBlock block : byDay.get(d)) {
+                block.setStartTime(template.startTime(block.getDate(), used[d]));
+                block.setEndTime(template.endTime(block.getDate(), used[d]));
+                used[d]++;
+                blocks.add(block);
+            }
+        }
+
+        // Repair: carry what a window could not hold over to free days, later ones first
+        NextFreeDay free = new NextFreeDay(dayBlocks, used);
+        int[] carried = new int[courses.size()];
+        int[] total = new int[courses.size()];
+        for (int w = 0; w < windows; w++) {
+            for (int c = 0; c < courses.size(); c++) {
+                int missing = share[c][w] - placed[c][w];
+                if (missing > 0) {
+                    int moved = carry(courses.get(c), bounds[w], horizon[c], missing, free, template, startDate, blocks);
+                    moved += carry(courses.get(c), 0, Math.min(bounds[w], horizon[c]), missing - moved,
+                            free, template, startDate, blocks);
+                    carried[c] += moved;
+                }
+                total[c] += placed[c][w];
+            }
+        }
+
+        Schedule schedule = new Schedule(planSpec.getPlanName(), startDate, endDate);
+        schedule.addExplanation("═══ SCHEDULING ALGORITHM START ═══");
+        schedule.addExplanation("Total courses: " + courses.size());
+        schedule.addExplanation("Windows: " + windows + " of " + window + ", solved in parallel by '" + inner.getName() + "'");
+        schedule.addExplanation("Day layout: " + template);
+        schedule.addExplanation("");
+        schedule.addExplanation("═══ WINDOWS ═══");
+        for (int w = 0; w < windows; w++) {
+            int shared = 0;
+            int kept = 0;
+            for (int c = 0; c < courses.size(); c++) {
+                shared += share[c][w];
+                kept += placed[c][w];
+            }
+            schedule.addExplanation(String.format("%s to %s: %d/%d blocks placed, capacity %d",
+                    startDate.plusDays(bounds[w]), startDate.plusDays(bounds[w + 1] - 1), kept, shared,
+                    prefix[bounds[w + 1]] - prefix[bounds[w]]));
+        }
+
+        Map<String, Double> remainingHours = new HashMap<>();
+        int carriedTotal = 0;
+        schedule.addExplanation("");
+        schedule.addExplanation("═══ REPAIR ═══");
+        for (int c = 0; c < courses.size(); c++) {
+            PlanSpec.CourseSpec course = courses.get(c);
+            if (carried[c] > 0) {
+                schedule.addExplanation("  " + course.getId() + ": " + carried[c] + " block(s) carried over between windows");
+            }
+            carriedTotal += carried[c];
+            remainingHours.put(course.getId(), Math.max(0,
+                    course.getWorkloadHours() - (total[c] + carried[c]) * template.getBlockHours()));
+        }
+        schedule.addExplanation("Carried over: " + carriedTotal + " block(s)");
+
+        blocks.sort(CHRONOLOGICAL);
+        schedule.addBlocks(blocks);
+        handleShortfall(schedule, remainingHours, courses);
+        calculateScore(schedule, planSpec, remainingHours);
+        schedule.addMetadata("windows", windows);
+        schedule.addMetadata("carriedOverBlocks", carriedTotal);
+
+        schedule.addExplanation("");
+        schedule.addExplanation("═══ SCHEDULING COMPLETE ═══");
+        return schedule;
+    }
+
+    static final Comparator<Schedule.ScheduledBlock> CHRONOLOGICAL =
+            Comparator.comparing(Schedule.ScheduledBlock::getDate)
+                    .thenComparing(b -> LocalTime.parse(b.getStartTime()));
+
+    /**
+     * First day index the course may no longer use: its exam, or the day after the plan
+     */
+    static int horizon(PlanSpec.CourseSpec course, LocalDate startDate, int days) {
+        if (course.getExamDate() == null) {
+            return days;
+        }
+        return (int) Math.max(0, Math.min(days, ChronoUnit.DAYS.between(startDate, course.getExamDate())));
+    }
+
+    /**
+     * Day indices where the windows start, plus the day count: window w covers days
+     * [bounds[w], bounds[w + 1])
+     */
+    static int[] windowBounds(LocalDate startDate, LocalDate endDate, Period window) {
+        List<Integer> bounds = new ArrayList<>();
+        for (LocalDate cursor = startDate; !cursor.isAfter(endDate); cursor = cursor.plus(window)) {
+            bounds.add((int) ChronoUnit.DAYS.between(startDate, cursor));
+        }
+        bounds.add((int) ChronoUnit.DAYS.between(startDate, endDate) + 1);
+        return bounds.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Blocks per course and window: capacity-proportional shares, earliest exam first,
+     * each course sharing what the courses before it left ({@code prefix} holds the
+     * running sum of blocks per day)
+     */
+    static int[][] shareOut(List<PlanSpec.CourseSpec> courses, int[] horizon, int[] bounds, long[] prefix,
+                            SlotTemplate template) {
+        int windows = bounds.length - 1;
+        Integer[] byExam = new Integer[courses.size()];
+        for (int c = 0; c < byExam.length; c++) {
+            byExam[c] = c;
+        }
+        Arrays.sort(byExam, Comparator.comparingInt((Integer c) -> horizon[c]).thenComparingInt(c -> c));
+        long[] left = new long[windows];
+        for (int w = 0; w < windows; w++) {
+            left[w] = prefix[bounds[w + 1]] - prefix[bounds[w]];
+        }
+        int[][] share = new int[courses.size()][];
+        for (int c : byExam) {
+            long[] capacity = new long[windows];
+            long[] free = new long[windows];
+            long freeTotal = 0;
+            for (int w = 0; w < windows; w++) {
+                int to = Math.min(bounds[w + 1], horizon[c]);
+                capacity[w] = to > bounds[w] ? prefix[to] - prefix[bounds[w]] : 0;
+                free[w] = Math.min(capacity[w], left[w]);
+                freeTotal += free[w];
+            }
+            int needed = template.blocksNeeded(courses.get(c).getWorkloadHours());
+            int fits = (int) Math.min(needed, freeTotal);
+            share[c] = apportion(fits, free);
+            // Overbooked rest: spread over raw capacity, for the repair pass to settle
+            int[] rest = apportion(needed - fits, capacity);
+            for (int w = 0; w < windows; w++) {
+                share[c][w] += rest[w];
+                left[w] = Math.max(0, left[w] - share[c][w]);
+            }
+        }
+        return share;
+    }
+
+    /**
+     * Split {@code count} blocks over the windows in proportion to their capacity; the
+     * largest remainders (earlier window on ties) get the blocks rounding leaves over
+     */
+    static int[] apportion(int count, long[] capacity) {
+        int[] shares = new int[capacity.length];
+        long total = Arrays.stream(capacity).sum();
+        if (count <= 0 || total <= 0) {
+            return shares;
+        }
+        double[] remainder = new double[capacity.length];
+        int assigned = 0;
+        for (int w = 0; w < capacity.length; w++) {
+            double exact = (double) count * capacity[w] / total;
+            shares[w] = (int) Math.floor(exact);
+            remainder[w] = exact - shares[w];
+            assigned += shares[w];
+        }
+        Integer[] order = new Integer[capacity.length];
+        for (int w = 0; w < order.length; w++) {
+            order[w] = w;
+        }
+        Arrays.sort(order, (a, b) -> remainder[a] != remainder[b]
+                ? Double.compare(remainder[b], remainder[a]) : Integer.compare(a, b));
+        for (int i = 0; assigned < count; i = (i + 1) % order.length) {
+            if (capacity[order[i]] > 0) {
+                shares[order[i]]++;
+                assigned++;
+            }
+        }
+        return shares;
+    }
+
+    /**
+     * Plan of one window: its days' capacities and busy intervals, and the courses with
+     * blocks in it
+     */
+    static PlanSpec windowPlan(PlanSpec planSpec, List<PlanSpec.CourseSpec> courses, int[] blocks,
+                               LocalDate from, LocalDate to, SlotTemplate template) {
+        PlanSpec windowPlan = new PlanSpec(planSpec.getPlanName());
+        windowPlan.setStartDate(from);
+        windowPlan.setEndDate(to);
+        windowPlan.setRules(planSpec.getRules().copy());
+        if (planSpec.getSoftPrefs() != null) {
+            windowPlan.setSoftPrefs(planSpec.getSoftPrefs().copy());
+        }
+        Map<LocalDate, Double> availability = new TreeMap<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            double hours = planSpec.getAvailability(date);
+            if (hours > 0) {
+                availability.put(date, hours);
+            }
+        }
+        windowPlan.setAvailability(availability);
+        List<PlanSpec.BusyInterval> busy = new ArrayList<>();
+        for (PlanSpec.BusyInterval interval : planSpec.getBusyIntervals()) {
+            if (!interval.getStartDate().isAfter(to) && !interval.getEndDate().isBefore(from)) {
+                PlanSpec.BusyInterval clipped = interval.copy();
+                clipped.setStartDate(interval.getStartDate().isBefore(from) ? from : interval.getStartDate());
+                clipped.setEndDate(interval.getEndDate().isAfter(to) ? to : interval.getEndDate());
+                busy.add(clipped);
+            }
+        }
+        windowPlan.setBusyIntervals(busy);
+        for (int c = 0; c < courses.size(); c++) {
+            if (blocks[c] == 0) {
+                continue;
+            }
+            PlanSpec.CourseSpec course = courses.get(c);
+            PlanSpec.CourseSpec part = new PlanSpec.CourseSpec(course.getId(), course.getPriority(),
+                    blocks[c] * template.getBlockHours());
+            if (course.getExamDate() != null && !course.getExamDate().isAfter(to)) {
+                part.setExamDate(course.getExamDate());
+            }
+            windowPlan.addCourse(part);
+        }
+        return windowPlan;
+    }
+
+    /**
+     * Place up to {@code count} blocks of a course on free days [from, to), earliest
+     * first; returns the number placed
+     */
+    static int carry(PlanSpec.CourseSpec course, int from, int to, int count, NextFreeDay free,
+                             SlotTemplate template, LocalDate startDate, List<Schedule.ScheduledBlock> blocks) {
+        int moved = 0;
+        for (int d = free.find(from); d < to && moved < count; d = free.find(d + 1)) {
+            while (moved < count && free.remaining(d) > 0) {
+                int position = free.take(d);
+                LocalDate date = startDate.plusDays(d);
+                String start = template.startTime(date, position);
+                String end = template.endTime(date, position);
+                Schedule.ScheduledBlock block = new Schedule.ScheduledBlock(
+                        course.getId(), date, start, end, template.getBlockMinutes());
+                block.setCourseName(course.getId());
+                block.setPriority(course.getPriority());
+                block.setDeadline(course.getExamDate());
+                block.setReason(String.format("Carried over %s (Priority: %s) from a full window to %s %s-%s",
+                        course.getId(), course.getPriority(), date, start, end));
+                blocks.add(block);
+                moved++;
+            }
+        }
+        return moved;
+    }
+}
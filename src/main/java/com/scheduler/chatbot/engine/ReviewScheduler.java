@@ -0,0 +1,212 @@
+package com.scheduler.chatbot.engine;
+
+import com.scheduler.chatbot.model.BlockStatus;
+import com.scheduler.chatbot.model.PlanSpec;
+import com.scheduler.chatbot.model.Schedule;
+import com.scheduler.chatbot.model.SlotTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * Spaced-repetition reviews after study days
+ *
+ * Every day a course is studied starts a chain of short reviews of that course at the
+ * rules' review intervals (e.g. 1, 3, 7 and 14 days later). Pending reviews wait in a
+ * priority queue keyed by epoch day and are placed earliest-due first: each goes to the
+ * first day from its due day that still has room, found with the engines' capacity index
+ * (NextFreeDay), so a review costs O(log n) however long the plan. A review may slip by
+ * up to half its interval, never to or past the course's exam, and the next stage is
+ * counted from the day it actually lands.
+ *
+ * Reviews only use what study leaves over: the free positions of a day that its
+ * available hours still allow, each split into block / review length review slots.
+ * Study blocks are never moved. A course is reviewed at most once a day and not on days
+ * it is studied, so chains that meet on a day merge.
+ */
+public class ReviewScheduler {
+
+    /**
+     * Reviews for the study blocks among {@code blocks}, on days from {@code from} through
+     * {@code to}; {@code blocks} (study and reviews already kept) hold their positions
+     */
+    public Result schedule(PlanSpec planSpec, Collection<Schedule.ScheduledBlock> blocks,
+                           LocalDate from, LocalDate to) {
+        PlanSpec.SchedulingRules rules = planSpec.getRules();
+        Result result = new Result();
+        if (!rules.hasReviews() || from.isAfter(to)) {
+            return result;
+        }
+        int[] intervals = rules.getReviewIntervals().stream().mapToInt(Integer::intValue).toArray();
+        SlotTemplate template = SlotTemplate.of(planSpec);
+        int reviewMinutes = rules.getReviewDurationMinutes();
+        int perBlock = Math.max(1, template.getBlockMinutes() / reviewMinutes);
+        long first = from.toEpochDay();
+        int days = (int) (to.toEpochDay() - first + 1);
+
+        // Courses with blocks, in first-seen order
+        Map<String, Integer> index = new LinkedHashMap<>();
+        Map<String, Schedule.ScheduledBlock> sources = new HashMap<>();
+        for (Schedule.ScheduledBlock block : blocks) {
+            if (block.getStatus() != BlockStatus.MISSED && !index.containsKey(block.getCourseId())) {
+                index.put(block.getCourseId(), index.size());
+                sources.put(block.getCourseId(), block);
+            }
+        }
+        int courseCount = index.size();
+        if (courseCount == 0) {
+            return result;
+        }
+
+        // Positions held per day; (day, course) keys of days each course is studied or reviewed
+        Map<Long, Set<Integer>> held = new HashMap<>();
+        Set<Long> covered = new HashSet<>();
+        Set<Long> studied = new HashSet<>();
+        for (Schedule.ScheduledBlock block : blocks) {
+            long day = block.getDate().toEpochDay();
+            if (day >= first && day < first + days) {
+                int p = template.positionAt(LocalTime.parse(block.getStartTime()).toSecondOfDay() / 60);
+                held.computeIfAbsent(day, d -> new HashSet<>()).add(p);
+            }
+            if (block.getStatus() != BlockStatus.MISSED) {
+                long key = day * courseCount + index.get(block.getCourseId());
+                covered.add(key);
+                if (!block.isReview()) {
+                    studied.add(key);
+                }
+            }
+        }
+
+        // Review slots left on each day
+        int[][] free = new int[days][];
+        int[] slots = new int[days];
+        for (int d = 0; d < days; d++) {
+            LocalDate date = from.plusDays(d);
+            Set<Integer> taken = held.getOrDefault(first + d, Set.of());
+            int open = template.blocksFor(date, planSpec.getAvailability(date)) - taken.size();
+            int[] positions = template.positions(date);
+            int[] left = new int[Math.max(0, Math.min(open, positions.length))];
+            int count = 0;
+            for (int n = 0; n < positions.length && count < left.length; n++) {
+                if (!taken.contains(positions[n])) {
+                    left[count++] = positions[n];
+                }
+            }
+            free[d] = count == left.length ? left : Arrays.copyOf(left, count);
+            slots[d] = count * perBlock;
+        }
+        NextFreeDay capacity = new NextFreeDay(slots);
+
+        // Earliest due first; same day: higher priority, then course id
+        PriorityQueue<Pending> queue = new PriorityQueue<>(Comparator.comparingLong((Pending p) -> p.due)
+                .thenComparingInt(p -> -p.priority)
+                .thenComparing(p -> p.courseId)
+                .thenComparingInt(p -> p.stage));
+        List<String> ids = new ArrayList<>(index.keySet());
+        long[] lastDay = new long[courseCount];
+        for (int c = 0; c < courseCount; c++) {
+            PlanSpec.CourseSpec course = planSpec.getCourse(ids.get(c));
+            lastDay[c] = to.toEpochDay();
+            if (course != null && course.getExamDate() != null) {
+                lastDay[c] = Math.min(lastDay[c], course.getExamDate().toEpochDay() - 1);
+            }
+        }
+        for (long key : studied) {
+            int course = (int) (key % courseCount);
+            offer(queue, sources.get(ids.get(course)), course, key / courseCount + intervals[0], 0, lastDay[course]);
+        }
+
+        while (!queue.isEmpty()) {
+            Pending review = queue.poll();
+            long last = lastDay[review.course];
+            long latest = Math.min(review.due + intervals[review.stage] / 2, last);
+            long landed = review.due;
+            if (latest >= first) {
+                int d = capacity.find((int) Math.max(0, review.due - first));
+                long day = first + d;
+                if (d >= days || day > latest) {
+                    result.unplaced++;
+                } else if (!covered.add(day * courseCount + review.course)) {
+                    result.merged++;
+                    landed = day;
+                } else {
+                    int slot = capacity.take(d);
+                    int start = template.startMinute(free[d][slot / perBlock]) + (slot % perBlock) * reviewMinutes;
+                    result.reviews.add(reviewBlock(review, LocalDate.ofEpochDay(day), start, reviewMinutes,
+                            intervals.length));
+                    landed = day;
+                }
+            }
+            int next = review.stage + 1;
+            if (next < intervals.length) {
+                offer(queue, review.source, review.course, landed + intervals[next] - intervals[review.stage],
+                        next, last);
+            }
+        }
+        result.reviews.sort(Comparator.comparing(Schedule.ScheduledBlock::getDate)
+                .thenComparing(Schedule.ScheduledBlock::getStartTime));
+        return result;
+    }
+
+    private static void offer(PriorityQueue<Pending> queue, Schedule.ScheduledBlock source, int course,
+                              long due, int stage, long last) {
+        if (due <= last) {
+            queue.add(new Pending(source, course, due, stage));
+        }
+    }
+
+    private static Schedule.ScheduledBlock reviewBlock(Pending review, LocalDate date, int startMinute,
+                                                       int minutes, int stages) {
+        LocalTime start = LocalTime.MIDNIGHT.plusMinutes(startMinute);
+        Schedule.ScheduledBlock block = new Schedule.ScheduledBlock(review.courseId, date,
+                start.toString(), start.plusMinutes(minutes).toString(), minutes);
+        block.setCourseName(review.source.getCourseName());
+        block.setPriority(review.source.getPriority());
+        block.setReview(true);
+        block.setReason("Review " + (review.stage + 1) + " of " + stages);
+        return block;
+    }
+
+    /**
+     * A review waiting for its due day
+     */
+    private static final class Pending {
+        final Schedule.ScheduledBlock source;
+        final String courseId;
+        final int course;
+        final int priority;
+        final long due;
+        final int stage;
+
+        Pending(Schedule.ScheduledBlock source, int course, long due, int stage) {
+            this.source = source;
+            this.courseId = source.getCourseId();
+            this.course = course;
+            this.priority = source.getPriority() != null ? source.getPriority().ordinal() : 0;
+            this.due = due;
+            this.stage = stage;
+        }
+    }
+
+    /**
+     * Placed review blocks, with the reviews that merged into another or found no room
+     */
+    public static class Result {
+        private final List<Schedule.ScheduledBlock> reviews = new ArrayList<>();
+        private int merged;
+        private int unplaced;
+
+        public List<Schedule.ScheduledBlock> getReviews() {
+            return reviews;
+        }
+
+        public int getMerged() {
+            return merged;
+        }
+
+        public int getUnplaced() {
+            return unplaced;
+        }
+    }
+}
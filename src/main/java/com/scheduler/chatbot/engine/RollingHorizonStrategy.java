@@ -0,0 +1,291 @@
+package com.scheduler.chatbot.engine;
+
+import com.scheduler.chatbot.model.*;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Rolling horizon: hour budgets for the whole period, blocks only for the next days
+ *
+ * 1. The calendar is cut into windows (a week by default) and each course's blocks are
+ *    shared out over them as in the partitioned engine, earliest exam first
+ * 2. The budgets are stored with the schedule (Schedule.RollingHorizon); only the windows
+ *    covering the first eagerDays days are materialized as blocks
+ * 3. expand() materializes later windows in order when they are queried or the date
+ *    advances: each window is generated by the inner engine from its budget plus what
+ *    the window before it could not place, so a window's blocks do not depend on when it
+ *    was expanded, and the budgets still add up to each course's workload
+ *
+ * Generation time and the stored schedule grow with the eager window, not the period.
+ */
+public class RollingHorizonStrategy extends AbstractSchedulingStrategy {
+
+    public static final String NAME = "rolling";
+    public static final Period DEFAULT_WINDOW = Period.ofWeeks(1);
+    public static final int DEFAULT_EAGER_DAYS = 14;
+
+    private final SchedulingStrategy inner;
+    private final Period window;
+    private final int eagerDays;
+
+    public RollingHorizonStrategy() {
+        this(new GreedyFrontLoadStrategy(), DEFAULT_WINDOW, DEFAULT_EAGER_DAYS);
+    }
+
+    public RollingHorizonStrategy(SchedulingStrategy inner, Period window, int eagerDays) {
+        if (window.isZero() || window.isNegative()) {
+            throw new IllegalArgumentException("Window must be a positive period");
+        }
+        if (eagerDays < 1) {
+            throw new IllegalArgumentException("Eager days must be at least 1");
+        }
+        this.inner = inner;
+        this.window = window;
+        this.eagerDays = eagerDays;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Hour budgets per " + window + " window; blocks for the next " + eagerDays
+                + " days by '" + inner.getName() + "', later windows on demand";
+    }
+
+    @Override
+    public Schedule generate(PlanSpec planSpec, PlanSpec.ValidationResult validation) {
+        LocalDate startDate = validation.getStartDate();
+        LocalDate endDate = validation.getEndDate();
+        int days = (int) ChronoUnit.DAYS.between(startDate, endDate) + 1;
+
+        SlotTemplate template = SlotTemplate.of(planSpec);
+        long[] prefix = new long[days + 1];
+        for (int d = 0; d < days; d++) {
+            LocalDate date = startDate.plusDays(d);
+            prefix[d + 1] = prefix[d] + template.blocksFor(date, planSpec.getAvailability(date));
+        }
+        int[] bounds = PartitionedStrategy.windowBounds(startDate, endDate, window);
+        int windows = bounds.length - 1;
+
+        List<PlanSpec.CourseSpec> courses = sortByPriority(planSpec);
+        int[] horizon = new int[courses.size()];
+        for (int c = 0; c < courses.size(); c++) {
+            horizon[c] = PartitionedStrategy.horizon(courses.get(c), startDate, days);
+        }
+        int[][] share = PartitionedStrategy.shareOut(courses, horizon, bounds, prefix, template);
+
+        Schedule.RollingHorizon rolling = new Schedule.RollingHorizon();
+        for (int w = 0; w < windows; w++) {
+            Schedule.WindowBudget budget = new Schedule.WindowBudget(startDate.plusDays(bounds[w]),
+                    startDate.plusDays(bounds[w + 1] - 1));
+            for (int c = 0; c < courses.size(); c++) {
+                if (share[c][w] > 0) {
+                    budget.getBlocks().put(courses.get(c).getId(), share[c][w]);
+                }
+            }
+            rolling.getWindows().add(budget);
+        }
+
+        Schedule schedule = new Schedule(planSpec.getPlanName(), startDate, endDate);
+        schedule.setRollingHorizon(rolling);
+        schedule.addExplanation("═══ SCHEDULING ALGORITHM START ═══");
+        schedule.addExplanation("Total courses: " + courses.size());
+        schedule.addExplanation("Windows: " + windows + " of " + window + ", blocks for the next "
+                + eagerDays + " days by '" + inner.getName() + "'");
+        schedule.addExplanation("Day layout: " + template);
+        schedule.addExplanation("");
+        schedule.addExplanation("═══ BUDGETS ═══");
+        for (int c = 0; c < courses.size(); c++) {
+            int total = Arrays.stream(share[c]).sum();
+            schedule.addExplanation(String.format("  %s: %d block(s) over %d window(s)", courses.get(c).getId(),
+                    total, Arrays.stream(share[c]).filter(s -> s > 0).count()));
+        }
+        schedule.addExplanation("");
+        schedule.addExplanation("═══ ROLLING HORIZON ═══");
+
+        expand(schedule, planSpec, startDate.plusDays(eagerDays - 1));
+        return schedule;
+    }
+
+    /**
+     * Materialize the windows of a rolling schedule that start on or before {@code through};
+     * windows already materialized are left as they are. The plan must be the one the
+     * schedule was generated from.
+     */
+    public Schedule expand(Schedule schedule, PlanSpec planSpec, LocalDate through) {
+        synchronized (schedule) {
+            Schedule.RollingHorizon rolling = schedule.getRollingHorizon();
+            if (rolling == null || rolling.isComplete()
+                    || rolling.getWindows().get(rolling.getNextWindow()).getStartDate().isAfter(through)) {
+                return schedule;
+            }
+            SlotTemplate template = SlotTemplate.of(planSpec);
+            List<PlanSpec.CourseSpec> courses = sortByPriority(planSpec);
+            List<Schedule.ScheduledBlock> blocks = new ArrayList<>();
+            while (!rolling.isComplete()
+                    && !rolling.getWindows().get(rolling.getNextWindow()).getStartDate().isAfter(through)) {
+                materialize(schedule, planSpec, courses, template, blocks);
+            }
+            blocks.sort(PartitionedStrategy.CHRONOLOGICAL);
+            schedule.addBlocks(blocks);
+
+            Map<String, Double> scheduledByCourse = new HashMap<>();
+            for (Schedule.ScheduledBlock block : schedule.getBlocks()) {
+                scheduledByCourse.merge(block.getCourseId(), block.getDurationHours(), Double::sum);
+            }
+            Map<String, Double> remainingHours = new HashMap<>();
+            for (PlanSpec.CourseSpec course : courses) {
+                double pending = rolling.pendingBlocks(course.getId()) * template.getBlockHours();
+                remainingHours.put(course.getId(), Math.max(0, course.getWorkloadHours()
+                        - scheduledByCourse.getOrDefault(course.getId(), 0.0) - pending));
+            }
+            schedule.addExplanation("Materialized through " + rolling.getMaterializedThrough()
+                    + (rolling.isComplete() ? " (whole period)" : ""));
+            if (rolling.isComplete()) {
+                handleShortfall(schedule, remainingHours, courses);
+            }
+            calculateScore(schedule, planSpec, remainingHours);
+            schedule.addMetadata("materializedThrough", rolling.getMaterializedThrough().toString());
+            return schedule;
+        }
+    }
+
+    /**
+     * Generate the next window from its budget plus the carry, keep blocks up to that many
+     * before each exam, and carry the rest to the following window if it starts before the exam
+     */
+    private void materialize(Schedule schedule, PlanSpec planSpec, List<PlanSpec.CourseSpec> courses,
+                             SlotTemplate template, List<Schedule.ScheduledBlock> out) {
+        Schedule.RollingHorizon rolling = schedule.getRollingHorizon();
+        int w = rolling.getNextWindow();
+        Schedule.WindowBudget budget = rolling.getWindows().get(w);
+        LocalDate from = budget.getStartDate();
+        LocalDate to = budget.getEndDate();
+
+        int[] target = new int[courses.size()];
+        Map<String, Integer> courseIndex = new HashMap<>();
+        for (int c = 0; c < courses.size(); c++) {
+            String id = courses.get(c).getId();
+            courseIndex.put(id, c);
+            target[c] = budget.getBlocks().getOrDefault(id, 0) + rolling.getCarry().getOrDefault(id, 0);
+        }
+
+        int days = (int) ChronoUnit.DAYS.between(from, to) + 1;
+        int[] dayBlocks = new int[days];
+        for (int d = 0; d < days; d++) {
+            LocalDate date = from.plusDays(d);
+            dayBlocks[d] = template.blocksFor(date, planSpec.getAvailability(date));
+        }
+        int[] used = new int[days];
+        int[] placed = new int[courses.size()];
+        List<Schedule.ScheduledBlock> windowBlocks = new ArrayList<>();
+        PlanSpec windowPlan = PartitionedStrategy.windowPlan(planSpec, courses, target, from, to, template);
+        if (!windowPlan.getCourses().isEmpty()) {
+            PlanSpec.ValidationResult validation = new PlanSpec.ValidationResult(true,
+                    Collections::emptyList, from, to);
+            List<Schedule.ScheduledBlock> generated = new ArrayList<>(inner.generate(windowPlan, validation).getBlocks());
+            generated.sort(PartitionedStrategy.CHRONOLOGICAL);
+            // Relay each day's kept blocks onto the day's free template positions from the top
+            for (Schedule.ScheduledBlock block : generated) {
+                Integer c = courseIndex.get(block.getCourseId());
+                LocalDate exam = c == null ? null : courses.get(c).getExamDate();
+                if (c == null || placed[c] >= target[c] || (exam != null && !block.getDate().isBefore(exam))) {
+                    continue;
+                }
+                placed[c]++;
+                int d = (int) ChronoUnit.DAYS.between(from, block.getDate());
+                Schedule.ScheduledBlock kept = block.copy();
+                kept.setStartTime(template.startTime(kept.getDate(), used[d]));
+                kept.setEndTime(template.endTime(kept.getDate(), used[d]));
+                kept.setDeadline(exam);
+                used[d]++;
+                windowBlocks.add(kept);
+            }
+        }
+
+        // Repair: blocks the inner engine left out go to free days of the window before the
+        // exam; with none left, a block of a course that may wait moves to a later free day
+        int[] horizon = new int[courses.size()];
+        for (int c = 0; c < courses.size(); c++) {
+            horizon[c] = PartitionedStrategy.horizon(courses.get(c), from, days);
+        }
+        NextFreeDay free = new NextFreeDay(dayBlocks, used);
+        for (int c = 0; c < courses.size(); c++) {
+            if (target[c] > placed[c]) {
+                placed[c] += PartitionedStrategy.carry(courses.get(c), 0, horizon[c], target[c] - placed[c],
+                        free, template, from, windowBlocks);
+            }
+            while (target[c] > placed[c] && free.find(horizon[c]) < days
+                    && swap(courses.get(c), horizon[c], free.find(horizon[c]), free, from, template,
+                            courseIndex, horizon, windowBlocks)) {
+                placed[c]++;
+            }
+        }
+        out.addAll(windowBlocks);
+
+        Map<String, Integer> carry = new HashMap<>();
+        LocalDate nextStart = w + 1 < rolling.getWindows().size() ? rolling.getWindows().get(w + 1).getStartDate() : null;
+        int kept = 0;
+        int wanted = 0;
+        for (int c = 0; c < courses.size(); c++) {
+            PlanSpec.CourseSpec course = courses.get(c);
+            int missing = target[c] - placed[c];
+            kept += placed[c];
+            wanted += target[c];
+            if (missing <= 0) {
+                continue;
+            }
+            if (nextStart != null && (course.getExamDate() == null || nextStart.isBefore(course.getExamDate()))) {
+                carry.put(course.getId(), missing);
+            } else {
+                schedule.addExplanation("  " + course.getId() + ": " + missing
+                        + " block(s) could not be placed before " + (nextStart == null ? "the end" : "the exam"));
+            }
+        }
+        schedule.addExplanation(String.format("%s to %s: %d/%d blocks placed, %d carried over",
+                from, to, kept, wanted, carry.values().stream().mapToInt(Integer::intValue).sum()));
+        rolling.setCarry(carry);
+        rolling.setNextWindow(w + 1);
+    }
+
+    /**
+     * Give the latest slot before day {@code before} held by a course that may still use
+     * day {@code freeDay} to {@code course}, moving that block to {@code freeDay}
+     */
+    private static boolean swap(PlanSpec.CourseSpec course, int before, int freeDay, NextFreeDay free,
+                                LocalDate from, SlotTemplate template, Map<String, Integer> courseIndex,
+                                int[] horizon, List<Schedule.ScheduledBlock> windowBlocks) {
+        Schedule.ScheduledBlock moved = null;
+        for (Schedule.ScheduledBlock block : windowBlocks) {
+            Integer o = courseIndex.get(block.getCourseId());
+            int d = (int) ChronoUnit.DAYS.between(from, block.getDate());
+            if (d < before && horizon[o] > freeDay && !block.getCourseId().equals(course.getId())
+                    && (moved == null || PartitionedStrategy.CHRONOLOGICAL.compare(block, moved) > 0)) {
+                moved = block;
+            }
+        }
+        if (moved == null) {
+            return false;
+        }
+        Schedule.ScheduledBlock taken = moved.copy();
+        taken.setCourseId(course.getId());
+        taken.setCourseName(course.getId());
+        taken.setPriority(course.getPriority());
+        taken.setDeadline(course.getExamDate());
+        taken.setReason(String.format("Scheduled %s (Priority: %s) before its exam on %s %s-%s",
+                course.getId(), course.getPriority(), taken.getDate(), taken.getStartTime(), taken.getEndTime()));
+        windowBlocks.add(taken);
+
+        int position = free.take(freeDay);
+        moved.setDate(from.plusDays(freeDay));
+        moved.setStartTime(template.startTime(moved.getDate(), position));
+        moved.setEndTime(template.endTime(moved.getDate(), position));
+        return true;
+    }
+}
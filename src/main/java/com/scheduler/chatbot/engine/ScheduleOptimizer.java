@@ -0,0 +1,515 @@
+package com.scheduler.chatbot.engine;
+
+import com.scheduler.chatbot.model.PlanSpec;
+import com.scheduler.chatbot.model.Schedule;
+import com.scheduler.chatbot.model.SlotTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Simulated annealing over the blocks of a generated schedule
+ *
+ * Optimizes the score Schedule.recalculateScore reports (spreadness, buffer and interleave,
+ * averaged) with blocks read in chronological order, each term weighted by the plan's
+ * SoftPreferences (equal weights by default). Each day is a row of the positions of
+ * the plan's SlotTemplate that its busy intervals leave free, as the engines lay it out;
+ * a day holds as many blocks as the template allows for its capacity. Two operators:
+ * - move: take a block to another day (or another position on its day)
+ * - swap: exchange two blocks of different courses
+ * Blocks stay in the half of the calendar they were placed in, so the priority front-load
+ * split is kept. Every operator updates the score terms in O(1) (plus a scan over empty days
+ * for the neighbouring block), and rejected steps are undone the same way.
+ *
+ * Independent chains with seeds seed, seed+1, ... run on a ForkJoinPool (a single chain runs
+ * on the calling thread); the best result
+ * wins, ties to the lower chain. The annealing schedule depends on the iteration count only,
+ * so a given seed gives the same schedule whenever the iteration budget finishes inside the
+ * time budget. When time runs out first, each chain returns the best schedule it has seen.
+ */
+public class ScheduleOptimizer {
+
+    private static final double START_TEMPERATURE = 2.0;
+    private static final double END_TEMPERATURE = 0.01;
+    private static final int TIME_CHECK_INTERVAL = 1024;
+
+    private final long timeBudgetMillis;
+    private final long maxIterations;
+    private final int chains;
+    private final long seed;
+    private final ForkJoinPool pool;
+
+    public ScheduleOptimizer() {
+        this(500, 200_000, Math.min(4, Runtime.getRuntime().availableProcessors()), 42L);
+    }
+
+    public ScheduleOptimizer(long timeBudgetMillis, long maxIterations, int chains, long seed) {
+        this(timeBudgetMillis, maxIterations, chains, seed, ForkJoinPool.commonPool());
+    }
+
+    public ScheduleOptimizer(long timeBudgetMillis, long maxIterations, int chains, long seed, ForkJoinPool pool) {
+        if (timeBudgetMillis <= 0 || maxIterations < 0 || chains < 1) {
+            throw new IllegalArgumentException("Time budget and chains must be positive");
+        }
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.maxIterations = maxIterations;
+        this.chains = chains;
+        this.seed = seed;
+        this.pool = pool;
+    }
+
+    /**
+     * Improved copy of the schedule; the input is left untouched. Returns the input when
+     * its blocks do not fit the plan's slot template (other block lengths, more blocks on
+     * a day than positions) or there is nothing to move.
+     */
+    public Schedule optimize(Schedule initial, PlanSpec planSpec) {
+        return optimize(initial, planSpec, planSpec.getSoftPrefs() != null
+                ? planSpec.getSoftPrefs() : new PlanSpec.SoftPreferences());
+    }
+
+    /**
+     * Same as optimize(initial, planSpec), weighting the score terms by the given
+     * preferences instead of the plan's
+     */
+    public Schedule optimize(Schedule initial, PlanSpec planSpec, PlanSpec.SoftPreferences prefs) {
+        Layout layout = Layout.of(initial, planSpec, prefs.effectiveWeights());
+        if (layout == null) {
+            return initial;
+        }
+        double initialScore = new Chain(layout, 0).score();
+
+        long deadline = System.nanoTime() + timeBudgetMillis * 1_000_000L;
+        Chain best = null;
+        long iterations = 0;
+        if (chains == 1) {
+            best = new Chain(layout, seed);
+            best.anneal(maxIterations, deadline);
+            iterations = best.iterations;
+        } else {
+            List<Callable<Chain>> tasks = new ArrayList<>();
+            for (int i = 0; i < chains; i++) {
+                long chainSeed = seed + i;
+                tasks.add(() -> {
+                    Chain chain = new Chain(layout, chainSeed);
+                    chain.anneal(maxIterations, deadline);
+                    return chain;
+                });
+            }
+            try {
+                for (Future<Chain> future : pool.invokeAll(tasks)) {
+                    Chain chain = future.get();
+                    iterations += chain.iterations;
+                    if (best == null || chain.bestScore > best.bestScore + 1e-9) {
+                        best = chain;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return initial;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Schedule optimization failed", e.getCause());
+            }
+        }
+
+        Schedule optimized = layout.toSchedule(initial, best.bestSlots, best.bestCounts);
+        optimized.setScoreWeights(prefs);
+        Schedule.ScheduleScore score = optimized.getScore();
+        optimized.addExplanation("");
+        optimized.addExplanation("═══ LOCAL SEARCH ═══");
+        optimized.addExplanation("Chains: " + chains + ", iterations: " + iterations + ", seed: " + seed);
+        optimized.addExplanation(String.format("Weights: spreadness %.2f, buffer %.2f, interleave %.2f",
+                layout.weights[0], layout.weights[1], layout.weights[2]));
+        optimized.addExplanation(String.format("Score: %.1f → %.1f (spreadness %.1f, buffer %.1f, interleave %.1f)",
+                initialScore, score.getOverallScore(),
+                score.getSpreadnessScore(), score.getBufferScore(), score.getInterleaveScore()));
+        optimized.addMetadata("initialScore", initialScore);
+        optimized.addMetadata("optimizedScore", optimized.getScore().getOverallScore());
+        optimized.addMetadata("optimizerIterations", iterations);
+        return optimized;
+    }
+
+    /**
+     * Score the optimizer maximizes under equal weights, for any schedule (blocks taken in
+     * chronological order)
+     */
+    public static double evaluate(Schedule schedule) {
+        return objectiveScore(schedule).getOverallScore();
+    }
+
+    /**
+     * Score terms the optimizer works on: Schedule.recalculateScore over the blocks in
+     * chronological order (engines may report other terms for their own schedules)
+     */
+    static Schedule.ScheduleScore objectiveScore(Schedule schedule) {
+        List<Schedule.ScheduledBlock> blocks = new ArrayList<>(schedule.getBlocks());
+        blocks.sort(CHRONOLOGICAL);
+        Schedule sorted = new Schedule(schedule.getPlanName(), schedule.getStartDate(), schedule.getEndDate());
+        sorted.addBlocks(blocks);
+        return sorted.getScore();
+    }
+
+    private static final Comparator<Schedule.ScheduledBlock> CHRONOLOGICAL =
+            Comparator.comparing(Schedule.ScheduledBlock::getDate)
+                    .thenComparing(b -> LocalTime.parse(b.getStartTime()));
+
+    /**
+     * Fixed input of a run: blocks, day capacities and the initial placement
+     */
+    private static final class Layout {
+        private final LocalDate startDate;
+        private final SlotTemplate template;
+        private final int slotMinutes;
+        private final List<Schedule.ScheduledBlock> blocks;
+        private final int[] course;        // block -> course index
+        private final long[] lastGoodDay;  // block -> last day index with buffer before its deadline
+        private final int[] capacity;      // day -> max blocks
+        private final int split;           // first day index of the second half
+        private final int[][] slots;       // day -> blocks in time order
+        private final int[] counts;
+        private final int distinctCourses;
+        private final double[] weights;    // {spreadness, buffer, interleave}, summing to 1
+
+        private Layout(Schedule schedule, List<Schedule.ScheduledBlock> blocks, SlotTemplate template,
+                       int[] capacity, int split, double[] weights) {
+            this.startDate = schedule.getStartDate();
+            this.template = template;
+            this.slotMinutes = template.getBlockMinutes();
+            this.blocks = blocks;
+            this.capacity = capacity;
+            this.split = split;
+            this.course = new int[blocks.size()];
+            this.lastGoodDay = new long[blocks.size()];
+            this.slots = new int[capacity.length][];
+            this.counts = new int[capacity.length];
+            Map<String, Integer> courseIndex = new HashMap<>();
+            for (int b = 0; b < blocks.size(); b++) {
+                Schedule.ScheduledBlock block = blocks.get(b);
+                course[b] = courseIndex.computeIfAbsent(block.getCourseId(), id -> courseIndex.size());
+                // buffer means date < deadline - 1
+                lastGoodDay[b] = block.getDeadline() == null
+                        ? Long.MAX_VALUE
+                        : ChronoUnit.DAYS.between(startDate, block.getDeadline()) - 2;
+            }
+            this.distinctCourses = courseIndex.size();
+            double total = weights[0] + weights[1] + weights[2];
+            this.weights = total > 0
+                    ? new double[] {weights[0] / total, weights[1] / total, weights[2] / total}
+                    : new double[] {1 / 3.0, 1 / 3.0, 1 / 3.0};
+            for (int d = 0; d < capacity.length; d++) {
+                slots[d] = new int[capacity[d]];
+            }
+            for (int b = 0; b < blocks.size(); b++) {
+                int day = (int) ChronoUnit.DAYS.between(startDate, blocks.get(b).getDate());
+                slots[day][counts[day]++] = b;
+            }
+        }
+
+        static Layout of(Schedule schedule, PlanSpec planSpec, double[] weights) {
+            if (schedule.getBlocks().size() < 2 || schedule.getStartDate() == null || schedule.getEndDate() == null) {
+                return null;
+            }
+            List<Schedule.ScheduledBlock> blocks = new ArrayList<>(schedule.getBlocks());
+            blocks.sort(CHRONOLOGICAL);
+            SlotTemplate template = SlotTemplate.of(planSpec);
+            int slotMinutes = template.getBlockMinutes();
+            int days = (int) ChronoUnit.DAYS.between(schedule.getStartDate(), schedule.getEndDate()) + 1;
+            int[] used = new int[days];
+            for (Schedule.ScheduledBlock block : blocks) {
+                long day = ChronoUnit.DAYS.between(schedule.getStartDate(), block.getDate());
+                if (block.getDurationMinutes() != slotMinutes || day < 0 || day >= days) {
+                    return null;
+                }
+                if (++used[(int) day] > template.positions(block.getDate()).length) {
+                    return null;
+                }
+            }
+            int[] capacity = new int[days];
+            for (int d = 0; d < days; d++) {
+                LocalDate date = schedule.getStartDate().plusDays(d);
+                capacity[d] = Math.max(used[d], template.blocksFor(date, planSpec.getAvailability(date)));
+            }
+            // Same split as the greedy engine
+            return new Layout(schedule, blocks, template, capacity,
+                    AbstractSchedulingStrategy.planSplitIndex(planSpec, schedule.getStartDate(), days), weights);
+        }
+
+        Schedule toSchedule(Schedule initial, int[][] slots, int[] counts) {
+            Schedule schedule = new Schedule(initial.getPlanName(), initial.getStartDate(), initial.getEndDate());
+            schedule.setPlanFingerprint(initial.getPlanFingerprint());
+            schedule.addExplanations(initial.getExplanations());
+            initial.getMetadata().forEach(schedule::addMetadata);
+
+            List<Schedule.ScheduledBlock> placed = new ArrayList<>(this.blocks.size());
+            for (int d = 0; d < slots.length; d++) {
+                LocalDate date = startDate.plusDays(d);
+                for (int p = 0; p < counts[d]; p++) {
+                    Schedule.ScheduledBlock source = this.blocks.get(slots[d][p]);
+                    String start = template.startTime(date, p);
+                    String end = template.endTime(date, p);
+                    Schedule.ScheduledBlock block = source.copy();
+                    block.setDate(date);
+                    block.setStartTime(start);
+                    block.setEndTime(end);
+                    if (!date.equals(source.getDate()) || !start.equals(source.getStartTime())) {
+                        block.setReason(String.format("Local search placed %s (Priority: %s) at %s %s-%s",
+                                block.getCourseId(), block.getPriority(), date, start, end));
+                    }
+                    placed.add(block);
+                }
+            }
+            // Chronological order, so recalculateScore sees the optimized interleaving
+            schedule.addBlocks(placed);
+            return schedule;
+        }
+    }
+
+    /**
+     * One annealing run with its own copy of the placement and score terms
+     */
+    private static final class Chain {
+        private final Layout layout;
+        private final Random random;
+        private final int[][] slots;
+        private final int[] counts;
+        private final int[] blockDay;
+
+        // Score terms, updated in O(1) per change
+        private int usedDays;
+        private double sumHours;
+        private double sumSquares;
+        private int buffered;
+        private int transitions;
+
+        private int[][] bestSlots;
+        private int[] bestCounts;
+        private double bestScore;
+        private long iterations;
+
+        Chain(Layout layout, long seed) {
+            this.layout = layout;
+            this.random = new Random(seed);
+            this.slots = new int[layout.slots.length][];
+            this.counts = layout.counts.clone();
+            this.blockDay = new int[layout.blocks.size()];
+            double hoursPerSlot = layout.slotMinutes / 60.0;
+            int previous = -1;
+            for (int d = 0; d < slots.length; d++) {
+                slots[d] = layout.slots[d].clone();
+                if (counts[d] > 0) {
+                    usedDays++;
+                    sumHours += counts[d] * hoursPerSlot;
+                    sumSquares += Math.pow(counts[d] * hoursPerSlot, 2);
+                }
+                for (int p = 0; p < counts[d]; p++) {
+                    int b = slots[d][p];
+                    blockDay[b] = d;
+                    buffered += buffer(b, d);
+                    transitions += differ(previous, b);
+                    previous = b;
+                }
+            }
+            keepBest();
+        }
+
+        double score() {
+            int n = blockDay.length;
+            double spreadness;
+            if (usedDays <= 1) {
+                spreadness = 50.0;
+            } else {
+                double mean = sumHours / usedDays;
+                double stdDev = Math.sqrt(Math.max(0, sumSquares / usedDays - mean * mean));
+                spreadness = Math.min(100, Math.max(0, 100 - stdDev * 25));
+            }
+            double bufferScore = buffered * 100.0 / n;
+            double interleave = n <= 1 || layout.distinctCourses <= 1
+                    ? 50.0
+                    : Math.min(100, transitions * 100.0 / (n - 1));
+            return layout.weights[0] * spreadness + layout.weights[1] * bufferScore
+                    + layout.weights[2] * interleave;
+        }
+
+        void anneal(long maxIterations, long deadline) {
+            double current = score();
+            double cooling = maxIterations > 1
+                    ? Math.log(END_TEMPERATURE / START_TEMPERATURE) / (maxIterations - 1)
+                    : 0;
+            for (long i = 0; i < maxIterations; i++) {
+                if (i % TIME_CHECK_INTERVAL == 0 && System.nanoTime() > deadline) {
+                    break;
+                }
+                iterations++;
+                double temperature = START_TEMPERATURE * Math.exp(cooling * i);
+                boolean swap = random.nextBoolean();
+                int[] undo = swap ? trySwap() : tryMove();
+                if (undo == null) {
+                    continue;
+                }
+                double next = score();
+                double delta = next - current;
+                if (delta >= 0 || random.nextDouble() < Math.exp(delta / temperature)) {
+                    current = next;
+                    if (current > bestScore + 1e-9) {
+                        keepBest();
+                    }
+                } else if (swap) {
+                    swap(undo[0], undo[1], undo[2], undo[3]);
+                } else {
+                    insert(undo[0], undo[1], remove(undo[2], undo[3]));
+                }
+            }
+        }
+
+        /**
+         * Move a random block to a random position in its half; returns {fromDay, fromPos, toDay, toPos}
+         */
+        private int[] tryMove() {
+            int b = random.nextInt(blockDay.length);
+            int from = blockDay[b];
+            int fromPos = position(b, from);
+            int lo = from < layout.split ? 0 : layout.split;
+            int hi = from < layout.split ? layout.split : slots.length;
+            int to = lo + random.nextInt(hi - lo);
+            if (to != from && counts[to] >= slots[to].length) {
+                return null;
+            }
+            remove(from, fromPos);
+            int toPos = random.nextInt(counts[to] + 1);
+            insert(to, toPos, b);
+            return new int[] {from, fromPos, to, toPos};
+        }
+
+        /**
+         * Swap two random blocks of different courses in the same half; returns their places
+         */
+        private int[] trySwap() {
+            int a = random.nextInt(blockDay.length);
+            int b = random.nextInt(blockDay.length);
+            int dayA = blockDay[a];
+            int dayB = blockDay[b];
+            if (layout.course[a] == layout.course[b] || (dayA < layout.split) != (dayB < layout.split)) {
+                return null;
+            }
+            int posA = position(a, dayA);
+            int posB = position(b, dayB);
+            swap(dayA, posA, dayB, posB);
+            return new int[] {dayA, posA, dayB, posB};
+        }
+
+        private void swap(int dayA, int posA, int dayB, int posB) {
+            int a = slots[dayA][posA];
+            int b = slots[dayB][posB];
+            replace(dayA, posA, b);
+            replace(dayB, posB, a);
+        }
+
+        private int remove(int day, int pos) {
+            int b = slots[day][pos];
+            int prev = previous(day, pos);
+            int next = next(day, pos + 1);
+            transitions += differ(prev, next) - differ(prev, b) - differ(b, next);
+            buffered -= buffer(b, day);
+            System.arraycopy(slots[day], pos + 1, slots[day], pos, counts[day] - pos - 1);
+            resize(day, -1);
+            return b;
+        }
+
+        private void insert(int day, int pos, int b) {
+            int prev = previous(day, pos);
+            int next = next(day, pos);
+            transitions += differ(prev, b) + differ(b, next) - differ(prev, next);
+            buffered += buffer(b, day);
+            System.arraycopy(slots[day], pos, slots[day], pos + 1, counts[day] - pos);
+            slots[day][pos] = b;
+            blockDay[b] = day;
+            resize(day, 1);
+        }
+
+        private void replace(int day, int pos, int b) {
+            int old = slots[day][pos];
+            int prev = previous(day, pos);
+            int next = next(day, pos + 1);
+            transitions += differ(prev, b) + differ(b, next) - differ(prev, old) - differ(old, next);
+            buffered += buffer(b, day) - buffer(old, day);
+            slots[day][pos] = b;
+            blockDay[b] = day;
+        }
+
+        private void resize(int day, int change) {
+            double hoursPerSlot = layout.slotMinutes / 60.0;
+            double before = counts[day] * hoursPerSlot;
+            counts[day] += change;
+            double after = counts[day] * hoursPerSlot;
+            sumHours += after - before;
+            sumSquares += after * after - before * before;
+            if (before == 0 && after > 0) {
+                usedDays++;
+            } else if (before > 0 && after == 0) {
+                usedDays--;
+            }
+        }
+
+        /**
+         * Block just before position pos of a day in chronological order, -1 if none
+         */
+        private int previous(int day, int pos) {
+            if (pos > 0) {
+                return slots[day][pos - 1];
+            }
+            for (int d = day - 1; d >= 0; d--) {
+                if (counts[d] > 0) {
+                    return slots[d][counts[d] - 1];
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Block at position pos of a day or the first one after it, -1 if none
+         */
+        private int next(int day, int pos) {
+            if (pos < counts[day]) {
+                return slots[day][pos];
+            }
+            for (int d = day + 1; d < slots.length; d++) {
+                if (counts[d] > 0) {
+                    return slots[d][0];
+                }
+            }
+            return -1;
+        }
+
+        private int position(int b, int day) {
+            for (int p = 0; p < counts[day]; p++) {
+                if (slots[day][p] == b) {
+                    return p;
+                }
+            }
+            throw new IllegalStateException("Block " + b + " not found on day " + day);
+        }
+
+        private int differ(int a, int b) {
+            return a >= 0 && b >= 0 && layout.course[a] != layout.course[b] ? 1 : 0;
+        }
+
+        private int buffer(int b, int day) {
+            return day <= layout.lastGoodDay[b] ? 1 : 0;
+        }
+
+        private void keepBest() {
+            bestScore = score();
+            bestCounts = counts.clone();
+            bestSlots = new int[slots.length][];
+            for (int d = 0; d < slots.length; d++) {
+                bestSlots[d] = slots[d].clone();
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.scheduler.chatbot.engine;
+
+import com.scheduler.chatbot.model.PlanSpec;
+import com.scheduler.chatbot.model.Schedule;
+
+/**
+ * Scheduling engine: turns a validated PlanSpec into a Schedule
+ *
+ * Implementations are registered with SchedulerService by name and selected per plan
+ * ("use engine") or per request. The service validates the plan, caches results and
+ * formats output, so an engine only has to place blocks. Every engine must:
+ * - keep blocks inside the validated date range, on available days, without overlaps
+ * - not exceed the daily capacity of any date
+ * - be deterministic and independent of the order courses were added
+ * - report hours it could not place in the explanations
+ */
+public interface SchedulingStrategy {
+
+    /**
+     * Short unique name used in "use engine" and the REST API
+     */
+    String getName();
+
+    /**
+     * One-line description for listings
+     */
+    String getDescription();
+
+    /**
+     * Generate a schedule for a plan that passed validation
+     */
+    Schedule generate(PlanSpec planSpec, PlanSpec.ValidationResult validation);
+
+    /**
+     * Generate a schedule after plan edits, given a schedule this engine produced earlier.
+     * Engines without incremental support regenerate from scratch.
+     */
+    default Schedule regenerate(PlanSpec planSpec, PlanSpec.ValidationResult validation, Schedule previous) {
+        return generate(planSpec, validation);
+    }
+}
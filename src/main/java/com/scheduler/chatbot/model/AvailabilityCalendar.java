@@ -0,0 +1,286 @@
+package com.scheduler.chatbot.model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Availability model for a plan: recurring weekly rules plus per-date overrides
+ *
+ * Rules and overrides are the source of truth. Effective capacities are cached in an
+ * array indexed by epoch day (offset from the first covered date) together with a
+ * Fenwick tree, so that:
+ * - capacity lookup for a date is O(1)
+ * - total capacity is O(1)
+ * - capacity over a date range is O(log n)
+ * - the date a running total from some day reaches a given number of hours is O(log n)
+ * The cache is rebuilt lazily after a rule change; an override inside the cached
+ * range is applied as an O(log n) point update.
+ * Rules are treated as values once added; replace them with setRules to change one.
+ */
+public class AvailabilityCalendar {
+
+    private final NavigableMap<LocalDate, Double> overrides = new TreeMap<>();
+    private final List<PlanSpec.AvailabilityRule> rules = new ArrayList<>();
+
+    // Epoch-day cache
+    private boolean dirty = true;
+    private long firstEpochDay;
+    private double[] capacity = new double[0];
+    private double[] fenwick = new double[1];
+    private double totalHours;
+    private List<LocalDate> availableDates;
+
+    public AvailabilityCalendar() {
+    }
+
+    // Overrides
+
+    /**
+     * Set the capacity for a single date (wins over any rule covering that date)
+     */
+    public synchronized void setCapacity(LocalDate date, double hours) {
+        Double previous = overrides.put(date, hours);
+        if (!dirty && contains(date)) {
+            int index = indexOf(date);
+            double delta = hours - capacity[index];
+            if (delta != 0) {
+                capacity[index] = hours;
+                fenwickAdd(index, delta);
+                totalHours += delta;
+            }
+            availableDates = null;
+        } else if (previous == null || previous != hours) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Replace all per-date overrides
+     */
+    public synchronized void setOverrides(Map<LocalDate, Double> entries) {
+        overrides.clear();
+        if (entries != null) {
+            overrides.putAll(entries);
+        }
+        dirty = true;
+    }
+
+    /**
+     * Per-date overrides in chronological order (read-only view)
+     */
+    public NavigableMap<LocalDate, Double> getOverrides() {
+        return Collections.unmodifiableNavigableMap(overrides);
+    }
+
+    // Rules
+
+    public synchronized void addRule(PlanSpec.AvailabilityRule rule) {
+        rules.add(rule);
+        dirty = true;
+    }
+
+    public synchronized void setRules(List<PlanSpec.AvailabilityRule> newRules) {
+        rules.clear();
+        if (newRules != null) {
+            rules.addAll(newRules);
+        }
+        dirty = true;
+    }
+
+    /**
+     * Recurring rules in the order they were added (read-only view)
+     */
+    public List<PlanSpec.AvailabilityRule> getRules() {
+        return Collections.unmodifiableList(rules);
+    }
+
+    /**
+     * Check if nothing has been declared
+     */
+    public synchronized boolean isEmpty() {
+        return overrides.isEmpty() && rules.isEmpty();
+    }
+
+    // Queries
+
+    /**
+     * Effective capacity for a date, 0 if not covered
+     */
+    public synchronized double capacityOn(LocalDate date) {
+        ensureCache();
+        return contains(date) ? capacity[indexOf(date)] : 0.0;
+    }
+
+    /**
+     * Total capacity across all covered dates
+     */
+    public synchronized double getTotalHours() {
+        ensureCache();
+        return totalHours;
+    }
+
+    /**
+     * Total capacity between two dates (inclusive)
+     */
+    public synchronized double sumBetween(LocalDate from, LocalDate to) {
+        ensureCache();
+        if (capacity.length == 0 || from.isAfter(to)) {
+            return 0.0;
+        }
+        int lo = (int) Math.max(0, from.toEpochDay() - firstEpochDay);
+        int hi = (int) Math.min(capacity.length - 1, to.toEpochDay() - firstEpochDay);
+        if (lo > hi) {
+            return 0.0;
+        }
+        return prefixSum(hi) - (lo > 0 ? prefixSum(lo - 1) : 0.0);
+    }
+
+    /**
+     * Earliest date d on or after {@code from} with sumBetween(from, d) >= hours, or null
+     * when the covered range ends first. Fenwick descent over the non-negative capacities.
+     */
+    public synchronized LocalDate dateReaching(LocalDate from, double hours) {
+        ensureCache();
+        int lo = (int) Math.max(0, from.toEpochDay() - firstEpochDay);
+        if (lo >= capacity.length) {
+            return null;
+        }
+        double target = hours + (lo > 0 ? prefixSum(lo - 1) : 0.0);
+        // Largest prefix length whose sum stays below the target
+        int length = 0;
+        double sum = 0.0;
+        for (int step = Integer.highestOneBit(capacity.length); step > 0; step >>= 1) {
+            int next = length + step;
+            if (next <= capacity.length && sum + fenwick[next] < target) {
+                length = next;
+                sum += fenwick[next];
+            }
+        }
+        if (length >= capacity.length) {
+            return null;
+        }
+        return LocalDate.ofEpochDay(firstEpochDay + Math.max(length, lo));
+    }
+
+    /**
+     * Earliest covered date, null when empty
+     */
+    public synchronized LocalDate getFirstDate() {
+        ensureCache();
+        return capacity.length == 0 ? null : LocalDate.ofEpochDay(firstEpochDay);
+    }
+
+    /**
+     * Latest covered date, null when empty
+     */
+    public synchronized LocalDate getLastDate() {
+        ensureCache();
+        return capacity.length == 0 ? null : LocalDate.ofEpochDay(firstEpochDay + capacity.length - 1);
+    }
+
+    /**
+     * Dates with positive capacity, or with an explicit entry, in chronological order
+     */
+    public synchronized List<LocalDate> getAvailableDates() {
+        ensureCache();
+        if (availableDates == null) {
+            List<LocalDate> dates = new ArrayList<>();
+            for (int i = 0; i < capacity.length; i++) {
+                LocalDate date = LocalDate.ofEpochDay(firstEpochDay + i);
+                if (capacity[i] > 0 || overrides.containsKey(date)) {
+                    dates.add(date);
+                }
+            }
+            availableDates = Collections.unmodifiableList(dates);
+        }
+        return availableDates;
+    }
+
+    // Cache maintenance
+
+    private boolean contains(LocalDate date) {
+        long offset = date.toEpochDay() - firstEpochDay;
+        return offset >= 0 && offset < capacity.length;
+    }
+
+    private int indexOf(LocalDate date) {
+        return (int) (date.toEpochDay() - firstEpochDay);
+    }
+
+    /**
+     * Rebuild the epoch-day array and Fenwick tree if rules or the covered range changed
+     */
+    private void ensureCache() {
+        if (!dirty) {
+            return;
+        }
+
+        long first = Long.MAX_VALUE;
+        long last = Long.MIN_VALUE;
+        if (!overrides.isEmpty()) {
+            first = overrides.firstKey().toEpochDay();
+            last = overrides.lastKey().toEpochDay();
+        }
+        for (PlanSpec.AvailabilityRule rule : rules) {
+            if (rule.getStartDate().isAfter(rule.getEndDate())) {
+                continue;
+            }
+            first = Math.min(first, rule.getStartDate().toEpochDay());
+            last = Math.max(last, rule.getEndDate().toEpochDay());
+        }
+
+        if (first > last) {
+            firstEpochDay = 0;
+            capacity = new double[0];
+        } else {
+            firstEpochDay = first;
+            capacity = new double[(int) (last - first + 1)];
+            // Rules in insertion order: a later rule overwrites an earlier one
+            for (PlanSpec.AvailabilityRule rule : rules) {
+                for (LocalDate d = rule.getStartDate(); !d.isAfter(rule.getEndDate()); d = d.plusDays(1)) {
+                    if (rule.getDaysOfWeek().contains(d.getDayOfWeek())) {
+                        capacity[indexOf(d)] = rule.getCapacityHours();
+                    }
+                }
+            }
+            for (Map.Entry<LocalDate, Double> entry : overrides.entrySet()) {
+                capacity[indexOf(entry.getKey())] = entry.getValue();
+            }
+        }
+
+        // Linear-time Fenwick construction
+        fenwick = new double[capacity.length + 1];
+        totalHours = 0.0;
+        for (int i = 0; i < capacity.length; i++) {
+            totalHours += capacity[i];
+            int node = i + 1;
+            fenwick[node] += capacity[i];
+            int parent = node + (node & -node);
+            if (parent <= capacity.length) {
+                fenwick[parent] += fenwick[node];
+            }
+        }
+
+        availableDates = null;
+        dirty = false;
+    }
+
+    private void fenwickAdd(int index, double delta) {
+        for (int node = index + 1; node < fenwick.length; node += node & -node) {
+            fenwick[node] += delta;
+        }
+    }
+
+    private double prefixSum(int index) {
+        double sum = 0.0;
+        for (int node = index + 1; node > 0; node -= node & -node) {
+            sum += fenwick[node];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,17 @@
+package com.scheduler.chatbot.model;
+
+/**
+ * Progress of a scheduled block as reported by the user
+ */
+public enum BlockStatus {
+    PLANNED,  // not reported yet
+    DONE,     // studied as scheduled
+    MISSED;   // skipped, its hours are still owed
+
+    public static BlockStatus fromString(String s) {
+        if (s == null) {
+            throw new IllegalArgumentException("Block status cannot be null");
+        }
+        return valueOf(s.trim().toUpperCase());
+    }
+}
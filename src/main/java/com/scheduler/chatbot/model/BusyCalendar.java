@@ -0,0 +1,247 @@
+package com.scheduler.chatbot.model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Fixed commitments of a plan: one-off and recurring busy intervals
+ *
+ * The intervals are the source of truth. For queries they are expanded into one sorted
+ * array per day, indexed by epoch day (offset from the first covered date): the busy
+ * minutes of the day as [start, end) pairs, overlapping and touching intervals merged.
+ * Merged pairs have increasing starts and ends, so with n pairs on a day:
+ * - whether a time range is free is one binary search, O(log n)
+ * - the free windows within a time range are O(log n + k) for k windows
+ * The index is rebuilt lazily after a change. Intervals are treated as values once added;
+ * replace them with setIntervals to change one.
+ */
+public class BusyCalendar {
+
+    private static final int[] NONE = new int[0];
+
+    private final List<PlanSpec.BusyInterval> intervals = new ArrayList<>();
+
+    // Epoch-day index
+    private boolean dirty = true;
+    private long firstEpochDay;
+    private int[][] days = new int[0][];
+
+    public BusyCalendar() {
+    }
+
+    /**
+     * Private index over copies of the given intervals
+     */
+    public BusyCalendar(List<PlanSpec.BusyInterval> intervals) {
+        for (PlanSpec.BusyInterval interval : intervals) {
+            this.intervals.add(interval.copy());
+        }
+    }
+
+    // Intervals
+
+    public synchronized void add(PlanSpec.BusyInterval interval) {
+        intervals.add(interval);
+        dirty = true;
+    }
+
+    public synchronized void setIntervals(List<PlanSpec.BusyInterval> newIntervals) {
+        intervals.clear();
+        if (newIntervals != null) {
+            intervals.addAll(newIntervals);
+        }
+        dirty = true;
+    }
+
+    /**
+     * Remove every interval with the given label (case-insensitive), returning how many
+     */
+    public synchronized int removeLabel(String label) {
+        int before = intervals.size();
+        intervals.removeIf(i -> i.getLabel() != null && i.getLabel().equalsIgnoreCase(label));
+        if (intervals.size() != before) {
+            dirty = true;
+        }
+        return before - intervals.size();
+    }
+
+    /**
+     * Intervals in the order they were added (read-only view)
+     */
+    public List<PlanSpec.BusyInterval> getIntervals() {
+        return Collections.unmodifiableList(intervals);
+    }
+
+    public synchronized boolean isEmpty() {
+        return intervals.isEmpty();
+    }
+
+    // Queries
+
+    /**
+     * Whether anything is busy on the date
+     */
+    public synchronized boolean hasBusy(LocalDate date) {
+        return pairs(date).length > 0;
+    }
+
+    /**
+     * Busy minutes of the date as merged, sorted [start, end) pairs: {s0, e0, s1, e1, ...}
+     */
+    public synchronized int[] busyMinutes(LocalDate date) {
+        return pairs(date).clone();
+    }
+
+    /**
+     * Whether [startMinute, endMinute) on the date is clear of every busy interval
+     */
+    public synchronized boolean isFree(LocalDate date, int startMinute, int endMinute) {
+        int[] pairs = pairs(date);
+        int i = firstEndingAfter(pairs, startMinute);
+        return i == pairs.length || pairs[i] >= endMinute;
+    }
+
+    /**
+     * Free [start, end) windows of the date within [fromMinute, toMinute), in time order
+     */
+    public synchronized List<int[]> freeWindows(LocalDate date, int fromMinute, int toMinute) {
+        int[] pairs = pairs(date);
+        List<int[]> windows = new ArrayList<>();
+        int cursor = fromMinute;
+        for (int i = firstEndingAfter(pairs, fromMinute); i < pairs.length && pairs[i] < toMinute; i += 2) {
+            if (pairs[i] > cursor) {
+                windows.add(new int[] {cursor, pairs[i]});
+            }
+            cursor = Math.max(cursor, pairs[i + 1]);
+        }
+        if (cursor < toMinute) {
+            windows.add(new int[] {cursor, toMinute});
+        }
+        return windows;
+    }
+
+    /**
+     * Intervals on the date that overlap [startMinute, endMinute), for error messages
+     */
+    public synchronized List<PlanSpec.BusyInterval> conflicts(LocalDate date, int startMinute, int endMinute) {
+        List<PlanSpec.BusyInterval> conflicts = new ArrayList<>();
+        if (isFree(date, startMinute, endMinute)) {
+            return conflicts;
+        }
+        for (PlanSpec.BusyInterval interval : intervals) {
+            if (interval.appliesTo(date) && interval.getStartMinute() < endMinute
+                    && interval.getEndMinute() > startMinute) {
+                conflicts.add(interval);
+            }
+        }
+        return conflicts;
+    }
+
+    // Index maintenance
+
+    /**
+     * Index of the start of the first pair ending after the minute (binary search over
+     * the ends), pairs.length if none
+     */
+    private static int firstEndingAfter(int[] pairs, int minute) {
+        int lo = 0;
+        int hi = pairs.length / 2;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (pairs[2 * mid + 1] <= minute) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return 2 * lo;
+    }
+
+    private int[] pairs(LocalDate date) {
+        ensureIndex();
+        long offset = date.toEpochDay() - firstEpochDay;
+        if (offset < 0 || offset >= days.length || days[(int) offset] == null) {
+            return NONE;
+        }
+        return days[(int) offset];
+    }
+
+    /**
+     * Rebuild the per-day arrays if intervals changed
+     */
+    private void ensureIndex() {
+        if (!dirty) {
+            return;
+        }
+
+        long first = Long.MAX_VALUE;
+        long last = Long.MIN_VALUE;
+        for (PlanSpec.BusyInterval interval : intervals) {
+            if (interval.getStartDate().isAfter(interval.getEndDate())
+                    || interval.getEndMinute() <= interval.getStartMinute()) {
+                continue;
+            }
+            first = Math.min(first, interval.getStartDate().toEpochDay());
+            last = Math.max(last, interval.getEndDate().toEpochDay());
+        }
+
+        if (first > last) {
+            firstEpochDay = 0;
+            days = new int[0][];
+        } else {
+            firstEpochDay = first;
+            days = new int[(int) (last - first + 1)][];
+            // Raw pairs per day, in insertion order
+            int[] counts = new int[days.length];
+            for (PlanSpec.BusyInterval interval : intervals) {
+                if (interval.getEndMinute() <= interval.getStartMinute()) {
+                    continue;
+                }
+                for (LocalDate d = interval.getStartDate(); !d.isAfter(interval.getEndDate()); d = d.plusDays(1)) {
+                    if (interval.getDaysOfWeek().contains(d.getDayOfWeek())) {
+                        int day = (int) (d.toEpochDay() - firstEpochDay);
+                        if (days[day] == null || days[day].length == 2 * counts[day]) {
+                            days[day] = days[day] == null ? new int[2] : Arrays.copyOf(days[day], 4 * counts[day]);
+                        }
+                        days[day][2 * counts[day]] = interval.getStartMinute();
+                        days[day][2 * counts[day] + 1] = interval.getEndMinute();
+                        counts[day]++;
+                    }
+                }
+            }
+            for (int day = 0; day < days.length; day++) {
+                if (days[day] != null) {
+                    days[day] = merge(days[day], counts[day]);
+                }
+            }
+        }
+        dirty = false;
+    }
+
+    /**
+     * Sort the first n pairs by start and merge overlapping or touching ones
+     */
+    private static int[] merge(int[] raw, int n) {
+        long[] sorted = new long[n];
+        for (int i = 0; i < n; i++) {
+            sorted[i] = ((long) raw[2 * i] << 32) | raw[2 * i + 1];
+        }
+        Arrays.sort(sorted);
+        int[] merged = new int[2 * n];
+        int size = 0;
+        for (long pair : sorted) {
+            int start = (int) (pair >>> 32);
+            int end = (int) pair;
+            if (size > 0 && start <= merged[size - 1]) {
+                merged[size - 1] = Math.max(merged[size - 1], end);
+            } else {
+                merged[size++] = start;
+                merged[size++] = end;
+            }
+        }
+        return Arrays.copyOf(merged, size);
+    }
+}
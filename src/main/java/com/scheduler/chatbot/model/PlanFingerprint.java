@@ -0,0 +1,194 @@
+package com.scheduler.chatbot.model;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Canonical content hash of a PlanSpec
+ *
+ * Two plans get the same fingerprint when they would produce the same schedule input:
+ * - courses are hashed as a sorted multiset, so insertion order does not matter
+ * - availability is hashed as the effective capacity per date, so a weekly rule and
+ *   the equivalent per-date entries hash the same
+ * - busy intervals are hashed as a sorted multiset without their labels
+ * Covers plan name, date range, courses (priority, hours, exam date, components),
+ * availability, busy intervals, scheduling rules, soft preferences and engine. Command
+ * metadata is ignored.
+ */
+public final class PlanFingerprint {
+
+    private PlanFingerprint() {
+    }
+
+    /**
+     * SHA-256 of the canonical encoding, as lowercase hex
+     */
+    public static String of(PlanSpec plan) {
+        Encoder out = new Encoder();
+
+        out.string(plan.getPlanName());
+        out.date(plan.getStartDate());
+        out.date(plan.getEndDate());
+
+        // Courses as a sorted multiset of their encodings
+        List<byte[]> courses = new ArrayList<>();
+        for (PlanSpec.CourseSpec course : plan.getCourses()) {
+            courses.add(encodeCourse(course));
+        }
+        courses.sort(Arrays::compare);
+        out.integer(courses.size());
+        courses.forEach(out::bytes);
+
+        // Effective availability in date order
+        List<LocalDate> dates = plan.getAvailableDates();
+        out.integer(dates.size());
+        for (LocalDate date : dates) {
+            out.date(date);
+            out.number(plan.getAvailability(date));
+        }
+
+        // Busy intervals as a sorted multiset; labels do not change the schedule
+        List<byte[]> busy = new ArrayList<>();
+        for (PlanSpec.BusyInterval interval : plan.getBusyIntervals()) {
+            Encoder b = new Encoder();
+            b.date(interval.getStartDate());
+            b.date(interval.getEndDate());
+            int days = 0;
+            for (DayOfWeek day : interval.getDaysOfWeek()) {
+                days |= 1 << day.ordinal();
+            }
+            b.integer(days);
+            b.integer(interval.getStartMinute());
+            b.integer(interval.getEndMinute());
+            busy.add(b.toBytes());
+        }
+        busy.sort(Arrays::compare);
+        out.integer(busy.size());
+        busy.forEach(out::bytes);
+
+        PlanSpec.SchedulingRules rules = plan.getRules();
+        out.number(rules.getMaxHoursPerDay());
+        out.integer(rules.getMaxContinuousBlockMinutes());
+        out.integer(rules.getBlockDurationMinutes());
+        out.integer(rules.getBreakDurationMinutes());
+        out.string(rules.getSplitStrategy() != null ? rules.getSplitStrategy().name() : null);
+        out.date(rules.getSplitDate());
+        out.integer(rules.getReviewIntervals().size());
+        rules.getReviewIntervals().forEach(out::integer);
+        out.integer(rules.getReviewDurationMinutes());
+        out.integer(rules.getConstraints().size());
+        for (PlanSpec.HardConstraint constraint : rules.getConstraints()) {
+            out.string(constraint.getKind() != null ? constraint.getKind().name() : null);
+            out.string(constraint.getCourseId());
+            int days = 0;
+            for (DayOfWeek day : constraint.getDaysOfWeek()) {
+                days |= 1 << day.ordinal();
+            }
+            out.integer(days);
+            out.integer(constraint.getTime() != null ? constraint.getTime().toSecondOfDay() / 60 : -1);
+            out.integer(constraint.getLimit());
+        }
+
+        PlanSpec.SoftPreferences prefs = plan.getSoftPrefs();
+        out.integer((prefs.isPreferSpreadness() ? 1 : 0) | (prefs.isPreferBuffer() ? 2 : 0)
+                | (prefs.isPreferInterleave() ? 4 : 0));
+        out.number(prefs.getSpreadnessWeight());
+        out.number(prefs.getBufferWeight());
+        out.number(prefs.getInterleaveWeight());
+
+        out.string(plan.getEngine());
+
+        return HexFormat.of().formatHex(out.digest());
+    }
+
+    private static byte[] encodeCourse(PlanSpec.CourseSpec course) {
+        Encoder out = new Encoder();
+        out.string(course.getId());
+        out.string(course.getPriority() != null ? course.getPriority().name() : null);
+        out.number(course.getWorkloadHours());
+        out.date(course.getExamDate());
+
+        List<byte[]> components = new ArrayList<>();
+        if (course.getComponents() != null) {
+            for (PlanSpec.ComponentSpec component : course.getComponents()) {
+                Encoder c = new Encoder();
+                c.string(component.getName());
+                c.number(component.getEstimatedHours());
+                c.date(component.getDueDate());
+                components.add(c.toBytes());
+            }
+        }
+        components.sort(Arrays::compare);
+        out.integer(components.size());
+        components.forEach(out::bytes);
+        return out.toBytes();
+    }
+
+    /**
+     * Length-prefixed binary encoding, so adjacent fields cannot run together
+     */
+    private static final class Encoder {
+        private ByteBuffer buffer = ByteBuffer.allocate(256);
+
+        void string(String value) {
+            if (value == null) {
+                integer(-1);
+                return;
+            }
+            bytes(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        void date(LocalDate value) {
+            ensure(9);
+            buffer.put((byte) (value == null ? 0 : 1));
+            buffer.putLong(value == null ? 0 : value.toEpochDay());
+        }
+
+        void number(double value) {
+            ensure(8);
+            // +0.0 and -0.0 mean the same number of hours
+            buffer.putLong(Double.doubleToLongBits(value == 0.0 ? 0.0 : value));
+        }
+
+        void integer(int value) {
+            ensure(4);
+            buffer.putInt(value);
+        }
+
+        void bytes(byte[] value) {
+            integer(value.length);
+            ensure(value.length);
+            buffer.put(value);
+        }
+
+        byte[] toBytes() {
+            return Arrays.copyOf(buffer.array(), buffer.position());
+        }
+
+        byte[] digest() {
+            try {
+                MessageDigest sha = MessageDigest.getInstance("SHA-256");
+                sha.update(buffer.array(), 0, buffer.position());
+                return sha.digest();
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+
+        private void ensure(int extra) {
+            if (buffer.remaining() < extra) {
+                ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + extra));
+                grown.put(buffer.array(), 0, buffer.position());
+                buffer = grown;
+            }
+        }
+    }
+}
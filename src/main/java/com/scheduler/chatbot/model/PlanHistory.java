@@ -0,0 +1,126 @@
+package com.scheduler.chatbot.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Version graph of a plan
+ *
+ * Every committed PlanVersion gets a sequential id and keeps a pointer to its parent.
+ * Named branches point at a head version; forking a branch costs O(1) because versions
+ * share structure. Undo moves the current branch back to the parent; the undone version
+ * stays reachable by id.
+ */
+public class PlanHistory {
+
+    public static final String MAIN_BRANCH = "main";
+
+    private final Map<Long, PlanVersion> versions = new HashMap<>();
+    private final Map<String, PlanVersion> branches = new LinkedHashMap<>();
+    private String currentBranch = MAIN_BRANCH;
+    private long nextId;
+
+    public PlanHistory(PlanVersion initial) {
+        PlanVersion root = initial.commit(nextId++, null, "initial");
+        versions.put(root.getId(), root);
+        branches.put(MAIN_BRANCH, root);
+    }
+
+    /**
+     * Head version of the current branch
+     */
+    public synchronized PlanVersion getHead() {
+        return branches.get(currentBranch);
+    }
+
+    public synchronized String getCurrentBranch() {
+        return currentBranch;
+    }
+
+    /**
+     * Record a version derived from the head as the new head of the current branch
+     */
+    public synchronized PlanVersion commit(PlanVersion next, String command) {
+        PlanVersion committed = next.commit(nextId++, getHead(), command);
+        versions.put(committed.getId(), committed);
+        branches.put(currentBranch, committed);
+        return committed;
+    }
+
+    /**
+     * Step the current branch back one version; null when already at the first version
+     */
+    public synchronized PlanVersion undo() {
+        PlanVersion parent = getHead().getParent();
+        if (parent == null) {
+            return null;
+        }
+        branches.put(currentBranch, parent);
+        return parent;
+    }
+
+    /**
+     * Start a new branch at the current head and switch to it
+     */
+    public synchronized PlanVersion fork(String branch) {
+        if (branches.containsKey(branch)) {
+            throw new IllegalArgumentException("Plan '" + branch + "' already exists");
+        }
+        PlanVersion head = getHead();
+        branches.put(branch, head);
+        currentBranch = branch;
+        return head;
+    }
+
+    /**
+     * Switch to a branch; null if it does not exist
+     */
+    public synchronized PlanVersion checkoutBranch(String branch) {
+        PlanVersion head = branches.get(branch);
+        if (head != null) {
+            currentBranch = branch;
+        }
+        return head;
+    }
+
+    /**
+     * Move the current branch to any earlier version; null if the id is unknown
+     */
+    public synchronized PlanVersion checkoutVersion(long id) {
+        PlanVersion version = versions.get(id);
+        if (version != null) {
+            branches.put(currentBranch, version);
+        }
+        return version;
+    }
+
+    public synchronized PlanVersion getVersion(long id) {
+        return versions.get(id);
+    }
+
+    /**
+     * Versions from the current head back to the first one
+     */
+    public synchronized List<PlanVersion> log() {
+        List<PlanVersion> log = new ArrayList<>();
+        for (PlanVersion v = getHead(); v != null; v = v.getParent()) {
+            log.add(v);
+        }
+        return log;
+    }
+
+    /**
+     * Branch name to head version id, in creation order
+     */
+    public synchronized Map<String, Long> getBranches() {
+        Map<String, Long> heads = new LinkedHashMap<>();
+        for (Map.Entry<String, PlanVersion> entry : branches.entrySet()) {
+            heads.put(entry.getKey(), entry.getValue().getId());
+        }
+        return Collections.unmodifiableMap(heads);
+    }
+}
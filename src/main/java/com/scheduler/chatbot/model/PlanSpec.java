@@ -1,12 +1,23 @@
 package com.scheduler.chatbot.model;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.LocalTime;
 import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 /**
  * Intermediate Representation (IR) for parsed DSL input
@@ -18,10 +29,23 @@ public class PlanSpec {
     private ZoneId timezone;
     private LocalDate startDate;
     private LocalDate endDate;
-    private List<CourseSpec> courses;
-    private Map<LocalDate, Double> availability; // date -> capacity hours
+    private volatile List<CourseSpec> courses; // copy-on-write: readers always see a complete list
+    private final Map<String, List<CourseSpec>> courseIndex; // id -> courses carrying that id
+    private int duplicateCourseCount;
+    private AvailabilityCalendar availability; // weekly rules + per-date overrides
+    private BusyCalendar busy; // fixed commitments blocks may not overlap
+    private double totalWorkloadHours; // maintained on course add/remove/update
     private SchedulingRules rules;
     private SoftPreferences softPrefs;
+    private String engine; // scheduling engine name, null = default
+
+    // Modification tracking for cached validation
+    private volatile long modCount;
+    private final PlanValidator validator = new PlanValidator();
+    private ValidationResult cachedValidation;
+    private long cachedValidationModCount = -1;
+    private String cachedFingerprint;
+    private long cachedFingerprintModCount = -1;
 
     // Command metadata fields (for DSL parser)
     private String commandType;
@@ -29,15 +53,26 @@ public class PlanSpec {
     private String targetSchedulePath;
     private Integer updateHours;
     private Priority updatePriority;
+    private String targetBranch;
+    private Long targetVersion;
+    private String targetEngine;
+    private ComponentSpec targetComponent;
+    private LocalDate targetExamDate;
+    private LocalDate targetDate;
+    private BlockStatus targetStatus;
 
     public PlanSpec() {
         this.planName = "Untitled Plan";
         this.timezone = ZoneId.systemDefault();
         this.startDate = LocalDate.now();
-        this.courses = new ArrayList<>();
-        this.availability = new HashMap<>();
+        this.courses = new CopyOnWriteArrayList<>();
+        this.courseIndex = new ConcurrentHashMap<>();
+        this.availability = new AvailabilityCalendar();
+        this.busy = new BusyCalendar();
         this.rules = new SchedulingRules();
+        this.rules.owner = this;
         this.softPrefs = new SoftPreferences();
+        this.softPrefs.owner = this;
     }
 
     public PlanSpec(String planName) {
@@ -51,87 +86,328 @@ public class PlanSpec {
         return planName;
     }
 
-    public void setPlanName(String planName) {
+    public synchronized void setPlanName(String planName) {
         this.planName = planName;
+        modCount++;
     }
 
     public ZoneId getTimezone() {
         return timezone;
     }
 
-    public void setTimezone(ZoneId timezone) {
+    public synchronized void setTimezone(ZoneId timezone) {
         this.timezone = timezone;
+        modCount++;
     }
 
     public LocalDate getStartDate() {
         return startDate;
     }
 
-    public void setStartDate(LocalDate startDate) {
+    public synchronized void setStartDate(LocalDate startDate) {
         this.startDate = startDate;
+        modCount++;
     }
 
     public LocalDate getEndDate() {
         return endDate;
     }
 
-    public void setEndDate(LocalDate endDate) {
+    public synchronized void setEndDate(LocalDate endDate) {
         this.endDate = endDate;
+        modCount++;
     }
 
+    /**
+     * Courses in insertion order (read-only snapshot view)
+     */
     public List<CourseSpec> getCourses() {
-        return courses;
+        return Collections.unmodifiableList(courses);
     }
 
-    public void setCourses(List<CourseSpec> courses) {
-        this.courses = courses;
+    public synchronized void setCourses(List<CourseSpec> courses) {
+        for (CourseSpec course : this.courses) {
+            course.owner = null;
+        }
+        // Swap in a fully built list so concurrent readers never see a partial one
+        this.courses = courses == null
+                ? new CopyOnWriteArrayList<>()
+                : new CopyOnWriteArrayList<>(courses);
+        courseIndex.clear();
+        duplicateCourseCount = 0;
+        for (CourseSpec course : this.courses) {
+            indexCourse(course.getId(), course);
+            course.owner = this;
+        }
+        recomputeTotalWorkload();
+        validator.coursesReplaced();
+        modCount++;
     }
 
-    public void addCourse(CourseSpec course) {
+    public synchronized void addCourse(CourseSpec course) {
         this.courses.add(course);
+        indexCourse(course.getId(), course);
+        course.owner = this;
+        totalWorkloadHours += course.getWorkloadHours();
+        validator.courseChanged(course);
+        modCount++;
     }
 
-    public void removeCourse(String courseId) {
-        this.courses.removeIf(c -> c.getId().equals(courseId));
+    /**
+     * Remove every course with the given ID
+     */
+    public synchronized void removeCourse(String courseId) {
+        List<CourseSpec> matches = courseIndex.remove(indexKey(courseId));
+        if (matches == null) {
+            return;
+        }
+        duplicateCourseCount -= matches.size() - 1;
+        this.courses.removeIf(c -> matches.stream().anyMatch(m -> m == c));
+        for (CourseSpec course : matches) {
+            course.owner = null;
+            totalWorkloadHours -= course.getWorkloadHours();
+            validator.courseRemoved(course);
+        }
+        modCount++;
     }
 
+    /**
+     * Look up a course by ID in O(1); with duplicate IDs the first added wins
+     */
     public CourseSpec getCourse(String courseId) {
-        return courses.stream()
-                .filter(c -> c.getId().equals(courseId))
-                .findFirst()
-                .orElse(null);
+        if (courseId == null) {
+            return null;
+        }
+        List<CourseSpec> matches = courseIndex.get(courseId);
+        return matches == null ? null : matches.get(0);
     }
 
-    public Map<LocalDate, Double> getAvailability() {
-        return availability;
+    public boolean containsCourse(String courseId) {
+        return getCourse(courseId) != null;
     }
 
-    public void setAvailability(Map<LocalDate, Double> availability) {
-        this.availability = availability;
+    /**
+     * Check if two or more courses share an ID
+     */
+    public synchronized boolean hasDuplicateCourseIds() {
+        return duplicateCourseCount > 0;
     }
 
-    public void setAvailability(LocalDate date, double hours) {
-        this.availability.put(date, hours);
+    // Course index maintenance (callers hold the plan lock)
+
+    private static String indexKey(String courseId) {
+        return courseId == null ? "" : courseId;
+    }
+
+    private void indexCourse(String courseId, CourseSpec course) {
+        courseIndex.compute(indexKey(courseId), (key, existing) -> {
+            if (existing == null) {
+                return List.of(course);
+            }
+            duplicateCourseCount++;
+            List<CourseSpec> updated = new ArrayList<>(existing);
+            updated.add(course);
+            return List.copyOf(updated);
+        });
+    }
+
+    private void unindexCourse(String courseId, CourseSpec course) {
+        courseIndex.computeIfPresent(indexKey(courseId), (key, existing) -> {
+            List<CourseSpec> updated = new ArrayList<>(existing);
+            updated.removeIf(c -> c == course);
+            if (updated.size() < existing.size() && !updated.isEmpty()) {
+                duplicateCourseCount--;
+            }
+            return updated.isEmpty() ? null : List.copyOf(updated);
+        });
+    }
+
+    /**
+     * Keep the index in sync when a course in this plan is renamed
+     */
+    private synchronized void onCourseIdChanged(CourseSpec course, String oldId) {
+        unindexCourse(oldId, course);
+        indexCourse(course.getId(), course);
+        onCourseChanged(course);
+    }
+
+    /**
+     * Invalidate cached validation for a course edited in place
+     */
+    private synchronized void onCourseChanged(CourseSpec course) {
+        validator.courseChanged(course);
+        modCount++;
     }
 
+    private synchronized void onWorkloadChanged(CourseSpec course, double oldHours) {
+        totalWorkloadHours += course.getWorkloadHours() - oldHours;
+        onCourseChanged(course);
+    }
+
+    private synchronized void onPreferencesChanged() {
+        modCount++;
+    }
+
+    private synchronized void onRulesChanged() {
+        // Max hours per day affects every availability entry
+        validator.availabilityReplaced();
+        modCount++;
+    }
+
+    private void recomputeTotalWorkload() {
+        double total = 0.0;
+        for (CourseSpec course : courses) {
+            total += course.getWorkloadHours();
+        }
+        totalWorkloadHours = total;
+    }
+
+    /**
+     * Per-date availability entries (read-only, chronological)
+     */
+    public NavigableMap<LocalDate, Double> getAvailability() {
+        return availability.getOverrides();
+    }
+
+    public synchronized void setAvailability(Map<LocalDate, Double> availability) {
+        this.availability.setOverrides(availability);
+        validator.availabilityReplaced();
+        modCount++;
+    }
+
+    public synchronized void setAvailability(LocalDate date, double hours) {
+        this.availability.setCapacity(date, hours);
+        validator.dateChanged(date);
+        modCount++;
+    }
+
+    /**
+     * Get capacity for a date
+     * An explicit per-date entry wins over recurring rules; among rules the last added wins
+     */
     public Double getAvailability(LocalDate date) {
-        return availability.getOrDefault(date, 0.0);
+        return availability.capacityOn(date);
+    }
+
+    /**
+     * Full availability model (rules, overrides and cached capacity index)
+     */
+    @JsonIgnore
+    public AvailabilityCalendar getAvailabilityCalendar() {
+        return availability;
+    }
+
+    public List<AvailabilityRule> getAvailabilityRules() {
+        return availability.getRules();
+    }
+
+    public synchronized void setAvailabilityRules(List<AvailabilityRule> availabilityRules) {
+        this.availability.setRules(availabilityRules);
+        modCount++;
+    }
+
+    public synchronized void addAvailabilityRule(AvailabilityRule rule) {
+        this.availability.addRule(rule);
+        modCount++;
+    }
+
+    /**
+     * Check whether any availability (per-date or recurring) has been declared
+     */
+    public boolean hasAvailability() {
+        return !availability.isEmpty();
+    }
+
+    /**
+     * Earliest date covered by per-date availability or a recurring rule
+     */
+    public LocalDate getFirstAvailabilityDate() {
+        return availability.getFirstDate();
+    }
+
+    /**
+     * Latest date covered by per-date availability or a recurring rule
+     */
+    public LocalDate getLastAvailabilityDate() {
+        return availability.getLastDate();
+    }
+
+    /**
+     * Fixed commitments (one-off and recurring) in the order they were added
+     */
+    public List<BusyInterval> getBusyIntervals() {
+        return busy.getIntervals();
+    }
+
+    public synchronized void setBusyIntervals(List<BusyInterval> busyIntervals) {
+        this.busy.setIntervals(busyIntervals);
+        modCount++;
+    }
+
+    public synchronized void addBusyInterval(BusyInterval interval) {
+        this.busy.add(interval);
+        modCount++;
+    }
+
+    /**
+     * Remove every busy interval with the given label (case-insensitive), returning how many
+     */
+    public synchronized int removeBusyIntervals(String label) {
+        int removed = busy.removeLabel(label);
+        if (removed > 0) {
+            modCount++;
+        }
+        return removed;
+    }
+
+    /**
+     * Busy intervals with the per-day index the engines query
+     */
+    @JsonIgnore
+    public BusyCalendar getBusyCalendar() {
+        return busy;
     }
 
     public SchedulingRules getRules() {
         return rules;
     }
 
-    public void setRules(SchedulingRules rules) {
+    public synchronized void setRules(SchedulingRules rules) {
+        if (this.rules != null) {
+            this.rules.owner = null;
+        }
         this.rules = rules;
+        if (rules != null) {
+            rules.owner = this;
+        }
+        onRulesChanged();
     }
 
     public SoftPreferences getSoftPrefs() {
         return softPrefs;
     }
 
-    public void setSoftPrefs(SoftPreferences softPrefs) {
+    public synchronized void setSoftPrefs(SoftPreferences softPrefs) {
+        if (this.softPrefs != null) {
+            this.softPrefs.owner = null;
+        }
         this.softPrefs = softPrefs;
+        if (softPrefs != null) {
+            softPrefs.owner = this;
+        }
+        modCount++;
+    }
+
+    /**
+     * Scheduling engine selected for this plan; null means the default engine
+     */
+    public String getEngine() {
+        return engine;
+    }
+
+    public synchronized void setEngine(String engine) {
+        this.engine = engine;
+        modCount++;
     }
 
     public String getCommandType() {
@@ -174,199 +450,125 @@ public class PlanSpec {
         this.updatePriority = updatePriority;
     }
 
-    /**
-     * Validate the plan specification
-     * Performs comprehensive semantic validation
-     */
-    public ValidationResult validate() {
-        List<String> errors = new ArrayList<>();
-
-        // 1. Validate plan name
-        if (planName == null || planName.trim().isEmpty()) {
-            errors.add("Plan name cannot be empty");
-        }
-
-        // 2. Validate courses
-        if (courses == null || courses.isEmpty()) {
-            errors.add("At least one course must be specified");
-        } else {
-            // Check for duplicate course IDs
-            List<String> courseIds = courses.stream()
-                    .map(CourseSpec::getId)
-                    .collect(Collectors.toList());
+    public String getTargetBranch() {
+        return targetBranch;
+    }
 
-            long uniqueIds = courseIds.stream().distinct().count();
-            if (uniqueIds < courseIds.size()) {
-                errors.add("Duplicate course IDs found");
-            }
+    public void setTargetBranch(String targetBranch) {
+        this.targetBranch = targetBranch;
+    }
 
-            // Validate each course
-            for (int i = 0; i < courses.size(); i++) {
-                CourseSpec course = courses.get(i);
-                List<String> courseErrors = validateCourse(course);
-                for (String error : courseErrors) {
-                    errors.add("Course '" + course.getId() + "': " + error);
-                }
-            }
-        }
+    public Long getTargetVersion() {
+        return targetVersion;
+    }
 
-        // 3. Validate availability
-        if (availability == null || availability.isEmpty()) {
-            errors.add("No availability specified");
-        } else {
-            // Check for negative hours
-            for (Map.Entry<LocalDate, Double> entry : availability.entrySet()) {
-                if (entry.getValue() < 0) {
-                    errors.add("Negative availability hours on " + entry.getKey());
-                }
-                if (entry.getValue() > rules.getMaxHoursPerDay()) {
-                    errors.add("Availability on " + entry.getKey() +
-                            " exceeds max hours per day (" + rules.getMaxHoursPerDay() + ")");
-                }
-            }
+    public void setTargetVersion(Long targetVersion) {
+        this.targetVersion = targetVersion;
+    }
 
-            // Determine date range from availability
-            LocalDate minDate = availability.keySet().stream()
-                    .min(LocalDate::compareTo)
-                    .orElse(null);
-            LocalDate maxDate = availability.keySet().stream()
-                    .max(LocalDate::compareTo)
-                    .orElse(null);
-
-            if (minDate != null && maxDate != null) {
-                if (startDate == null) {
-                    startDate = minDate;
-                }
-                if (endDate == null) {
-                    endDate = maxDate;
-                }
-            }
-        }
+    public String getTargetEngine() {
+        return targetEngine;
+    }
 
-        // 4. Validate date range
-        if (startDate != null && endDate != null) {
-            if (startDate.isAfter(endDate)) {
-                errors.add("Start date (" + startDate + ") is after end date (" + endDate + ")");
-            }
-        }
+    public void setTargetEngine(String targetEngine) {
+        this.targetEngine = targetEngine;
+    }
 
-        // 5. Validate workload vs availability
-        double totalWorkload = courses.stream()
-                .mapToDouble(CourseSpec::getWorkloadHours)
-                .sum();
+    public ComponentSpec getTargetComponent() {
+        return targetComponent;
+    }
 
-        double totalAvailable = availability.values().stream()
-                .mapToDouble(Double::doubleValue)
-                .sum();
+    public void setTargetComponent(ComponentSpec targetComponent) {
+        this.targetComponent = targetComponent;
+    }
 
-        if (totalWorkload > totalAvailable) {
-            errors.add(String.format(
-                    "Total workload (%.1f hours) exceeds total availability (%.1f hours). " +
-                            "Shortfall: %.1f hours",
-                    totalWorkload, totalAvailable, totalWorkload - totalAvailable));
-        }
+    public LocalDate getTargetExamDate() {
+        return targetExamDate;
+    }
 
-        // 6. Validate scheduling rules
-        if (rules.getMaxHoursPerDay() <= 0) {
-            errors.add("Max hours per day must be positive");
-        }
+    public void setTargetExamDate(LocalDate targetExamDate) {
+        this.targetExamDate = targetExamDate;
+    }
 
-        if (rules.getBlockDurationMinutes() <= 0) {
-            errors.add("Block duration must be positive");
-        }
+    public LocalDate getTargetDate() {
+        return targetDate;
+    }
 
-        if (rules.getBreakDurationMinutes() < 0) {
-            errors.add("Break duration cannot be negative");
-        }
+    public void setTargetDate(LocalDate targetDate) {
+        this.targetDate = targetDate;
+    }
 
-        if (rules.getMaxContinuousBlockMinutes() < rules.getBlockDurationMinutes()) {
-            errors.add("Max continuous block must be at least one block duration");
-        }
+    public BlockStatus getTargetStatus() {
+        return targetStatus;
+    }
 
-        return new ValidationResult(errors.isEmpty(), errors);
+    public void setTargetStatus(BlockStatus targetStatus) {
+        this.targetStatus = targetStatus;
     }
 
     /**
-     * Validate a single course specification
+     * Validate the plan specification
+     * Performs comprehensive semantic validation without modifying the plan.
+     * The result is cached until the next modification; after a modification only the
+     * courses and availability dates it touched are checked again.
      */
-    private List<String> validateCourse(CourseSpec course) {
-        List<String> errors = new ArrayList<>();
-
-        if (course.getId() == null || course.getId().trim().isEmpty()) {
-            errors.add("Course ID cannot be empty");
-        }
-
-        if (course.getPriority() == null) {
-            errors.add("Priority must be specified");
-        }
-
-        if (course.getWorkloadHours() <= 0) {
-            errors.add("Workload hours must be positive");
+    public synchronized ValidationResult validate() {
+        if (cachedValidation == null || cachedValidationModCount != modCount) {
+            cachedValidation = validator.validate(this);
+            cachedValidationModCount = modCount;
         }
+        return cachedValidation;
+    }
 
-        // Validate components
-        if (course.getComponents() != null && !course.getComponents().isEmpty()) {
-            double componentHours = course.getComponents().stream()
-                    .mapToDouble(ComponentSpec::getEstimatedHours)
-                    .sum();
-
-            // Component hours should not exceed total workload significantly
-            if (componentHours > course.getWorkloadHours() * 1.1) {
-                errors.add("Component hours exceed total workload");
-            }
-
-            // Validate each component
-            for (ComponentSpec comp : course.getComponents()) {
-                if (comp.getName() == null || comp.getName().trim().isEmpty()) {
-                    errors.add("Component name cannot be empty");
-                }
-                if (comp.getEstimatedHours() <= 0) {
-                    errors.add("Component '" + comp.getName() + "' hours must be positive");
-                }
-                if (comp.getDueDate() != null && endDate != null && comp.getDueDate().isAfter(endDate)) {
-                    errors.add("Component '" + comp.getName() + "' due date is after plan end date");
-                }
-            }
+    /**
+     * Canonical content hash (see PlanFingerprint), cached until the next modification
+     */
+    @JsonIgnore
+    public synchronized String getFingerprint() {
+        if (cachedFingerprint == null || cachedFingerprintModCount != modCount) {
+            cachedFingerprint = PlanFingerprint.of(this);
+            cachedFingerprintModCount = modCount;
         }
+        return cachedFingerprint;
+    }
 
-        // Validate exam date
-        if (course.getExamDate() != null) {
-            if (startDate != null && course.getExamDate().isBefore(startDate)) {
-                errors.add("Exam date is before plan start date");
-            }
-            if (endDate != null && course.getExamDate().isAfter(endDate)) {
-                errors.add("Exam date is after plan end date");
-            }
-        }
+    /**
+     * Modification counter, bumped by every change to the plan or its courses and rules
+     */
+    @JsonIgnore
+    public long getModCount() {
+        return modCount;
+    }
 
-        return errors;
+    /**
+     * Record an in-place change the plan cannot observe (e.g. editing a component list directly)
+     */
+    public synchronized void markModified() {
+        validator.coursesReplaced();
+        validator.availabilityReplaced();
+        recomputeTotalWorkload();
+        modCount++;
     }
 
     /**
      * Calculate total workload across all courses
      */
     public double getTotalWorkloadHours() {
-        return courses.stream()
-                .mapToDouble(CourseSpec::getWorkloadHours)
-                .sum();
+        return totalWorkloadHours;
     }
 
     /**
      * Calculate total available hours
      */
     public double getTotalAvailableHours() {
-        return availability.values().stream()
-                .mapToDouble(Double::doubleValue)
-                .sum();
+        return availability.getTotalHours();
     }
 
     /**
      * Get all dates with availability in chronological order
      */
     public List<LocalDate> getAvailableDates() {
-        return availability.keySet().stream()
-                .sorted()
-                .collect(Collectors.toList());
+        return availability.getAvailableDates();
     }
 
     /**
@@ -393,6 +595,7 @@ public class PlanSpec {
         private double workloadHours;
         private LocalDate examDate;
         private List<ComponentSpec> components;
+        private transient PlanSpec owner; // plan whose course index contains this course
 
         public CourseSpec() {
             this.components = new ArrayList<>();
@@ -412,7 +615,11 @@ public class PlanSpec {
         }
 
         public void setId(String id) {
+            String oldId = this.id;
             this.id = id;
+            if (owner != null) {
+                owner.onCourseIdChanged(this, oldId);
+            }
         }
 
         public Priority getPriority() {
@@ -421,6 +628,7 @@ public class PlanSpec {
 
         public void setPriority(Priority priority) {
             this.priority = priority;
+            changed();
         }
 
         public double getWorkloadHours() {
@@ -428,7 +636,11 @@ public class PlanSpec {
         }
 
         public void setWorkloadHours(double workloadHours) {
+            double oldHours = this.workloadHours;
             this.workloadHours = workloadHours;
+            if (owner != null) {
+                owner.onWorkloadChanged(this, oldHours);
+            }
         }
 
         public LocalDate getExamDate() {
@@ -437,6 +649,7 @@ public class PlanSpec {
 
         public void setExamDate(LocalDate examDate) {
             this.examDate = examDate;
+            changed();
         }
 
         public List<ComponentSpec> getComponents() {
@@ -445,14 +658,43 @@ public class PlanSpec {
 
         public void setComponents(List<ComponentSpec> components) {
             this.components = components;
+            if (components != null) {
+                components.forEach(c -> c.owner = this);
+            }
+            changed();
         }
 
         public void addComponent(ComponentSpec component) {
             this.components.add(component);
+            component.owner = this;
+            changed();
         }
 
         public void addComponent(String name, double hours, LocalDate dueDate) {
-            this.components.add(new ComponentSpec(name, hours, dueDate));
+            addComponent(new ComponentSpec(name, hours, dueDate));
+        }
+
+        /**
+         * Notify the owning plan that this course was edited in place
+         */
+        private void changed() {
+            if (owner != null) {
+                owner.onCourseChanged(this);
+            }
+        }
+
+        /**
+         * Deep copy, detached from any plan
+         */
+        public CourseSpec copy() {
+            CourseSpec copy = new CourseSpec(id, priority, workloadHours);
+            copy.examDate = examDate;
+            if (components != null) {
+                for (ComponentSpec component : components) {
+                    copy.addComponent(component.copy());
+                }
+            }
+            return copy;
         }
 
         /**
@@ -472,6 +714,7 @@ public class PlanSpec {
         private String name;
         private double estimatedHours;
         private LocalDate dueDate;
+        private transient CourseSpec owner;
 
         public ComponentSpec() {
         }
@@ -490,6 +733,7 @@ public class PlanSpec {
 
         public void setName(String name) {
             this.name = name;
+            changed();
         }
 
         public double getEstimatedHours() {
@@ -498,6 +742,7 @@ public class PlanSpec {
 
         public void setEstimatedHours(double estimatedHours) {
             this.estimatedHours = estimatedHours;
+            changed();
         }
 
         public LocalDate getDueDate() {
@@ -506,6 +751,431 @@ public class PlanSpec {
 
         public void setDueDate(LocalDate dueDate) {
             this.dueDate = dueDate;
+            changed();
+        }
+
+        private void changed() {
+            if (owner != null) {
+                owner.changed();
+            }
+        }
+
+        public ComponentSpec copy() {
+            return new ComponentSpec(name, estimatedHours, dueDate);
+        }
+    }
+
+    /**
+     * Recurring availability: a capacity that applies to the selected days of week
+     * within a date range. Stored as a compact rule and expanded only when queried.
+     */
+    public static class AvailabilityRule {
+        private LocalDate startDate;
+        private LocalDate endDate;
+        private Set<DayOfWeek> daysOfWeek;
+        private double capacityHours;
+
+        public AvailabilityRule() {
+            this.daysOfWeek = EnumSet.allOf(DayOfWeek.class);
+        }
+
+        public AvailabilityRule(LocalDate startDate, LocalDate endDate,
+                Set<DayOfWeek> daysOfWeek, double capacityHours) {
+            this.startDate = startDate;
+            this.endDate = endDate;
+            this.daysOfWeek = daysOfWeek.isEmpty()
+                    ? EnumSet.noneOf(DayOfWeek.class)
+                    : EnumSet.copyOf(daysOfWeek);
+            this.capacityHours = capacityHours;
+        }
+
+        // Getters and Setters
+
+        public LocalDate getStartDate() {
+            return startDate;
+        }
+
+        public void setStartDate(LocalDate startDate) {
+            this.startDate = startDate;
+        }
+
+        public LocalDate getEndDate() {
+            return endDate;
+        }
+
+        public void setEndDate(LocalDate endDate) {
+            this.endDate = endDate;
+        }
+
+        public Set<DayOfWeek> getDaysOfWeek() {
+            return daysOfWeek;
+        }
+
+        public void setDaysOfWeek(Set<DayOfWeek> daysOfWeek) {
+            this.daysOfWeek = daysOfWeek;
+        }
+
+        public double getCapacityHours() {
+            return capacityHours;
+        }
+
+        public void setCapacityHours(double capacityHours) {
+            this.capacityHours = capacityHours;
+        }
+
+        /**
+         * Check if this rule covers the given date
+         */
+        public boolean appliesTo(LocalDate date) {
+            return !date.isBefore(startDate)
+                    && !date.isAfter(endDate)
+                    && daysOfWeek.contains(date.getDayOfWeek());
+        }
+
+        /**
+         * Count matching dates without expanding the range
+         */
+        public long countMatchingDays() {
+            if (startDate.isAfter(endDate)) {
+                return 0;
+            }
+            long totalDays = ChronoUnit.DAYS.between(startDate, endDate) + 1;
+            long count = (totalDays / 7) * daysOfWeek.size();
+            LocalDate d = startDate.plusDays((totalDays / 7) * 7);
+            for (; !d.isAfter(endDate); d = d.plusDays(1)) {
+                if (daysOfWeek.contains(d.getDayOfWeek())) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        public AvailabilityRule copy() {
+            return new AvailabilityRule(startDate, endDate, daysOfWeek, capacityHours);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s to %s on %s (%.1fh)", startDate, endDate, daysOfWeek, capacityHours);
+        }
+    }
+
+    /**
+     * Fixed commitment (class, job, exam) that no study block may overlap: a time of day
+     * on the selected days of week within a date range. A one-off interval is a range of
+     * a single date.
+     */
+    public static class BusyInterval {
+        private String label;
+        private LocalDate startDate;
+        private LocalDate endDate;
+        private Set<DayOfWeek> daysOfWeek;
+        private LocalTime startTime;
+        private LocalTime endTime;
+
+        public BusyInterval() {
+            this.daysOfWeek = EnumSet.allOf(DayOfWeek.class);
+        }
+
+        public BusyInterval(String label, LocalDate date, LocalTime startTime, LocalTime endTime) {
+            this(label, date, date, EnumSet.allOf(DayOfWeek.class), startTime, endTime);
+        }
+
+        public BusyInterval(String label, LocalDate startDate, LocalDate endDate,
+                Set<DayOfWeek> daysOfWeek, LocalTime startTime, LocalTime endTime) {
+            this.label = label;
+            this.startDate = startDate;
+            this.endDate = endDate;
+            this.daysOfWeek = daysOfWeek.isEmpty()
+                    ? EnumSet.noneOf(DayOfWeek.class)
+                    : EnumSet.copyOf(daysOfWeek);
+            this.startTime = startTime;
+            this.endTime = endTime;
+        }
+
+        // Getters and Setters
+
+        public String getLabel() {
+            return label;
+        }
+
+        public void setLabel(String label) {
+            this.label = label;
+        }
+
+        public LocalDate getStartDate() {
+            return startDate;
+        }
+
+        public void setStartDate(LocalDate startDate) {
+            this.startDate = startDate;
+        }
+
+        public LocalDate getEndDate() {
+            return endDate;
+        }
+
+        public void setEndDate(LocalDate endDate) {
+            this.endDate = endDate;
+        }
+
+        public Set<DayOfWeek> getDaysOfWeek() {
+            return daysOfWeek;
+        }
+
+        public void setDaysOfWeek(Set<DayOfWeek> daysOfWeek) {
+            this.daysOfWeek = daysOfWeek;
+        }
+
+        public LocalTime getStartTime() {
+            return startTime;
+        }
+
+        public void setStartTime(LocalTime startTime) {
+            this.startTime = startTime;
+        }
+
+        public LocalTime getEndTime() {
+            return endTime;
+        }
+
+        public void setEndTime(LocalTime endTime) {
+            this.endTime = endTime;
+        }
+
+        /**
+         * Minutes from midnight at which the interval starts
+         */
+        @JsonIgnore
+        public int getStartMinute() {
+            return startTime.getHour() * 60 + startTime.getMinute();
+        }
+
+        /**
+         * Minutes from midnight at which the interval ends; an end of 00:00 is the
+         * midnight that closes the day (1440)
+         */
+        @JsonIgnore
+        public int getEndMinute() {
+            int minute = endTime.getHour() * 60 + endTime.getMinute();
+            return minute == 0 ? 24 * 60 : minute;
+        }
+
+        /**
+         * Check if the interval falls on the given date
+         */
+        public boolean appliesTo(LocalDate date) {
+            return !date.isBefore(startDate)
+                    && !date.isAfter(endDate)
+                    && daysOfWeek.contains(date.getDayOfWeek());
+        }
+
+        /**
+         * Whether this repeats over a range rather than falling on one date
+         */
+        @JsonIgnore
+        public boolean isRecurring() {
+            return !startDate.equals(endDate);
+        }
+
+        /**
+         * Count matching dates without expanding the range
+         */
+        public long countMatchingDays() {
+            return new AvailabilityRule(startDate, endDate, daysOfWeek, 0).countMatchingDays();
+        }
+
+        public BusyInterval copy() {
+            return new BusyInterval(label, startDate, endDate, daysOfWeek, startTime, endTime);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            BusyInterval that = (BusyInterval) o;
+            return Objects.equals(label, that.label) &&
+                    Objects.equals(startDate, that.startDate) &&
+                    Objects.equals(endDate, that.endDate) &&
+                    Objects.equals(daysOfWeek, that.daysOfWeek) &&
+                    Objects.equals(startTime, that.startTime) &&
+                    Objects.equals(endTime, that.endTime);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(label, startDate, endDate, daysOfWeek, startTime, endTime);
+        }
+
+        @Override
+        public String toString() {
+            String days = isRecurring() ? startDate + " to " + endDate + " on " + daysOfWeek : startDate.toString();
+            return String.format("'%s' %s %s-%s", label, days, startTime, endTime);
+        }
+    }
+
+    /**
+     * Hard constraint on where a course's blocks may go: not on some days of the week,
+     * only before or after a time of day, or at most a number of blocks a day. A null
+     * course applies to every course. Only the constraint engine ("csp") guarantees them.
+     */
+    public static class HardConstraint {
+
+        public enum Kind {
+            NOT_ON,
+            BEFORE,
+            AFTER,
+            MAX_PER_DAY
+        }
+
+        private Kind kind;
+        private String courseId;
+        private Set<DayOfWeek> daysOfWeek = EnumSet.noneOf(DayOfWeek.class);
+        private LocalTime time;
+        private int limit;
+
+        public HardConstraint() {
+        }
+
+        private HardConstraint(Kind kind, String courseId, Set<DayOfWeek> daysOfWeek, LocalTime time, int limit) {
+            this.kind = kind;
+            this.courseId = courseId;
+            this.daysOfWeek = daysOfWeek.isEmpty() ? EnumSet.noneOf(DayOfWeek.class) : EnumSet.copyOf(daysOfWeek);
+            this.time = time;
+            this.limit = limit;
+        }
+
+        /**
+         * No blocks of the course on these days of the week
+         */
+        public static HardConstraint notOn(String courseId, Set<DayOfWeek> daysOfWeek) {
+            return new HardConstraint(Kind.NOT_ON, courseId, daysOfWeek, null, 0);
+        }
+
+        /**
+         * Blocks of the course end by this time
+         */
+        public static HardConstraint before(String courseId, LocalTime time) {
+            return new HardConstraint(Kind.BEFORE, courseId, Set.of(), time, 0);
+        }
+
+        /**
+         * Blocks of the course start at or after this time
+         */
+        public static HardConstraint after(String courseId, LocalTime time) {
+            return new HardConstraint(Kind.AFTER, courseId, Set.of(), time, 0);
+        }
+
+        /**
+         * At most {@code limit} blocks of the course (of each course when null) a day
+         */
+        public static HardConstraint maxPerDay(String courseId, int limit) {
+            return new HardConstraint(Kind.MAX_PER_DAY, courseId, Set.of(), null, limit);
+        }
+
+        // Getters and Setters
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        public void setKind(Kind kind) {
+            this.kind = kind;
+        }
+
+        public String getCourseId() {
+            return courseId;
+        }
+
+        public void setCourseId(String courseId) {
+            this.courseId = courseId;
+        }
+
+        public Set<DayOfWeek> getDaysOfWeek() {
+            return daysOfWeek;
+        }
+
+        public void setDaysOfWeek(Set<DayOfWeek> daysOfWeek) {
+            this.daysOfWeek = daysOfWeek == null || daysOfWeek.isEmpty()
+                    ? EnumSet.noneOf(DayOfWeek.class) : EnumSet.copyOf(daysOfWeek);
+        }
+
+        public LocalTime getTime() {
+            return time;
+        }
+
+        public void setTime(LocalTime time) {
+            this.time = time;
+        }
+
+        public int getLimit() {
+            return limit;
+        }
+
+        public void setLimit(int limit) {
+            this.limit = limit;
+        }
+
+        /**
+         * Whether the constraint covers blocks of the given course
+         */
+        public boolean appliesTo(String course) {
+            return courseId == null || courseId.equals(course);
+        }
+
+        /**
+         * Whether a block from startMinute to endMinute on the date is allowed; per-day
+         * limits allow every single block
+         */
+        public boolean allows(LocalDate date, int startMinute, int endMinute) {
+            switch (kind) {
+                case NOT_ON:
+                    return !daysOfWeek.contains(date.getDayOfWeek());
+                case BEFORE:
+                    return endMinute <= time.getHour() * 60 + time.getMinute();
+                case AFTER:
+                    return startMinute >= time.getHour() * 60 + time.getMinute();
+                default:
+                    return true;
+            }
+        }
+
+        public HardConstraint copy() {
+            return new HardConstraint(kind, courseId, daysOfWeek, time, limit);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            HardConstraint that = (HardConstraint) o;
+            return limit == that.limit &&
+                    kind == that.kind &&
+                    Objects.equals(courseId, that.courseId) &&
+                    Objects.equals(daysOfWeek, that.daysOfWeek) &&
+                    Objects.equals(time, that.time);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(kind, courseId, daysOfWeek, time, limit);
+        }
+
+        @Override
+        public String toString() {
+            String course = courseId != null ? "'" + courseId + "'" : "every course";
+            switch (kind) {
+                case NOT_ON:
+                    return course + " not on " + daysOfWeek;
+                case BEFORE:
+                    return course + " before " + time;
+                case AFTER:
+                    return course + " after " + time;
+                default:
+                    return "at most " + limit + " block(s) a day of " + course;
+            }
         }
     }
 
@@ -517,6 +1187,12 @@ public class PlanSpec {
         private int maxContinuousBlockMinutes = 180; // 3 hours
         private int blockDurationMinutes = 90;
         private int breakDurationMinutes = 15;
+        private SplitStrategy splitStrategy = SplitStrategy.CAPACITY_WEIGHTED;
+        private LocalDate splitDate; // pinned start of the second half; null = per the split strategy
+        private List<Integer> reviewIntervals = List.of(); // days after a study day; empty = no reviews
+        private int reviewDurationMinutes = 30;
+        private List<HardConstraint> constraints = new ArrayList<>();
+        private transient PlanSpec owner;
 
         public SchedulingRules() {
         }
@@ -537,6 +1213,7 @@ public class PlanSpec {
 
         public void setMaxHoursPerDay(double maxHoursPerDay) {
             this.maxHoursPerDay = maxHoursPerDay;
+            changed();
         }
 
         public int getMaxContinuousBlockMinutes() {
@@ -545,6 +1222,7 @@ public class PlanSpec {
 
         public void setMaxContinuousBlockMinutes(int maxContinuousBlockMinutes) {
             this.maxContinuousBlockMinutes = maxContinuousBlockMinutes;
+            changed();
         }
 
         public int getBlockDurationMinutes() {
@@ -553,6 +1231,7 @@ public class PlanSpec {
 
         public void setBlockDurationMinutes(int blockDurationMinutes) {
             this.blockDurationMinutes = blockDurationMinutes;
+            changed();
         }
 
         public int getBreakDurationMinutes() {
@@ -561,6 +1240,97 @@ public class PlanSpec {
 
         public void setBreakDurationMinutes(int breakDurationMinutes) {
             this.breakDurationMinutes = breakDurationMinutes;
+            changed();
+        }
+
+        public SplitStrategy getSplitStrategy() {
+            return splitStrategy;
+        }
+
+        public void setSplitStrategy(SplitStrategy splitStrategy) {
+            this.splitStrategy = splitStrategy;
+            changed();
+        }
+
+        /**
+         * Pinned first day of the second half. Engines that split the whole plan range use
+         * it when it falls inside the range (replans keep the original plan's split this way).
+         */
+        public LocalDate getSplitDate() {
+            return splitDate;
+        }
+
+        public void setSplitDate(LocalDate splitDate) {
+            this.splitDate = splitDate;
+            changed();
+        }
+
+        public List<Integer> getReviewIntervals() {
+            return reviewIntervals;
+        }
+
+        public void setReviewIntervals(List<Integer> reviewIntervals) {
+            this.reviewIntervals = reviewIntervals != null ? List.copyOf(reviewIntervals) : List.of();
+            changed();
+        }
+
+        public int getReviewDurationMinutes() {
+            return reviewDurationMinutes;
+        }
+
+        public void setReviewDurationMinutes(int reviewDurationMinutes) {
+            this.reviewDurationMinutes = reviewDurationMinutes;
+            changed();
+        }
+
+        public List<HardConstraint> getConstraints() {
+            return Collections.unmodifiableList(constraints);
+        }
+
+        public void setConstraints(List<HardConstraint> constraints) {
+            this.constraints = constraints != null ? new ArrayList<>(constraints) : new ArrayList<>();
+            changed();
+        }
+
+        public void addConstraint(HardConstraint constraint) {
+            constraints.add(constraint);
+            changed();
+        }
+
+        /**
+         * Drop the constraints of a course (every constraint when null); returns how many
+         */
+        public int removeConstraints(String courseId) {
+            int before = constraints.size();
+            constraints.removeIf(c -> courseId == null || courseId.equals(c.getCourseId()));
+            changed();
+            return before - constraints.size();
+        }
+
+        /**
+         * Whether spaced-repetition reviews follow study days
+         */
+        public boolean hasReviews() {
+            return !reviewIntervals.isEmpty();
+        }
+
+        private void changed() {
+            if (owner != null) {
+                owner.onRulesChanged();
+            }
+        }
+
+        public SchedulingRules copy() {
+            SchedulingRules copy = new SchedulingRules(maxHoursPerDay, maxContinuousBlockMinutes,
+                    blockDurationMinutes, breakDurationMinutes);
+            copy.splitStrategy = splitStrategy;
+            copy.splitDate = splitDate;
+            copy.reviewIntervals = reviewIntervals;
+            copy.reviewDurationMinutes = reviewDurationMinutes;
+            for (HardConstraint constraint : constraints) {
+                copy.constraints.add(constraint.copy());
+            }
+            return copy;
         }
 
         /**
@@ -596,6 +1366,7 @@ public class PlanSpec {
         private double spreadnessWeight = 1.0;
         private double bufferWeight = 1.0;
         private double interleaveWeight = 1.0;
+        private transient PlanSpec owner;
 
         public SoftPreferences() {
         }
@@ -614,6 +1385,7 @@ public class PlanSpec {
 
         public void setPreferSpreadness(boolean preferSpreadness) {
             this.preferSpreadness = preferSpreadness;
+            changed();
         }
 
         public boolean isPreferBuffer() {
@@ -622,6 +1394,7 @@ public class PlanSpec {
 
         public void setPreferBuffer(boolean preferBuffer) {
             this.preferBuffer = preferBuffer;
+            changed();
         }
 
         public boolean isPreferInterleave() {
@@ -630,6 +1403,7 @@ public class PlanSpec {
 
         public void setPreferInterleave(boolean preferInterleave) {
             this.preferInterleave = preferInterleave;
+            changed();
         }
 
         public double getSpreadnessWeight() {
@@ -638,6 +1412,7 @@ public class PlanSpec {
 
         public void setSpreadnessWeight(double spreadnessWeight) {
             this.spreadnessWeight = spreadnessWeight;
+            changed();
         }
 
         public double getBufferWeight() {
@@ -646,6 +1421,7 @@ public class PlanSpec {
 
         public void setBufferWeight(double bufferWeight) {
             this.bufferWeight = bufferWeight;
+            changed();
         }
 
         public double getInterleaveWeight() {
@@ -654,6 +1430,47 @@ public class PlanSpec {
 
         public void setInterleaveWeight(double interleaveWeight) {
             this.interleaveWeight = interleaveWeight;
+            changed();
+        }
+
+        private void changed() {
+            if (owner != null) {
+                owner.onPreferencesChanged();
+            }
+        }
+
+        // Weighted score
+
+        /**
+         * Weights the overall score gives {spreadness, buffer, interleave}; an objective
+         * that is not preferred (or has a negative weight) counts 0
+         */
+        public double[] effectiveWeights() {
+            return new double[] {
+                    preferSpreadness ? Math.max(0, spreadnessWeight) : 0,
+                    preferBuffer ? Math.max(0, bufferWeight) : 0,
+                    preferInterleave ? Math.max(0, interleaveWeight) : 0};
+        }
+
+        /**
+         * Weighted average of the three objective scores (plain average when every
+         * weight is 0)
+         */
+        public double weightedScore(double spreadness, double buffer, double interleave) {
+            double[] w = effectiveWeights();
+            double total = w[0] + w[1] + w[2];
+            if (total <= 0) {
+                return (spreadness + buffer + interleave) / 3.0;
+            }
+            return (w[0] * spreadness + w[1] * buffer + w[2] * interleave) / total;
+        }
+
+        public SoftPreferences copy() {
+            SoftPreferences copy = new SoftPreferences(preferSpreadness, preferBuffer, preferInterleave);
+            copy.spreadnessWeight = spreadnessWeight;
+            copy.bufferWeight = bufferWeight;
+            copy.interleaveWeight = interleaveWeight;
+            return copy;
         }
     }
 
@@ -663,18 +1480,50 @@ public class PlanSpec {
     public static class ValidationResult {
         private boolean valid;
         private List<String> errors;
+        private Supplier<List<String>> errorSupplier;
+        private LocalDate startDate;
+        private LocalDate endDate;
 
         public ValidationResult(boolean valid, List<String> errors) {
             this.valid = valid;
             this.errors = errors;
         }
 
+        /**
+         * Result with an error list assembled on first access and the effective date range
+         */
+        public ValidationResult(boolean valid, Supplier<List<String>> errorSupplier,
+                LocalDate startDate, LocalDate endDate) {
+            this.valid = valid;
+            this.errorSupplier = errorSupplier;
+            this.startDate = startDate;
+            this.endDate = endDate;
+        }
+
         public boolean isValid() {
             return valid;
         }
 
-        public List<String> getErrors() {
+        public synchronized List<String> getErrors() {
+            if (errors == null) {
+                errors = Collections.unmodifiableList(errorSupplier.get());
+                errorSupplier = null;
+            }
             return errors;
         }
+
+        /**
+         * Effective start date (explicit, or first availability date when unset)
+         */
+        public LocalDate getStartDate() {
+            return startDate;
+        }
+
+        /**
+         * Effective end date (explicit, or last availability date when unset)
+         */
+        public LocalDate getEndDate() {
+            return endDate;
+        }
     }
 }
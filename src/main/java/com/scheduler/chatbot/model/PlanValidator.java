@@ -0,0 +1,404 @@
+package com.scheduler.chatbot.model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+import com.scheduler.chatbot.model.PlanSpec.AvailabilityRule;
+import com.scheduler.chatbot.model.PlanSpec.BusyInterval;
+import com.scheduler.chatbot.model.PlanSpec.ComponentSpec;
+import com.scheduler.chatbot.model.PlanSpec.CourseSpec;
+import com.scheduler.chatbot.model.PlanSpec.SchedulingRules;
+import com.scheduler.chatbot.model.PlanSpec.ValidationResult;
+
+/**
+ * Semantic validator for PlanSpec
+ *
+ * Never mutates the plan: the effective date range (explicit start/end, or the
+ * availability bounds when unset) is returned in the ValidationResult instead of
+ * being written back. Each PlanSpec owns one validator, which remembers the verdict
+ * for every course and every per-date availability entry. The plan reports which
+ * courses and dates a command touched, and only those are checked again.
+ * Course checks that depend on the date range are redone when the range moves.
+ */
+public class PlanValidator {
+
+    // Invalid entries only; valid courses/dates are not stored
+    private final Map<CourseSpec, List<String>> courseErrors = new IdentityHashMap<>();
+    private final NavigableMap<LocalDate, List<String>> dateErrors = new TreeMap<>();
+
+    // Entries touched since the previous run
+    private final Set<CourseSpec> dirtyCourses = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Set<CourseSpec> rangeDependentCourses = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Set<LocalDate> dirtyDates = new HashSet<>();
+    private boolean allCoursesDirty = true;
+    private boolean allDatesDirty = true;
+
+    private LocalDate lastStart;
+    private LocalDate lastEnd;
+
+    // Change notifications from PlanSpec
+
+    void courseChanged(CourseSpec course) {
+        dirtyCourses.add(course);
+    }
+
+    void courseRemoved(CourseSpec course) {
+        dirtyCourses.remove(course);
+        courseErrors.remove(course);
+        rangeDependentCourses.remove(course);
+    }
+
+    void coursesReplaced() {
+        allCoursesDirty = true;
+    }
+
+    void dateChanged(LocalDate date) {
+        dirtyDates.add(date);
+    }
+
+    void availabilityReplaced() {
+        allDatesDirty = true;
+    }
+
+    /**
+     * Validate the plan, re-checking only entries touched since the previous call
+     */
+    public ValidationResult validate(PlanSpec plan) {
+        SchedulingRules rules = plan.getRules();
+        List<CourseSpec> courses = plan.getCourses();
+
+        // Effective range, derived without touching the plan
+        LocalDate start = plan.getStartDate() != null ? plan.getStartDate() : plan.getFirstAvailabilityDate();
+        LocalDate end = plan.getEndDate() != null ? plan.getEndDate() : plan.getLastAvailabilityDate();
+
+        // Courses
+        if (allCoursesDirty) {
+            courseErrors.clear();
+            rangeDependentCourses.clear();
+            dirtyCourses.clear();
+            dirtyCourses.addAll(courses);
+            allCoursesDirty = false;
+        }
+        if (!Objects.equals(start, lastStart) || !Objects.equals(end, lastEnd)) {
+            dirtyCourses.addAll(rangeDependentCourses);
+            lastStart = start;
+            lastEnd = end;
+        }
+        for (CourseSpec course : dirtyCourses) {
+            List<String> errors = validateCourse(course, start, end);
+            if (errors.isEmpty()) {
+                courseErrors.remove(course);
+            } else {
+                courseErrors.put(course, errors);
+            }
+            if (dependsOnRange(course)) {
+                rangeDependentCourses.add(course);
+            } else {
+                rangeDependentCourses.remove(course);
+            }
+        }
+        dirtyCourses.clear();
+
+        // Per-date availability entries
+        NavigableMap<LocalDate, Double> entries = plan.getAvailability();
+        if (allDatesDirty) {
+            dateErrors.clear();
+            dirtyDates.clear();
+            dirtyDates.addAll(entries.keySet());
+            allDatesDirty = false;
+        }
+        for (LocalDate date : dirtyDates) {
+            Double hours = entries.get(date);
+            List<String> errors = hours == null ? List.of() : validateDate(date, hours, rules);
+            if (errors.isEmpty()) {
+                dateErrors.remove(date);
+            } else {
+                dateErrors.put(date, errors);
+            }
+        }
+        dirtyDates.clear();
+
+        // Plan-level checks are O(1) (rules are few and checked every time)
+        List<AvailabilityRule> availabilityRules = plan.getAvailabilityRules();
+        boolean nameInvalid = plan.getPlanName() == null || plan.getPlanName().trim().isEmpty();
+        boolean noCourses = courses.isEmpty();
+        boolean duplicates = !noCourses && plan.hasDuplicateCourseIds();
+        boolean noAvailability = !plan.hasAvailability();
+        boolean rulesInvalid = !noAvailability && availabilityRules.stream()
+                .anyMatch(r -> !validateRule(r, rules).isEmpty());
+        List<BusyInterval> busyIntervals = plan.getBusyIntervals();
+        boolean busyInvalid = busyIntervals.stream().anyMatch(i -> !validateBusyInterval(i).isEmpty());
+        boolean rangeInvalid = start != null && end != null && start.isAfter(end);
+        double totalWorkload = plan.getTotalWorkloadHours();
+        double totalAvailable = plan.getTotalAvailableHours();
+        boolean overloaded = totalWorkload > totalAvailable;
+        boolean schedulingRulesInvalid = !validateSchedulingRules(rules).isEmpty();
+
+        boolean valid = !nameInvalid && !noCourses && !duplicates && courseErrors.isEmpty()
+                && !noAvailability && dateErrors.isEmpty() && !rulesInvalid && !busyInvalid
+                && !rangeInvalid && !overloaded && !schedulingRulesInvalid;
+
+        if (valid) {
+            return new ValidationResult(true, List::of, start, end);
+        }
+
+        // Snapshot what the lazy error list needs; messages are only assembled on demand
+        List<List<String>> invalidCourses = new ArrayList<>();
+        if (!courseErrors.isEmpty()) {
+            for (CourseSpec course : courses) {
+                List<String> errors = courseErrors.get(course);
+                if (errors != null) {
+                    List<String> prefixed = new ArrayList<>();
+                    for (String error : errors) {
+                        prefixed.add("Course '" + course.getId() + "': " + error);
+                    }
+                    invalidCourses.add(prefixed);
+                }
+            }
+        }
+        List<List<String>> invalidDates = new ArrayList<>(dateErrors.values());
+
+        return new ValidationResult(false, () -> {
+            List<String> errors = new ArrayList<>();
+
+            // 1. Plan name
+            if (nameInvalid) {
+                errors.add("Plan name cannot be empty");
+            }
+
+            // 2. Courses
+            if (noCourses) {
+                errors.add("At least one course must be specified");
+            } else {
+                if (duplicates) {
+                    errors.add("Duplicate course IDs found");
+                }
+                invalidCourses.forEach(errors::addAll);
+            }
+
+            // 3. Availability
+            if (noAvailability) {
+                errors.add("No availability specified");
+            } else {
+                invalidDates.forEach(errors::addAll);
+                for (AvailabilityRule rule : availabilityRules) {
+                    errors.addAll(validateRule(rule, rules));
+                }
+            }
+            for (BusyInterval interval : busyIntervals) {
+                errors.addAll(validateBusyInterval(interval));
+            }
+
+            // 4. Date range
+            if (rangeInvalid) {
+                errors.add("Start date (" + start + ") is after end date (" + end + ")");
+            }
+
+            // 5. Workload vs availability
+            if (overloaded) {
+                errors.add(String.format(
+                        "Total workload (%.1f hours) exceeds total availability (%.1f hours). " +
+                                "Shortfall: %.1f hours",
+                        totalWorkload, totalAvailable, totalWorkload - totalAvailable));
+            }
+
+            // 6. Scheduling rules
+            errors.addAll(validateSchedulingRules(rules));
+            return errors;
+        }, start, end);
+    }
+
+    /**
+     * Validate a single per-date availability entry
+     */
+    private List<String> validateDate(LocalDate date, double hours, SchedulingRules rules) {
+        List<String> errors = new ArrayList<>();
+        if (hours < 0) {
+            errors.add("Negative availability hours on " + date);
+        }
+        if (hours > rules.getMaxHoursPerDay()) {
+            errors.add("Availability on " + date +
+                    " exceeds max hours per day (" + rules.getMaxHoursPerDay() + ")");
+        }
+        return errors;
+    }
+
+    /**
+     * Validate a recurring availability rule
+     */
+    private List<String> validateRule(AvailabilityRule rule, SchedulingRules rules) {
+        List<String> errors = new ArrayList<>();
+        if (rule.getCapacityHours() < 0) {
+            errors.add("Negative availability hours in rule " + rule);
+        }
+        if (rule.getCapacityHours() > rules.getMaxHoursPerDay()) {
+            errors.add("Availability rule " + rule +
+                    " exceeds max hours per day (" + rules.getMaxHoursPerDay() + ")");
+        }
+        if (rule.getStartDate().isAfter(rule.getEndDate())) {
+            errors.add("Availability rule " + rule + " starts after it ends");
+        }
+        return errors;
+    }
+
+    /**
+     * Validate a busy interval (fixed commitment)
+     */
+    private List<String> validateBusyInterval(BusyInterval interval) {
+        List<String> errors = new ArrayList<>();
+        if (interval.getStartDate() == null || interval.getEndDate() == null
+                || interval.getStartTime() == null || interval.getEndTime() == null) {
+            errors.add("Busy interval '" + interval.getLabel() + "' needs dates and times");
+            return errors;
+        }
+        if (interval.getStartDate().isAfter(interval.getEndDate())) {
+            errors.add("Busy interval " + interval + " starts after it ends");
+        }
+        if (interval.getEndMinute() <= interval.getStartMinute()) {
+            errors.add("Busy interval " + interval + " must end after it starts on the same day");
+        }
+        return errors;
+    }
+
+    /**
+     * Validate scheduling rules
+     */
+    private List<String> validateSchedulingRules(SchedulingRules rules) {
+        List<String> errors = new ArrayList<>();
+        if (rules.getMaxHoursPerDay() <= 0) {
+            errors.add("Max hours per day must be positive");
+        }
+
+        if (rules.getBlockDurationMinutes() <= 0) {
+            errors.add("Block duration must be positive");
+        }
+
+        if (rules.getBreakDurationMinutes() < 0) {
+            errors.add("Break duration cannot be negative");
+        }
+
+        if (rules.getSplitStrategy() == null) {
+            errors.add("Split strategy must be specified");
+        }
+
+        if (rules.getMaxContinuousBlockMinutes() < rules.getBlockDurationMinutes()) {
+            errors.add("Max continuous block must be at least one block duration");
+        }
+
+        int previous = 0;
+        for (Integer interval : rules.getReviewIntervals()) {
+            if (interval == null || interval <= previous) {
+                errors.add("Review intervals must be positive and increasing: " + rules.getReviewIntervals());
+                break;
+            }
+            previous = interval;
+        }
+
+        if (rules.hasReviews() && (rules.getReviewDurationMinutes() <= 0
+                || rules.getReviewDurationMinutes() > rules.getBlockDurationMinutes())) {
+            errors.add("Review duration must be positive and at most one block duration");
+        }
+
+        for (PlanSpec.HardConstraint constraint : rules.getConstraints()) {
+            errors.addAll(validateConstraint(constraint));
+        }
+        return errors;
+    }
+
+    /**
+     * Validate a hard constraint
+     */
+    private List<String> validateConstraint(PlanSpec.HardConstraint constraint) {
+        if (constraint.getKind() == null) {
+            return List.of("Constraint kind must be specified");
+        }
+        switch (constraint.getKind()) {
+            case NOT_ON:
+                return constraint.getDaysOfWeek().isEmpty()
+                        ? List.of("Constraint " + constraint + " needs at least one day") : List.of();
+            case BEFORE:
+            case AFTER:
+                return constraint.getTime() == null
+                        ? List.of("Constraint on '" + constraint.getCourseId() + "' needs a time") : List.of();
+            default:
+                return constraint.getLimit() < 1
+                        ? List.of("Constraint " + constraint + " must allow at least one block") : List.of();
+        }
+    }
+
+    /**
+     * Check whether a course's verdict depends on the plan date range
+     */
+    private boolean dependsOnRange(CourseSpec course) {
+        if (course.getExamDate() != null) {
+            return true;
+        }
+        return course.getComponents() != null
+                && course.getComponents().stream().anyMatch(c -> c.getDueDate() != null);
+    }
+
+    /**
+     * Validate a single course specification against the effective range
+     */
+    private List<String> validateCourse(CourseSpec course, LocalDate startDate, LocalDate endDate) {
+        List<String> errors = new ArrayList<>();
+
+        if (course.getId() == null || course.getId().trim().isEmpty()) {
+            errors.add("Course ID cannot be empty");
+        }
+
+        if (course.getPriority() == null) {
+            errors.add("Priority must be specified");
+        }
+
+        if (course.getWorkloadHours() <= 0) {
+            errors.add("Workload hours must be positive");
+        }
+
+        // Validate components
+        if (course.getComponents() != null && !course.getComponents().isEmpty()) {
+            double componentHours = course.getComponents().stream()
+                    .mapToDouble(ComponentSpec::getEstimatedHours)
+                    .sum();
+
+            // Component hours should not exceed total workload significantly
+            if (componentHours > course.getWorkloadHours() * 1.1) {
+                errors.add("Component hours exceed total workload");
+            }
+
+            // Validate each component
+            for (ComponentSpec comp : course.getComponents()) {
+                if (comp.getName() == null || comp.getName().trim().isEmpty()) {
+                    errors.add("Component name cannot be empty");
+                }
+                if (comp.getEstimatedHours() <= 0) {
+                    errors.add("Component '" + comp.getName() + "' hours must be positive");
+                }
+                if (comp.getDueDate() != null && endDate != null && comp.getDueDate().isAfter(endDate)) {
+                    errors.add("Component '" + comp.getName() + "' due date is after plan end date");
+                }
+            }
+        }
+
+        // Validate exam date
+        if (course.getExamDate() != null) {
+            if (startDate != null && course.getExamDate().isBefore(startDate)) {
+                errors.add("Exam date is before plan start date");
+            }
+            if (endDate != null && course.getExamDate().isAfter(endDate)) {
+                errors.add("Exam date is after plan end date");
+            }
+        }
+
+        return errors;
+    }
+}
@@ -0,0 +1,304 @@
+package com.scheduler.chatbot.model;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of a PlanSpec
+ *
+ * Courses, per-date availability, availability rules and busy intervals live in persistent sorted maps,
+ * so each with* method returns a new version in O(log n) that shares everything it did
+ * not touch with this one. Course order is kept by an insertion sequence number so a
+ * materialized plan schedules equal-priority courses in the same order.
+ * Courses and rules are stored as private copies and handed out as copies.
+ */
+public final class PlanVersion {
+
+    private long id = -1;
+    private PlanVersion parent;
+    private String command;
+
+    private String planName;
+    private ZoneId timezone;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private PersistentSortedMap<Long, PlanSpec.CourseSpec> courses; // insertion sequence -> course
+    private PersistentSortedMap<String, Long> courseSequence;       // id -> insertion sequence
+    private long nextSequence;
+    private PersistentSortedMap<LocalDate, Double> availability;
+    private PersistentSortedMap<Integer, PlanSpec.AvailabilityRule> availabilityRules;
+    private PersistentSortedMap<Integer, PlanSpec.BusyInterval> busyIntervals; // insertion sequence -> interval
+    private PlanSpec.SchedulingRules rules;
+    private PlanSpec.SoftPreferences softPrefs;
+    private String engine;
+
+    private PlanVersion() {
+    }
+
+    /**
+     * Capture a mutable plan (O(n log n), done once per history)
+     */
+    public static PlanVersion of(PlanSpec plan) {
+        PlanVersion version = new PlanVersion();
+        version.planName = plan.getPlanName();
+        version.timezone = plan.getTimezone();
+        version.startDate = plan.getStartDate();
+        version.endDate = plan.getEndDate();
+        version.courses = PersistentSortedMap.empty();
+        version.courseSequence = PersistentSortedMap.empty();
+        for (PlanSpec.CourseSpec course : plan.getCourses()) {
+            version.appendCourse(course.copy());
+        }
+        version.availability = PersistentSortedMap.copyOf(plan.getAvailability());
+        version.availabilityRules = PersistentSortedMap.empty();
+        for (PlanSpec.AvailabilityRule rule : plan.getAvailabilityRules()) {
+            version.availabilityRules = version.availabilityRules.put(version.availabilityRules.size(), rule.copy());
+        }
+        version.busyIntervals = PersistentSortedMap.empty();
+        for (PlanSpec.BusyInterval interval : plan.getBusyIntervals()) {
+            version.busyIntervals = version.busyIntervals.put(version.busyIntervals.size(), interval.copy());
+        }
+        version.rules = plan.getRules().copy();
+        version.softPrefs = plan.getSoftPrefs().copy();
+        version.engine = plan.getEngine();
+        return version;
+    }
+
+    /**
+     * Materialize a mutable plan (O(n))
+     */
+    public PlanSpec toPlanSpec() {
+        PlanSpec plan = new PlanSpec(planName);
+        plan.setTimezone(timezone);
+        plan.setStartDate(startDate);
+        plan.setEndDate(endDate);
+        List<PlanSpec.CourseSpec> copies = new ArrayList<>(courses.size());
+        for (PlanSpec.CourseSpec course : courses.values()) {
+            copies.add(course.copy());
+        }
+        plan.setCourses(copies);
+        plan.setAvailability(availability.toMap());
+        List<PlanSpec.AvailabilityRule> ruleCopies = new ArrayList<>(availabilityRules.size());
+        for (PlanSpec.AvailabilityRule rule : availabilityRules.values()) {
+            ruleCopies.add(rule.copy());
+        }
+        plan.setAvailabilityRules(ruleCopies);
+        List<PlanSpec.BusyInterval> busyCopies = new ArrayList<>(busyIntervals.size());
+        for (PlanSpec.BusyInterval interval : busyIntervals.values()) {
+            busyCopies.add(interval.copy());
+        }
+        plan.setBusyIntervals(busyCopies);
+        plan.setRules(rules.copy());
+        plan.setSoftPrefs(softPrefs.copy());
+        plan.setEngine(engine);
+        return plan;
+    }
+
+    // Derived versions
+
+    public PlanVersion withPlanName(String planName) {
+        PlanVersion next = derive();
+        next.planName = planName;
+        return next;
+    }
+
+    public PlanVersion withDateRange(LocalDate startDate, LocalDate endDate) {
+        PlanVersion next = derive();
+        next.startDate = startDate;
+        next.endDate = endDate;
+        return next;
+    }
+
+    /**
+     * Add a course, or replace the course with the same id in its current position
+     */
+    public PlanVersion withCourse(PlanSpec.CourseSpec course) {
+        PlanVersion next = derive();
+        Long sequence = courseSequence.get(course.getId());
+        if (sequence == null) {
+            next.appendCourse(course.copy());
+        } else {
+            next.courses = courses.put(sequence, course.copy());
+        }
+        return next;
+    }
+
+    public PlanVersion withoutCourse(String courseId) {
+        Long sequence = courseSequence.get(courseId);
+        if (sequence == null) {
+            return this;
+        }
+        PlanVersion next = derive();
+        next.courses = courses.remove(sequence);
+        next.courseSequence = courseSequence.remove(courseId);
+        return next;
+    }
+
+    public PlanVersion withAvailability(LocalDate date, double hours) {
+        PlanVersion next = derive();
+        next.availability = availability.put(date, hours);
+        return next;
+    }
+
+    public PlanVersion withAvailabilityRule(PlanSpec.AvailabilityRule rule) {
+        PlanVersion next = derive();
+        next.availabilityRules = availabilityRules.put(availabilityRules.size(), rule.copy());
+        return next;
+    }
+
+    public PlanVersion withBusyInterval(PlanSpec.BusyInterval interval) {
+        PlanVersion next = derive();
+        int sequence = busyIntervals.isEmpty() ? 0 : busyIntervals.lastKey() + 1;
+        next.busyIntervals = busyIntervals.put(sequence, interval.copy());
+        return next;
+    }
+
+    /**
+     * Drop every busy interval with the given label (case-insensitive)
+     */
+    public PlanVersion withoutBusyIntervals(String label) {
+        PlanVersion next = derive();
+        for (Map.Entry<Integer, PlanSpec.BusyInterval> entry : busyIntervals) {
+            String current = entry.getValue().getLabel();
+            if (current != null && current.equalsIgnoreCase(label)) {
+                next.busyIntervals = next.busyIntervals.remove(entry.getKey());
+            }
+        }
+        return next;
+    }
+
+    public PlanVersion withRules(PlanSpec.SchedulingRules rules) {
+        PlanVersion next = derive();
+        next.rules = rules.copy();
+        return next;
+    }
+
+    public PlanVersion withEngine(String engine) {
+        PlanVersion next = derive();
+        next.engine = engine;
+        return next;
+    }
+
+    // Accessors
+
+    /**
+     * Version number assigned by PlanHistory, -1 until committed
+     */
+    public long getId() {
+        return id;
+    }
+
+    public PlanVersion getParent() {
+        return parent;
+    }
+
+    /**
+     * Command that produced this version
+     */
+    public String getCommand() {
+        return command;
+    }
+
+    public String getPlanName() {
+        return planName;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public String getEngine() {
+        return engine;
+    }
+
+    public int getCourseCount() {
+        return courses.size();
+    }
+
+    public boolean containsCourse(String courseId) {
+        return courseId != null && courseSequence.containsKey(courseId);
+    }
+
+    /**
+     * Copy of the course with the given id, null if absent
+     */
+    public PlanSpec.CourseSpec getCourse(String courseId) {
+        Long sequence = courseId == null ? null : courseSequence.get(courseId);
+        return sequence == null ? null : courses.get(sequence).copy();
+    }
+
+    public List<String> getCourseIds() {
+        List<String> ids = new ArrayList<>(courses.size());
+        for (PlanSpec.CourseSpec course : courses.values()) {
+            ids.add(course.getId());
+        }
+        return ids;
+    }
+
+    public Double getAvailability(LocalDate date) {
+        return availability.get(date);
+    }
+
+    public int getAvailabilityRuleCount() {
+        return availabilityRules.size();
+    }
+
+    public int getBusyIntervalCount() {
+        return busyIntervals.size();
+    }
+
+    // Internals
+
+    /**
+     * Stamp a derived version with its place in the history (O(1))
+     */
+    PlanVersion commit(long id, PlanVersion parent, String command) {
+        PlanVersion committed = derive();
+        committed.id = id;
+        committed.parent = parent;
+        committed.command = command;
+        return committed;
+    }
+
+    /**
+     * Shallow copy: every field is either immutable or a persistent map
+     */
+    private PlanVersion derive() {
+        PlanVersion next = new PlanVersion();
+        next.parent = this.parent;
+        next.planName = planName;
+        next.timezone = timezone;
+        next.startDate = startDate;
+        next.endDate = endDate;
+        next.courses = courses;
+        next.courseSequence = courseSequence;
+        next.nextSequence = nextSequence;
+        next.availability = availability;
+        next.availabilityRules = availabilityRules;
+        next.busyIntervals = busyIntervals;
+        next.rules = rules;
+        next.softPrefs = softPrefs;
+        next.engine = engine;
+        return next;
+    }
+
+    private void appendCourse(PlanSpec.CourseSpec course) {
+        long sequence = nextSequence++;
+        courses = courses.put(sequence, course);
+        if (course.getId() != null && !courseSequence.containsKey(course.getId())) {
+            courseSequence = courseSequence.put(course.getId(), sequence);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "v" + id + " (" + courses.size() + " courses" + (command != null ? ", " + command : "") + ")";
+    }
+}
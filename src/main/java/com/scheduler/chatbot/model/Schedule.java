@@ -2,19 +2,24 @@ package com.scheduler.chatbot.model;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 /**
  * Intermediate Representation (IR) for scheduler output
  * Represents the complete generated schedule with blocks, metrics, and explanations
  */
+@JsonIgnoreProperties(value = {"empty", "summary", "totalScheduledHours"}, allowGetters = true)
 public class Schedule {
     
     @JsonProperty("planName")
@@ -38,12 +43,24 @@ public class Schedule {
     @JsonProperty("score")
     private ScheduleScore score;
     
+    @JsonProperty("scoreWeights")
+    private PlanSpec.SoftPreferences scoreWeights; // weights of the overall score (null = equal weights)
+    
     @JsonProperty("explanations")
     private List<String> explanations;
     
     @JsonProperty("metadata")
     private Map<String, Object> metadata;
     
+    @JsonProperty("planFingerprint")
+    private String planFingerprint; // PlanFingerprint of the input plan
+    
+    @JsonProperty("rollingHorizon")
+    private RollingHorizon rollingHorizon; // budgets of windows not materialized yet (null = all blocks present)
+    
+    @JsonProperty("progressLog")
+    private List<ProgressEntry> progressLog = new ArrayList<>(); // one entry per reported block, oldest first
+    
     public Schedule() {
         this.generatedAt = LocalDateTime.now();
         this.blocks = new ArrayList<>();
@@ -109,6 +126,21 @@ public class Schedule {
         this.score = score;
     }
     
+    public PlanSpec.SoftPreferences getScoreWeights() {
+        return scoreWeights;
+    }
+    
+    /**
+     * Weight the overall score by the plan's soft preferences, now and on every later
+     * recalculation (a copy is kept)
+     */
+    public void setScoreWeights(PlanSpec.SoftPreferences scoreWeights) {
+        this.scoreWeights = scoreWeights != null ? scoreWeights.copy() : null;
+        if (score != null) {
+            score.setOverallScore(overallScore(score));
+        }
+    }
+    
     public List<String> getExplanations() {
         return explanations;
     }
@@ -125,6 +157,91 @@ public class Schedule {
         this.metadata = metadata;
     }
     
+    public String getPlanFingerprint() {
+        return planFingerprint;
+    }
+    
+    public void setPlanFingerprint(String planFingerprint) {
+        this.planFingerprint = planFingerprint;
+    }
+    
+    public RollingHorizon getRollingHorizon() {
+        return rollingHorizon;
+    }
+    
+    public void setRollingHorizon(RollingHorizon rollingHorizon) {
+        this.rollingHorizon = rollingHorizon;
+    }
+    
+    public List<ProgressEntry> getProgressLog() {
+        return progressLog;
+    }
+    
+    public void setProgressLog(List<ProgressEntry> progressLog) {
+        this.progressLog = progressLog;
+    }
+    
+    /**
+     * Deep copy: blocks, score, progress log and rolling budgets are copied, so marking
+     * progress on or expanding the copy leaves this schedule as it was
+     */
+    public Schedule copy() {
+        Schedule copy = new Schedule(planName, startDate, endDate);
+        copy.generatedAt = generatedAt;
+        for (ScheduledBlock block : blocks) {
+            copy.blocks.add(block.copy());
+        }
+        copy.score = score != null ? score.copy() : null;
+        copy.scoreWeights = scoreWeights != null ? scoreWeights.copy() : null;
+        copy.explanations.addAll(explanations);
+        copy.metadata.putAll(metadata);
+        copy.planFingerprint = planFingerprint;
+        copy.rollingHorizon = rollingHorizon != null ? rollingHorizon.copy() : null;
+        for (ProgressEntry entry : progressLog) {
+            copy.progressLog.add(entry.copy());
+        }
+        return copy;
+    }
+    
+    /**
+     * Report the blocks of a date (only those of one course if courseId is given) as done,
+     * missed or planned again; each changed block is appended to the progress log.
+     * Returns the number of blocks changed.
+     */
+    public int markBlocks(String courseId, LocalDate date, BlockStatus status) {
+        int marked = 0;
+        for (ScheduledBlock block : getBlocksForDate(date)) {
+            if ((courseId == null || block.getCourseId().equalsIgnoreCase(courseId)) && block.getStatus() != status) {
+                block.setStatus(status);
+                progressLog.add(new ProgressEntry(date, block.getStartTime(), block.getCourseId(), status));
+                marked++;
+            }
+        }
+        return marked;
+    }
+    
+    /**
+     * Scheduled hours per course with the given status
+     */
+    public Map<String, Double> getHoursByStatus(BlockStatus status) {
+        Map<String, Double> hours = new HashMap<>();
+        for (ScheduledBlock block : blocks) {
+            if (block.getStatus() == status) {
+                hours.merge(block.getCourseId(), block.getDurationHours(), Double::sum);
+            }
+        }
+        return hours;
+    }
+    
+    /**
+     * Whether blocks exist for the whole period (false while a rolling horizon still has
+     * windows to expand)
+     */
+    @JsonIgnore
+    public boolean isFullyMaterialized() {
+        return rollingHorizon == null || rollingHorizon.isComplete();
+    }
+    
     // Block Management Methods
     
     /**
@@ -139,6 +256,19 @@ public class Schedule {
         recalculateScore();
     }
     
+    /**
+     * Add several blocks, recalculating the score once
+     */
+    public void addBlocks(List<ScheduledBlock> newBlocks) {
+        for (ScheduledBlock block : newBlocks) {
+            if (block == null) {
+                throw new IllegalArgumentException("Block cannot be null");
+            }
+        }
+        this.blocks.addAll(newBlocks);
+        recalculateScore();
+    }
+    
     /**
      * Remove a scheduled block from the schedule
      */
@@ -178,6 +308,16 @@ public class Schedule {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Get blocks between two dates (inclusive), in date and time order
+     */
+    public List<ScheduledBlock> getBlocksInRange(LocalDate from, LocalDate to) {
+        return blocks.stream()
+                .filter(b -> !b.getDate().isBefore(from) && !b.getDate().isAfter(to))
+                .sorted(Comparator.comparing(ScheduledBlock::getDate).thenComparing(ScheduledBlock::getStartTime))
+                .collect(Collectors.toList());
+    }
+    
     /**
      * Get blocks for a specific course
      */
@@ -198,11 +338,12 @@ public class Schedule {
     }
     
     /**
-     * Get scheduled hours for a specific course
+     * Get scheduled study hours for a specific course (review blocks do not count
+     * towards the workload)
      */
     public double getScheduledHoursForCourse(String courseId) {
         return blocks.stream()
-                .filter(b -> b.getCourseId().equals(courseId))
+                .filter(b -> b.getCourseId().equals(courseId) && !b.isReview())
                 .mapToDouble(ScheduledBlock::getDurationHours)
                 .sum();
     }
@@ -306,14 +447,18 @@ public class Schedule {
         newScore.setInterleaveScore(calculateInterleaveScore());
         
         // Calculate overall score (weighted average)
-        double overall = (newScore.getSpreadnessScore() + 
-                         newScore.getBufferScore() + 
-                         newScore.getInterleaveScore()) / 3.0;
-        newScore.setOverallScore(overall);
+        newScore.setOverallScore(overallScore(newScore));
         
         this.score = newScore;
     }
     
+    private double overallScore(ScheduleScore s) {
+        if (scoreWeights == null) {
+            return (s.getSpreadnessScore() + s.getBufferScore() + s.getInterleaveScore()) / 3.0;
+        }
+        return scoreWeights.weightedScore(s.getSpreadnessScore(), s.getBufferScore(), s.getInterleaveScore());
+    }
+    
     /**
      * Calculate spreadness score: how evenly distributed blocks are across days
      */
@@ -444,29 +589,50 @@ public class Schedule {
      * Validate schedule integrity
      */
     public ValidationResult validate() {
+        return validate(null);
+    }
+    
+    /**
+     * Validate schedule integrity, and that no block overlaps the plan's busy intervals
+     * (one binary search per block; null skips the busy check)
+     */
+    public ValidationResult validate(BusyCalendar busy) {
         List<String> errors = new ArrayList<>();
         
-        // Check for overlapping blocks on same day
+        // Check for overlapping blocks on same day (minute bitmap per day)
         Map<LocalDate, List<ScheduledBlock>> blocksByDate = blocks.stream()
                 .collect(Collectors.groupingBy(ScheduledBlock::getDate));
         
         for (Map.Entry<LocalDate, List<ScheduledBlock>> entry : blocksByDate.entrySet()) {
             List<ScheduledBlock> dayBlocks = entry.getValue();
-            dayBlocks.sort((b1, b2) -> b1.getStartTime().compareTo(b2.getStartTime()));
+            dayBlocks.sort(Comparator.comparing((ScheduledBlock b) -> LocalTime.parse(b.getStartTime())));
+            SlotBitmap taken = new SlotBitmap(1);
             
-            for (int i = 1; i < dayBlocks.size(); i++) {
-                ScheduledBlock prev = dayBlocks.get(i-1);
+            for (int i = 0; i < dayBlocks.size(); i++) {
                 ScheduledBlock curr = dayBlocks.get(i);
-                
-                // Compare times as strings (format: "HH:mm")
-                if (curr.getStartTime().compareTo(prev.getEndTime()) < 0) {
-                    errors.add(String.format(
-                        "Overlapping blocks on %s: %s (%s-%s) and %s (%s-%s)",
-                        entry.getKey(),
-                        prev.getCourseId(), prev.getStartTime(), prev.getEndTime(),
-                        curr.getCourseId(), curr.getStartTime(), curr.getEndTime()
-                    ));
+                LocalTime start = LocalTime.parse(curr.getStartTime());
+                LocalTime end = LocalTime.parse(curr.getEndTime());
+                if (!end.isAfter(start) && !end.equals(LocalTime.MIDNIGHT)) {
+                    errors.add(String.format("Block %s on %s ends before it starts (%s-%s)",
+                        curr.getCourseId(), entry.getKey(), curr.getStartTime(), curr.getEndTime()));
+                    continue;
+                }
+                if (!taken.isFree(start, end)) {
+                    // Report against the latest earlier block it runs into
+                    for (int j = i - 1; j >= 0; j--) {
+                        ScheduledBlock prev = dayBlocks.get(j);
+                        if (start.isBefore(LocalTime.parse(prev.getEndTime()))) {
+                            errors.add(String.format(
+                                "Overlapping blocks on %s: %s (%s-%s) and %s (%s-%s)",
+                                entry.getKey(),
+                                prev.getCourseId(), prev.getStartTime(), prev.getEndTime(),
+                                curr.getCourseId(), curr.getStartTime(), curr.getEndTime()
+                            ));
+                            break;
+                        }
+                    }
                 }
+                taken.occupy(start, end);
             }
         }
         
@@ -486,12 +652,31 @@ public class Schedule {
             }
         }
         
+        // Check for blocks on fixed commitments
+        if (busy != null && !busy.isEmpty()) {
+            for (ScheduledBlock block : blocks) {
+                LocalTime start = LocalTime.parse(block.getStartTime());
+                LocalTime end = LocalTime.parse(block.getEndTime());
+                int startMinute = start.getHour() * 60 + start.getMinute();
+                int endMinute = end.equals(LocalTime.MIDNIGHT) ? SlotBitmap.MINUTES_PER_DAY : end.getHour() * 60 + end.getMinute();
+                List<PlanSpec.BusyInterval> conflicts = busy.conflicts(block.getDate(), startMinute, endMinute);
+                if (!conflicts.isEmpty()) {
+                    errors.add(String.format(
+                        "Block %s on %s (%s-%s) overlaps busy time %s",
+                        block.getCourseId(), block.getDate(), block.getStartTime(), block.getEndTime(),
+                        conflicts.get(0)
+                    ));
+                }
+            }
+        }
+        
         return new ValidationResult(errors.isEmpty(), errors);
     }
     
     /**
      * Inner class representing a scheduled study block
      */
+    @JsonIgnoreProperties(value = {"durationHours"}, allowGetters = true)
     public static class ScheduledBlock {
         @JsonProperty("courseId")
         private String courseId;
@@ -527,6 +712,12 @@ public class Schedule {
         @JsonProperty("reason")
         private String reason;
         
+        @JsonProperty("status")
+        private BlockStatus status = BlockStatus.PLANNED;
+        
+        @JsonProperty("review")
+        private boolean review;
+        
         public ScheduledBlock() {
         }
         
@@ -539,6 +730,21 @@ public class Schedule {
             this.durationMinutes = durationMinutes;
         }
         
+        /**
+         * Field-by-field copy
+         */
+        public ScheduledBlock copy() {
+            ScheduledBlock copy = new ScheduledBlock(courseId, date, startTime, endTime, durationMinutes);
+            copy.courseName = courseName;
+            copy.priority = priority;
+            copy.componentName = componentName;
+            copy.deadline = deadline;
+            copy.reason = reason;
+            copy.status = status;
+            copy.review = review;
+            return copy;
+        }
+        
         // Getters and Setters
         
         public String getCourseId() {
@@ -625,6 +831,25 @@ public class Schedule {
             this.reason = reason;
         }
         
+        public BlockStatus getStatus() {
+            return status;
+        }
+        
+        public void setStatus(BlockStatus status) {
+            this.status = status != null ? status : BlockStatus.PLANNED;
+        }
+        
+        /**
+         * Whether this is a spaced-repetition review of earlier study rather than new work
+         */
+        public boolean isReview() {
+            return review;
+        }
+        
+        public void setReview(boolean review) {
+            this.review = review;
+        }
+        
         @Override
         public String toString() {
             return String.format("%s on %s %s-%s (%d min)",
@@ -632,6 +857,225 @@ public class Schedule {
         }
     }
     
+    /**
+     * One progress report: a block, identified by date and start time, and its new status
+     */
+    public static class ProgressEntry {
+        @JsonProperty("date")
+        @JsonFormat(pattern = "yyyy-MM-dd")
+        private LocalDate date;
+        
+        @JsonProperty("startTime")
+        private String startTime;
+        
+        @JsonProperty("courseId")
+        private String courseId;
+        
+        @JsonProperty("status")
+        private BlockStatus status;
+        
+        @JsonProperty("reportedAt")
+        @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+        private LocalDateTime reportedAt;
+        
+        public ProgressEntry() {
+        }
+        
+        public ProgressEntry(LocalDate date, String startTime, String courseId, BlockStatus status) {
+            this.date = date;
+            this.startTime = startTime;
+            this.courseId = courseId;
+            this.status = status;
+            this.reportedAt = LocalDateTime.now().withNano(0);
+        }
+        
+        public ProgressEntry copy() {
+            ProgressEntry copy = new ProgressEntry(date, startTime, courseId, status);
+            copy.reportedAt = reportedAt;
+            return copy;
+        }
+        
+        public LocalDate getDate() {
+            return date;
+        }
+        
+        public void setDate(LocalDate date) {
+            this.date = date;
+        }
+        
+        public String getStartTime() {
+            return startTime;
+        }
+        
+        public void setStartTime(String startTime) {
+            this.startTime = startTime;
+        }
+        
+        public String getCourseId() {
+            return courseId;
+        }
+        
+        public void setCourseId(String courseId) {
+            this.courseId = courseId;
+        }
+        
+        public BlockStatus getStatus() {
+            return status;
+        }
+        
+        public void setStatus(BlockStatus status) {
+            this.status = status;
+        }
+        
+        public LocalDateTime getReportedAt() {
+            return reportedAt;
+        }
+        
+        public void setReportedAt(LocalDateTime reportedAt) {
+            this.reportedAt = reportedAt;
+        }
+    }
+    
+    /**
+     * Hour budgets of a schedule that only holds blocks for its first windows
+     *
+     * Every window of the period has a fixed number of blocks per course, set once when
+     * the schedule is generated. Windows up to nextWindow are materialized as blocks; the
+     * rest are expanded in order, from their budgets plus the blocks earlier windows had
+     * to carry over, so expanding in steps or at once gives the same blocks.
+     */
+    public static class RollingHorizon {
+        @JsonProperty("windows")
+        private List<WindowBudget> windows = new ArrayList<>();
+        
+        @JsonProperty("nextWindow")
+        private int nextWindow;
+        
+        @JsonProperty("carry")
+        private Map<String, Integer> carry = new HashMap<>();
+        
+        public RollingHorizon() {
+        }
+        
+        public RollingHorizon copy() {
+            RollingHorizon copy = new RollingHorizon();
+            for (WindowBudget window : windows) {
+                copy.windows.add(window.copy());
+            }
+            copy.nextWindow = nextWindow;
+            copy.carry.putAll(carry);
+            return copy;
+        }
+        
+        public List<WindowBudget> getWindows() {
+            return windows;
+        }
+        
+        public void setWindows(List<WindowBudget> windows) {
+            this.windows = windows;
+        }
+        
+        /**
+         * Index of the first window without blocks yet
+         */
+        public int getNextWindow() {
+            return nextWindow;
+        }
+        
+        public void setNextWindow(int nextWindow) {
+            this.nextWindow = nextWindow;
+        }
+        
+        /**
+         * Blocks per course the last materialized window could not place, owed to the next
+         */
+        public Map<String, Integer> getCarry() {
+            return carry;
+        }
+        
+        public void setCarry(Map<String, Integer> carry) {
+            this.carry = carry;
+        }
+        
+        @JsonIgnore
+        public boolean isComplete() {
+            return nextWindow >= windows.size();
+        }
+        
+        /**
+         * Last date with materialized blocks (null before the first window)
+         */
+        @JsonIgnore
+        public LocalDate getMaterializedThrough() {
+            return nextWindow == 0 ? null : windows.get(Math.min(nextWindow, windows.size()) - 1).getEndDate();
+        }
+        
+        /**
+         * Blocks of a course budgeted for windows not materialized yet, carry included
+         */
+        public int pendingBlocks(String courseId) {
+            int pending = carry.getOrDefault(courseId, 0);
+            for (int w = nextWindow; w < windows.size(); w++) {
+                pending += windows.get(w).getBlocks().getOrDefault(courseId, 0);
+            }
+            return pending;
+        }
+    }
+    
+    /**
+     * Blocks per course budgeted for one window of a rolling horizon
+     */
+    public static class WindowBudget {
+        @JsonProperty("startDate")
+        @JsonFormat(pattern = "yyyy-MM-dd")
+        private LocalDate startDate;
+        
+        @JsonProperty("endDate")
+        @JsonFormat(pattern = "yyyy-MM-dd")
+        private LocalDate endDate;
+        
+        @JsonProperty("blocks")
+        private Map<String, Integer> blocks = new HashMap<>();
+        
+        public WindowBudget() {
+        }
+        
+        public WindowBudget(LocalDate startDate, LocalDate endDate) {
+            this.startDate = startDate;
+            this.endDate = endDate;
+        }
+        
+        public WindowBudget copy() {
+            WindowBudget copy = new WindowBudget(startDate, endDate);
+            copy.blocks.putAll(blocks);
+            return copy;
+        }
+        
+        public LocalDate getStartDate() {
+            return startDate;
+        }
+        
+        public void setStartDate(LocalDate startDate) {
+            this.startDate = startDate;
+        }
+        
+        public LocalDate getEndDate() {
+            return endDate;
+        }
+        
+        public void setEndDate(LocalDate endDate) {
+            this.endDate = endDate;
+        }
+        
+        public Map<String, Integer> getBlocks() {
+            return blocks;
+        }
+        
+        public void setBlocks(Map<String, Integer> blocks) {
+            this.blocks = blocks;
+        }
+    }
+    
     /**
      * Inner class for schedule scoring metrics
      */
@@ -657,6 +1101,17 @@ public class Schedule {
         public ScheduleScore() {
         }
         
+        public ScheduleScore copy() {
+            ScheduleScore copy = new ScheduleScore();
+            copy.overallScore = overallScore;
+            copy.spreadnessScore = spreadnessScore;
+            copy.bufferScore = bufferScore;
+            copy.interleaveScore = interleaveScore;
+            copy.totalScheduledHours = totalScheduledHours;
+            copy.courseHours.putAll(courseHours);
+            return copy;
+        }
+        
         // Getters and Setters
         
         public double getOverallScore() {
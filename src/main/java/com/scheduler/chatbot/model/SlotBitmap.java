@@ -0,0 +1,301 @@
+package com.scheduler.chatbot.model;
+
+import java.time.LocalTime;
+import java.util.Arrays;
+
+/**
+ * Occupancy of one day as a bitmap of fixed-length time slots
+ *
+ * Bit i covers [i * slotMinutes, (i + 1) * slotMinutes) from midnight; set means taken by a
+ * study block or a blocked-out period. With 5-minute slots a day is 288 bits (5 longs).
+ * Free-run searches work a word at a time: the mask of starts with L free slots is built
+ * by AND-ing the free mask with shifted copies of itself (log L steps), and the first fit
+ * is the lowest set bit.
+ */
+public final class SlotBitmap {
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final int slotMinutes;
+    private final int size;
+    private final long[] occupied;
+
+    public SlotBitmap(int slotMinutes) {
+        if (slotMinutes <= 0 || MINUTES_PER_DAY % slotMinutes != 0) {
+            throw new IllegalArgumentException("Slot length must divide a day: " + slotMinutes);
+        }
+        this.slotMinutes = slotMinutes;
+        this.size = MINUTES_PER_DAY / slotMinutes;
+        this.occupied = new long[words(size)];
+    }
+
+    public int getSlotMinutes() {
+        return slotMinutes;
+    }
+
+    /**
+     * Number of slots in the day
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Slot containing the given time
+     */
+    public int slotOf(LocalTime time) {
+        return (time.getHour() * 60 + time.getMinute()) / slotMinutes;
+    }
+
+    /**
+     * Number of slots needed to cover the given minutes
+     */
+    public int slotsFor(int minutes) {
+        return (minutes + slotMinutes - 1) / slotMinutes;
+    }
+
+    public LocalTime timeOf(int slot) {
+        return LocalTime.MIDNIGHT.plusMinutes((long) slot * slotMinutes);
+    }
+
+    // Queries
+
+    public boolean isFree(int from, int length) {
+        checkRange(from, length);
+        for (int i = from; i < from + length; ) {
+            int bit = i & 63;
+            int take = Math.min(64 - bit, from + length - i);
+            if ((occupied[i >>> 6] & mask(bit, take)) != 0) {
+                return false;
+            }
+            i += take;
+        }
+        return true;
+    }
+
+    /**
+     * Whether [start, end) is free; partially covered slots count as taken
+     */
+    public boolean isFree(LocalTime start, LocalTime end) {
+        int from = slotOf(start);
+        return isFree(from, endSlot(end) - from);
+    }
+
+    public int occupiedSlots() {
+        int count = 0;
+        for (long word : occupied) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    // Updates
+
+    public void occupy(int from, int length) {
+        checkRange(from, length);
+        for (int i = from; i < from + length; ) {
+            int bit = i & 63;
+            int take = Math.min(64 - bit, from + length - i);
+            occupied[i >>> 6] |= mask(bit, take);
+            i += take;
+        }
+    }
+
+    /**
+     * Mark [start, end) as taken, rounding outward to whole slots; also used for
+     * blocked-out periods
+     */
+    public void occupy(LocalTime start, LocalTime end) {
+        int from = slotOf(start);
+        occupy(from, endSlot(end) - from);
+    }
+
+    /**
+     * Mark every slot taken in {@code other} as taken here (word-wise OR): the free time
+     * left is the intersection of both, at size / 64 operations
+     */
+    public void occupy(SlotBitmap other) {
+        if (other.slotMinutes != slotMinutes) {
+            throw new IllegalArgumentException("Slot lengths differ: " + slotMinutes + " and " + other.slotMinutes);
+        }
+        for (int w = 0; w < occupied.length; w++) {
+            occupied[w] |= other.occupied[w];
+        }
+    }
+
+    // First fit
+
+    /**
+     * Earliest start slot at or after {@code earliest} with {@code length} free slots and
+     * {@code breakSlots} free slots on both sides (the day's edges count as free), such
+     * that the block does not join neighbours into a run longer than {@code maxRunSlots}.
+     * Returns -1 when the day has no such gap.
+     */
+    public int firstFit(int length, int earliest, int breakSlots, int maxRunSlots) {
+        if (length <= 0 || length > maxRunSlots || earliest + length > size) {
+            return -1;
+        }
+        // Free mask padded with breakSlots free slots before and after the day, so bit j of
+        // the window mask means day slots [j - breakSlots, j + length + breakSlots) are free
+        int padded = size + 2 * breakSlots;
+        long[] free = new long[words(padded)];
+        for (int w = 0; w < occupied.length; w++) {
+            free[w] = ~occupied[w];
+        }
+        clearFrom(free, size);
+        free = Arrays.copyOf(shiftUp(free, breakSlots), words(padded));
+        setRange(free, 0, breakSlots);
+        setRange(free, size + breakSlots, breakSlots);
+
+        long[] starts = runs(free, length + 2 * breakSlots);
+        clearFrom(starts, size - length + 1);
+        clearBelow(starts, earliest);
+
+        for (int s = nextSetBit(starts, 0); s >= 0; s = nextSetBit(starts, s + 1)) {
+            if (runBefore(s) + length + runAfter(s + length) <= maxRunSlots) {
+                return s;
+            }
+        }
+        return -1;
+    }
+
+    // Internals
+
+    private int endSlot(LocalTime end) {
+        int minutes = end.getHour() * 60 + end.getMinute();
+        if (minutes == 0) {
+            minutes = MINUTES_PER_DAY; // 24:00 written as 00:00
+        }
+        return (minutes + slotMinutes - 1) / slotMinutes;
+    }
+
+    private void checkRange(int from, int length) {
+        if (from < 0 || length < 0 || from + length > size) {
+            throw new IndexOutOfBoundsException("Slots " + from + "+" + length + " outside 0.." + size);
+        }
+    }
+
+    private int runBefore(int slot) {
+        int count = 0;
+        for (int i = slot - 1; i >= 0 && bit(occupied, i); i--) {
+            count++;
+        }
+        return count;
+    }
+
+    private int runAfter(int slot) {
+        int count = 0;
+        for (int i = slot; i < size && bit(occupied, i); i++) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Bit i set iff bits i .. i + length - 1 are all set (doubling: log length word passes)
+     */
+    private static long[] runs(long[] bits, int length) {
+        long[] run = bits.clone();
+        int have = 1;
+        while (have < length) {
+            int step = Math.min(have, length - have);
+            long[] shifted = shiftDown(run, step);
+            for (int w = 0; w < run.length; w++) {
+                run[w] &= shifted[w];
+            }
+            have += step;
+        }
+        return run;
+    }
+
+    /**
+     * result bit i = bits bit (i + k)
+     */
+    private static long[] shiftDown(long[] bits, int k) {
+        long[] result = new long[bits.length];
+        int wordShift = k >>> 6;
+        int bitShift = k & 63;
+        for (int w = 0; w + wordShift < bits.length; w++) {
+            long low = bits[w + wordShift] >>> bitShift;
+            long high = bitShift == 0 || w + wordShift + 1 >= bits.length
+                    ? 0 : bits[w + wordShift + 1] << (64 - bitShift);
+            result[w] = low | high;
+        }
+        return result;
+    }
+
+    /**
+     * Copy grown by k bits with result bit i = bits bit (i - k)
+     */
+    private static long[] shiftUp(long[] bits, int k) {
+        long[] result = new long[words(bits.length * 64 + k)];
+        int wordShift = k >>> 6;
+        int bitShift = k & 63;
+        for (int w = 0; w < bits.length; w++) {
+            result[w + wordShift] |= bits[w] << bitShift;
+            if (bitShift != 0 && w + wordShift + 1 < result.length) {
+                result[w + wordShift + 1] |= bits[w] >>> (64 - bitShift);
+            }
+        }
+        return result;
+    }
+
+    private static void setRange(long[] bits, int from, int length) {
+        for (int i = from; i < from + length && i < bits.length * 64; i++) {
+            bits[i >>> 6] |= 1L << (i & 63);
+        }
+    }
+
+    private static void clearFrom(long[] bits, int from) {
+        if (from < 0) {
+            Arrays.fill(bits, 0);
+            return;
+        }
+        int word = from >>> 6;
+        if (word >= bits.length) {
+            return;
+        }
+        bits[word] &= (1L << (from & 63)) - 1;
+        Arrays.fill(bits, word + 1, bits.length, 0);
+    }
+
+    private static void clearBelow(long[] bits, int below) {
+        if (below <= 0) {
+            return;
+        }
+        int word = Math.min(below >>> 6, bits.length);
+        Arrays.fill(bits, 0, word, 0);
+        if (word < bits.length) {
+            bits[word] &= -1L << (below & 63);
+        }
+    }
+
+    private static int nextSetBit(long[] bits, int from) {
+        int word = from >>> 6;
+        if (word >= bits.length) {
+            return -1;
+        }
+        long current = bits[word] & (-1L << (from & 63));
+        while (true) {
+            if (current != 0) {
+                return word * 64 + Long.numberOfTrailingZeros(current);
+            }
+            if (++word == bits.length) {
+                return -1;
+            }
+            current = bits[word];
+        }
+    }
+
+    private static boolean bit(long[] bits, int i) {
+        return (bits[i >>> 6] & (1L << (i & 63))) != 0;
+    }
+
+    private static long mask(int bit, int length) {
+        return length == 64 ? -1L : ((1L << length) - 1) << bit;
+    }
+
+    private static int words(int bits) {
+        return (bits + 63) >>> 6;
+    }
+}
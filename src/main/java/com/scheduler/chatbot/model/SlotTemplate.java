@@ -0,0 +1,296 @@
+package com.scheduler.chatbot.model;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Legal block positions of a study day under one set of SchedulingRules
+ *
+ * Blocks run back to back from the day start until the next block would exceed the max
+ * continuous study time; then a break follows and the next run starts. Position p is the
+ * p-th block of a day, so its start and end times are fixed by the rules alone and are
+ * computed once here. A day may hold at most getMaxBlocksPerDay() blocks and at most
+ * min(availability, maxHoursPerDay) hours of study, so a day with capacity c uses the
+ * first blocksFor(c) positions: every day shares the same template, whatever its capacity.
+ *
+ * A template built for a plan (of(PlanSpec)) also knows the plan's busy intervals. On a
+ * day with fixed commitments the positions they overlap are dropped, and the date-based
+ * methods number the remaining ones: block n of such a day takes its n-th free position.
+ * The template keeps its own copy of the intervals, so it describes the plan as it was
+ * when the template was made.
+ */
+public final class SlotTemplate {
+
+    public static final LocalTime DEFAULT_DAY_START = LocalTime.of(8, 0);
+
+    private final LocalTime dayStart;
+    private final int blockMinutes;
+    private final int breakMinutes;
+    private final int runBlocks;
+    private final int slotMinutes;
+    private final double maxHoursPerDay;
+    private final int[] startMinutes;
+    private final String[] startTimes;
+    private final String[] endTimes;
+    private final int[] allPositions;
+    private final BusyCalendar busy;
+    private final Map<Long, int[]> freePositions = new ConcurrentHashMap<>();
+
+    public SlotTemplate(PlanSpec.SchedulingRules rules, LocalTime dayStart) {
+        this(rules, dayStart, List.of());
+    }
+
+    public SlotTemplate(PlanSpec.SchedulingRules rules, LocalTime dayStart, List<PlanSpec.BusyInterval> busy) {
+        if (rules.getBlockDurationMinutes() <= 0 || rules.getBreakDurationMinutes() < 0) {
+            throw new IllegalArgumentException("Block duration must be positive and break duration non-negative");
+        }
+        this.dayStart = dayStart;
+        this.blockMinutes = rules.getBlockDurationMinutes();
+        this.breakMinutes = rules.getBreakDurationMinutes();
+        this.runBlocks = Math.max(1, rules.getMaxContinuousBlockMinutes() / blockMinutes);
+        this.maxHoursPerDay = rules.getMaxHoursPerDay();
+
+        int first = dayStart.getHour() * 60 + dayStart.getMinute();
+        this.slotMinutes = gcd(gcd(SlotBitmap.MINUTES_PER_DAY, first), gcd(blockMinutes, breakMinutes));
+        int runMinutes = runBlocks * blockMinutes + breakMinutes;
+        int size = 0;
+        while (size < Math.max(0, rules.getMaxBlocksPerDay())
+                && first + (size / runBlocks) * runMinutes + (size % runBlocks + 1) * blockMinutes
+                        <= SlotBitmap.MINUTES_PER_DAY) {
+            size++;
+        }
+        this.startMinutes = new int[size];
+        this.startTimes = new String[size];
+        this.endTimes = new String[size];
+        for (int p = 0; p < size; p++) {
+            startMinutes[p] = first + (p / runBlocks) * runMinutes + (p % runBlocks) * blockMinutes;
+            LocalTime start = LocalTime.MIDNIGHT.plusMinutes(startMinutes[p]);
+            startTimes[p] = start.toString();
+            endTimes[p] = start.plusMinutes(blockMinutes).toString();
+        }
+        this.allPositions = new int[size];
+        for (int p = 0; p < size; p++) {
+            allPositions[p] = p;
+        }
+        this.busy = new BusyCalendar(busy);
+    }
+
+    /**
+     * Template for the rules, starting the day at 08:00
+     */
+    public static SlotTemplate of(PlanSpec.SchedulingRules rules) {
+        return new SlotTemplate(rules, DEFAULT_DAY_START);
+    }
+
+    /**
+     * Template for the plan's rules and busy intervals, starting the day at 08:00
+     */
+    public static SlotTemplate of(PlanSpec plan) {
+        return new SlotTemplate(plan.getRules(), DEFAULT_DAY_START, plan.getBusyIntervals());
+    }
+
+    // Layout
+
+    /**
+     * Number of positions in a day without capacity limits
+     */
+    public int size() {
+        return startMinutes.length;
+    }
+
+    /**
+     * Positions a day with the given available hours may use
+     */
+    public int blocksFor(double capacityHours) {
+        double usable = Math.min(capacityHours, maxHoursPerDay);
+        if (usable <= 0) {
+            return 0;
+        }
+        return Math.min(size(), (int) Math.floor(usable * 60 / blockMinutes + 1e-9));
+    }
+
+    /**
+     * Blocks needed to cover the given hours
+     */
+    public int blocksNeeded(double hours) {
+        return hours <= 0 ? 0 : (int) Math.ceil(hours * 60 / blockMinutes - 1e-9);
+    }
+
+    // Layout of one date
+
+    /**
+     * Positions of the date that no busy interval overlaps, in time order (do not modify)
+     */
+    public int[] positions(LocalDate date) {
+        if (busy.isEmpty()) {
+            return allPositions;
+        }
+        return freePositions.computeIfAbsent(date.toEpochDay(), day -> {
+            if (!busy.hasBusy(date)) {
+                return allPositions;
+            }
+            int[] free = new int[size()];
+            int count = 0;
+            for (int p = 0; p < size(); p++) {
+                if (busy.isFree(date, startMinutes[p], startMinutes[p] + blockMinutes)) {
+                    free[count++] = p;
+                }
+            }
+            return Arrays.copyOf(free, count);
+        });
+    }
+
+    /**
+     * Blocks the date may hold: what its available hours allow, at most its free positions
+     */
+    public int blocksFor(LocalDate date, double capacityHours) {
+        return Math.min(blocksFor(capacityHours), positions(date).length);
+    }
+
+    /**
+     * Template position of the date's n-th block
+     */
+    public int position(LocalDate date, int n) {
+        return positions(date)[n];
+    }
+
+    /**
+     * Bitmap of the date on the template's slot grid with its busy intervals taken
+     */
+    public SlotBitmap occupancy(LocalDate date) {
+        SlotBitmap taken = new SlotBitmap(slotMinutes);
+        int[] minutes = busy.busyMinutes(date);
+        for (int i = 0; i < minutes.length; i += 2) {
+            int start = minutes[i] / slotMinutes;
+            taken.occupy(start, taken.slotsFor(minutes[i + 1]) - start);
+        }
+        return taken;
+    }
+
+    public String startTime(LocalDate date, int n) {
+        return startTimes[position(date, n)];
+    }
+
+    public String endTime(LocalDate date, int n) {
+        return endTimes[position(date, n)];
+    }
+
+    /**
+     * Busy intervals the template was made with
+     */
+    public BusyCalendar getBusy() {
+        return busy;
+    }
+
+    /**
+     * Blocks in one continuous run, before a break
+     */
+    public int getRunBlocks() {
+        return runBlocks;
+    }
+
+    /**
+     * Whether a break follows the block at this position
+     */
+    public boolean endsRun(int position) {
+        return (position + 1) % runBlocks == 0;
+    }
+
+    public int startMinute(int position) {
+        return startMinutes[position];
+    }
+
+    /**
+     * Position whose block covers the given minute of the day, -1 if none (binary search)
+     */
+    public int positionAt(int minute) {
+        int p = Arrays.binarySearch(startMinutes, minute);
+        if (p < 0) {
+            p = -p - 2;
+        }
+        return p >= 0 && minute < startMinutes[p] + blockMinutes ? p : -1;
+    }
+
+    /**
+     * First position starting at or after the given minute of the day, -1 if none (binary search)
+     */
+    public int positionFrom(int minute) {
+        int p = Arrays.binarySearch(startMinutes, minute);
+        if (p < 0) {
+            p = -p - 1;
+        }
+        return p < size() ? p : -1;
+    }
+
+    public String startTime(int position) {
+        return startTimes[position];
+    }
+
+    public String endTime(int position) {
+        return endTimes[position];
+    }
+
+    // Getters
+
+    public LocalTime getDayStart() {
+        return dayStart;
+    }
+
+    public int getBlockMinutes() {
+        return blockMinutes;
+    }
+
+    /**
+     * Slot length every position starts and ends on: the largest that divides the day
+     * start, the block and the break lengths
+     */
+    public int getSlotMinutes() {
+        return slotMinutes;
+    }
+
+    public double getBlockHours() {
+        return blockMinutes / 60.0;
+    }
+
+    public int getBreakMinutes() {
+        return breakMinutes;
+    }
+
+    private static int gcd(int a, int b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        SlotTemplate that = (SlotTemplate) o;
+        return blockMinutes == that.blockMinutes &&
+                breakMinutes == that.breakMinutes &&
+                runBlocks == that.runBlocks &&
+                size() == that.size() &&
+                Double.compare(that.maxHoursPerDay, maxHoursPerDay) == 0 &&
+                dayStart.equals(that.dayStart) &&
+                busy.getIntervals().equals(that.busy.getIntervals());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(dayStart, blockMinutes, breakMinutes, runBlocks, maxHoursPerDay, size(),
+                busy.getIntervals());
+    }
+
+    @Override
+    public String toString() {
+        String layout = String.format("%d-minute blocks, %d per run, %d-minute breaks, up to %d a day from %s",
+                blockMinutes, runBlocks, breakMinutes, size(), dayStart);
+        int fixed = busy.getIntervals().size();
+        return fixed == 0 ? layout : layout + ", around " + fixed + " busy interval(s)";
+    }
+}
@@ -0,0 +1,16 @@
+package com.scheduler.chatbot.model;
+
+/**
+ * Where scheduling engines split the calendar into the front-load half and the rest
+ */
+public enum SplitStrategy {
+    CALENDAR_MIDPOINT,  // same number of days on each side
+    CAPACITY_WEIGHTED;  // same available hours on each side
+
+    public static SplitStrategy fromString(String s) {
+        if (s == null) {
+            throw new IllegalArgumentException("Split strategy cannot be null");
+        }
+        return valueOf(s.trim().toUpperCase().replace('-', '_').replace(' ', '_'));
+    }
+}
@@ -1,15 +1,20 @@
 package com.scheduler.chatbot.parser;
 
+import com.scheduler.chatbot.model.BlockStatus;
 import com.scheduler.chatbot.model.PlanSpec;
 import com.scheduler.chatbot.model.Priority;
 import org.antlr.v4.runtime.*;
 import org.springframework.stereotype.Component;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Parser for DSL commands using ANTLR4
@@ -172,6 +177,45 @@ public class DSLParser {
             return null;
         }
 
+        @Override
+        public Object visitAddComponentStatement(SchedulerDSLParser.AddComponentStatementContext ctx) {
+            String componentName = stripQuotes(ctx.componentName.getText()).trim();
+            String subjectName = stripQuotes(ctx.subjectName.getText());
+            if (componentName.isEmpty()) {
+                throw new ParseException("Component name cannot be empty");
+            }
+            if (subjectName.isEmpty()) {
+                throw new ParseException("Subject name cannot be empty");
+            }
+            double hours;
+            try {
+                hours = Double.parseDouble(ctx.hours.getText());
+            } catch (NumberFormatException e) {
+                throw new ParseException("Invalid number format for hours: " + ctx.hours.getText());
+            }
+            if (hours <= 0) {
+                throw new ParseException("Hours must be positive, got: " + hours);
+            }
+            LocalDate dueDate = ctx.dueDate != null ? parseDate(ctx.dueDate.getText()) : null;
+
+            planSpec.setTargetSubject(subjectName);
+            planSpec.setTargetComponent(new PlanSpec.ComponentSpec(componentName, hours, dueDate));
+            planSpec.setCommandType("ADD_COMPONENT");
+            return null;
+        }
+
+        @Override
+        public Object visitSetExamStatement(SchedulerDSLParser.SetExamStatementContext ctx) {
+            String subjectName = stripQuotes(ctx.subjectName.getText());
+            if (subjectName.isEmpty()) {
+                throw new ParseException("Subject name cannot be empty");
+            }
+            planSpec.setTargetSubject(subjectName);
+            planSpec.setTargetExamDate(parseDate(ctx.examDate.getText()));
+            planSpec.setCommandType("SET_EXAM");
+            return null;
+        }
+
         @Override
         public Object visitSetAvailabilityStatement(SchedulerDSLParser.SetAvailabilityStatementContext ctx) {
             try {
@@ -196,8 +240,40 @@ public class DSLParser {
             return null;
         }
 
+        @Override
+        public Object visitSetAvailabilityRangeStatement(SchedulerDSLParser.SetAvailabilityRangeStatementContext ctx) {
+            try {
+                LocalDate startDate = parseDate(ctx.startDate.getText());
+                LocalDate endDate = parseDate(ctx.endDate.getText());
+                double capacity = Double.parseDouble(ctx.capacity.getText());
+
+                if (capacity <= 0) {
+                    throw new ParseException("Capacity must be positive, got: " + capacity);
+                }
+                if (startDate.isAfter(endDate)) {
+                    throw new ParseException("Range start " + startDate + " is after range end " + endDate);
+                }
+
+                Set<DayOfWeek> days = ctx.dayPattern() != null
+                        ? parseDayPattern(ctx.dayPattern())
+                        : EnumSet.allOf(DayOfWeek.class);
+
+                // Store as a single rule - dates are expanded lazily by the scheduler
+                planSpec.addAvailabilityRule(new PlanSpec.AvailabilityRule(startDate, endDate, days, capacity));
+                planSpec.setCommandType("SET_AVAILABILITY_RANGE");
+
+            } catch (NumberFormatException e) {
+                throw new ParseException("Invalid number format for capacity: " + ctx.capacity.getText());
+            }
+
+            return null;
+        }
+
         @Override
         public Object visitGenerateScheduleStatement(SchedulerDSLParser.GenerateScheduleStatementContext ctx) {
+            if (ctx.STRING() != null) {
+                planSpec.setTargetEngine(parseEngineName(ctx.STRING().getText()));
+            }
             planSpec.setCommandType("GENERATE_SCHEDULE");
             return null;
         }
@@ -301,6 +377,221 @@ public class DSLParser {
             return null;
         }
 
+        @Override
+        public Object visitUndoStatement(SchedulerDSLParser.UndoStatementContext ctx) {
+            planSpec.setCommandType("UNDO");
+            return null;
+        }
+
+        @Override
+        public Object visitForkPlanStatement(SchedulerDSLParser.ForkPlanStatementContext ctx) {
+            String branch = stripQuotes(ctx.STRING().getText());
+            if (branch.isEmpty()) {
+                throw new ParseException("Plan name cannot be empty");
+            }
+            planSpec.setTargetBranch(branch);
+            planSpec.setCommandType("FORK_PLAN");
+            return null;
+        }
+
+        @Override
+        public Object visitCheckoutStatement(SchedulerDSLParser.CheckoutStatementContext ctx) {
+            if (ctx.STRING() != null) {
+                String branch = stripQuotes(ctx.STRING().getText());
+                if (branch.isEmpty()) {
+                    throw new ParseException("Plan name cannot be empty");
+                }
+                planSpec.setTargetBranch(branch);
+            } else {
+                try {
+                    planSpec.setTargetVersion(Long.parseLong(ctx.NUMBER().getText()));
+                } catch (NumberFormatException e) {
+                    throw new ParseException("Invalid version number: " + ctx.NUMBER().getText());
+                }
+            }
+            planSpec.setCommandType("CHECKOUT");
+            return null;
+        }
+
+        @Override
+        public Object visitShowVersionsStatement(SchedulerDSLParser.ShowVersionsStatementContext ctx) {
+            planSpec.setCommandType("SHOW_VERSIONS");
+            return null;
+        }
+
+        @Override
+        public Object visitUseEngineStatement(SchedulerDSLParser.UseEngineStatementContext ctx) {
+            planSpec.setTargetEngine(parseEngineName(ctx.STRING().getText()));
+            planSpec.setCommandType("SET_ENGINE");
+            return null;
+        }
+
+        @Override
+        public Object visitListEnginesStatement(SchedulerDSLParser.ListEnginesStatementContext ctx) {
+            planSpec.setCommandType("LIST_ENGINES");
+            return null;
+        }
+
+        @Override
+        public Object visitMarkBlocksStatement(SchedulerDSLParser.MarkBlocksStatementContext ctx) {
+            if (ctx.subjectName != null) {
+                String subjectName = stripQuotes(ctx.subjectName.getText());
+                if (subjectName.isEmpty()) {
+                    throw new ParseException("Subject name cannot be empty");
+                }
+                planSpec.setTargetSubject(subjectName);
+            }
+            planSpec.setTargetDate(parseDate(ctx.date.getText()));
+            planSpec.setTargetStatus(BlockStatus.fromString(ctx.status.getText()));
+            planSpec.setCommandType("MARK_BLOCKS");
+            return null;
+        }
+
+        @Override
+        public Object visitReplanStatement(SchedulerDSLParser.ReplanStatementContext ctx) {
+            if (ctx.date != null) {
+                planSpec.setTargetDate(parseDate(ctx.date.getText()));
+            }
+            planSpec.setCommandType("REPLAN");
+            return null;
+        }
+
+        @Override
+        public Object visitShowProgressStatement(SchedulerDSLParser.ShowProgressStatementContext ctx) {
+            planSpec.setCommandType("SHOW_PROGRESS");
+            return null;
+        }
+
+        @Override
+        public Object visitAddBusyStatement(SchedulerDSLParser.AddBusyStatementContext ctx) {
+            String label = stripQuotes(ctx.label.getText());
+            if (label.isEmpty()) {
+                throw new ParseException("Busy time label cannot be empty");
+            }
+            LocalTime startTime = parseTime(ctx.startTime.getText());
+            LocalTime endTime = parseTime(ctx.endTime.getText());
+            if (!endTime.isAfter(startTime)) {
+                throw new ParseException("Busy time must end after it starts, got " + startTime + "-" + endTime);
+            }
+
+            if (ctx.date != null) {
+                planSpec.addBusyInterval(new PlanSpec.BusyInterval(label, parseDate(ctx.date.getText()),
+                        startTime, endTime));
+            } else {
+                LocalDate startDate = parseDate(ctx.startDate.getText());
+                LocalDate endDate = parseDate(ctx.endDate.getText());
+                if (startDate.isAfter(endDate)) {
+                    throw new ParseException("Range start " + startDate + " is after range end " + endDate);
+                }
+                Set<DayOfWeek> days = ctx.dayPattern() != null
+                        ? parseDayPattern(ctx.dayPattern())
+                        : EnumSet.allOf(DayOfWeek.class);
+                // Stored as a single interval - dates are expanded lazily by the busy calendar
+                planSpec.addBusyInterval(new PlanSpec.BusyInterval(label, startDate, endDate, days,
+                        startTime, endTime));
+            }
+            planSpec.setCommandType("ADD_BUSY");
+            return null;
+        }
+
+        @Override
+        public Object visitDeleteBusyStatement(SchedulerDSLParser.DeleteBusyStatementContext ctx) {
+            String label = stripQuotes(ctx.STRING().getText());
+            if (label.isEmpty()) {
+                throw new ParseException("Busy time label cannot be empty");
+            }
+            planSpec.setTargetSubject(label);
+            planSpec.setCommandType("DELETE_BUSY");
+            return null;
+        }
+
+        @Override
+        public Object visitListBusyStatement(SchedulerDSLParser.ListBusyStatementContext ctx) {
+            planSpec.setCommandType("LIST_BUSY");
+            return null;
+        }
+
+        @Override
+        public Object visitSetReviewsStatement(SchedulerDSLParser.SetReviewsStatementContext ctx) {
+            List<Integer> intervals = new ArrayList<>();
+            for (Token interval : ctx.intervals) {
+                int days = parseWholeNumber(interval.getText(), "Review interval");
+                if (days <= 0 || (!intervals.isEmpty() && days <= intervals.get(intervals.size() - 1))) {
+                    throw new ParseException("Review intervals must be positive days in increasing order, got: "
+                            + interval.getText());
+                }
+                intervals.add(days);
+            }
+            planSpec.getRules().setReviewIntervals(intervals);
+            if (ctx.minutes != null) {
+                int minutes = parseWholeNumber(ctx.minutes.getText(), "Review length");
+                if (minutes <= 0) {
+                    throw new ParseException("Review length must be positive, got: " + minutes);
+                }
+                planSpec.getRules().setReviewDurationMinutes(minutes);
+            }
+            planSpec.setCommandType("SET_REVIEWS");
+            return null;
+        }
+
+        @Override
+        public Object visitAddConstraintStatement(SchedulerDSLParser.AddConstraintStatementContext ctx) {
+            String subject = ctx.subjectName != null ? stripQuotes(ctx.subjectName.getText()) : null;
+            if (subject != null && subject.isEmpty()) {
+                throw new ParseException("Subject name cannot be empty");
+            }
+            PlanSpec.HardConstraint constraint;
+            if (ctx.dayPattern() != null) {
+                constraint = PlanSpec.HardConstraint.notOn(subject, parseDayPattern(ctx.dayPattern()));
+            } else if (ctx.side != null) {
+                LocalTime time = parseTime(ctx.time.getText());
+                constraint = "before".equals(ctx.side.getText())
+                        ? PlanSpec.HardConstraint.before(subject, time)
+                        : PlanSpec.HardConstraint.after(subject, time);
+            } else {
+                int limit = parseWholeNumber(ctx.limit.getText(), "Blocks per day");
+                if (limit <= 0) {
+                    throw new ParseException("Blocks per day must be positive, got: " + limit);
+                }
+                constraint = PlanSpec.HardConstraint.maxPerDay(subject, limit);
+            }
+            planSpec.getRules().addConstraint(constraint);
+            planSpec.setTargetSubject(subject);
+            planSpec.setCommandType("ADD_CONSTRAINT");
+            return null;
+        }
+
+        @Override
+        public Object visitDeleteConstraintsStatement(SchedulerDSLParser.DeleteConstraintsStatementContext ctx) {
+            if (ctx.subjectName != null) {
+                planSpec.setTargetSubject(stripQuotes(ctx.subjectName.getText()));
+            }
+            planSpec.setCommandType("DELETE_CONSTRAINTS");
+            return null;
+        }
+
+        @Override
+        public Object visitListConstraintsStatement(SchedulerDSLParser.ListConstraintsStatementContext ctx) {
+            planSpec.setCommandType("LIST_CONSTRAINTS");
+            return null;
+        }
+
+        private int parseWholeNumber(String text, String what) {
+            try {
+                return Integer.parseInt(text);
+            } catch (NumberFormatException e) {
+                throw new ParseException(what + " must be a whole number, got: " + text);
+            }
+        }
+
+        private String parseEngineName(String text) {
+            String engine = stripQuotes(text).trim();
+            if (engine.isEmpty()) {
+                throw new ParseException("Engine name cannot be empty");
+            }
+            return engine.toLowerCase();
+        }
+
         /**
          * Get the constructed PlanSpec with all metadata
          */
@@ -326,6 +617,38 @@ public class DSLParser {
             }
         }
 
+        /**
+         * Parse a time of day (H:MM or HH:MM)
+         */
+        private LocalTime parseTime(String timeStr) {
+            try {
+                return LocalTime.parse(timeStr.length() == 4 ? "0" + timeStr : timeStr);
+            } catch (DateTimeParseException e) {
+                throw new ParseException("Invalid time: " + timeStr + ". Expected HH:MM");
+            }
+        }
+
+        /**
+         * Parse a day pattern (daily, weekdays, weekends or a list of day names)
+         */
+        private Set<DayOfWeek> parseDayPattern(SchedulerDSLParser.DayPatternContext ctx) {
+            if (ctx.dayOfWeek().isEmpty()) {
+                switch (ctx.getText()) {
+                    case "weekdays":
+                        return EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY);
+                    case "weekends":
+                        return EnumSet.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY);
+                    default:
+                        return EnumSet.allOf(DayOfWeek.class);
+                }
+            }
+            Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+            for (SchedulerDSLParser.DayOfWeekContext day : ctx.dayOfWeek()) {
+                days.add(DayOfWeek.valueOf(day.getText().toUpperCase()));
+            }
+            return days;
+        }
+
         /**
          * Parse priority, handling MED as MEDIUM
          */
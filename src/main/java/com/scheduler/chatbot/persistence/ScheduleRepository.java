@@ -61,6 +61,14 @@ public class ScheduleRepository {
         return filepath.toString();
     }
     
+    /**
+     * Overwrite a saved schedule file (e.g. after progress reports); returns its path
+     */
+    public String saveSchedule(Schedule schedule, String filepath) throws IOException {
+        objectMapper.writeValue(new File(filepath), schedule);
+        return filepath;
+    }
+    
     /**
      * Load a schedule from file
      */
@@ -0,0 +1,669 @@
+package com.scheduler.chatbot.service;
+
+import com.scheduler.chatbot.model.PlanSpec.BusyInterval;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.Year;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Import external iCalendar (.ics) feeds as busy time - the counterpart of ExportService
+ *
+ * The feed is read in one pass, line by line: only the VEVENT being read is held in
+ * memory, and properties the import does not use (descriptions, attachments) are
+ * dropped while they are still being unfolded. Each finished event is expanded right
+ * away, RRULE occurrences bounded to the plan's date range, into busy intervals:
+ *  - times are converted to the plan's timezone and split at midnight
+ *  - all-day events block the whole day
+ *  - cancelled and transparent (free) events are skipped
+ *  - occurrences that repeat at the same time on the same weekdays are folded back into
+ *    one recurring interval, so a semester timetable stays a handful of intervals
+ * Supported rules: DAILY (filtered by BYDAY or BYMONTHDAY), WEEKLY (BYDAY), MONTHLY
+ * (BYMONTHDAY or BYDAY, e.g. 2TU, -1FR; both together keep days matching each) and
+ * YEARLY with INTERVAL, COUNT, UNTIL and EXDATE. Other rule parts and combinations
+ * import the first occurrence only and are reported. A moved instance (RECURRENCE-ID)
+ * is imported as its own event; the original slot stays busy.
+ */
+@Service
+public class CalendarImportService {
+
+    private static final DateTimeFormatter ICS_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final DateTimeFormatter ICS_DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    // Properties read from a VEVENT; everything else is skipped while unfolding
+    private static final Set<String> EVENT_PROPERTIES = Set.of(
+            "DTSTART", "DTEND", "DURATION", "RRULE", "EXDATE", "STATUS", "TRANSP", "SUMMARY");
+
+    private static final Set<String> SUPPORTED_RULE_PARTS = Set.of(
+            "FREQ", "INTERVAL", "COUNT", "UNTIL", "BYDAY", "BYMONTHDAY", "WKST");
+
+    /**
+     * Read an iCalendar feed into busy intervals labelled {@code label}, keeping the
+     * parts that fall within [from, to] in {@code zone}
+     */
+    public ImportResult importBusy(Reader source, String label, LocalDate from, LocalDate to, ZoneId zone)
+            throws IOException {
+        ImportResult result = new ImportResult();
+        BufferedReader reader = source instanceof BufferedReader buffered ? buffered : new BufferedReader(source);
+
+        Event event = null;
+        int nested = 0; // depth of components inside the event (VALARM)
+        StringBuilder logical = null; // current unfolded line, null while skipping one
+        String line;
+        while (true) {
+            line = reader.readLine();
+            if (line != null && !line.isEmpty() && (line.charAt(0) == ' ' || line.charAt(0) == '\t')) {
+                // Folded continuation (RFC 5545 3.1)
+                if (logical != null) {
+                    logical.append(line, 1, line.length());
+                }
+                continue;
+            }
+
+            if (logical != null) {
+                Property property = Property.parse(logical.toString());
+                if (property != null) {
+                    if ("BEGIN".equals(property.name)) {
+                        if (event != null) {
+                            nested++;
+                        } else if ("VEVENT".equalsIgnoreCase(property.value)) {
+                            event = new Event();
+                        }
+                    } else if ("END".equals(property.name)) {
+                        if (nested > 0) {
+                            nested--;
+                        } else if (event != null && "VEVENT".equalsIgnoreCase(property.value)) {
+                            result.events++;
+                            addEvent(event, label, from, to, zone, result);
+                            event = null;
+                        }
+                    } else if (event != null && nested == 0) {
+                        event.set(property);
+                    }
+                }
+            }
+            if (line == null) {
+                break;
+            }
+
+            logical = keep(line, event != null && nested == 0) ? new StringBuilder(line) : null;
+        }
+        return result;
+    }
+
+    /**
+     * Whether a line starting a property is worth unfolding: component delimiters, and
+     * the event properties the import reads
+     */
+    private static boolean keep(String line, boolean inEvent) {
+        int end = 0;
+        while (end < line.length() && line.charAt(end) != ';' && line.charAt(end) != ':') {
+            end++;
+        }
+        String name = line.substring(0, end).toUpperCase();
+        return "BEGIN".equals(name) || "END".equals(name) || (inEvent && EVENT_PROPERTIES.contains(name));
+    }
+
+    // Event expansion
+
+    private void addEvent(Event event, String label, LocalDate from, LocalDate to, ZoneId zone,
+            ImportResult result) {
+        String name = event.summary != null ? "'" + event.summary + "'" : "(untitled)";
+        if (event.start == null) {
+            result.warnings.add("Event " + name + " has no DTSTART, skipped");
+            result.skipped++;
+            return;
+        }
+        if ("CANCELLED".equalsIgnoreCase(event.status) || "TRANSPARENT".equalsIgnoreCase(event.transp)) {
+            result.skipped++;
+            return;
+        }
+
+        Duration length = event.length();
+        if (length.isZero() || length.isNegative()) {
+            result.skipped++;
+            return;
+        }
+
+        List<BusyInterval> pieces = new ArrayList<>();
+        try {
+            Recurrence recurrence = new Recurrence(event, from.minusDays(length.toDays() + 1), to.plusDays(1));
+            if (recurrence.unsupported != null) {
+                result.warnings.add("Event " + name + ": " + recurrence.unsupported
+                        + " is not supported, imported the first occurrence only");
+            }
+            for (LocalDateTime start : recurrence.expand()) {
+                LocalDateTime localStart = event.allDay ? start : convert(start, event.zone, zone);
+                LocalDateTime localEnd = event.allDay ? start.plus(length) : convert(start.plus(length), event.zone, zone);
+                split(label, localStart, localEnd, from, to, pieces);
+            }
+        } catch (RuntimeException e) {
+            // Malformed rule values: drop the event, keep the import going
+            result.warnings.add("Event " + name + " could not be read, skipped: " + e.getMessage());
+            result.skipped++;
+            return;
+        }
+
+        if (pieces.isEmpty()) {
+            result.skipped++;
+            return;
+        }
+        result.intervals.addAll(fold(label, pieces));
+    }
+
+    private static LocalDateTime convert(LocalDateTime time, ZoneId source, ZoneId target) {
+        if (source == null || source.equals(target)) {
+            return time; // floating time: already local
+        }
+        return time.atZone(source).withZoneSameInstant(target).toLocalDateTime();
+    }
+
+    /**
+     * Cut [start, end) at midnights into one-off intervals, keeping the days within
+     * [from, to]; seconds are rounded outwards to whole minutes
+     */
+    private static void split(String label, LocalDateTime start, LocalDateTime end, LocalDate from, LocalDate to,
+            List<BusyInterval> pieces) {
+        start = start.truncatedTo(ChronoUnit.MINUTES);
+        if (end.getSecond() > 0 || end.getNano() > 0) {
+            end = end.truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+        }
+        for (LocalDate day = start.toLocalDate(); day.atStartOfDay().isBefore(end); day = day.plusDays(1)) {
+            if (day.isBefore(from) || day.isAfter(to)) {
+                continue;
+            }
+            LocalTime pieceStart = day.equals(start.toLocalDate()) ? start.toLocalTime() : LocalTime.MIDNIGHT;
+            LocalTime pieceEnd = day.equals(end.toLocalDate()) ? end.toLocalTime() : LocalTime.MIDNIGHT;
+            BusyInterval piece = new BusyInterval(label, day, pieceStart, pieceEnd);
+            if (piece.getEndMinute() > piece.getStartMinute()) {
+                pieces.add(piece);
+            }
+        }
+    }
+
+    /**
+     * Fold one event's pieces into a single recurring interval when they are exactly
+     * the matching days of one: same times, one piece per day, no gaps
+     */
+    private static List<BusyInterval> fold(String label, List<BusyInterval> pieces) {
+        if (pieces.size() < 2) {
+            return pieces;
+        }
+        BusyInterval first = pieces.get(0);
+        LocalDate startDate = first.getStartDate();
+        LocalDate endDate = first.getStartDate();
+        Set<LocalDate> dates = new HashSet<>();
+        Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        for (BusyInterval piece : pieces) {
+            if (!piece.getStartTime().equals(first.getStartTime()) || !piece.getEndTime().equals(first.getEndTime())
+                    || !dates.add(piece.getStartDate())) {
+                return pieces;
+            }
+            days.add(piece.getStartDate().getDayOfWeek());
+            startDate = piece.getStartDate().isBefore(startDate) ? piece.getStartDate() : startDate;
+            endDate = piece.getStartDate().isAfter(endDate) ? piece.getStartDate() : endDate;
+        }
+        BusyInterval folded = new BusyInterval(label, startDate, endDate, days,
+                first.getStartTime(), first.getEndTime());
+        return folded.countMatchingDays() == pieces.size() ? List.of(folded) : pieces;
+    }
+
+    /**
+     * The VEVENT being read: only what expansion needs
+     */
+    private static class Event {
+        private LocalDateTime start; // in zone (floating when zone is null)
+        private LocalDateTime end;
+        private ZoneId zone;
+        private boolean allDay;
+        private Duration duration;
+        private Map<String, String> rule;
+        private final Set<LocalDate> exdates = new HashSet<>();
+        private String status;
+        private String transp;
+        private String summary;
+
+        void set(Property property) {
+            switch (property.name) {
+                case "DTSTART" -> {
+                    allDay = property.isDate();
+                    zone = property.zone();
+                    start = property.dateTime(property.value, zone);
+                }
+                case "DTEND" -> end = property.dateTime(property.value, zone);
+                case "DURATION" -> duration = parseDuration(property.value);
+                case "RRULE" -> rule = parseRule(property.value);
+                case "EXDATE" -> {
+                    for (String value : property.value.split(",")) {
+                        LocalDateTime exdate = property.dateTime(value.trim(), zone);
+                        if (exdate != null) {
+                            exdates.add(exdate.toLocalDate());
+                        }
+                    }
+                }
+                case "STATUS" -> status = property.value.trim();
+                case "TRANSP" -> transp = property.value.trim();
+                case "SUMMARY" -> summary = property.value.replace("\\,", ",").replace("\\;", ";").trim();
+                default -> { }
+            }
+        }
+
+        /**
+         * DTEND - DTSTART, else DURATION, else a day for all-day events and nothing for
+         * timed ones (RFC 5545 3.6.1)
+         */
+        Duration length() {
+            if (end != null) {
+                return Duration.between(start, end);
+            }
+            if (duration != null) {
+                return duration;
+            }
+            return allDay ? Duration.ofDays(1) : Duration.ZERO;
+        }
+
+        private static Duration parseDuration(String value) {
+            String text = value.trim().toUpperCase();
+            try {
+                // Duration.parse has no weeks
+                int weeks = text.indexOf('W');
+                if (weeks > 0) {
+                    boolean negative = text.startsWith("-");
+                    long count = Long.parseLong(text.substring(negative ? 2 : 1, weeks));
+                    return Duration.ofDays(7 * (negative ? -count : count));
+                }
+                return Duration.parse(text);
+            } catch (RuntimeException e) {
+                return null;
+            }
+        }
+
+        private static Map<String, String> parseRule(String value) {
+            Map<String, String> rule = new HashMap<>();
+            for (String part : value.split(";")) {
+                int eq = part.indexOf('=');
+                if (eq > 0) {
+                    rule.put(part.substring(0, eq).trim().toUpperCase(), part.substring(eq + 1).trim().toUpperCase());
+                }
+            }
+            return rule;
+        }
+    }
+
+    /**
+     * Occurrence starts of an event, in the event's zone, limited to dates in
+     * [from, to] (the window is widened by the caller for events spanning midnight
+     * and for zone shifts). COUNT and UNTIL are honoured from DTSTART, so occurrences
+     * before the window are stepped over, not kept.
+     */
+    private static class Recurrence {
+        private final Event event;
+        private final LocalDate from;
+        private final LocalDate to;
+        private final List<LocalDateTime> starts = new ArrayList<>();
+        private String freq;
+        private int interval = 1;
+        private Integer count;
+        private LocalDateTime until;
+        private String unsupported;
+        private int seen;
+        private boolean done;
+
+        Recurrence(Event event, LocalDate from, LocalDate to) {
+            this.event = event;
+            this.from = from;
+            this.to = to;
+            if (event.rule == null) {
+                return;
+            }
+            for (String part : event.rule.keySet()) {
+                if (!SUPPORTED_RULE_PARTS.contains(part)) {
+                    unsupported = "RRULE part " + part;
+                }
+            }
+            freq = event.rule.get("FREQ");
+            if (!Set.of("DAILY", "WEEKLY", "MONTHLY", "YEARLY").contains(String.valueOf(freq))) {
+                unsupported = "RRULE FREQ=" + freq;
+            }
+            // BYDAY and BYMONTHDAY filter DAILY rules; other combinations are not expanded
+            String byDay = event.rule.get("BYDAY");
+            if (byDay != null && ("YEARLY".equals(freq) || ("DAILY".equals(freq)
+                    && Arrays.stream(byDay.split(",")).anyMatch(d -> dayOfWeek(d.trim()) == null)))) {
+                unsupported = "RRULE BYDAY=" + byDay + " with FREQ=" + freq;
+            }
+            if (event.rule.containsKey("BYMONTHDAY") && Set.of("WEEKLY", "YEARLY").contains(freq)) {
+                unsupported = "RRULE BYMONTHDAY with FREQ=" + freq;
+            }
+            try {
+                interval = Math.max(1, Integer.parseInt(event.rule.getOrDefault("INTERVAL", "1")));
+                count = event.rule.containsKey("COUNT") ? Integer.parseInt(event.rule.get("COUNT")) : null;
+            } catch (NumberFormatException e) {
+                unsupported = "RRULE " + e.getMessage();
+            }
+            if (event.rule.containsKey("UNTIL")) {
+                String value = event.rule.get("UNTIL");
+                until = Property.parseDateTime(value, value.endsWith("Z") ? ZoneOffset.UTC : event.zone, event.zone);
+                if (until != null && value.length() == 8) {
+                    until = until.toLocalDate().atTime(LocalTime.MAX);
+                }
+            }
+        }
+
+        List<LocalDateTime> expand() {
+            if (event.rule == null || unsupported != null) {
+                emit(event.start.toLocalDate());
+                return starts;
+            }
+            LocalDate first = event.start.toLocalDate();
+            switch (freq) {
+                case "DAILY" -> {
+                    LocalDate day = first.plusDays(skip(ChronoUnit.DAYS.between(first, from)));
+                    for (; !done && !day.isAfter(to); day = day.plusDays(interval)) {
+                        // Filtered days are not occurrences, so COUNT skips them too
+                        if (matchesDaily(day)) {
+                            emit(day);
+                        }
+                    }
+                }
+                case "WEEKLY" -> {
+                    Set<DayOfWeek> days = byDay(event.rule.get("BYDAY"), first.getDayOfWeek());
+                    LocalDate week = first.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                    week = week.plusWeeks(skip(ChronoUnit.WEEKS.between(week, from)));
+                    for (; !done && !week.isAfter(to); week = week.plusWeeks(interval)) {
+                        for (DayOfWeek day : days) {
+                            LocalDate date = week.with(TemporalAdjusters.nextOrSame(day));
+                            if (!date.isBefore(first) && !done) {
+                                emit(date);
+                            }
+                        }
+                    }
+                }
+                case "MONTHLY" -> {
+                    for (YearMonth month = YearMonth.from(first); !done && !month.atDay(1).isAfter(to);
+                            month = month.plusMonths(interval)) {
+                        for (LocalDate date : monthDates(month, first)) {
+                            if (!date.isBefore(first) && !done) {
+                                emit(date);
+                            }
+                        }
+                    }
+                }
+                case "YEARLY" -> {
+                    for (int year = first.getYear(); !done && year <= to.getYear(); year += interval) {
+                        // Feb 29 only recurs in leap years
+                        if (first.getMonthValue() != 2 || first.getDayOfMonth() != 29 || Year.isLeap(year)) {
+                            emit(first.withYear(year));
+                        }
+                    }
+                }
+                default -> emit(first);
+            }
+            return starts;
+        }
+
+        /**
+         * Whole intervals that can be stepped over to reach the window; none under COUNT,
+         * which has to count every occurrence
+         */
+        private long skip(long behind) {
+            if (count != null || behind <= interval) {
+                return 0;
+            }
+            return (behind - 1) / interval * interval;
+        }
+
+        private void emit(LocalDate date) {
+            LocalDateTime start = date.atTime(event.start.toLocalTime());
+            if ((until != null && start.isAfter(until)) || (count != null && seen >= count) || date.isAfter(to)) {
+                done = true;
+                return;
+            }
+            seen++; // excluded dates still count (RFC 5545 3.8.5.1)
+            if (!date.isBefore(from) && !event.exdates.contains(date)) {
+                starts.add(start);
+            }
+        }
+
+        /**
+         * Whether a day of a DAILY rule passes its BYDAY and BYMONTHDAY filters
+         */
+        private boolean matchesDaily(LocalDate day) {
+            String byDay = event.rule.get("BYDAY");
+            if (byDay != null && !byDay(byDay, day.getDayOfWeek()).contains(day.getDayOfWeek())) {
+                return false;
+            }
+            String byMonthDay = event.rule.get("BYMONTHDAY");
+            if (byMonthDay != null) {
+                int length = day.lengthOfMonth();
+                return Arrays.stream(byMonthDay.split(",")).map(String::trim).mapToInt(Integer::parseInt)
+                        .anyMatch(d -> (d < 0 ? length + d + 1 : d) == day.getDayOfMonth());
+            }
+            return true;
+        }
+
+        private List<LocalDate> monthDates(YearMonth month, LocalDate first) {
+            TreeSet<LocalDate> dates = new TreeSet<>();
+            String byDay = event.rule.get("BYDAY");
+            String byMonthDay = event.rule.get("BYMONTHDAY");
+            if (byDay != null) {
+                for (String entry : byDay.split(",")) {
+                    DayOfWeek day = dayOfWeek(entry.substring(Math.max(0, entry.length() - 2)));
+                    String ordinal = entry.substring(0, Math.max(0, entry.length() - 2));
+                    if (day == null) {
+                        continue;
+                    }
+                    if (ordinal.isEmpty()) {
+                        // Every such weekday of the month
+                        for (LocalDate d = month.atDay(1).with(TemporalAdjusters.nextOrSame(day));
+                                !d.isAfter(month.atEndOfMonth()); d = d.plusWeeks(1)) {
+                            dates.add(d);
+                        }
+                    } else {
+                        LocalDate d = month.atDay(1).with(
+                                TemporalAdjusters.dayOfWeekInMonth(Integer.parseInt(ordinal.replace("+", "")), day));
+                        if (YearMonth.from(d).equals(month)) {
+                            dates.add(d);
+                        }
+                    }
+                }
+            }
+            if (byDay == null || byMonthDay != null) {
+                TreeSet<LocalDate> monthDays = new TreeSet<>();
+                String days = byMonthDay != null ? byMonthDay : String.valueOf(first.getDayOfMonth());
+                for (String entry : days.split(",")) {
+                    int day = Integer.parseInt(entry.trim());
+                    int resolved = day < 0 ? month.lengthOfMonth() + day + 1 : day;
+                    if (resolved >= 1 && resolved <= month.lengthOfMonth()) {
+                        monthDays.add(month.atDay(resolved));
+                    }
+                }
+                // With both parts, a date must match each of them (RFC 5545 3.3.10)
+                if (byDay != null) {
+                    dates.retainAll(monthDays);
+                } else {
+                    dates.addAll(monthDays);
+                }
+            }
+            return new ArrayList<>(dates);
+        }
+
+        private static Set<DayOfWeek> byDay(String value, DayOfWeek fallback) {
+            Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+            if (value != null) {
+                for (String entry : value.split(",")) {
+                    DayOfWeek day = dayOfWeek(entry.trim());
+                    if (day != null) {
+                        days.add(day);
+                    }
+                }
+            }
+            if (days.isEmpty()) {
+                days.add(fallback);
+            }
+            return days;
+        }
+
+        private static DayOfWeek dayOfWeek(String code) {
+            return switch (code) {
+                case "MO" -> DayOfWeek.MONDAY;
+                case "TU" -> DayOfWeek.TUESDAY;
+                case "WE" -> DayOfWeek.WEDNESDAY;
+                case "TH" -> DayOfWeek.THURSDAY;
+                case "FR" -> DayOfWeek.FRIDAY;
+                case "SA" -> DayOfWeek.SATURDAY;
+                case "SU" -> DayOfWeek.SUNDAY;
+                default -> null;
+            };
+        }
+    }
+
+    /**
+     * One unfolded content line: NAME;PARAM=VALUE;...:value
+     */
+    private static class Property {
+        private final String name;
+        private final Map<String, String> params;
+        private final String value;
+
+        private Property(String name, Map<String, String> params, String value) {
+            this.name = name;
+            this.params = params;
+            this.value = value;
+        }
+
+        static Property parse(String line) {
+            // The value starts at the first colon outside a quoted parameter value
+            int colon = -1;
+            boolean quoted = false;
+            for (int i = 0; i < line.length() && colon < 0; i++) {
+                char c = line.charAt(i);
+                if (c == '"') {
+                    quoted = !quoted;
+                } else if (c == ':' && !quoted) {
+                    colon = i;
+                }
+            }
+            if (colon < 0) {
+                return null;
+            }
+            String[] head = line.substring(0, colon).split(";");
+            Map<String, String> params = new HashMap<>();
+            for (int i = 1; i < head.length; i++) {
+                int eq = head[i].indexOf('=');
+                if (eq > 0) {
+                    params.put(head[i].substring(0, eq).toUpperCase(), head[i].substring(eq + 1).replace("\"", ""));
+                }
+            }
+            return new Property(head[0].trim().toUpperCase(), params, line.substring(colon + 1));
+        }
+
+        boolean isDate() {
+            return "DATE".equalsIgnoreCase(params.get("VALUE")) || value.trim().length() == 8;
+        }
+
+        /**
+         * Zone of the property's times: UTC for a Z suffix, TZID when Java knows it,
+         * otherwise floating (null)
+         */
+        ZoneId zone() {
+            if (isDate()) {
+                return null;
+            }
+            if (value.trim().endsWith("Z")) {
+                return ZoneOffset.UTC;
+            }
+            String tzid = params.get("TZID");
+            if (tzid != null) {
+                try {
+                    return ZoneId.of(tzid);
+                } catch (DateTimeException e) {
+                    return null;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * A DATE or DATE-TIME value of this property, in {@code zone}
+         */
+        LocalDateTime dateTime(String text, ZoneId zone) {
+            String trimmed = text.trim();
+            ZoneId own = trimmed.endsWith("Z") ? ZoneOffset.UTC : params.containsKey("TZID") ? zone() : zone;
+            return parseDateTime(trimmed, own, zone);
+        }
+
+        /**
+         * Parse a DATE or DATE-TIME given in {@code source}, converted to {@code target};
+         * null for malformed values
+         */
+        static LocalDateTime parseDateTime(String text, ZoneId source, ZoneId target) {
+            try {
+                if (text.length() == 8) {
+                    return LocalDate.parse(text, ICS_DATE).atStartOfDay();
+                }
+                LocalDateTime time = LocalDateTime.parse(text.substring(0, 15), ICS_DATE_TIME);
+                return source != null && target != null && !source.equals(target)
+                        ? convert(time, source, target)
+                        : time;
+            } catch (DateTimeParseException | IndexOutOfBoundsException e) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Busy intervals read from a feed, with what was left out
+     */
+    public static class ImportResult {
+        private final List<BusyInterval> intervals = new ArrayList<>();
+        private final List<String> warnings = new ArrayList<>();
+        private int events;
+        private int skipped;
+
+        public List<BusyInterval> getIntervals() {
+            return intervals;
+        }
+
+        public List<String> getWarnings() {
+            return warnings;
+        }
+
+        /**
+         * VEVENTs read
+         */
+        public int getEvents() {
+            return events;
+        }
+
+        /**
+         * Events that added no busy time: cancelled, free, empty or outside the range
+         */
+        public int getSkipped() {
+            return skipped;
+        }
+    }
+}
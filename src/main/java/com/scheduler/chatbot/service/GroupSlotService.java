@@ -0,0 +1,413 @@
+package com.scheduler.chatbot.service;
+
+import com.scheduler.chatbot.model.PlanSpec;
+import com.scheduler.chatbot.model.Schedule;
+import com.scheduler.chatbot.model.SlotBitmap;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Common free slots of a study group: when can N students with their own plans and
+ * schedules meet for one session?
+ *
+ * A member is free at a time on a day when the day has study availability in their plan
+ * and the time overlaps neither their busy intervals nor their scheduled blocks. Each
+ * member's day is a SlotBitmap of 5-minute slots; the group's day is the OR of them, so
+ * the slots everybody has free are found with one word-wise pass per member and day
+ * (5 longs), and each candidate start is one bitmap check. Blocks are bucketed by day
+ * once per member, so a semester for 200 students takes milliseconds.
+ *
+ * When a quorum below the whole group is allowed, members' own bitmaps are kept per day
+ * to count who can attend starts that not everyone can make.
+ *
+ * Candidates are ranked by attendance, then by a break of free time before and after the
+ * session for everyone attending, then by date and time. One candidate (the best start)
+ * is returned per day.
+ */
+@Service
+public class GroupSlotService {
+
+    private static final int SLOT_MINUTES = 5;
+    private static final int BUFFER_MINUTES = 15;
+
+    // Most attendees, then buffered sessions, then earliest
+    private static final Comparator<Candidate> RANKING =
+            Comparator.comparingInt((Candidate c) -> -c.attendance)
+                    .thenComparing(c -> !c.buffered)
+                    .thenComparing(c -> c.date)
+                    .thenComparing(c -> c.startTime);
+
+    /**
+     * Ranked session candidates for the group; the search window defaults to the dates
+     * all members' plans share
+     */
+    public List<Candidate> findCommonSlots(List<Member> members, Query query) {
+        if (members == null || members.isEmpty()) {
+            throw new IllegalArgumentException("A group needs at least one member");
+        }
+        if (query.getDurationMinutes() <= 0 || query.getStepMinutes() <= 0
+                || query.getStepMinutes() % SLOT_MINUTES != 0) {
+            throw new IllegalArgumentException("Session length must be positive and the step a multiple of "
+                    + SLOT_MINUTES + " minutes");
+        }
+        for (Member member : members) {
+            if (member.getPlan() == null) {
+                throw new IllegalArgumentException("Member '" + member.getName() + "' has no plan");
+            }
+        }
+        int size = members.size();
+        int quorum = query.getMinAttendance() != null ? Math.max(1, Math.min(size, query.getMinAttendance())) : size;
+
+        LocalDate from = query.getFrom();
+        LocalDate to = query.getTo();
+        for (Member member : members) {
+            PlanSpec plan = member.getPlan();
+            LocalDate start = plan.getStartDate() != null ? plan.getStartDate() : plan.getFirstAvailabilityDate();
+            LocalDate end = plan.getEndDate() != null ? plan.getEndDate() : plan.getLastAvailabilityDate();
+            from = query.getFrom() != null ? from : latest(from, start);
+            to = query.getTo() != null ? to : earliest(to, end);
+        }
+        List<Candidate> candidates = new ArrayList<>();
+        if (from == null || to == null || from.isAfter(to)) {
+            return candidates;
+        }
+
+        int days = (int) ChronoUnit.DAYS.between(from, to) + 1;
+        List<List<Schedule.ScheduledBlock>[]> blocksByDay = new ArrayList<>(size);
+        for (Member member : members) {
+            blocksByDay.add(bucket(member.getSchedule(), from, days));
+        }
+
+        SlotBitmap probe = new SlotBitmap(SLOT_MINUTES);
+        int length = probe.slotsFor(query.getDurationMinutes());
+        int step = query.getStepMinutes() / SLOT_MINUTES;
+        int buffer = probe.slotsFor(BUFFER_MINUTES);
+        int first = (probe.slotOf(query.getEarliest()) + step - 1) / step * step;
+        int last = query.getLatest().equals(LocalTime.MIDNIGHT)
+                ? probe.size()
+                : probe.slotOf(query.getLatest());
+
+        for (int day = 0; day < days; day++) {
+            LocalDate date = from.plusDays(day);
+            SlotBitmap group = new SlotBitmap(SLOT_MINUTES);
+            SlotBitmap[] own = quorum < size ? new SlotBitmap[size] : null;
+            int unavailable = 0;
+            for (int m = 0; m < size; m++) {
+                SlotBitmap taken = occupancy(members.get(m).getPlan(), blocksByDay.get(m)[day], date);
+                if (taken == null) {
+                    unavailable++;
+                    taken = new SlotBitmap(SLOT_MINUTES);
+                    taken.occupy(0, taken.size());
+                }
+                group.occupy(taken);
+                if (own != null) {
+                    own[m] = taken;
+                }
+            }
+            if (size - unavailable < quorum) {
+                continue;
+            }
+
+            Candidate best = null;
+            for (int s = first; s + length <= last; s += step) {
+                Candidate candidate;
+                if (group.isFree(s, length)) {
+                    candidate = new Candidate(date, probe.timeOf(s), probe.timeOf(s + length), size, size,
+                            buffered(group, s, length, buffer), List.of());
+                } else if (own != null) {
+                    candidate = partial(members, own, date, s, length, buffer, probe);
+                    if (candidate.attendance < quorum) {
+                        continue;
+                    }
+                } else {
+                    continue;
+                }
+                if (best == null || RANKING.compare(candidate, best) < 0) {
+                    best = candidate;
+                }
+            }
+            if (best != null) {
+                candidates.add(best);
+            }
+        }
+
+        candidates.sort(RANKING);
+        List<Candidate> ranked = new ArrayList<>(candidates.subList(0, Math.min(query.getLimit(), candidates.size())));
+        for (int i = 0; i < ranked.size(); i++) {
+            ranked.get(i).rank = i + 1;
+        }
+        return ranked;
+    }
+
+    /**
+     * Taken slots of a member's day: busy time and scheduled blocks; null when the plan
+     * has no study availability that day
+     */
+    private static SlotBitmap occupancy(PlanSpec plan, List<Schedule.ScheduledBlock> blocks, LocalDate date) {
+        Double capacity = plan.getAvailability(date);
+        if (capacity == null || capacity <= 0) {
+            return null;
+        }
+        SlotBitmap taken = new SlotBitmap(SLOT_MINUTES);
+        int[] busy = plan.getBusyCalendar().busyMinutes(date);
+        for (int i = 0; i < busy.length; i += 2) {
+            int start = busy[i] / SLOT_MINUTES;
+            taken.occupy(start, taken.slotsFor(busy[i + 1]) - start);
+        }
+        if (blocks != null) {
+            for (Schedule.ScheduledBlock block : blocks) {
+                taken.occupy(LocalTime.parse(block.getStartTime()), LocalTime.parse(block.getEndTime()));
+            }
+        }
+        return taken;
+    }
+
+    /**
+     * Blocks of a schedule by day offset from {@code from}, in one pass
+     */
+    @SuppressWarnings("unchecked")
+    private static List<Schedule.ScheduledBlock>[] bucket(Schedule schedule, LocalDate from, int days) {
+        List<Schedule.ScheduledBlock>[] byDay = new List[days];
+        if (schedule == null) {
+            return byDay;
+        }
+        for (Schedule.ScheduledBlock block : schedule.getBlocks()) {
+            long day = ChronoUnit.DAYS.between(from, block.getDate());
+            if (day >= 0 && day < days) {
+                if (byDay[(int) day] == null) {
+                    byDay[(int) day] = new ArrayList<>();
+                }
+                byDay[(int) day].add(block);
+            }
+        }
+        return byDay;
+    }
+
+    private static Candidate partial(List<Member> members, SlotBitmap[] own, LocalDate date, int start, int length,
+            int buffer, SlotBitmap probe) {
+        List<String> absent = new ArrayList<>();
+        boolean buffered = true;
+        for (int m = 0; m < own.length; m++) {
+            if (own[m].isFree(start, length)) {
+                buffered &= buffered(own[m], start, length, buffer);
+            } else {
+                absent.add(members.get(m).getName());
+            }
+        }
+        return new Candidate(date, probe.timeOf(start), probe.timeOf(start + length),
+                own.length - absent.size(), own.length, buffered, absent);
+    }
+
+    /**
+     * Whether {@code buffer} slots before and after the session are free too (the day's
+     * edges count as free)
+     */
+    private static boolean buffered(SlotBitmap taken, int start, int length, int buffer) {
+        int before = Math.max(0, start - buffer);
+        int after = Math.min(taken.size(), start + length + buffer);
+        return taken.isFree(before, start - before) && taken.isFree(start + length, after - start - length);
+    }
+
+    private static LocalDate latest(LocalDate a, LocalDate b) {
+        return a == null || (b != null && b.isAfter(a)) ? b : a;
+    }
+
+    private static LocalDate earliest(LocalDate a, LocalDate b) {
+        return a == null || (b != null && b.isBefore(a)) ? b : a;
+    }
+
+    // DTOs
+
+    /**
+     * One student: their plan (availability and busy times) and, if generated, their
+     * schedule
+     */
+    public static class Member {
+        private String name;
+        private PlanSpec plan;
+        private Schedule schedule;
+
+        public Member() {
+        }
+
+        public Member(String name, PlanSpec plan, Schedule schedule) {
+            this.name = name;
+            this.plan = plan;
+            this.schedule = schedule;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public PlanSpec getPlan() {
+            return plan;
+        }
+
+        public void setPlan(PlanSpec plan) {
+            this.plan = plan;
+        }
+
+        public Schedule getSchedule() {
+            return schedule;
+        }
+
+        public void setSchedule(Schedule schedule) {
+            this.schedule = schedule;
+        }
+    }
+
+    /**
+     * What to look for: session length, dates, time of day, start step and quorum
+     */
+    public static class Query {
+        private LocalDate from;
+        private LocalDate to;
+        private int durationMinutes = 90;
+        private LocalTime earliest = LocalTime.of(8, 0);
+        private LocalTime latest = LocalTime.of(22, 0);
+        private int stepMinutes = 30;
+        private Integer minAttendance; // null = everyone
+        private int limit = 10;
+
+        public LocalDate getFrom() {
+            return from;
+        }
+
+        public void setFrom(LocalDate from) {
+            this.from = from;
+        }
+
+        public LocalDate getTo() {
+            return to;
+        }
+
+        public void setTo(LocalDate to) {
+            this.to = to;
+        }
+
+        public int getDurationMinutes() {
+            return durationMinutes;
+        }
+
+        public void setDurationMinutes(int durationMinutes) {
+            this.durationMinutes = durationMinutes;
+        }
+
+        public LocalTime getEarliest() {
+            return earliest;
+        }
+
+        public void setEarliest(LocalTime earliest) {
+            this.earliest = earliest;
+        }
+
+        public LocalTime getLatest() {
+            return latest;
+        }
+
+        public void setLatest(LocalTime latest) {
+            this.latest = latest;
+        }
+
+        public int getStepMinutes() {
+            return stepMinutes;
+        }
+
+        public void setStepMinutes(int stepMinutes) {
+            this.stepMinutes = stepMinutes;
+        }
+
+        public Integer getMinAttendance() {
+            return minAttendance;
+        }
+
+        public void setMinAttendance(Integer minAttendance) {
+            this.minAttendance = minAttendance;
+        }
+
+        public int getLimit() {
+            return limit;
+        }
+
+        public void setLimit(int limit) {
+            this.limit = limit;
+        }
+    }
+
+    /**
+     * A session slot, who cannot make it, and its place in the ranking
+     */
+    public static class Candidate {
+        private final LocalDate date;
+        private final LocalTime startTime;
+        private final LocalTime endTime;
+        private final int attendance;
+        private final int groupSize;
+        private final boolean buffered;
+        private final List<String> absent;
+        private int rank;
+
+        Candidate(LocalDate date, LocalTime startTime, LocalTime endTime, int attendance, int groupSize,
+                boolean buffered, List<String> absent) {
+            this.date = date;
+            this.startTime = startTime;
+            this.endTime = endTime;
+            this.attendance = attendance;
+            this.groupSize = groupSize;
+            this.buffered = buffered;
+            this.absent = absent;
+        }
+
+        public LocalDate getDate() {
+            return date;
+        }
+
+        public LocalTime getStartTime() {
+            return startTime;
+        }
+
+        public LocalTime getEndTime() {
+            return endTime;
+        }
+
+        public int getAttendance() {
+            return attendance;
+        }
+
+        public int getGroupSize() {
+            return groupSize;
+        }
+
+        /**
+         * Whether everyone attending has a break of free time before and after
+         */
+        public boolean isBuffered() {
+            return buffered;
+        }
+
+        public List<String> getAbsent() {
+            return absent;
+        }
+
+        public int getRank() {
+            return rank;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("#%d %s %s-%s (%d/%d%s)", rank, date, startTime, endTime, attendance, groupSize,
+                    buffered ? ", buffered" : "");
+        }
+    }
+}
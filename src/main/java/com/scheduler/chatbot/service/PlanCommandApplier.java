@@ -0,0 +1,261 @@
+package com.scheduler.chatbot.service;
+
+import com.scheduler.chatbot.engine.ConstraintStrategy;
+import com.scheduler.chatbot.model.PlanSpec;
+import com.scheduler.chatbot.model.PlanVersion;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies plan-modifying DSL commands (add/update/delete subject, components, exams,
+ * availability, busy times, uploaded calendars, reviews, hard constraints, date range,
+ * engine) to a mutable
+ * plan and its version
+ *
+ * Shared by the live plan (SchedulerFacade commits the returned version to its history)
+ * and what-if scenarios (ScenarioService applies deltas to private copies and drops the
+ * versions). The plan is only changed when the command succeeds.
+ */
+@Service
+public class PlanCommandApplier {
+
+    private static final Set<String> PLAN_COMMANDS = Set.of(
+            "ADD_SUBJECT", "DELETE_SUBJECT", "UPDATE_SUBJECT_HOURS", "UPDATE_SUBJECT_PRIORITY",
+            "ADD_COMPONENT", "SET_EXAM", "SET_AVAILABILITY", "SET_AVAILABILITY_RANGE",
+            "ADD_BUSY", "DELETE_BUSY", "SET_REVIEWS",
+            "ADD_CONSTRAINT", "DELETE_CONSTRAINTS", "SET_ENGINE", "SET_DATE_RANGE");
+
+    @Autowired
+    private SchedulerService schedulerService;
+
+    @Autowired
+    private CalendarImportService calendarImportService;
+
+    /**
+     * Whether the command type changes the plan (and so can be applied here)
+     */
+    public boolean modifiesPlan(String commandType) {
+        return commandType != null && PLAN_COMMANDS.contains(commandType);
+    }
+
+    /**
+     * Apply a parsed command to the plan; the result carries the matching new version
+     * (O(log n) per change, sharing the rest of {@code version})
+     */
+    public Result apply(PlanSpec plan, PlanVersion version, PlanSpec parsed) {
+        String commandType = parsed.getCommandType();
+        if ("ADD_SUBJECT".equals(commandType)) {
+            // O(1) duplicate check via the course index
+            for (PlanSpec.CourseSpec course : parsed.getCourses()) {
+                if (plan.containsCourse(course.getId())) {
+                    return Result.failure("Subject '" + course.getId() + "' already exists");
+                }
+            }
+            for (PlanSpec.CourseSpec course : parsed.getCourses()) {
+                plan.addCourse(course);
+                version = version.withCourse(course);
+            }
+            return Result.success("Subject added successfully", version);
+        } else if ("DELETE_SUBJECT".equals(commandType)) {
+            String subject = parsed.getTargetSubject();
+            if (!plan.containsCourse(subject)) {
+                return Result.failure("Subject '" + subject + "' not found");
+            }
+            plan.removeCourse(subject);
+            return Result.success("Subject deleted successfully", version.withoutCourse(subject));
+        } else if ("UPDATE_SUBJECT_HOURS".equals(commandType) || "UPDATE_SUBJECT_PRIORITY".equals(commandType)) {
+            PlanSpec.CourseSpec course = plan.getCourse(parsed.getTargetSubject());
+            if (course == null) {
+                return Result.failure("Subject '" + parsed.getTargetSubject() + "' not found");
+            }
+            if (parsed.getUpdateHours() != null) {
+                course.setWorkloadHours(parsed.getUpdateHours());
+            }
+            if (parsed.getUpdatePriority() != null) {
+                course.setPriority(parsed.getUpdatePriority());
+            }
+            return Result.success("Subject updated successfully", version.withCourse(course));
+        } else if ("ADD_COMPONENT".equals(commandType)) {
+            PlanSpec.CourseSpec course = plan.getCourse(parsed.getTargetSubject());
+            if (course == null) {
+                return Result.failure("Subject '" + parsed.getTargetSubject() + "' not found");
+            }
+            PlanSpec.ComponentSpec component = parsed.getTargetComponent();
+            if (course.getComponents().stream().anyMatch(c -> c.getName().equalsIgnoreCase(component.getName()))) {
+                return Result.failure("Component '" + component.getName() + "' already exists for '" + course.getId() + "'");
+            }
+            if (course.getComponentTotalHours() + component.getEstimatedHours() > course.getWorkloadHours() * 1.1) {
+                return Result.failure(String.format("Components of '%s' would need %.1f hours, more than its %.1f hour workload",
+                    course.getId(), course.getComponentTotalHours() + component.getEstimatedHours(), course.getWorkloadHours()));
+            }
+            course.addComponent(component);
+            return Result.success("Component '" + component.getName() + "' added to '" + course.getId() + "'",
+                    version.withCourse(course));
+        } else if ("SET_EXAM".equals(commandType)) {
+            PlanSpec.CourseSpec course = plan.getCourse(parsed.getTargetSubject());
+            if (course == null) {
+                return Result.failure("Subject '" + parsed.getTargetSubject() + "' not found");
+            }
+            course.setExamDate(parsed.getTargetExamDate());
+            return Result.success("Exam for '" + course.getId() + "' set to " + course.getExamDate(),
+                    version.withCourse(course));
+        } else if ("SET_AVAILABILITY".equals(commandType)) {
+            for (Map.Entry<LocalDate, Double> entry : parsed.getAvailability().entrySet()) {
+                plan.setAvailability(entry.getKey(), entry.getValue());
+                version = version.withAvailability(entry.getKey(), entry.getValue());
+            }
+            return Result.success("Availability set successfully", version);
+        } else if ("SET_AVAILABILITY_RANGE".equals(commandType)) {
+            // Keep recurring availability as compact rules instead of one entry per date
+            long coveredDays = 0;
+            for (PlanSpec.AvailabilityRule rule : parsed.getAvailabilityRules()) {
+                plan.addAvailabilityRule(rule);
+                version = version.withAvailabilityRule(rule);
+                coveredDays += rule.countMatchingDays();
+            }
+            return Result.success("Availability set for " + coveredDays + " day(s)", version);
+        } else if ("ADD_BUSY".equals(commandType)) {
+            // Recurring busy times stay one interval, like availability rules
+            long coveredDays = 0;
+            for (PlanSpec.BusyInterval interval : parsed.getBusyIntervals()) {
+                plan.addBusyInterval(interval);
+                version = version.withBusyInterval(interval);
+                coveredDays += interval.countMatchingDays();
+            }
+            return Result.success("Busy time added on " + coveredDays + " day(s)", version);
+        } else if ("DELETE_BUSY".equals(commandType)) {
+            String label = parsed.getTargetSubject();
+            int removed = plan.removeBusyIntervals(label);
+            if (removed == 0) {
+                return Result.failure("Busy time '" + label + "' not found");
+            }
+            return Result.success("Removed " + removed + " busy time(s) '" + label + "'",
+                    version.withoutBusyIntervals(label));
+        } else if ("SET_REVIEWS".equals(commandType)) {
+            PlanSpec.SchedulingRules requested = parsed.getRules();
+            if (requested.getReviewDurationMinutes() > plan.getRules().getBlockDurationMinutes()) {
+                return Result.failure("Reviews cannot be longer than a " + plan.getRules().getBlockDurationMinutes()
+                        + "-minute study block");
+            }
+            plan.getRules().setReviewIntervals(requested.getReviewIntervals());
+            plan.getRules().setReviewDurationMinutes(requested.getReviewDurationMinutes());
+            String message = requested.hasReviews()
+                    ? "Reviews of " + requested.getReviewDurationMinutes() + " minutes after "
+                            + requested.getReviewIntervals() + " day(s)"
+                    : "Reviews turned off";
+            return Result.success(message, version.withRules(plan.getRules()));
+        } else if ("ADD_CONSTRAINT".equals(commandType)) {
+            String subject = parsed.getTargetSubject();
+            if (subject != null && plan.getCourse(subject) == null) {
+                return Result.failure("Subject '" + subject + "' not found");
+            }
+            for (PlanSpec.HardConstraint constraint : parsed.getRules().getConstraints()) {
+                plan.getRules().addConstraint(constraint);
+            }
+            return Result.success("Constraint added: " + parsed.getRules().getConstraints().get(0)
+                    + " (enforced by engine '" + ConstraintStrategy.NAME + "')", version.withRules(plan.getRules()));
+        } else if ("DELETE_CONSTRAINTS".equals(commandType)) {
+            String subject = parsed.getTargetSubject();
+            int removed = plan.getRules().removeConstraints(subject);
+            if (removed == 0) {
+                return Result.failure(subject != null
+                        ? "No constraints on '" + subject + "'"
+                        : "No constraints to delete");
+            }
+            return Result.success("Removed " + removed + " constraint(s)", version.withRules(plan.getRules()));
+        } else if ("SET_ENGINE".equals(commandType)) {
+            String engine = parsed.getTargetEngine();
+            if (!schedulerService.hasStrategy(engine)) {
+                return Result.failure("Unknown engine '" + engine + "'");
+            }
+            plan.setEngine(engine);
+            return Result.success("Using engine '" + engine + "'", version.withEngine(engine));
+        } else if ("SET_DATE_RANGE".equals(commandType)) {
+            if (parsed.getStartDate() != null) {
+                plan.setStartDate(parsed.getStartDate());
+            }
+            if (parsed.getEndDate() != null) {
+                plan.setEndDate(parsed.getEndDate());
+            }
+            return Result.success("Date range set successfully",
+                    version.withDateRange(plan.getStartDate(), plan.getEndDate()));
+        }
+        return Result.failure("'" + commandType + "' does not change the plan");
+    }
+
+    /**
+     * Add the events of an iCalendar feed as busy time labelled {@code label}; recurring
+     * events are expanded within the plan's date range (its availability dates where the
+     * range is open, as in validation), so the range must be known first
+     */
+    public Result importBusy(PlanSpec plan, PlanVersion version, String label, Reader feed) throws IOException {
+        LocalDate start = plan.getStartDate() != null ? plan.getStartDate() : plan.getFirstAvailabilityDate();
+        LocalDate end = plan.getEndDate() != null ? plan.getEndDate() : plan.getLastAvailabilityDate();
+        if (start == null || end == null || start.isAfter(end)) {
+            return Result.failure("Set availability for the plan's dates before importing a calendar");
+        }
+        CalendarImportService.ImportResult imported = calendarImportService.importBusy(
+                feed, label, start, end,
+                plan.getTimezone() != null ? plan.getTimezone() : ZoneId.systemDefault());
+        if (imported.getIntervals().isEmpty()) {
+            return Result.failure("No busy time found in the plan's date range (" + imported.getEvents()
+                    + " event(s) read)" + warnings(imported));
+        }
+        for (PlanSpec.BusyInterval interval : imported.getIntervals()) {
+            plan.addBusyInterval(interval);
+            version = version.withBusyInterval(interval);
+        }
+        return Result.success(String.format("Imported %d busy time(s) from %d event(s), %d skipped%s",
+                imported.getIntervals().size(), imported.getEvents(), imported.getSkipped(), warnings(imported)),
+                version);
+    }
+
+    private static String warnings(CalendarImportService.ImportResult imported) {
+        if (imported.getWarnings().isEmpty()) {
+            return "";
+        }
+        return "\n- " + String.join("\n- ", imported.getWarnings());
+    }
+
+    /**
+     * Outcome of one command: the new version on success, null on failure
+     */
+    public static class Result {
+        private final boolean success;
+        private final String message;
+        private final PlanVersion version;
+
+        private Result(boolean success, String message, PlanVersion version) {
+            this.success = success;
+            this.message = message;
+            this.version = version;
+        }
+
+        static Result success(String message, PlanVersion version) {
+            return new Result(true, message, version);
+        }
+
+        static Result failure(String message) {
+            return new Result(false, message, null);
+        }
+
+        public boolean isSuccess() {
+            return success;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public PlanVersion getVersion() {
+            return version;
+        }
+    }
+}
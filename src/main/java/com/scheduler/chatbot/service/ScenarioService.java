@@ -0,0 +1,312 @@
+package com.scheduler.chatbot.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.scheduler.chatbot.model.PlanSpec;
+import com.scheduler.chatbot.model.PlanVersion;
+import com.scheduler.chatbot.model.Schedule;
+import com.scheduler.chatbot.parser.DSLParser;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * What-if comparison of plan variations ("what if Math is MEDIUM", "what if I add 2
+ * hours on weekends")
+ *
+ * Each scenario is a list of DSL commands applied on top of an immutable base version.
+ * Every scenario materializes its own plan from that version, so the live plan is never
+ * touched and scenarios share nothing mutable. The base and all scenarios are generated
+ * as independent tasks on a ForkJoinPool (one worker per core by default), then ranked:
+ * fewest unscheduled hours first, then highest score.
+ */
+@Service
+public class ScenarioService {
+
+    public static final String BASE_NAME = "base";
+
+    @Autowired
+    private DSLParser dslParser;
+
+    @Autowired
+    private SchedulerService schedulerService;
+
+    @Autowired
+    private PlanCommandApplier commandApplier;
+
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    /**
+     * Worker pool size from application.properties (0 = available processors)
+     */
+    @Autowired
+    public void configurePool(@Value("${scheduler.scenarios.parallelism:0}") int parallelism) {
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Stop the worker pool with the application context (the common pool is left alone)
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (pool != ForkJoinPool.commonPool()) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Generate the base plan and every scenario concurrently and rank the scenarios
+     * against the base (engine null = each plan's own engine)
+     */
+    public Comparison compare(PlanVersion base, List<Scenario> scenarios, String engine) {
+        List<Callable<Outcome>> tasks = new ArrayList<>(scenarios.size() + 1);
+        tasks.add(() -> run(base, new Scenario(BASE_NAME, List.of()), engine));
+        for (int i = 0; i < scenarios.size(); i++) {
+            Scenario scenario = scenarios.get(i);
+            if (scenario.getName() == null || scenario.getName().isBlank()) {
+                scenario.setName("scenario " + (i + 1));
+            }
+            tasks.add(() -> run(base, scenario, engine));
+        }
+
+        List<Outcome> outcomes = new ArrayList<>(tasks.size());
+        try {
+            for (Future<Outcome> future : pool.invokeAll(tasks)) {
+                outcomes.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Scenario comparison interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Scenario comparison failed", e.getCause());
+        }
+
+        Outcome baseline = outcomes.get(0);
+        List<Outcome> ranked = new ArrayList<>(outcomes.subList(1, outcomes.size()));
+        for (Outcome outcome : ranked) {
+            outcome.diff(baseline);
+        }
+        ranked.sort(RANKING);
+        int rank = 1;
+        for (Outcome outcome : ranked) {
+            if (outcome.isSuccess()) {
+                outcome.rank = rank++;
+            }
+        }
+        return new Comparison(baseline, ranked);
+    }
+
+    // Failed scenarios last, then fewest unscheduled hours, then highest score
+    private static final Comparator<Outcome> RANKING =
+            Comparator.comparing((Outcome o) -> !o.isSuccess())
+                    .thenComparingDouble(Outcome::getUnscheduledHours)
+                    .thenComparing(Comparator.comparingDouble(Outcome::getScore).reversed());
+
+    /**
+     * Apply a scenario's commands to a private copy of the base plan and generate it
+     */
+    private Outcome run(PlanVersion base, Scenario scenario, String engine) {
+        Outcome outcome = new Outcome(scenario);
+        try {
+            PlanSpec plan = base.toPlanSpec();
+            PlanVersion version = base;
+            for (String command : scenario.getCommands()) {
+                PlanSpec parsed = dslParser.parseCommand(command);
+                if (!commandApplier.modifiesPlan(parsed.getCommandType())) {
+                    return outcome.fail("'" + command + "' does not change the plan");
+                }
+                PlanCommandApplier.Result applied = commandApplier.apply(plan, version, parsed);
+                if (!applied.isSuccess()) {
+                    return outcome.fail("'" + command + "': " + applied.getMessage());
+                }
+                version = applied.getVersion();
+            }
+            outcome.record(plan, schedulerService.generateSchedule(plan, engine));
+        } catch (RuntimeException e) {
+            outcome.fail(e.getMessage());
+        }
+        return outcome;
+    }
+
+    // DTOs
+
+    /**
+     * A named list of DSL commands to apply on top of the base plan
+     */
+    public static class Scenario {
+        private String name;
+        private List<String> commands = new ArrayList<>();
+
+        public Scenario() {
+        }
+
+        public Scenario(String name, List<String> commands) {
+            this.name = name;
+            this.commands = new ArrayList<>(commands);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public List<String> getCommands() {
+            return commands;
+        }
+
+        public void setCommands(List<String> commands) {
+            this.commands = commands != null ? commands : new ArrayList<>();
+        }
+    }
+
+    /**
+     * Generated result of one scenario, with its difference to the base plan
+     */
+    public static class Outcome {
+        private final String name;
+        private final List<String> commands;
+        private boolean success;
+        private String message;
+        private String engine;
+        private double score;
+        private double scheduledHours;
+        private double unscheduledHours;
+        private Map<String, Double> shortfall = new LinkedHashMap<>();
+        private double scoreDelta;
+        private double unscheduledDelta;
+        private int rank;
+        private Schedule schedule;
+
+        Outcome(Scenario scenario) {
+            this.name = scenario.getName();
+            this.commands = Collections.unmodifiableList(new ArrayList<>(scenario.getCommands()));
+        }
+
+        Outcome fail(String message) {
+            this.success = false;
+            this.message = message;
+            return this;
+        }
+
+        void record(PlanSpec plan, Schedule schedule) {
+            this.success = true;
+            this.schedule = schedule;
+            this.engine = String.valueOf(schedule.getMetadata("engine"));
+            this.score = schedule.getScore().getOverallScore();
+            this.scheduledHours = schedule.getScore().getTotalScheduledHours();
+            Map<String, Double> courseHours = schedule.getScore().getCourseHours();
+            for (PlanSpec.CourseSpec course : plan.getCourses()) {
+                double missing = course.getWorkloadHours() - courseHours.getOrDefault(course.getId(), 0.0);
+                if (missing > 0.1) {
+                    shortfall.put(course.getId(), missing);
+                    unscheduledHours += missing;
+                }
+            }
+            this.message = String.format("Score %.1f, %.1f hours scheduled, %.1f unscheduled",
+                    score, scheduledHours, unscheduledHours);
+        }
+
+        void diff(Outcome base) {
+            if (success && base.success) {
+                scoreDelta = score - base.score;
+                unscheduledDelta = unscheduledHours - base.unscheduledHours;
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public List<String> getCommands() {
+            return commands;
+        }
+
+        public boolean isSuccess() {
+            return success;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public String getEngine() {
+            return engine;
+        }
+
+        public double getScore() {
+            return score;
+        }
+
+        public double getScheduledHours() {
+            return scheduledHours;
+        }
+
+        public double getUnscheduledHours() {
+            return unscheduledHours;
+        }
+
+        /**
+         * Unscheduled hours per course (courses with none are left out)
+         */
+        public Map<String, Double> getShortfall() {
+            return shortfall;
+        }
+
+        public double getScoreDelta() {
+            return scoreDelta;
+        }
+
+        public double getUnscheduledDelta() {
+            return unscheduledDelta;
+        }
+
+        /**
+         * 1 = best scenario; 0 for scenarios that failed
+         */
+        public int getRank() {
+            return rank;
+        }
+
+        /**
+         * Generated schedule (not serialized; null when the scenario failed)
+         */
+        @JsonIgnore
+        public Schedule getSchedule() {
+            return schedule;
+        }
+    }
+
+    /**
+     * The base plan's outcome and the scenarios, best first
+     */
+    public static class Comparison {
+        private final Outcome base;
+        private final List<Outcome> scenarios;
+
+        public Comparison(Outcome base, List<Outcome> scenarios) {
+            this.base = base;
+            this.scenarios = scenarios;
+        }
+
+        public Outcome getBase() {
+            return base;
+        }
+
+        public List<Outcome> getScenarios() {
+            return scenarios;
+        }
+
+        public Outcome getBest() {
+            return scenarios.isEmpty() || !scenarios.get(0).isSuccess() ? null : scenarios.get(0);
+        }
+    }
+}
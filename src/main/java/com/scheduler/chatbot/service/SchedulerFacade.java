@@ -1,6 +1,12 @@
 package com.scheduler.chatbot.service;
 
+import com.scheduler.chatbot.engine.ConstraintStrategy;
+import com.scheduler.chatbot.engine.ParetoExplorer;
+import com.scheduler.chatbot.engine.SchedulingStrategy;
+import com.scheduler.chatbot.model.BlockStatus;
+import com.scheduler.chatbot.model.PlanHistory;
 import com.scheduler.chatbot.model.PlanSpec;
+import com.scheduler.chatbot.model.PlanVersion;
 import com.scheduler.chatbot.model.Schedule;
 import com.scheduler.chatbot.parser.DSLParser;
 import com.scheduler.chatbot.persistence.ScheduleRepository;
@@ -8,12 +14,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.io.Reader;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * Facade Service that orchestrates the complete flow:
@@ -34,8 +42,21 @@ public class SchedulerFacade {
     @Autowired
     private ScheduleRepository repository;
 
+    @Autowired
+    private PlanCommandApplier commandApplier;
+
+    @Autowired
+    private ScenarioService scenarioService;
+
+    @Autowired
+    private GroupSlotService groupSlotService;
+
     private PlanSpec currentPlan;
+    private PlanHistory planHistory; // immutable versions of currentPlan, one per modifying command
     private Schedule currentSchedule;
+    private String lastSavedFingerprint; // engine and plan fingerprint of the last schedule written to disk
+    private String lastSavedPath;
+    private String currentSchedulePath; // file the current schedule was saved to or loaded from
     private List<CommandHistoryEntry> commandHistory = new ArrayList<>();
 
     /**
@@ -67,8 +88,12 @@ public class SchedulerFacade {
             // Step 2: Initialize currentPlan if null
             if (this.currentPlan == null) {
                 this.currentPlan = new PlanSpec();
+                this.planHistory = null;
                 System.out.println("Initialized new currentPlan");
             }
+            if (this.planHistory == null) {
+                this.planHistory = new PlanHistory(PlanVersion.of(this.currentPlan));
+            }
             
             System.out.println("BEFORE merge - currentPlan courses: " + (this.currentPlan.getCourses() != null ? this.currentPlan.getCourses().size() : "null"));
             System.out.println("BEFORE merge - currentPlan availability: " + (this.currentPlan.getAvailability() != null ? this.currentPlan.getAvailability().size() : "null"));
@@ -81,7 +106,7 @@ public class SchedulerFacade {
             // Step 4: Handle GENERATE_SCHEDULE
             if ("GENERATE_SCHEDULE".equals(commandType)) {
                 System.out.println("Generating schedule...");
-                ScheduleResult result = generateSchedule();
+                ScheduleResult result = generateSchedule(parsedPlan.getTargetEngine());
                 return new CommandResult(result.isSuccess(), result.getMessage(), this.currentPlan, null);
             }
             
@@ -98,44 +123,105 @@ public class SchedulerFacade {
                 }
                 StringBuilder sb = new StringBuilder("📚 Current Subjects:\n");
                 for (PlanSpec.CourseSpec course : this.currentPlan.getCourses()) {
-                    sb.append(String.format("- %s: %s priority, %.1f hours\n", 
-                        course.getId(), course.getPriority(), course.getWorkloadHours()));
+                    sb.append(String.format("- %s: %s priority, %.1f hours%s\n", 
+                        course.getId(), course.getPriority(), course.getWorkloadHours(),
+                        course.getExamDate() != null ? ", exam " + course.getExamDate() : ""));
+                    for (PlanSpec.ComponentSpec component : course.getComponents()) {
+                        sb.append(String.format("    • %s: %.1f hours%s\n", component.getName(), component.getEstimatedHours(),
+                            component.getDueDate() != null ? ", due " + component.getDueDate() : ""));
+                    }
+                }
+                return new CommandResult(true, sb.toString(), this.currentPlan, null);
+            }
+            
+            // Step 6.5: Handle LIST_BUSY
+            if ("LIST_BUSY".equals(commandType)) {
+                if (this.currentPlan.getBusyIntervals().isEmpty()) {
+                    return new CommandResult(true, "No busy times added yet.", this.currentPlan, null);
+                }
+                StringBuilder sb = new StringBuilder("⛔ Busy times:\n");
+                for (PlanSpec.BusyInterval interval : this.currentPlan.getBusyIntervals()) {
+                    sb.append("- ").append(interval).append("\n");
+                }
+                return new CommandResult(true, sb.toString(), this.currentPlan, null);
+            }
+            
+            // Step 6.6: Handle LIST_CONSTRAINTS
+            if ("LIST_CONSTRAINTS".equals(commandType)) {
+                if (this.currentPlan.getRules().getConstraints().isEmpty()) {
+                    return new CommandResult(true, "No constraints added yet.", this.currentPlan, null);
+                }
+                StringBuilder sb = new StringBuilder("📏 Hard constraints (engine '" + ConstraintStrategy.NAME + "'):\n");
+                for (PlanSpec.HardConstraint constraint : this.currentPlan.getRules().getConstraints()) {
+                    sb.append("- ").append(constraint).append("\n");
                 }
                 return new CommandResult(true, sb.toString(), this.currentPlan, null);
             }
             
-            // Step 7: Merge parsed data into current plan based on command type
-            if ("ADD_SUBJECT".equals(commandType)) {
-                // Add all subjects from parsed plan
-                for (PlanSpec.CourseSpec course : parsedPlan.getCourses()) {
-                    this.currentPlan.addCourse(course);
-                    System.out.println("Added course: " + course.getId() + ", hours: " + course.getWorkloadHours() + ", priority: " + course.getPriority());
+            // Step 7: Plan versions (undo, fork, checkout)
+            if ("UNDO".equals(commandType)) {
+                return undo();
+            }
+            if ("FORK_PLAN".equals(commandType)) {
+                return forkPlan(parsedPlan.getTargetBranch());
+            }
+            if ("CHECKOUT".equals(commandType)) {
+                return parsedPlan.getTargetBranch() != null
+                        ? checkoutPlan(parsedPlan.getTargetBranch())
+                        : checkoutVersion(parsedPlan.getTargetVersion());
+            }
+            if ("SHOW_VERSIONS".equals(commandType)) {
+                StringBuilder sb = new StringBuilder("🕘 Plan versions (" + planHistory.getCurrentBranch() + "):\n");
+                for (VersionInfo version : listVersions()) {
+                    sb.append(String.format("- v%d: %s (%d subjects)\n",
+                        version.getId(), version.getCommand(), version.getCourseCount()));
                 }
-                System.out.println("AFTER add - currentPlan courses: " + this.currentPlan.getCourses().size());
-                return new CommandResult(true, "Subject added successfully", this.currentPlan, null);
-            } else if ("SET_AVAILABILITY".equals(commandType)) {
-                // Add all availability from parsed plan
-                for (Map.Entry<LocalDate, Double> entry : parsedPlan.getAvailability().entrySet()) {
-                    this.currentPlan.setAvailability(entry.getKey(), entry.getValue());
-                    System.out.println("Set availability: " + entry.getKey() + " -> " + entry.getValue() + " hours");
+                sb.append("Plans: ").append(planHistory.getBranches());
+                return new CommandResult(true, sb.toString(), this.currentPlan, null);
+            }
+
+            // Step 7.5: Scheduling engines
+            if ("LIST_ENGINES".equals(commandType)) {
+                StringBuilder sb = new StringBuilder("⚙ Scheduling engines:\n");
+                for (EngineInfo engine : listEngines()) {
+                    sb.append(String.format("- %s%s: %s\n", engine.getName(),
+                        engine.isActive() ? " (active)" : "", engine.getDescription()));
+                }
+                return new CommandResult(true, sb.toString(), this.currentPlan, null);
+            }
+
+            // Step 7.6: Progress reports and replanning
+            if ("MARK_BLOCKS".equals(commandType)) {
+                ScheduleResult result = markBlocks(parsedPlan.getTargetSubject(), parsedPlan.getTargetDate(),
+                        parsedPlan.getTargetStatus());
+                return new CommandResult(result.isSuccess(), result.getMessage(), this.currentPlan, null);
+            }
+            if ("REPLAN".equals(commandType)) {
+                LocalDate from = parsedPlan.getTargetDate() != null ? parsedPlan.getTargetDate() : LocalDate.now();
+                ScheduleResult result = replan(from);
+                return new CommandResult(result.isSuccess(), result.getMessage(), this.currentPlan, null);
+            }
+            if ("SHOW_PROGRESS".equals(commandType)) {
+                return new CommandResult(true, getProgressSummary(), this.currentPlan, null);
+            }
+
+            // Step 8: Merge parsed data into current plan based on command type,
+            // recording each change as a new version (O(log n), shares the rest)
+            if (commandApplier.modifiesPlan(commandType)) {
+                PlanCommandApplier.Result applied = commandApplier.apply(this.currentPlan, planHistory.getHead(), parsedPlan);
+                if (applied.isSuccess()) {
+                    planHistory.commit(applied.getVersion(), dslCommand);
                 }
-                System.out.println("AFTER set - currentPlan availability: " + this.currentPlan.getAvailability().size());
-                return new CommandResult(true, "Availability set successfully", this.currentPlan, null);
-            } else if ("CLEAR".equals(commandType) || "CLEAR_ALL".equals(commandType) || "CLEAR_SUBJECTS".equals(commandType) || "CLEAR_SCHEDULE".equals(commandType)) {
+                return new CommandResult(applied.isSuccess(), applied.getMessage(), this.currentPlan, null);
+            }
+            if ("CLEAR".equals(commandType) || "CLEAR_ALL".equals(commandType) || "CLEAR_SUBJECTS".equals(commandType) || "CLEAR_SCHEDULE".equals(commandType)) {
                 this.currentPlan = new PlanSpec();
+                this.planHistory = new PlanHistory(PlanVersion.of(this.currentPlan));
                 this.currentSchedule = null;
+                this.currentSchedulePath = null;
                 this.commandHistory.clear();
                 System.out.println("Cleared all data (plan, schedule, history)");
                 return new CommandResult(true, "✅ All data cleared successfully", this.currentPlan, null);
-            } else if ("SET_DATE_RANGE".equals(commandType)) {
-                // Update date range from parsed plan
-                if (parsedPlan.getStartDate() != null) {
-                    this.currentPlan.setStartDate(parsedPlan.getStartDate());
-                }
-                if (parsedPlan.getEndDate() != null) {
-                    this.currentPlan.setEndDate(parsedPlan.getEndDate());
-                }
-                return new CommandResult(true, "Date range set successfully", this.currentPlan, null);
             } else {
                 // For other commands (GENERATE, SHOW, LIST, etc.), DON'T modify currentPlan
                 // These are query/action commands, not data modification commands
@@ -156,6 +242,13 @@ public class SchedulerFacade {
      * Auto-saves schedule to JSON file for persistence
      */
     public ScheduleResult generateSchedule() {
+        return generateSchedule(null);
+    }
+
+    /**
+     * Generate schedule with a specific engine for this request only (null = the plan's engine)
+     */
+    public ScheduleResult generateSchedule(String engine) {
         try {
             if (currentPlan == null) {
                 return new ScheduleResult(false, "No plan specified", null);
@@ -166,18 +259,158 @@ public class SchedulerFacade {
             System.out.println("DEBUG: Courses count: " + (currentPlan.getCourses() != null ? currentPlan.getCourses().size() : "null"));
             System.out.println("DEBUG: Availability count: " + (currentPlan.getAvailability() != null ? currentPlan.getAvailability().size() : "null"));
 
-            // Validate plan
-            Schedule schedule = schedulerService.generateSchedule(currentPlan);
+            // Validate plan; reuse the previous allocation where the edits allow
+            Schedule schedule = currentSchedule != null
+                    ? schedulerService.regenerateSchedule(currentPlan, engine, currentSchedule)
+                    : schedulerService.generateSchedule(currentPlan, engine);
+
+            // Same plan and engine as the current schedule: keep it with its progress and
+            // replans; its own file is up to date
+            if (currentSchedule != null && currentSchedulePath != null && schedule.getPlanFingerprint() != null
+                    && saveKey(schedule).equals(saveKey(currentSchedule))) {
+                return new ScheduleResult(true, "Schedule unchanged, already saved to: " + currentSchedulePath,
+                        currentSchedule);
+            }
             this.currentSchedule = schedule;
 
+            // Same input and engine as the last saved schedule: nothing new to write
+            if (schedule.getPlanFingerprint() != null
+                    && saveKey(schedule).equals(lastSavedFingerprint)) {
+                currentSchedulePath = lastSavedPath;
+                return new ScheduleResult(true, "Schedule unchanged, already saved to: " + lastSavedPath, schedule);
+            }
+
             // Auto-save schedule to file
             String filepath = repository.saveSchedule(schedule);
+            lastSavedFingerprint = saveKey(schedule);
+            lastSavedPath = filepath;
+            currentSchedulePath = filepath;
             return new ScheduleResult(true, "Schedule generated and saved to: " + filepath, schedule);
         } catch (Exception e) {
             return new ScheduleResult(false, "Error: " + e.getMessage(), null);
         }
     }
 
+    /**
+     * Report the current schedule's blocks on a date (one subject's, or all) as done,
+     * missed or planned; the schedule file is updated in place
+     */
+    public ScheduleResult markBlocks(String subject, LocalDate date, BlockStatus status) {
+        if (currentSchedule == null) {
+            return new ScheduleResult(false, "No schedule generated yet", null);
+        }
+        if (date == null || status == null) {
+            return new ScheduleResult(false, "Date and status are required", null);
+        }
+        try {
+            int marked = currentSchedule.markBlocks(subject, date, status);
+            if (marked == 0) {
+                return new ScheduleResult(false, "No " + (subject != null ? "'" + subject + "' " : "")
+                        + "blocks on " + date + " to mark " + status.name().toLowerCase(), currentSchedule);
+            }
+            saveCurrentSchedule();
+            return new ScheduleResult(true, marked + " block(s) on " + date + " marked "
+                    + status.name().toLowerCase(), currentSchedule);
+        } catch (Exception e) {
+            return new ScheduleResult(false, "Error: " + e.getMessage(), null);
+        }
+    }
+
+    /**
+     * Re-solve the current schedule from a date on, keeping earlier and reported blocks
+     * (see SchedulerService.replanSchedule); the result is saved as a new schedule file
+     */
+    public ScheduleResult replan(LocalDate from) {
+        if (currentSchedule == null) {
+            return new ScheduleResult(false, "No schedule generated yet", null);
+        }
+        if (currentPlan == null) {
+            return new ScheduleResult(false, "No plan specified", null);
+        }
+        try {
+            Schedule schedule = schedulerService.replanSchedule(currentPlan, currentSchedule, from);
+            this.currentSchedule = schedule;
+            String filepath = repository.saveSchedule(schedule);
+            currentSchedulePath = filepath;
+            lastSavedFingerprint = null;
+            return new ScheduleResult(true, "Schedule replanned from " + schedule.getMetadata("replannedFrom")
+                    + " and saved to: " + filepath, schedule);
+        } catch (Exception e) {
+            return new ScheduleResult(false, "Error: " + e.getMessage(), null);
+        }
+    }
+
+    /**
+     * Done, missed and open hours per subject of the current schedule
+     */
+    public String getProgressSummary() {
+        if (currentSchedule == null) {
+            return "No schedule generated yet.";
+        }
+        Map<String, Double> done = currentSchedule.getHoursByStatus(BlockStatus.DONE);
+        Map<String, Double> missed = currentSchedule.getHoursByStatus(BlockStatus.MISSED);
+        Map<String, Double> planned = currentSchedule.getHoursByStatus(BlockStatus.PLANNED);
+        StringBuilder sb = new StringBuilder("📈 Progress:\n");
+        for (String courseId : currentSchedule.getCourseIds()) {
+            sb.append(String.format("- %s: %.1f h done, %.1f h missed, %.1f h planned\n", courseId,
+                done.getOrDefault(courseId, 0.0), missed.getOrDefault(courseId, 0.0),
+                planned.getOrDefault(courseId, 0.0)));
+        }
+        sb.append(currentSchedule.getProgressLog().size()).append(" report(s) logged");
+        return sb.toString();
+    }
+
+    /**
+     * Write the current schedule after it changed in place, back to its own file (or a new
+     * one). That file may be the last generated one, which then no longer holds a clean
+     * copy of its plan's schedule.
+     */
+    private void saveCurrentSchedule() throws IOException {
+        currentSchedulePath = currentSchedulePath != null
+                ? repository.saveSchedule(currentSchedule, currentSchedulePath)
+                : repository.saveSchedule(currentSchedule);
+        lastSavedFingerprint = null;
+    }
+
+    private static String saveKey(Schedule schedule) {
+        return schedule.getMetadata("engine") + ":" + schedule.getPlanFingerprint();
+    }
+
+    /**
+     * Blocks of the current schedule between two dates (inclusive); a rolling-horizon
+     * schedule first expands its budgeted windows through {@code to}, and the expanded
+     * schedule is saved
+     */
+    public ScheduleResult getBlocks(LocalDate from, LocalDate to) {
+        if (currentSchedule == null) {
+            return new ScheduleResult(false, "No schedule generated yet", null);
+        }
+        if (to.isBefore(from)) {
+            return new ScheduleResult(false, "End date must not be before start date", null);
+        }
+        try {
+            if (currentPlan != null) {
+                Object through = currentSchedule.getMetadata("materializedThrough");
+                Schedule expanded = schedulerService.expandSchedule(currentPlan, currentSchedule, to);
+                if (expanded != currentSchedule) {
+                    // Regenerated for an edited plan: a new schedule, saved like generateSchedule does
+                    this.currentSchedule = expanded;
+                    String filepath = repository.saveSchedule(expanded);
+                    lastSavedFingerprint = saveKey(expanded);
+                    lastSavedPath = filepath;
+                    currentSchedulePath = filepath;
+                } else if (!Objects.equals(through, expanded.getMetadata("materializedThrough"))) {
+                    saveCurrentSchedule();
+                }
+            }
+            Schedule range = new Schedule(currentSchedule.getPlanName(), from, to);
+            range.addBlocks(currentSchedule.getBlocksInRange(from, to));
+            return new ScheduleResult(true, range.getBlocks().size() + " block(s) from " + from + " to " + to, range);
+        } catch (Exception e) {
+            return new ScheduleResult(false, "Error: " + e.getMessage(), null);
+        }
+    }
+
     /**
      * Get current schedule summary
      */
@@ -193,7 +426,9 @@ public class SchedulerFacade {
      */
     public void clear() {
         this.currentPlan = null;
+        this.planHistory = null;
         this.currentSchedule = null;
+        this.currentSchedulePath = null;
         this.commandHistory.clear();
     }
     
@@ -204,6 +439,166 @@ public class SchedulerFacade {
         return this.currentPlan;
     }
 
+    // Plan versions
+
+    /**
+     * Revert the current plan to the version before the last modifying command
+     */
+    public CommandResult undo() {
+        if (planHistory == null) {
+            return new CommandResult(false, "Nothing to undo", this.currentPlan, null);
+        }
+        PlanVersion previous = planHistory.undo();
+        if (previous == null) {
+            return new CommandResult(false, "Nothing to undo", this.currentPlan, null);
+        }
+        this.currentPlan = previous.toPlanSpec();
+        return new CommandResult(true, "Reverted to version " + previous.getId(), this.currentPlan, null);
+    }
+
+    /**
+     * Branch the current plan for what-if changes; the original stays on its own branch
+     */
+    public CommandResult forkPlan(String name) {
+        if (planHistory == null) {
+            this.currentPlan = this.currentPlan != null ? this.currentPlan : new PlanSpec();
+            this.planHistory = new PlanHistory(PlanVersion.of(this.currentPlan));
+        }
+        try {
+            PlanVersion head = planHistory.fork(name);
+            return new CommandResult(true, "Forked plan '" + name + "' from version " + head.getId(), this.currentPlan, null);
+        } catch (IllegalArgumentException e) {
+            return new CommandResult(false, e.getMessage(), this.currentPlan, null);
+        }
+    }
+
+    /**
+     * Switch to the head of a named plan branch
+     */
+    public CommandResult checkoutPlan(String name) {
+        PlanVersion head = planHistory != null ? planHistory.checkoutBranch(name) : null;
+        if (head == null) {
+            return new CommandResult(false, "Plan '" + name + "' not found", this.currentPlan, null);
+        }
+        this.currentPlan = head.toPlanSpec();
+        return new CommandResult(true, "Switched to plan '" + name + "' (version " + head.getId() + ")", this.currentPlan, null);
+    }
+
+    /**
+     * Jump the current branch to any recorded version
+     */
+    public CommandResult checkoutVersion(long id) {
+        PlanVersion version = planHistory != null ? planHistory.checkoutVersion(id) : null;
+        if (version == null) {
+            return new CommandResult(false, "Version " + id + " not found", this.currentPlan, null);
+        }
+        this.currentPlan = version.toPlanSpec();
+        return new CommandResult(true, "Checked out version " + id, this.currentPlan, null);
+    }
+
+    /**
+     * Versions of the current branch, newest first
+     */
+    public List<VersionInfo> listVersions() {
+        List<VersionInfo> versions = new ArrayList<>();
+        if (planHistory == null) {
+            return versions;
+        }
+        for (PlanVersion version : planHistory.log()) {
+            versions.add(new VersionInfo(version, planHistory.getCurrentBranch()));
+        }
+        return versions;
+    }
+
+    /**
+     * Import an uploaded iCalendar feed as busy time of the current plan, recorded as a
+     * new version like any plan command (calendars are only accepted as uploads, never
+     * read from a path on the server)
+     */
+    public CommandResult importBusy(String label, Reader feed) {
+        if (label == null || label.isBlank()) {
+            return new CommandResult(false, "Busy time label cannot be empty", this.currentPlan, null);
+        }
+        if (this.currentPlan == null) {
+            this.currentPlan = new PlanSpec();
+            this.planHistory = null;
+        }
+        if (this.planHistory == null) {
+            this.planHistory = new PlanHistory(PlanVersion.of(this.currentPlan));
+        }
+        try {
+            PlanCommandApplier.Result applied = commandApplier.importBusy(this.currentPlan, planHistory.getHead(), label, feed);
+            if (applied.isSuccess()) {
+                String command = "import busy \"" + label + "\" (upload)";
+                planHistory.commit(applied.getVersion(), command);
+                commandHistory.add(new CommandHistoryEntry(LocalDateTime.now(), command, "IMPORT_BUSY"));
+            }
+            return new CommandResult(applied.isSuccess(), applied.getMessage(), this.currentPlan, null);
+        } catch (IOException e) {
+            return new CommandResult(false, "Could not read calendar: " + e.getMessage(), this.currentPlan, null);
+        }
+    }
+
+    // What-if scenarios
+
+    /**
+     * Generate variations of the current plan (DSL commands per scenario) side by side
+     * and rank them against it; the current plan and its history are left untouched
+     */
+    public ScenarioService.Comparison compareScenarios(List<ScenarioService.Scenario> scenarios, String engine) {
+        PlanVersion base = planHistory != null
+                ? planHistory.getHead()
+                : PlanVersion.of(currentPlan != null ? currentPlan : new PlanSpec());
+        return scenarioService.compare(base, scenarios, engine);
+    }
+
+    // Group study
+
+    /**
+     * Ranked common session slots for a study group, optionally with the current plan
+     * and schedule as one of the members
+     */
+    public List<GroupSlotService.Candidate> findGroupSlots(List<GroupSlotService.Member> members,
+            GroupSlotService.Query query, boolean includeCurrent) {
+        List<GroupSlotService.Member> group = new ArrayList<>();
+        if (includeCurrent && currentPlan != null) {
+            group.add(new GroupSlotService.Member(currentPlan.getPlanName(), currentPlan, currentSchedule));
+        }
+        group.addAll(members);
+        return groupSlotService.findCommonSlots(group, query != null ? query : new GroupSlotService.Query());
+    }
+
+    /**
+     * Trade-offs of the current plan: the non-dominated schedules across the three soft
+     * objectives, so a choice between them needs no further generation
+     */
+    public ParetoResult generateParetoFront(int divisions) {
+        if (currentPlan == null) {
+            return new ParetoResult(false, "No plan specified", List.of());
+        }
+        try {
+            List<ParetoExplorer.Point> front = schedulerService.generateParetoFront(currentPlan, divisions);
+            return new ParetoResult(true, front.size() + " non-dominated schedule(s)", front);
+        } catch (Exception e) {
+            return new ParetoResult(false, "Error: " + e.getMessage(), List.of());
+        }
+    }
+
+    // Scheduling engines
+
+    /**
+     * Registered engines; the one the current plan uses is marked active
+     */
+    public List<EngineInfo> listEngines() {
+        String active = currentPlan != null && currentPlan.getEngine() != null
+                ? currentPlan.getEngine() : SchedulerService.DEFAULT_ENGINE;
+        List<EngineInfo> engines = new ArrayList<>();
+        for (SchedulingStrategy strategy : schedulerService.getStrategies()) {
+            engines.add(new EngineInfo(strategy, strategy.getName().equals(active)));
+        }
+        return engines;
+    }
+
     /**
      * List all saved schedules (newest first)
      */
@@ -222,6 +617,7 @@ public class SchedulerFacade {
         try {
             Schedule schedule = repository.loadSchedule(filepath);
             this.currentSchedule = schedule;
+            this.currentSchedulePath = filepath;
             return new LoadResult(true, "Schedule loaded successfully", schedule);
         } catch (IOException e) {
             return new LoadResult(false, "Failed to load schedule: " + e.getMessage(), null);
@@ -239,6 +635,7 @@ public class SchedulerFacade {
                 return new LoadResult(false, "No saved schedules found", null);
             }
             this.currentSchedule = schedule;
+            this.currentSchedulePath = null;
             return new LoadResult(true, "Latest schedule loaded", schedule);
         } catch (IOException e) {
             return new LoadResult(false, "Failed to load latest schedule: " + e.getMessage(), null);
@@ -250,6 +647,10 @@ public class SchedulerFacade {
      */
     public boolean deleteSchedule(String filepath) {
         try {
+            if (filepath != null && filepath.equals(lastSavedPath)) {
+                lastSavedFingerprint = null;
+                lastSavedPath = null;
+            }
             return repository.deleteSchedule(filepath);
         } catch (Exception e) {
             System.err.println("Failed to delete the schedule: " + e.getMessage());
@@ -336,6 +737,69 @@ public class SchedulerFacade {
         }
     }
 
+    /**
+     * Summary of one plan version
+     */
+    public static class VersionInfo {
+        private long id;
+        private Long parentId;
+        private String command;
+        private String branch;
+        private int courseCount;
+
+        public VersionInfo(PlanVersion version, String branch) {
+            this.id = version.getId();
+            this.parentId = version.getParent() != null ? version.getParent().getId() : null;
+            this.command = version.getCommand();
+            this.branch = branch;
+            this.courseCount = version.getCourseCount();
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public Long getParentId() {
+            return parentId;
+        }
+
+        public String getCommand() {
+            return command;
+        }
+
+        public String getBranch() {
+            return branch;
+        }
+
+        public int getCourseCount() {
+            return courseCount;
+        }
+    }
+
+    public static class EngineInfo {
+        private String name;
+        private String description;
+        private boolean active;
+
+        public EngineInfo(SchedulingStrategy strategy, boolean active) {
+            this.name = strategy.getName();
+            this.description = strategy.getDescription();
+            this.active = active;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+    }
+
     public static class ScheduleResult {
         private boolean success;
         private String message;
@@ -360,6 +824,30 @@ public class SchedulerFacade {
         }
     }
 
+    public static class ParetoResult {
+        private boolean success;
+        private String message;
+        private List<ParetoExplorer.Point> front;
+
+        public ParetoResult(boolean success, String message, List<ParetoExplorer.Point> front) {
+            this.success = success;
+            this.message = message;
+            this.front = front;
+        }
+
+        public boolean isSuccess() {
+            return success;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public List<ParetoExplorer.Point> getFront() {
+            return front;
+        }
+    }
+
     public static class LoadResult {
         private boolean success;
         private String message;
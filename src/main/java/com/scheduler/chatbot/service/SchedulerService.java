@@ -1,364 +1,491 @@
 package com.scheduler.chatbot.service;
 
+import com.scheduler.chatbot.engine.AbstractSchedulingStrategy;
+import com.scheduler.chatbot.engine.ConstraintStrategy;
+import com.scheduler.chatbot.engine.DeadlineStrategy;
+import com.scheduler.chatbot.engine.ExamHorizonStrategy;
+import com.scheduler.chatbot.engine.GreedyFrontLoadStrategy;
+import com.scheduler.chatbot.engine.LocalSearchStrategy;
+import com.scheduler.chatbot.engine.MinCostFlowStrategy;
+import com.scheduler.chatbot.engine.ParetoExplorer;
+import com.scheduler.chatbot.engine.PartitionedStrategy;
+import com.scheduler.chatbot.engine.ReviewScheduler;
+import com.scheduler.chatbot.engine.RollingHorizonStrategy;
+import com.scheduler.chatbot.engine.ScheduleOptimizer;
+import com.scheduler.chatbot.engine.SchedulingStrategy;
 import com.scheduler.chatbot.model.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.Period;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
 /**
- * Service for generating schedules based on the priority-based front-loading algorithm
+ * Service for generating schedules with a pluggable scheduling engine
  * Input: PlanSpec (IR) - Validated planning specification
  * Output: Schedule (IR) - Generated schedule with blocks and explanations
+ * 
+ * Engines are looked up by name: the request's engine if given, else the plan's
+ * ("use engine"), else the priority-based front-loading default.
  */
 @Service
 public class SchedulerService {
     
     // Constants
-    private static final double BLOCK_DURATION = 2.0; // 2 hours per block
-    private static final double MAX_HOURS_PER_DAY = 8.0;
-    private static final double MAX_CONTINUOUS_HOURS = 4.0;
-    private static final double BREAK_DURATION = 0.25; // 15 minutes
-    private static final LocalTime DEFAULT_START_TIME = LocalTime.of(8, 0);
+    public static final String DEFAULT_ENGINE = GreedyFrontLoadStrategy.NAME;
+    private static final int SCHEDULE_CACHE_SIZE = 32;
+    
+    // Registered engines by name, in registration order
+    private final Map<String, SchedulingStrategy> strategies = new LinkedHashMap<>();
+    
+    // Recently generated schedules keyed by engine and plan fingerprint (LRU)
+    private final Map<String, Schedule> scheduleCache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Schedule> eldest) {
+            return size() > SCHEDULE_CACHE_SIZE;
+        }
+    };
+    
+    // Engine output behind each schedule handed out from the cache: engines key their
+    // incremental state on the schedule they returned, so regenerate gets that one back
+    private final Map<Schedule, Schedule> origins = Collections.synchronizedMap(new WeakHashMap<>());
+    
+    // Weight-vector exploration for the soft-preference trade-offs
+    private ParetoExplorer paretoExplorer = new ParetoExplorer();
+    
+    // Spaced-repetition reviews in the capacity study leaves over (rules' review intervals)
+    private final ReviewScheduler reviewScheduler = new ReviewScheduler();
+    
+    // Engine output for the re-solved days behind each replanned schedule, so the next
+    // replan can hand it to the engine's regenerate
+    private final Map<Schedule, Schedule> replanned = Collections.synchronizedMap(new WeakHashMap<>());
+    
+    public SchedulerService() {
+        registerStrategy(new GreedyFrontLoadStrategy());
+        registerStrategy(new LocalSearchStrategy());
+        registerStrategy(new MinCostFlowStrategy());
+        registerStrategy(new DeadlineStrategy());
+        registerStrategy(new ExamHorizonStrategy());
+        registerStrategy(new PartitionedStrategy());
+        registerStrategy(new RollingHorizonStrategy());
+        registerStrategy(new ConstraintStrategy());
+    }
+    
+    /**
+     * Local search settings from application.properties
+     */
+    @Autowired
+    public void configureOptimizer(@Value("${scheduler.optimizer.time-budget-ms:500}") long timeBudgetMillis,
+                                   @Value("${scheduler.optimizer.iterations:200000}") long iterations,
+                                   @Value("${scheduler.optimizer.chains:4}") int chains,
+                                   @Value("${scheduler.optimizer.seed:42}") long seed) {
+        registerStrategy(new LocalSearchStrategy(new GreedyFrontLoadStrategy(),
+                new ScheduleOptimizer(timeBudgetMillis, iterations, chains, seed)));
+        // One chain per weight vector: the vectors run in parallel instead
+        this.paretoExplorer = new ParetoExplorer(new GreedyFrontLoadStrategy(),
+                new ScheduleOptimizer(timeBudgetMillis, iterations, 1, seed), ForkJoinPool.commonPool());
+    }
+    
+    /**
+     * Window length of the partitioned engine from application.properties (ISO period)
+     */
+    @Autowired
+    public void configurePartitioning(@Value("${scheduler.partitioned.window:P1M}") String window) {
+        registerStrategy(new PartitionedStrategy(new GreedyFrontLoadStrategy(), Period.parse(window),
+                ForkJoinPool.commonPool()));
+    }
+    
+    /**
+     * Window length and eagerly planned days of the rolling engine from application.properties
+     */
+    @Autowired
+    public void configureRolling(@Value("${scheduler.rolling.window:P1W}") String window,
+                                 @Value("${scheduler.rolling.eager-days:14}") int eagerDays) {
+        registerStrategy(new RollingHorizonStrategy(new GreedyFrontLoadStrategy(), Period.parse(window), eagerDays));
+    }
+    
+    /**
+     * Search budget of the constraint engine from application.properties
+     */
+    @Autowired
+    public void configureConstraints(@Value("${scheduler.csp.node-limit:20000}") long nodeLimit) {
+        registerStrategy(new ConstraintStrategy(nodeLimit));
+    }
+    
+    /**
+     * Pick up engines declared as Spring beans
+     */
+    @Autowired(required = false)
+    public void setStrategies(List<SchedulingStrategy> beans) {
+        beans.forEach(this::registerStrategy);
+    }
+    
+    /**
+     * Add an engine, replacing any engine with the same name
+     */
+    public synchronized void registerStrategy(SchedulingStrategy strategy) {
+        strategies.put(strategy.getName().toLowerCase(Locale.ROOT), strategy);
+    }
+    
+    public synchronized List<SchedulingStrategy> getStrategies() {
+        return new ArrayList<>(strategies.values());
+    }
+    
+    public synchronized boolean hasStrategy(String name) {
+        return name != null && strategies.containsKey(name.toLowerCase(Locale.ROOT));
+    }
+    
+    /**
+     * Engine by name (null = default); IllegalArgumentException if unknown
+     */
+    public synchronized SchedulingStrategy getStrategy(String name) {
+        String key = name == null ? DEFAULT_ENGINE : name.toLowerCase(Locale.ROOT);
+        SchedulingStrategy strategy = strategies.get(key);
+        if (strategy == null) {
+            throw new IllegalArgumentException("Unknown engine '" + name + "'. Available: "
+                    + String.join(", ", strategies.keySet()));
+        }
+        return strategy;
+    }
     
     /**
-     * Generate schedule from PlanSpec using priority-based front-loading algorithm
-     * Algorithm steps:
-     * 1. Validate PlanSpec
-     * 2. Sort courses by priority (HIGH -> MEDIUM -> LOW)
-     * 3. For each course, calculate front-load distribution (first half vs second half)
-     * 4. Split calendar into first/second half
-     * 5. Schedule blocks with priority-based allocation
-     * 6. Generate explanations for each placement decision
-     * 7. Calculate schedule score and metadata
+     * Generate schedule from PlanSpec with the plan's engine
      */
     public Schedule generateSchedule(PlanSpec planSpec) {
-        // Validate input
+        return generate(planSpec, null, null);
+    }
+    
+    /**
+     * Generate schedule with a specific engine (null = the plan's engine)
+     */
+    public Schedule generateSchedule(PlanSpec planSpec, String engine) {
+        return generate(planSpec, engine, null);
+    }
+    
+    /**
+     * Regenerate a schedule after plan edits. Engines that support it (e.g. greedy) reuse
+     * the allocation of the previous schedule; the result is identical to generateSchedule.
+     */
+    public Schedule regenerateSchedule(PlanSpec planSpec, Schedule previous) {
+        return generate(planSpec, null, previous);
+    }
+    
+    public Schedule regenerateSchedule(PlanSpec planSpec, String engine, Schedule previous) {
+        return generate(planSpec, engine, previous);
+    }
+    
+    /**
+     * Non-dominated schedules across spreadness, buffer and interleave, one optimizer run
+     * per weight vector of the lattice with the given divisions (see ParetoExplorer)
+     */
+    public List<ParetoExplorer.Point> generateParetoFront(PlanSpec planSpec, int divisions) {
         PlanSpec.ValidationResult validation = planSpec.validate();
         if (!validation.isValid()) {
             throw new IllegalArgumentException("Invalid PlanSpec: " + validation.getErrors());
         }
-        
-        // Initialize schedule
-        Schedule schedule = new Schedule(planSpec.getPlanName(), 
-                                        planSpec.getStartDate(), 
-                                        planSpec.getEndDate());
-        
-        // Sort courses by priority (HIGH -> MEDIUM -> LOW)
-        List<PlanSpec.CourseSpec> sortedCourses = planSpec.getCourses().stream()
-                .sorted(Comparator.comparing(PlanSpec.CourseSpec::getPriority).reversed())
-                .collect(Collectors.toList());
-        
-        schedule.addExplanation("═══ SCHEDULING ALGORITHM START ═══");
-        schedule.addExplanation("Total courses: " + sortedCourses.size());
-        schedule.addExplanation("Priority order: " + 
-                sortedCourses.stream()
-                    .map(c -> c.getId() + " (" + c.getPriority() + ")")
-                    .collect(Collectors.joining(", ")));
-        
-        // Calculate calendar split point (midpoint between start and end)
-        LocalDate startDate = planSpec.getStartDate();
-        LocalDate endDate = planSpec.getEndDate() != null ? planSpec.getEndDate() : 
-                            startDate.plusDays(planSpec.getAvailability().size() - 1);
-        long totalDays = ChronoUnit.DAYS.between(startDate, endDate) + 1;
-        LocalDate splitDate = startDate.plusDays(totalDays / 2);
-        
-        schedule.addExplanation("");
-        schedule.addExplanation("═══ CALENDAR SPLIT ═══");
-        schedule.addExplanation("Start date: " + startDate);
-        schedule.addExplanation("End date: " + endDate);
-        schedule.addExplanation("Split date: " + splitDate);
-        schedule.addExplanation("First half: " + startDate + " to " + splitDate.minusDays(1));
-        schedule.addExplanation("Second half: " + splitDate + " to " + endDate);
-        
-        // Track remaining hours per course
-        Map<String, Double> remainingHours = new HashMap<>();
-        Map<String, Double> firstHalfHours = new HashMap<>();
-        Map<String, Double> secondHalfHours = new HashMap<>();
-        
-        for (PlanSpec.CourseSpec course : sortedCourses) {
-            double totalHours = course.getWorkloadHours();
-            remainingHours.put(course.getId(), totalHours);
-            
-            // Calculate front-load distribution based on priority
-            Priority priority = course.getPriority();
-            double frontLoadRatio = priority.getFrontLoadRatio();
-            double firstHalf = totalHours * frontLoadRatio;
-            double secondHalf = totalHours * (1.0 - frontLoadRatio);
-            
-            firstHalfHours.put(course.getId(), firstHalf);
-            secondHalfHours.put(course.getId(), secondHalf);
-            
-            schedule.addExplanation("");
-            schedule.addExplanation("Course: " + course.getId());
-            schedule.addExplanation("  Priority: " + priority + " (weight: " + priority.getWeight() + ")");
-            schedule.addExplanation("  Total hours: " + totalHours);
-            schedule.addExplanation("  First half allocation: " + String.format("%.1f", firstHalf) + 
-                                  " hours (" + (int)(frontLoadRatio * 100) + "%)");
-            schedule.addExplanation("  Second half allocation: " + String.format("%.1f", secondHalf) + 
-                                  " hours (" + (int)((1.0 - frontLoadRatio) * 100) + "%)" );
+        String fingerprint = planSpec.getFingerprint();
+        List<ParetoExplorer.Point> front = paretoExplorer.explore(planSpec, validation, divisions);
+        for (ParetoExplorer.Point point : front) {
+            point.getSchedule().setPlanFingerprint(fingerprint);
+            point.getSchedule().addMetadata("engine", LocalSearchStrategy.NAME);
         }
-        
-        // Track daily usage
-        Map<LocalDate, Double> dailyUsage = new HashMap<>();
-        Map<LocalDate, LocalTime> dailyNextStart = new HashMap<>();
-        
-        schedule.addExplanation("");
-        schedule.addExplanation("═══ BLOCK ALLOCATION - FIRST HALF ═══");
-        
-        // PHASE 1: Schedule first half (high priority courses get more blocks here)
-        for (PlanSpec.CourseSpec course : sortedCourses) {
-            double hoursToSchedule = firstHalfHours.get(course.getId());
-            schedulePhase(schedule, planSpec, course, startDate, splitDate.minusDays(1), 
-                         hoursToSchedule, remainingHours, dailyUsage, dailyNextStart, "FIRST HALF");
+        return front;
+    }
+    
+    /**
+     * Make sure a rolling-horizon schedule has blocks through the given date, expanding
+     * budgeted windows as needed. Schedules of other engines are returned as they are; a
+     * schedule of an edited plan is regenerated first.
+     */
+    public Schedule expandSchedule(PlanSpec planSpec, Schedule schedule, LocalDate through) {
+        if (schedule.getRollingHorizon() == null) {
+            return schedule;
         }
-        
-        schedule.addExplanation("");
-        schedule.addExplanation("═══ BLOCK ALLOCATION - SECOND HALF ═══");
-        
-        // PHASE 2: Schedule second half
-        for (PlanSpec.CourseSpec course : sortedCourses) {
-            double hoursToSchedule = secondHalfHours.get(course.getId());
-            schedulePhase(schedule, planSpec, course, splitDate, endDate, 
-                         hoursToSchedule, remainingHours, dailyUsage, dailyNextStart, "SECOND HALF");
+        Object engine = schedule.getMetadata("engine");
+        SchedulingStrategy strategy = getStrategy(engine != null ? engine.toString() : RollingHorizonStrategy.NAME);
+        if (!(strategy instanceof RollingHorizonStrategy)) {
+            return schedule;
         }
-        
-        // Handle any remaining unscheduled hours (shortfall)
-        handleShortfall(schedule, remainingHours, sortedCourses);
-        
-        // Calculate final score
-        calculateScore(schedule, planSpec, remainingHours);
-        
-        schedule.addExplanation("");
-        schedule.addExplanation("═══ SCHEDULING COMPLETE ═══");
-        
-        return schedule;
+        Schedule current = planSpec.getFingerprint().equals(schedule.getPlanFingerprint())
+                ? schedule
+                : generateSchedule(planSpec, strategy.getName());
+        return ((RollingHorizonStrategy) strategy).expand(current, planSpec, through);
     }
     
     /**
-     * Schedule blocks for a course in a specific phase (first half or second half)
+     * Re-solve the days from {@code from} on after progress reports
+     *
+     * Blocks before {@code from} stay as they are, and so do reported (done or missed)
+     * blocks on or after it. Done blocks, and earlier blocks nobody reported as missed,
+     * count as studied. The engine gets the rest: each course's remaining hours, with the
+     * capacity the kept blocks use taken off. Courses whose exam is not after {@code from}
+     * are left out. The rest keeps the plan's split date. The engine's previous output for
+     * this schedule is passed to its regenerate, so repeated replans on the same day only
+     * redo the courses that changed, and a replan on a later day can keep the second half.
      */
-    private void schedulePhase(Schedule schedule, PlanSpec planSpec, 
-                              PlanSpec.CourseSpec course,
-                              LocalDate phaseStart, LocalDate phaseEnd,
-                              double hoursToSchedule,
-                              Map<String, Double> remainingHours,
-                              Map<LocalDate, Double> dailyUsage,
-                              Map<LocalDate, LocalTime> dailyNextStart,
-                              String phaseName) {
-        
-        if (hoursToSchedule <= 0) {
-            return;
+    public Schedule replanSchedule(PlanSpec planSpec, Schedule schedule, LocalDate from) {
+        PlanSpec.ValidationResult validation = planSpec.validate();
+        if (!validation.isValid()) {
+            throw new IllegalArgumentException("Invalid PlanSpec: " + validation.getErrors());
+        }
+        Object engine = schedule.getMetadata("engine");
+        SchedulingStrategy strategy = getStrategy(engine != null ? engine.toString() : planSpec.getEngine());
+        LocalDate start = from.isBefore(validation.getStartDate()) ? validation.getStartDate() : from;
+        if (start.isAfter(validation.getEndDate())) {
+            throw new IllegalArgumentException("Nothing to replan after the plan ends on " + validation.getEndDate());
         }
         
-        schedule.addExplanation("");
-        schedule.addExplanation("Scheduling " + course.getId() + " in " + phaseName + ": " + 
-                              String.format("%.1f", hoursToSchedule) + " hours");
-        
-        int blocksNeeded = calculateBlocksNeeded(hoursToSchedule);
-        int blocksScheduled = 0;
-        double hoursScheduled = 0.0;
+        // Kept blocks, hours studied and the positions kept blocks hold from the start on
+        SlotTemplate template = SlotTemplate.of(planSpec);
+        List<Schedule.ScheduledBlock> kept = new ArrayList<>();
+        Map<String, Double> studied = new HashMap<>();
+        Map<LocalDate, Set<String>> taken = new TreeMap<>();
+        int missed = 0;
+        for (Schedule.ScheduledBlock block : schedule.getBlocks()) {
+            boolean past = block.getDate().isBefore(start);
+            if (!past && block.getStatus() == BlockStatus.PLANNED) {
+                continue;
+            }
+            kept.add(block.copy());
+            // Reviews take capacity but do not count towards the workload
+            if (block.getStatus() == BlockStatus.MISSED) {
+                missed++;
+            } else if (!block.isReview()
+                    && (block.getStatus() == BlockStatus.DONE || (past && block.getStatus() == BlockStatus.PLANNED))) {
+                studied.merge(block.getCourseId(), block.getDurationHours(), Double::sum);
+            }
+            if (!past) {
+                taken.computeIfAbsent(block.getDate(), d -> new HashSet<>()).add(heldStart(template, block));
+            }
+        }
         
-        // Try to schedule blocks in available days
-        LocalDate currentDate = phaseStart;
-        while (currentDate.isBefore(phaseEnd.plusDays(1)) && blocksScheduled < blocksNeeded) {
-            
-            // Check if day has availability
-            double dayCapacity = planSpec.getAvailability(currentDate);
-            if (dayCapacity <= 0) {
-                currentDate = currentDate.plusDays(1);
+        PlanSpec rest = PlanVersion.of(planSpec).toPlanSpec();
+        rest.setStartDate(start);
+        rest.setEndDate(validation.getEndDate());
+        // Keep the plan's own split, so replans on later days front-load towards the same date
+        int days = (int) ChronoUnit.DAYS.between(validation.getStartDate(), validation.getEndDate()) + 1;
+        rest.getRules().setSplitDate(validation.getStartDate().plusDays(
+                AbstractSchedulingStrategy.planSplitIndex(planSpec, validation.getStartDate(), days)));
+        List<String> dropped = new ArrayList<>();
+        List<PlanSpec.CourseSpec> remaining = new ArrayList<>();
+        for (PlanSpec.CourseSpec course : rest.getCourses()) {
+            double hours = course.getWorkloadHours() - studied.getOrDefault(course.getId(), 0.0);
+            if (hours <= 1e-9) {
                 continue;
             }
-            
-            double dayUsed = dailyUsage.getOrDefault(currentDate, 0.0);
-            double dayRemaining = Math.min(dayCapacity, MAX_HOURS_PER_DAY) - dayUsed;
-            
-            // Check if we can fit a block
-            if (dayRemaining >= BLOCK_DURATION) {
-                // Find best time slot for this block
-                LocalTime startTime = findBestTimeSlot(currentDate, dailyNextStart, dayUsed);
-                LocalTime endTime = startTime.plusHours((long)BLOCK_DURATION);
-                
-                // Create block
-                Schedule.ScheduledBlock block = new Schedule.ScheduledBlock();
-                block.setCourseId(course.getId());
-                block.setCourseName(course.getId());
-                block.setDate(currentDate);
-                block.setStartTime(startTime.toString());
-                block.setEndTime(endTime.toString());
-                block.setDurationMinutes((int)(BLOCK_DURATION * 60));
-                block.setPriority(course.getPriority());
-                block.setReason(String.format(
-                    "Allocated %s block %d/%d for %s (Priority: %s) at %s %s-%s",
-                    phaseName, blocksScheduled + 1, blocksNeeded, 
-                    course.getId(), course.getPriority(),
-                    currentDate, startTime, endTime
-                ));
-                
-                schedule.addBlock(block);
-                
-                // Update tracking
-                blocksScheduled++;
-                hoursScheduled += BLOCK_DURATION;
-                dailyUsage.put(currentDate, dayUsed + BLOCK_DURATION);
-                dailyNextStart.put(currentDate, endTime.plusMinutes((long)(BREAK_DURATION * 60)));
-                
-                schedule.addExplanation("  ✓ Block " + blocksScheduled + ": " + currentDate + 
-                                      " " + startTime + "-" + endTime + 
-                                      " (remaining capacity: " + String.format("%.1f", dayRemaining - BLOCK_DURATION) + "h)");
-                
-                // Check if we can fit another block on the same day
-                dayRemaining -= BLOCK_DURATION;
-                if (dayRemaining < BLOCK_DURATION) {
-                    currentDate = currentDate.plusDays(1);
+            if (course.getExamDate() != null && !course.getExamDate().isAfter(start)) {
+                dropped.add(course.getId());
+                continue;
+            }
+            course.setWorkloadHours(hours);
+            trimComponents(course, studied.getOrDefault(course.getId(), 0.0), start);
+            remaining.add(course);
+        }
+        rest.setCourses(remaining);
+        for (Map.Entry<LocalDate, Set<String>> day : taken.entrySet()) {
+            LocalDate date = day.getKey();
+            int open = 0;
+            for (int n = 0; n < template.positions(date).length; n++) {
+                if (!day.getValue().contains(template.startTime(date, n))) {
+                    open++;
                 }
-            } else {
-                currentDate = currentDate.plusDays(1);
             }
+            double capacity = planSpec.getAvailability(date) - day.getValue().size() * template.getBlockHours();
+            rest.setAvailability(date, Math.max(0, Math.min(capacity, open * template.getBlockHours())));
         }
         
-        // Update remaining hours
-        double remaining = remainingHours.get(course.getId()) - hoursScheduled;
-        remainingHours.put(course.getId(), Math.max(0, remaining));
+        Schedule solved = null;
+        if (!remaining.isEmpty()) {
+            PlanSpec.ValidationResult restValidation = rest.validate();
+            if (!restValidation.isValid()) {
+                throw new IllegalArgumentException("Cannot replan: " + restValidation.getErrors());
+            }
+            Schedule previous = replanned.get(schedule);
+            solved = previous != null
+                    ? strategy.regenerate(rest, restValidation, previous)
+                    : strategy.generate(rest, restValidation);
+            if (strategy instanceof RollingHorizonStrategy) {
+                ((RollingHorizonStrategy) strategy).expand(solved, rest, restValidation.getEndDate());
+            }
+        }
         
-        if (blocksScheduled < blocksNeeded) {
-            schedule.addExplanation("  ⚠ Only scheduled " + blocksScheduled + "/" + blocksNeeded + 
-                                  " blocks (" + String.format("%.1f", hoursScheduled) + "/" + 
-                                  String.format("%.1f", hoursToSchedule) + " hours) - insufficient capacity");
+        // New blocks on days with kept blocks move to the free positions those leave open
+        List<Schedule.ScheduledBlock> blocks = new ArrayList<>(kept);
+        if (solved != null) {
+            Map<LocalDate, Integer> next = new HashMap<>();
+            List<Schedule.ScheduledBlock> placed = new ArrayList<>(solved.getBlocks());
+            placed.sort(Comparator.comparing(Schedule.ScheduledBlock::getDate)
+                    .thenComparing(Schedule.ScheduledBlock::getStartTime));
+            for (Schedule.ScheduledBlock block : placed) {
+                Schedule.ScheduledBlock copy = block.copy();
+                Set<String> occupied = taken.get(copy.getDate());
+                if (occupied != null) {
+                    int n = next.getOrDefault(copy.getDate(), 0);
+                    while (occupied.contains(template.startTime(copy.getDate(), n))) {
+                        n++;
+                    }
+                    copy.setStartTime(template.startTime(copy.getDate(), n));
+                    copy.setEndTime(template.endTime(copy.getDate(), n));
+                    next.put(copy.getDate(), n + 1);
+                }
+                blocks.add(copy);
+            }
+        }
+        
+        Schedule result = new Schedule(schedule.getPlanName(), validation.getStartDate(), validation.getEndDate());
+        result.setScoreWeights(planSpec.getSoftPrefs());
+        result.addExplanation("═══ REPLAN ═══");
+        result.addExplanation("Replanned from " + start + " with engine '" + strategy.getName() + "'");
+        result.addExplanation(String.format("Kept %d block(s): %.1f hours studied, %d missed",
+                kept.size(), studied.values().stream().mapToDouble(Double::doubleValue).sum(), missed));
+        for (PlanSpec.CourseSpec course : remaining) {
+            result.addExplanation(String.format("  %s: %.1f hours left", course.getId(), course.getWorkloadHours()));
+        }
+        for (String course : dropped) {
+            result.addExplanation("  ⚠ " + course + ": exam is not after " + start + ", remaining hours left out");
         }
+        if (solved != null) {
+            result.addExplanation("");
+            solved.getExplanations().forEach(result::addExplanation);
+            result.getMetadata().putAll(solved.getMetadata());
+        }
+        if (planSpec.getRules().hasReviews() && (solved == null || solved.getRollingHorizon() == null)) {
+            ReviewScheduler.Result reviews = reviewScheduler.schedule(planSpec, blocks, start, validation.getEndDate());
+            blocks.addAll(reviews.getReviews());
+            explainReviews(result, reviews);
+        }
+        blocks.sort(Comparator.comparing(Schedule.ScheduledBlock::getDate)
+                .thenComparing(Schedule.ScheduledBlock::getStartTime));
+        result.addBlocks(blocks);
+        result.setProgressLog(new ArrayList<>(schedule.getProgressLog()));
+        result.setPlanFingerprint(planSpec.getFingerprint());
+        result.addMetadata("engine", strategy.getName());
+        result.addMetadata("replannedFrom", start.toString());
+        if (solved != null) {
+            replanned.put(result, solved);
+        }
+        return result;
     }
     
     /**
-     * Calculate number of blocks needed for given hours
+     * Start time of the template position a block holds: a review holds the position it
+     * sits in
      */
-    private int calculateBlocksNeeded(double hours) {
-        return (int) Math.ceil(hours / BLOCK_DURATION);
+    private static String heldStart(SlotTemplate template, Schedule.ScheduledBlock block) {
+        if (!block.isReview()) {
+            return block.getStartTime();
+        }
+        int position = template.positionAt(LocalTime.parse(block.getStartTime()).toSecondOfDay() / 60);
+        return position >= 0 ? template.startTime(position) : block.getStartTime();
     }
     
     /**
-     * Find best time slot for a block on a given day
+     * Add spaced-repetition reviews to an engine's schedule. The engine's score is kept:
+     * reviews do not count towards the workload. Rolling-horizon schedules get none, as
+     * their later windows are not planned yet.
      */
-    private LocalTime findBestTimeSlot(LocalDate date, 
-                                      Map<LocalDate, LocalTime> dailyNextStart,
-                                      double dayUsed) {
-        // If this is the first block of the day, start at default time
-        if (!dailyNextStart.containsKey(date) || dayUsed == 0) {
-            return DEFAULT_START_TIME;
+    private void addReviews(PlanSpec planSpec, PlanSpec.ValidationResult validation, Schedule schedule) {
+        if (schedule.getRollingHorizon() != null) {
+            schedule.addExplanation("");
+            schedule.addExplanation("Reviews are not added to rolling-horizon schedules");
+            return;
         }
-        
-        // Otherwise, start at the next available slot (after previous block + break)
-        return dailyNextStart.get(date);
+        ReviewScheduler.Result reviews = reviewScheduler.schedule(planSpec, schedule.getBlocks(),
+                validation.getStartDate(), validation.getEndDate());
+        Schedule.ScheduleScore score = schedule.getScore();
+        schedule.addBlocks(reviews.getReviews());
+        schedule.setScore(score);
+        explainReviews(schedule, reviews);
+    }
+    
+    private static void explainReviews(Schedule schedule, ReviewScheduler.Result reviews) {
+        schedule.addExplanation("");
+        schedule.addExplanation("═══ REVIEWS ═══");
+        schedule.addExplanation(String.format("Placed %d review block(s), %d merged into days already covered",
+                reviews.getReviews().size(), reviews.getMerged()));
+        if (reviews.getUnplaced() > 0) {
+            schedule.addExplanation("  ⚠ " + reviews.getUnplaced() + " review(s) found no free time in their window");
+        }
+        schedule.addMetadata("reviewBlocks", reviews.getReviews().size());
     }
     
     /**
-     * Handle courses with remaining unscheduled hours (shortfall)
+     * Take studied hours off a course's components, earliest due first, dropping finished
+     * ones and due dates that have passed
      */
-    private void handleShortfall(Schedule schedule, 
-                                Map<String, Double> remainingHours,
-                                List<PlanSpec.CourseSpec> courses) {
-        
-        boolean hasShortfall = remainingHours.values().stream().anyMatch(h -> h > 0.1);
-        
-        if (hasShortfall) {
-            schedule.addExplanation("");
-            schedule.addExplanation("═══ SHORTFALL ANALYSIS ═══");
-            schedule.addExplanation("⚠ Insufficient capacity to schedule all hours");
-            
-            for (PlanSpec.CourseSpec course : courses) {
-                double remaining = remainingHours.get(course.getId());
-                if (remaining > 0.1) {
-                    schedule.addExplanation("  • " + course.getId() + ": " + 
-                                          String.format("%.1f", remaining) + 
-                                          " hours unscheduled");
+    private static void trimComponents(PlanSpec.CourseSpec course, double studied, LocalDate start) {
+        List<PlanSpec.ComponentSpec> components = new ArrayList<>(course.getComponents());
+        components.sort(Comparator.comparing(PlanSpec.ComponentSpec::getDueDate,
+                Comparator.nullsLast(Comparator.naturalOrder())));
+        List<PlanSpec.ComponentSpec> left = new ArrayList<>();
+        for (PlanSpec.ComponentSpec component : components) {
+            double done = Math.min(studied, component.getEstimatedHours());
+            studied -= done;
+            if (component.getEstimatedHours() - done > 1e-9) {
+                PlanSpec.ComponentSpec rest = component.copy();
+                rest.setEstimatedHours(component.getEstimatedHours() - done);
+                if (rest.getDueDate() != null && rest.getDueDate().isBefore(start)) {
+                    rest.setDueDate(null);
                 }
+                left.add(rest);
             }
-            
-            schedule.addExplanation("");
-            schedule.addExplanation("SUGGESTIONS:");
-            schedule.addExplanation("  1. Add more available days with 'set availability' command");
-            schedule.addExplanation("  2. Increase capacity on existing days");
-            schedule.addExplanation("  3. Reduce estimated hours for some subjects");
-            schedule.addExplanation("  4. Extend the study period");
         }
+        course.setComponents(left);
     }
     
-    /**
-     * Calculate final schedule score
-     */
-    private void calculateScore(Schedule schedule, PlanSpec planSpec, 
-                               Map<String, Double> remainingHours) {
-        
-        Schedule.ScheduleScore score = schedule.getScore();
-        
-        // Total scheduled hours
-        double totalHours = schedule.getBlocks().stream()
-                .mapToDouble(Schedule.ScheduledBlock::getDurationHours)
-                .sum();
-        score.setTotalScheduledHours(totalHours);
-        
-        // Calculate utilization (spreadness score)
-        double totalAvailableHours = planSpec.getAvailability().values().stream()
-                .mapToDouble(Double::doubleValue)
-                .sum();
-        double utilizationRate = totalAvailableHours > 0 ? totalHours / totalAvailableHours : 0.0;
-        score.setSpreadnessScore(utilizationRate * 100.0);
+    private Schedule generate(PlanSpec planSpec, String engine, Schedule previous) {
+        SchedulingStrategy strategy = getStrategy(engine != null ? engine : planSpec.getEngine());
         
-        // Calculate completion rate (buffer score)
-        double totalRequiredHours = planSpec.getCourses().stream()
-                .mapToDouble(PlanSpec.CourseSpec::getWorkloadHours)
-                .sum();
-        double unscheduledHours = remainingHours.values().stream()
-                .mapToDouble(Double::doubleValue)
-                .sum();
-        double completionRate = totalRequiredHours > 0 ? 
-                (totalRequiredHours - unscheduledHours) / totalRequiredHours : 1.0;
-        score.setBufferScore(completionRate * 100.0);
-        
-        // Interleave score - calculate based on priority distribution
-        Map<Priority, Long> distribution = schedule.getBlocks().stream()
-                .collect(Collectors.groupingBy(Schedule.ScheduledBlock::getPriority, 
-                                              Collectors.counting()));
-        long highCount = distribution.getOrDefault(Priority.HIGH, 0L);
-        long mediumCount = distribution.getOrDefault(Priority.MEDIUM, 0L);
-        long lowCount = distribution.getOrDefault(Priority.LOW, 0L);
-        double totalBlocks = highCount + mediumCount + lowCount;
-        double interleaveScore = totalBlocks > 0 ? 
-                ((highCount * 1.5 + mediumCount * 1.2 + lowCount) / (totalBlocks * 1.5)) * 100.0 : 0.0;
-        score.setInterleaveScore(interleaveScore);
+        // Validate input
+        PlanSpec.ValidationResult validation = planSpec.validate();
+        if (!validation.isValid()) {
+            throw new IllegalArgumentException("Invalid PlanSpec: " + validation.getErrors());
+        }
         
-        // Calculate overall score (average of three scores)
-        double overallScore = (score.getSpreadnessScore() + score.getBufferScore() + score.getInterleaveScore()) / 3.0;
-        score.setOverallScore(overallScore);
+        // Identical input (same fingerprint) on the same engine gives an identical schedule.
+        // The cache holds a private snapshot and hands out copies: callers mark progress on
+        // and expand the schedules they get, which must not leak into later hits
+        String fingerprint = planSpec.getFingerprint();
+        String cacheKey = strategy.getName() + ":" + fingerprint;
+        synchronized (scheduleCache) {
+            Schedule cached = scheduleCache.get(cacheKey);
+            if (cached != null) {
+                return handOut(cached);
+            }
+        }
         
-        // Build course hours map
-        Map<String, Double> courseHours = new HashMap<>();
-        for (PlanSpec.CourseSpec course : planSpec.getCourses()) {
-            double scheduled = schedule.getBlocks().stream()
-                    .filter(b -> b.getCourseId().equals(course.getId()))
-                    .mapToDouble(Schedule.ScheduledBlock::getDurationHours)
-                    .sum();
-            courseHours.put(course.getId(), scheduled);
+        Schedule schedule = previous != null
+                ? strategy.regenerate(planSpec, validation, origins.getOrDefault(previous, previous))
+                : strategy.generate(planSpec, validation);
+        if (planSpec.getRules().hasReviews()) {
+            addReviews(planSpec, validation, schedule);
         }
-        score.setCourseHours(courseHours);
+        schedule.setPlanFingerprint(fingerprint);
+        schedule.addMetadata("engine", strategy.getName());
         
-        // Set metadata
-        Map<String, Object> metadata = new HashMap<>();
-        metadata.put("totalCourses", planSpec.getCourses().size());
-        metadata.put("totalBlocks", schedule.getBlocks().size());
-        metadata.put("totalAvailableHours", totalAvailableHours);
-        metadata.put("completionRate", completionRate);
-        metadata.put("utilizationRate", utilizationRate);
-        metadata.put("studyPeriodDays", 
-                ChronoUnit.DAYS.between(planSpec.getStartDate(), 
-                        schedule.getBlocks().isEmpty() ? planSpec.getStartDate() :
-                        schedule.getBlocks().stream()
-                                .map(Schedule.ScheduledBlock::getDate)
-                                .max(LocalDate::compareTo).orElse(planSpec.getStartDate())) + 1);
+        Schedule snapshot = schedule.copy();
+        origins.put(snapshot, schedule);
+        synchronized (scheduleCache) {
+            scheduleCache.put(cacheKey, snapshot);
+        }
+        return handOut(snapshot);
     }
     
+    /**
+     * Copy of a cached snapshot for a caller to own, linked to the same engine output
+     */
+    private Schedule handOut(Schedule snapshot) {
+        Schedule copy = snapshot.copy();
+        origins.put(copy, origins.getOrDefault(snapshot, snapshot));
+        return copy;
+    }
+
     /**
      * Format schedule as human-readable string - simple and clean
      */
@@ -437,5 +564,4 @@ public class SchedulerService {
         
         return sb.toString();
     }
-
 }
@@ -0,0 +1,172 @@
+package com.scheduler.chatbot;
+
+import com.scheduler.chatbot.model.BusyCalendar;
+import com.scheduler.chatbot.model.PlanSpec;
+import com.scheduler.chatbot.service.CalendarImportService;
+import com.scheduler.chatbot.service.ExportService;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.EnumSet;
+import java.util.List;
+
+public class CalendarImportServiceTest {
+    private static final ZoneId ZONE = ZoneId.of("Asia/Ho_Chi_Minh");
+    // 2025-03-03 is a Monday
+    private static final LocalDate FROM = LocalDate.of(2025, 3, 3);
+    private static final LocalDate TO = LocalDate.of(2025, 3, 30);
+
+    private final CalendarImportService importService = new CalendarImportService();
+
+    private CalendarImportService.ImportResult read(String... lines) throws IOException {
+        String ics = "BEGIN:VCALENDAR\r\nVERSION:2.0\r\n" + String.join("\r\n", lines) + "\r\nEND:VCALENDAR\r\n";
+        return importService.importBusy(new StringReader(ics), "Uni", FROM, TO, ZONE);
+    }
+
+    @Test
+    void importBusy_shouldFoldWeeklyRuleIntoOneInterval() throws IOException {
+        CalendarImportService.ImportResult result = read(
+                "BEGIN:VEVENT",
+                "SUMMARY:Algorithms",
+                "DESCRIPTION:Room 101, long text that is folded over",
+                "  several lines and never kept",
+                "DTSTART;TZID=Asia/Ho_Chi_Minh:20250303T090000",
+                "DTEND;TZID=Asia/Ho_Chi_Minh:20250303T103000",
+                "RRULE:FREQ=WEEKLY;BYDAY=MO,WE;UNTIL=20250326T000000Z",
+                "BEGIN:VALARM",
+                "TRIGGER:-PT15M",
+                "END:VALARM",
+                "END:VEVENT");
+
+        assertEquals(1, result.getEvents());
+        assertEquals(1, result.getIntervals().size());
+        PlanSpec.BusyInterval interval = result.getIntervals().get(0);
+        assertEquals(new PlanSpec.BusyInterval("Uni", FROM, LocalDate.of(2025, 3, 24),
+                EnumSet.of(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY), LocalTime.of(9, 0), LocalTime.of(10, 30)), interval);
+    }
+
+    @Test
+    void importBusy_shouldFilterDailyRuleByDayAndCountOnlyMatches() throws IOException {
+        // The usual weekday timetable: ten weekday occurrences run over two weeks
+        CalendarImportService.ImportResult result = read(
+                "BEGIN:VEVENT",
+                "SUMMARY:Lectures",
+                "DTSTART;TZID=Asia/Ho_Chi_Minh:20250303T080000",
+                "DTEND;TZID=Asia/Ho_Chi_Minh:20250303T120000",
+                "RRULE:FREQ=DAILY;BYDAY=MO,TU,WE,TH,FR;COUNT=10",
+                "END:VEVENT");
+
+        assertTrue(result.getWarnings().isEmpty(), result.getWarnings().toString());
+        assertEquals(1, result.getIntervals().size());
+        assertEquals(new PlanSpec.BusyInterval("Uni", FROM, LocalDate.of(2025, 3, 14),
+                EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY), LocalTime.of(8, 0), LocalTime.of(12, 0)),
+                result.getIntervals().get(0));
+    }
+
+    @Test
+    void importBusy_shouldKeepOnlyDaysMatchingBothByDayAndByMonthDay() throws IOException {
+        // Friday the 13th: both parts must match, so most months have no occurrence
+        String ics = String.join("\r\n", "BEGIN:VCALENDAR", "VERSION:2.0",
+                "BEGIN:VEVENT",
+                "SUMMARY:Unlucky",
+                "DTSTART;TZID=Asia/Ho_Chi_Minh:20250103T180000",
+                "DTEND;TZID=Asia/Ho_Chi_Minh:20250103T190000",
+                "RRULE:FREQ=MONTHLY;BYDAY=FR;BYMONTHDAY=13",
+                "END:VEVENT",
+                "END:VCALENDAR") + "\r\n";
+        CalendarImportService.ImportResult result = importService.importBusy(new StringReader(ics), "Uni",
+                LocalDate.of(2025, 1, 1), LocalDate.of(2026, 12, 31), ZONE);
+
+        assertTrue(result.getWarnings().isEmpty(), result.getWarnings().toString());
+        assertEquals(List.of(LocalDate.of(2025, 6, 13), LocalDate.of(2026, 2, 13), LocalDate.of(2026, 3, 13),
+                        LocalDate.of(2026, 11, 13)),
+                result.getIntervals().stream().map(PlanSpec.BusyInterval::getStartDate).sorted().toList());
+    }
+
+    @Test
+    void importBusy_shouldWarnAboutByDayOnYearlyRule() throws IOException {
+        CalendarImportService.ImportResult result = read(
+                "BEGIN:VEVENT",
+                "SUMMARY:Fair",
+                "DTSTART;TZID=Asia/Ho_Chi_Minh:20250303T080000",
+                "DTEND;TZID=Asia/Ho_Chi_Minh:20250303T090000",
+                "RRULE:FREQ=YEARLY;BYDAY=MO",
+                "END:VEVENT");
+
+        assertEquals(1, result.getWarnings().size());
+        assertTrue(result.getWarnings().get(0).contains("BYDAY"), result.getWarnings().get(0));
+    }
+
+    @Test
+    void importBusy_shouldExpandCountExdateAndConvertZones() throws IOException {
+        CalendarImportService.ImportResult result = read(
+                "BEGIN:VEVENT",
+                "SUMMARY:Lab",
+                "DTSTART:20250225T020000Z",
+                "DURATION:PT2H",
+                "RRULE:FREQ=WEEKLY;COUNT=4",
+                "EXDATE:20250311T020000Z",
+                "END:VEVENT",
+                "BEGIN:VEVENT",
+                "SUMMARY:Cancelled talk",
+                "STATUS:CANCELLED",
+                "DTSTART:20250305T100000",
+                "DTEND:20250305T110000",
+                "END:VEVENT");
+
+        // 25 Feb is before the range, 11 Mar is excluded, COUNT ends the rule on 18 Mar
+        BusyCalendar busy = new BusyCalendar(result.getIntervals());
+        assertFalse(busy.isFree(LocalDate.of(2025, 3, 4), 9 * 60, 11 * 60));
+        assertTrue(busy.isFree(LocalDate.of(2025, 3, 11), 0, 24 * 60));
+        assertFalse(busy.isFree(LocalDate.of(2025, 3, 18), 9 * 60, 10 * 60));
+        assertTrue(busy.isFree(LocalDate.of(2025, 3, 25), 0, 24 * 60));
+        assertTrue(busy.isFree(LocalDate.of(2025, 3, 5), 0, 24 * 60));
+        assertEquals(2, result.getEvents());
+        assertEquals(1, result.getSkipped());
+    }
+
+    @Test
+    void importBusy_shouldSplitAtMidnightAndBlockAllDayEvents() throws IOException {
+        CalendarImportService.ImportResult result = read(
+                "BEGIN:VEVENT",
+                "SUMMARY:Night shift",
+                "DTSTART:20250307T220000",
+                "DTEND:20250308T020000",
+                "END:VEVENT",
+                "BEGIN:VEVENT",
+                "SUMMARY:Field trip",
+                "DTSTART;VALUE=DATE:20250312",
+                "DTEND;VALUE=DATE:20250314",
+                "END:VEVENT",
+                "BEGIN:VEVENT",
+                "SUMMARY:Odd rule",
+                "DTSTART:20250320T080000",
+                "DTEND:20250320T090000",
+                "RRULE:FREQ=HOURLY",
+                "END:VEVENT");
+
+        BusyCalendar busy = new BusyCalendar(result.getIntervals());
+        assertArrayEquals(new int[] {22 * 60, 24 * 60}, busy.busyMinutes(LocalDate.of(2025, 3, 7)));
+        assertArrayEquals(new int[] {0, 2 * 60}, busy.busyMinutes(LocalDate.of(2025, 3, 8)));
+        assertArrayEquals(new int[] {0, 24 * 60}, busy.busyMinutes(LocalDate.of(2025, 3, 13)));
+        assertFalse(busy.hasBusy(LocalDate.of(2025, 3, 14)));
+        assertTrue(busy.hasBusy(LocalDate.of(2025, 3, 20)));
+        assertEquals(1, result.getWarnings().size());
+    }
+
+    @Test
+    void importBusy_shouldReadExportedSchedule() throws IOException {
+        String ics = new ExportService().exportToICS(ScheduleFixture.validSchedule());
+        CalendarImportService.ImportResult result = importService.importBusy(new StringReader(ics), "Study",
+                LocalDate.of(2025, 12, 1), LocalDate.of(2025, 12, 31), ZONE);
+
+        assertEquals(ScheduleFixture.validSchedule().getBlocks().size(), result.getEvents());
+        assertFalse(result.getIntervals().isEmpty());
+    }
+}
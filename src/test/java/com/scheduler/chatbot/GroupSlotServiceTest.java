@@ -0,0 +1,125 @@
+package com.scheduler.chatbot;
+
+import com.scheduler.chatbot.model.PlanSpec;
+import com.scheduler.chatbot.model.Schedule;
+import com.scheduler.chatbot.service.GroupSlotService;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+public class GroupSlotServiceTest {
+    // 2025-03-03 is a Monday
+    private static final LocalDate MONDAY = LocalDate.of(2025, 3, 3);
+
+    private final GroupSlotService groupSlotService = new GroupSlotService();
+
+    private static PlanSpec plan(String name, int days) {
+        PlanSpec plan = new PlanSpec(name);
+        plan.setStartDate(MONDAY);
+        plan.setEndDate(MONDAY.plusDays(days - 1));
+        for (int i = 0; i < days; i++) {
+            plan.setAvailability(MONDAY.plusDays(i), 4.0);
+        }
+        return plan;
+    }
+
+    private static Schedule.ScheduledBlock block(LocalDate date, String start, String end) {
+        Schedule.ScheduledBlock block = new Schedule.ScheduledBlock();
+        block.setCourseId("MATH");
+        block.setDate(date);
+        block.setStartTime(start);
+        block.setEndTime(end);
+        block.setDurationMinutes(90);
+        return block;
+    }
+
+    private static GroupSlotService.Query query(int limit) {
+        GroupSlotService.Query query = new GroupSlotService.Query();
+        query.setLatest(LocalTime.of(18, 0));
+        query.setLimit(limit);
+        return query;
+    }
+
+    @Test
+    void findCommonSlots_shouldAvoidBusyTimeAndBlocksOfEveryMember() {
+        PlanSpec alice = plan("Alice", 1);
+        alice.addBusyInterval(new PlanSpec.BusyInterval("Lecture", MONDAY, LocalTime.of(8, 0), LocalTime.of(12, 0)));
+        PlanSpec bob = plan("Bob", 1);
+        Schedule bobSchedule = new Schedule("Bob", MONDAY, MONDAY);
+        bobSchedule.addBlock(block(MONDAY, "12:00", "13:30"));
+
+        List<GroupSlotService.Candidate> slots = groupSlotService.findCommonSlots(List.of(
+                new GroupSlotService.Member("Alice", alice, null),
+                new GroupSlotService.Member("Bob", bob, bobSchedule)), query(5));
+
+        assertEquals(1, slots.size());
+        GroupSlotService.Candidate best = slots.get(0);
+        // 13:30 fits too, but right after Bob's block; 14:00 leaves a break
+        assertEquals(LocalTime.of(14, 0), best.getStartTime());
+        assertEquals(LocalTime.of(15, 30), best.getEndTime());
+        assertEquals(2, best.getAttendance());
+        assertTrue(best.isBuffered());
+        assertEquals(1, best.getRank());
+    }
+
+    @Test
+    void findCommonSlots_shouldRankPartialAttendanceWhenQuorumAllows() {
+        PlanSpec alice = plan("Alice", 2);
+        PlanSpec bob = plan("Bob", 2);
+        PlanSpec carol = plan("Carol", 2);
+        // Carol is away all of Monday; Tuesday is fully free for everyone
+        carol.addBusyInterval(new PlanSpec.BusyInterval("Trip", MONDAY, LocalTime.MIDNIGHT, LocalTime.MIDNIGHT));
+        List<GroupSlotService.Member> group = List.of(
+                new GroupSlotService.Member("Alice", alice, null),
+                new GroupSlotService.Member("Bob", bob, null),
+                new GroupSlotService.Member("Carol", carol, null));
+
+        List<GroupSlotService.Candidate> everyone = groupSlotService.findCommonSlots(group, query(5));
+        assertEquals(1, everyone.size());
+        assertEquals(MONDAY.plusDays(1), everyone.get(0).getDate());
+
+        GroupSlotService.Query quorum = query(5);
+        quorum.setMinAttendance(2);
+        List<GroupSlotService.Candidate> ranked = groupSlotService.findCommonSlots(group, quorum);
+        assertEquals(2, ranked.size());
+        assertEquals(3, ranked.get(0).getAttendance());
+        assertEquals(MONDAY, ranked.get(1).getDate());
+        assertEquals(List.of("Carol"), ranked.get(1).getAbsent());
+    }
+
+    @Test
+    void findCommonSlots_shouldHandleLargeGroupOverSemester() {
+        int days = 120;
+        List<GroupSlotService.Member> group = new ArrayList<>();
+        for (int m = 0; m < 200; m++) {
+            PlanSpec plan = plan("S" + m, days);
+            // Weekday classes at one of four times, plus a weekly job on one day
+            int hour = 8 + 2 * (m % 4);
+            plan.addBusyInterval(new PlanSpec.BusyInterval("Class", MONDAY, MONDAY.plusDays(days - 1),
+                    EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY), LocalTime.of(hour, 0), LocalTime.of(hour + 2, 0)));
+            plan.addBusyInterval(new PlanSpec.BusyInterval("Job", MONDAY, MONDAY.plusDays(days - 1),
+                    EnumSet.of(DayOfWeek.of(1 + m % 7)), LocalTime.of(16, 0), LocalTime.of(18, 0)));
+            group.add(new GroupSlotService.Member("S" + m, plan, null));
+        }
+
+        GroupSlotService.Query query = new GroupSlotService.Query();
+        query.setLimit(200);
+        List<GroupSlotService.Candidate> slots = groupSlotService.findCommonSlots(group, query);
+
+        // Classes fill weekdays until 16:00 and someone works 16:00-18:00 every day: every day still has a slot
+        assertEquals(days, slots.size());
+        for (GroupSlotService.Candidate slot : slots) {
+            assertEquals(200, slot.getAttendance());
+            for (GroupSlotService.Member member : group) {
+                assertTrue(member.getPlan().getBusyCalendar().isFree(slot.getDate(),
+                        slot.getStartTime().toSecondOfDay() / 60, slot.getEndTime().toSecondOfDay() / 60), slot.toString());
+            }
+        }
+    }
+}
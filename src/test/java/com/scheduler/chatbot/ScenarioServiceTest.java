@@ -0,0 +1,130 @@
+package com.scheduler.chatbot;
+
+import com.scheduler.chatbot.model.PlanSpec;
+import com.scheduler.chatbot.model.PlanVersion;
+import com.scheduler.chatbot.model.Priority;
+import com.scheduler.chatbot.service.ScenarioService;
+import com.scheduler.chatbot.service.SchedulerService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Test cases for ScenarioService (parallel what-if comparison)
+ */
+@SpringBootTest
+public class ScenarioServiceTest {
+
+    @Autowired
+    private ScenarioService scenarioService;
+
+    @Autowired
+    private SchedulerService schedulerService;
+
+    /**
+     * Base plan one day short: 6 days of 4 hours hold two 90-minute blocks each, so only
+     * 18 of the 21 hours fit
+     */
+    private PlanSpec makePlan() {
+        PlanSpec plan = new PlanSpec("Scenario Plan");
+        LocalDate start = LocalDate.of(2031, 9, 1);
+        plan.setStartDate(start);
+        plan.setEndDate(start.plusDays(6));
+        for (int i = 0; i < 6; i++) {
+            plan.setAvailability(start.plusDays(i), 4.0);
+        }
+        plan.addCourse(new PlanSpec.CourseSpec("Math", Priority.HIGH, 12));
+        plan.addCourse(new PlanSpec.CourseSpec("Art", Priority.LOW, 9));
+        return plan;
+    }
+
+    /**
+     * Test that scenarios are ranked against the base plan and failures go last
+     */
+    @Test
+    public void testRankScenarios() {
+        PlanSpec plan = makePlan();
+        List<ScenarioService.Scenario> scenarios = List.of(
+                new ScenarioService.Scenario("unknown subject", List.of("delete subject \"Chemistry\"")),
+                new ScenarioService.Scenario("query", List.of("show schedule")),
+                new ScenarioService.Scenario("less art", List.of("update subject \"Art\" hours 3")),
+                new ScenarioService.Scenario("sunday", List.of("set availability on 2031-09-07 capacity 6 hours")));
+
+        ScenarioService.Comparison comparison = scenarioService.compare(PlanVersion.of(plan), scenarios, "flow");
+
+        assertTrue(comparison.getBase().isSuccess());
+        assertEquals(3.0, comparison.getBase().getUnscheduledHours(), 1e-9);
+        assertEquals(1, comparison.getBase().getShortfall().size());
+
+        List<ScenarioService.Outcome> ranked = comparison.getScenarios();
+        assertEquals(4, ranked.size());
+        for (int i = 0; i < 2; i++) {
+            ScenarioService.Outcome outcome = ranked.get(i);
+            assertTrue(outcome.isSuccess(), outcome.getMessage());
+            assertEquals(i + 1, outcome.getRank());
+            assertEquals(0.0, outcome.getUnscheduledHours(), 1e-9);
+            assertEquals(-3.0, outcome.getUnscheduledDelta(), 1e-9);
+            assertEquals("flow", outcome.getEngine());
+        }
+        assertTrue(ranked.get(0).getScore() >= ranked.get(1).getScore());
+        assertEquals(comparison.getBest(), ranked.get(0));
+
+        for (ScenarioService.Outcome failed : ranked.subList(2, 4)) {
+            assertFalse(failed.isSuccess());
+            assertEquals(0, failed.getRank());
+        }
+        assertTrue(ranked.stream().anyMatch(o -> o.getMessage().contains("not found")));
+        assertTrue(ranked.stream().anyMatch(o -> o.getMessage().contains("does not change the plan")));
+    }
+
+    /**
+     * Test that scenarios never touch the plan they start from
+     */
+    @Test
+    public void testBasePlanUntouched() {
+        PlanSpec plan = makePlan();
+        String fingerprint = plan.getFingerprint();
+        PlanVersion base = PlanVersion.of(plan);
+
+        scenarioService.compare(base, List.of(
+                new ScenarioService.Scenario("more math", List.of("update subject \"Math\" hours 20", "delete subject \"Art\"")),
+                new ScenarioService.Scenario("new subject", List.of("add subject \"Bio\" hours 4 priority MEDIUM"))), null);
+
+        assertEquals(fingerprint, plan.getFingerprint());
+        assertEquals(fingerprint, base.toPlanSpec().getFingerprint());
+        assertEquals(List.of("Math", "Art"), base.getCourseIds());
+    }
+
+    /**
+     * Test that concurrent generation gives the same results as one plan at a time
+     */
+    @Test
+    public void testParallelMatchesSequential() {
+        PlanSpec plan = makePlan();
+        List<ScenarioService.Scenario> scenarios = new ArrayList<>();
+        for (int hours = 1; hours <= 12; hours++) {
+            scenarios.add(new ScenarioService.Scenario(null, List.of("update subject \"Math\" hours " + hours)));
+        }
+
+        ScenarioService.Comparison comparison = scenarioService.compare(PlanVersion.of(plan), scenarios, "greedy");
+
+        assertEquals(12, comparison.getScenarios().size());
+        for (ScenarioService.Outcome outcome : comparison.getScenarios()) {
+            assertTrue(outcome.isSuccess(), outcome.getMessage());
+            PlanSpec variant = makePlan();
+            variant.getCourse("Math").setWorkloadHours(Double.parseDouble(outcome.getCommands().get(0).split(" ")[4]));
+            assertEquals(schedulerService.generateSchedule(variant, "greedy").getScore().getOverallScore(),
+                    outcome.getScore(), 1e-9, outcome.getName());
+            assertTrue(outcome.getName().startsWith("scenario "));
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.scheduler.chatbot;
+
+import com.scheduler.chatbot.model.BlockStatus;
+import com.scheduler.chatbot.model.Schedule;
+import com.scheduler.chatbot.persistence.ScheduleRepository;
+import com.scheduler.chatbot.service.SchedulerFacade;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Files;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+/**
+ * Facade flows that combine generation with progress reports and replans; the
+ * repository is mocked so nothing is written to the user's home directory
+ */
+@SpringBootTest
+public class SchedulerFacadeTest {
+
+    private static final LocalDate START = LocalDate.now(); // plans start today by default
+
+    static {
+        // Mocking loads ScheduleRepository: keep its data directory out of the real home
+        System.setProperty("user.home", createTempHome());
+    }
+
+    private static String createTempHome() {
+        try {
+            return Files.createTempDirectory("scheduler-test-home").toString();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Autowired
+    private SchedulerFacade facade;
+
+    @MockBean
+    private ScheduleRepository repository;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        when(repository.saveSchedule(any(Schedule.class))).thenReturn("first.json", "second.json", "third.json");
+        when(repository.saveSchedule(any(Schedule.class), anyString())).thenAnswer(call -> call.getArgument(1));
+        facade.clear();
+        facade.executeCommand("add subject \"Math\" hours 6 priority HIGH");
+        for (int i = 0; i < 5; i++) {
+            facade.executeCommand("set availability on " + START.plusDays(i) + " capacity 4 hours");
+        }
+    }
+
+    /**
+     * Test generate, mark, generate: the second generate keeps the reported progress
+     * and names the file that holds it
+     */
+    @Test
+    public void testGenerateKeepsProgress() {
+        SchedulerFacade.ScheduleResult generated = facade.generateSchedule();
+        assertTrue(generated.isSuccess(), generated.getMessage());
+        assertTrue(facade.markBlocks(null, START, BlockStatus.DONE).isSuccess());
+
+        SchedulerFacade.ScheduleResult again = facade.generateSchedule();
+        assertEquals("Schedule unchanged, already saved to: first.json", again.getMessage());
+        assertSame(generated.getSchedule(), again.getSchedule());
+        assertTrue(again.getSchedule().getBlocksForDate(START).stream()
+                .allMatch(b -> b.getStatus() == BlockStatus.DONE));
+
+        // A replan is kept the same way, in its own file
+        SchedulerFacade.ScheduleResult replanned = facade.replan(START.plusDays(1));
+        assertTrue(replanned.isSuccess(), replanned.getMessage());
+        SchedulerFacade.ScheduleResult third = facade.generateSchedule();
+        assertEquals("Schedule unchanged, already saved to: second.json", third.getMessage());
+        assertEquals(START.plusDays(1).toString(), third.getSchedule().getMetadata("replannedFrom"));
+    }
+
+    /**
+     * Test querying past a rolling schedule's eager window: the expansion is saved to the
+     * schedule's file, and a query that expands nothing writes nothing
+     */
+    @Test
+    public void testBlocksQuerySavesExpansion() throws Exception {
+        for (int i = 5; i < 35; i++) {
+            facade.executeCommand("set availability on " + START.plusDays(i) + " capacity 2 hours");
+        }
+        facade.executeCommand("add subject \"Physics\" hours 30 priority MEDIUM");
+        Schedule schedule = facade.generateSchedule("rolling").getSchedule();
+        assertEquals(START.plusDays(13).toString(), schedule.getMetadata("materializedThrough"));
+
+        facade.getBlocks(START, START.plusDays(3));
+        verify(repository, never()).saveSchedule(any(Schedule.class), anyString());
+
+        SchedulerFacade.ScheduleResult later = facade.getBlocks(START.plusDays(20), START.plusDays(27));
+        assertTrue(later.isSuccess(), later.getMessage());
+        assertFalse(LocalDate.parse((String) schedule.getMetadata("materializedThrough")).isBefore(START.plusDays(27)));
+        verify(repository).saveSchedule(schedule, "first.json");
+    }
+}
@@ -1,14 +1,23 @@
 package com.scheduler.chatbot;
 
+import com.scheduler.chatbot.model.BlockStatus;
 import com.scheduler.chatbot.model.PlanSpec;
+import com.scheduler.chatbot.model.PlanVersion;
 import com.scheduler.chatbot.model.Priority;
 import com.scheduler.chatbot.model.Schedule;
 import com.scheduler.chatbot.service.SchedulerService;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -88,4 +97,302 @@ public class SchedulerServiceTest {
         // TODO: Test that LOW priority has 40% front-load
         assertEquals(0.40, Priority.LOW.getFrontLoadRatio());
     }
+
+    /**
+     * Test that identical plans reuse the cached schedule regardless of course order
+     */
+    @Test
+    public void testGenerateScheduleCached() {
+        PlanSpec first = new PlanSpec("Cache Plan");
+        PlanSpec second = new PlanSpec("Cache Plan");
+        LocalDate start = LocalDate.of(2031, 3, 3);
+        for (PlanSpec plan : List.of(first, second)) {
+            plan.setStartDate(start);
+            for (int i = 0; i < 4; i++) {
+                plan.setAvailability(start.plusDays(i), 6.0);
+            }
+        }
+        first.addCourse(new PlanSpec.CourseSpec("Math", Priority.HIGH, 6));
+        first.addCourse(new PlanSpec.CourseSpec("Art", Priority.HIGH, 4));
+        second.addCourse(new PlanSpec.CourseSpec("Art", Priority.HIGH, 4));
+        second.addCourse(new PlanSpec.CourseSpec("Math", Priority.HIGH, 6));
+
+        Schedule generated = schedulerService.generateSchedule(first);
+
+        // Hits are copies of the cached schedule, block for block
+        Schedule again = schedulerService.generateSchedule(first);
+        assertNotSame(generated, again);
+        assertEquals(generated.getBlocks().toString(), again.getBlocks().toString());
+        assertEquals(generated.getBlocks().toString(), schedulerService.generateSchedule(second).getBlocks().toString());
+        assertEquals(first.getFingerprint(), generated.getPlanFingerprint());
+
+        second.getCourse("Math").setWorkloadHours(8);
+        Schedule changed = schedulerService.generateSchedule(second);
+        assertNotSame(generated, changed);
+        assertNotEquals(generated.getPlanFingerprint(), changed.getPlanFingerprint());
+    }
+
+    /**
+     * Test that progress marked on a generated schedule does not leak through the cache:
+     * mark, edit, undo (back to the same fingerprint), regenerate
+     */
+    @Test
+    public void testCachedScheduleNotChangedByProgress() {
+        PlanSpec plan = new PlanSpec("Undo Plan");
+        LocalDate start = LocalDate.of(2031, 4, 7);
+        plan.setStartDate(start);
+        for (int i = 0; i < 4; i++) {
+            plan.setAvailability(start.plusDays(i), 6.0);
+        }
+        plan.addCourse(new PlanSpec.CourseSpec("Math", Priority.HIGH, 6));
+        PlanVersion before = PlanVersion.of(plan);
+
+        Schedule generated = schedulerService.generateSchedule(plan);
+        assertTrue(generated.markBlocks(null, start, BlockStatus.DONE) > 0);
+        plan.getCourse("Math").setWorkloadHours(9);
+        schedulerService.generateSchedule(plan);
+
+        Schedule regenerated = schedulerService.generateSchedule(before.toPlanSpec());
+        assertFalse(regenerated.getBlocks().isEmpty());
+        assertTrue(regenerated.getBlocks().stream().allMatch(b -> b.getStatus() == BlockStatus.PLANNED));
+        assertTrue(regenerated.getProgressLog().isEmpty());
+    }
+
+    /**
+     * Test engine lookup per plan and per request
+     */
+    @Test
+    public void testEngineSelection() {
+        PlanSpec plan = new PlanSpec("Engine Plan");
+        LocalDate start = LocalDate.of(2031, 6, 2);
+        plan.setStartDate(start);
+        for (int i = 0; i < 4; i++) {
+            plan.setAvailability(start.plusDays(i), 6.0);
+        }
+        plan.addCourse(new PlanSpec.CourseSpec("Math", Priority.HIGH, 6));
+
+        assertTrue(schedulerService.hasStrategy(SchedulerService.DEFAULT_ENGINE));
+        assertEquals(SchedulerService.DEFAULT_ENGINE, schedulerService.generateSchedule(plan).getMetadata("engine"));
+        assertEquals(SchedulerService.DEFAULT_ENGINE, schedulerService.generateSchedule(plan, "GREEDY").getMetadata("engine"));
+        assertThrows(IllegalArgumentException.class, () -> schedulerService.generateSchedule(plan, "missing"));
+
+        plan.setEngine("missing");
+        assertThrows(IllegalArgumentException.class, () -> schedulerService.generateSchedule(plan));
+    }
+
+    /**
+     * Test that incremental regeneration matches a full run after typical edits
+     */
+    @Test
+    public void testRegenerateScheduleMatchesFull() {
+        PlanSpec plan = new PlanSpec("Incremental Plan");
+        LocalDate start = LocalDate.of(2032, 1, 5);
+        plan.setStartDate(start);
+        for (int i = 0; i < 60; i++) {
+            plan.setAvailability(start.plusDays(i), 6.0);
+        }
+        Priority[] priorities = Priority.values();
+        for (int i = 0; i < 40; i++) {
+            plan.addCourse(new PlanSpec.CourseSpec(String.format("C%02d", i), priorities[i % 3], 2 + (i % 5)));
+        }
+        Schedule previous = schedulerService.generateSchedule(plan);
+
+        List<Runnable> edits = List.of(
+                () -> plan.getCourse("C30").setWorkloadHours(9),
+                () -> plan.addCourse(new PlanSpec.CourseSpec("C99", Priority.LOW, 4)),
+                () -> plan.getCourse("C35").setPriority(Priority.HIGH),
+                () -> plan.setAvailability(start.plusDays(50), 2.0),
+                () -> plan.removeCourse("C04"));
+        for (Runnable edit : edits) {
+            edit.run();
+            Schedule incremental = schedulerService.regenerateSchedule(plan, previous);
+            Schedule full = new SchedulerService().generateSchedule(plan);
+
+            assertEquals("incremental", incremental.getMetadata("generationMode"));
+            assertEquals(describe(full), describe(incremental));
+            assertEquals(full.getExplanations(), incremental.getExplanations());
+            assertEquals(full.getScore().getOverallScore(), incremental.getScore().getOverallScore());
+            previous = incremental;
+        }
+        assertTrue((Integer) previous.getMetadata("replayedPlacements") < 80);
+    }
+
+    /**
+     * Test replanning after progress reports: the past is kept, studied hours are taken
+     * off and missed hours are placed again from the replan date on
+     */
+    @Test
+    public void testReplanAfterProgress() {
+        PlanSpec plan = new PlanSpec("Replan Plan");
+        LocalDate start = LocalDate.of(2032, 3, 1);
+        plan.setStartDate(start);
+        for (int i = 0; i < 14; i++) {
+            plan.setAvailability(start.plusDays(i), 3.0 + (i * 5) % 4);
+        }
+        plan.addCourse(new PlanSpec.CourseSpec("A", Priority.HIGH, 12));
+        plan.addCourse(new PlanSpec.CourseSpec("B", Priority.MEDIUM, 9));
+        plan.addCourse(new PlanSpec.CourseSpec("C", Priority.LOW, 6));
+        Schedule original = schedulerService.generateSchedule(plan);
+
+        LocalDate today = start.plusDays(3);
+        original.markBlocks(null, start, BlockStatus.DONE);
+        original.markBlocks(null, start.plusDays(1), BlockStatus.MISSED);
+        Schedule replanned = schedulerService.replanSchedule(plan, original, today);
+
+        List<String> past = describe(original).stream().filter(b -> !b.contains(today.toString())).limit(
+                original.getBlocks().stream().filter(b -> b.getDate().isBefore(today)).count()).toList();
+        assertEquals(past, describe(replanned).subList(0, past.size()));
+        assertTrue(replanned.validate().isValid(), () -> replanned.validate().getErrors().toString());
+        assertEquals(original.getProgressLog().size(), replanned.getProgressLog().size());
+        assertEquals(today.toString(), replanned.getMetadata("replannedFrom"));
+        for (PlanSpec.CourseSpec course : plan.getCourses()) {
+            double owed = 0;
+            for (Schedule.ScheduledBlock block : replanned.getBlocksForCourse(course.getId())) {
+                if (block.getStatus() != BlockStatus.MISSED) {
+                    owed += block.getDurationHours();
+                }
+                if (block.getStatus() == BlockStatus.PLANNED && !block.getDate().isBefore(today)) {
+                    assertTrue(block.getReason() != null);
+                }
+            }
+            assertTrue(owed >= course.getWorkloadHours() - 1e-9, course.getId() + " got " + owed);
+        }
+
+        // "I missed today's session": the second replan of the day only redoes what changed
+        List<Schedule.ScheduledBlock> todays = replanned.getBlocksForDate(today);
+        String session = todays.get(todays.size() - 1).getCourseId();
+        replanned.markBlocks(session, today, BlockStatus.MISSED);
+        Schedule again = schedulerService.replanSchedule(plan, replanned, today);
+        Schedule fresh = new SchedulerService().replanSchedule(plan, replanned, today);
+        assertEquals("incremental", again.getMetadata("generationMode"));
+        assertEquals(describe(fresh), describe(again));
+        assertTrue(again.validate().isValid());
+        assertEquals(replanned.getBlocksForDate(today).size(), again.getBlocksForDate(today).size());
+    }
+
+    /**
+     * Test that a replanned schedule keeps the plan's score weights, also when its blocks
+     * change later
+     */
+    @Test
+    public void testReplanKeepsWeightedScore() {
+        PlanSpec plan = new PlanSpec("Weighted Replan");
+        LocalDate start = LocalDate.of(2032, 9, 6);
+        plan.setStartDate(start);
+        for (int i = 0; i < 10; i++) {
+            plan.setAvailability(start.plusDays(i), 4.0);
+        }
+        plan.addCourse(new PlanSpec.CourseSpec("A", Priority.HIGH, 10));
+        plan.addCourse(new PlanSpec.CourseSpec("B", Priority.LOW, 6));
+        plan.getSoftPrefs().setSpreadnessWeight(4.0);
+        plan.getSoftPrefs().setBufferWeight(0.5);
+        Schedule original = schedulerService.generateSchedule(plan);
+        original.markBlocks(null, start, BlockStatus.DONE);
+
+        Schedule replanned = schedulerService.replanSchedule(plan, original, start.plusDays(1));
+        Schedule.ScheduleScore score = replanned.getScore();
+        double weighted = plan.getSoftPrefs().weightedScore(
+                score.getSpreadnessScore(), score.getBufferScore(), score.getInterleaveScore());
+        double plain = (score.getSpreadnessScore() + score.getBufferScore() + score.getInterleaveScore()) / 3.0;
+        assertEquals(weighted, score.getOverallScore(), 1e-9);
+        assertNotEquals(plain, score.getOverallScore(), 1e-6);
+
+        replanned.removeBlock(replanned.getBlocks().get(replanned.getBlocks().size() - 1));
+        score = replanned.getScore();
+        assertEquals(plan.getSoftPrefs().weightedScore(score.getSpreadnessScore(), score.getBufferScore(),
+                score.getInterleaveScore()), score.getOverallScore(), 1e-9);
+    }
+
+    /**
+     * Test replanning a day later: the plan's split date is kept, so the second half of
+     * the previous replan is reused and only the first half is placed again
+     */
+    @Test
+    public void testReplanNextDayReusesSecondHalf() {
+        PlanSpec plan = new PlanSpec("Next Day Plan");
+        LocalDate start = LocalDate.of(2032, 6, 7);
+        plan.setStartDate(start);
+        for (int i = 0; i < 20; i++) {
+            plan.setAvailability(start.plusDays(i), i < 3 ? 8.0 : i % 3 == 0 ? 4.5 : 3.0);
+        }
+        for (int i = 0; i < 6; i++) {
+            plan.addCourse(new PlanSpec.CourseSpec("C" + i, Priority.values()[i % 3], 6 + i));
+        }
+        Schedule original = schedulerService.generateSchedule(plan);
+        Schedule today = schedulerService.replanSchedule(plan, original, start);
+
+        // Nothing studied on the first day: every course still owes the same hours
+        today.markBlocks(null, start, BlockStatus.MISSED);
+        Schedule tomorrow = schedulerService.replanSchedule(plan, today, start.plusDays(1));
+        Schedule full = new SchedulerService().replanSchedule(plan, today, start.plusDays(1));
+
+        assertEquals("incremental", tomorrow.getMetadata("generationMode"));
+        assertEquals(describe(full), describe(tomorrow));
+        assertEquals(12, full.getMetadata("replayedPlacements"));
+        assertEquals(6, tomorrow.getMetadata("replayedPlacements"));
+        assertTrue(tomorrow.validate().isValid());
+    }
+
+    /**
+     * Test spaced-repetition reviews: they follow study days, fit in the time study leaves
+     * over, keep the engine's score and survive a replan
+     */
+    @Test
+    public void testGenerateScheduleWithReviews() {
+        PlanSpec plan = new PlanSpec("Review Plan");
+        LocalDate start = LocalDate.of(2032, 6, 1);
+        plan.setStartDate(start);
+        for (int i = 0; i < 28; i++) {
+            plan.setAvailability(start.plusDays(i), 2.0 + i % 3);
+        }
+        plan.addCourse(new PlanSpec.CourseSpec("A", Priority.HIGH, 18));
+        plan.addCourse(new PlanSpec.CourseSpec("B", Priority.MEDIUM, 12));
+        plan.getCourse("B").setExamDate(start.plusDays(20));
+        Schedule plain = schedulerService.generateSchedule(plan);
+
+        plan.getRules().setReviewIntervals(List.of(1, 3, 7, 14));
+        Schedule reviewed = schedulerService.generateSchedule(plan);
+
+        assertNotSame(plain, reviewed);
+        assertTrue(reviewed.validate(plan.getBusyCalendar()).isValid(),
+                () -> reviewed.validate().getErrors().toString());
+        List<Schedule.ScheduledBlock> reviews = reviewed.getBlocks().stream()
+                .filter(Schedule.ScheduledBlock::isReview).toList();
+        assertFalse(reviews.isEmpty());
+        assertEquals(reviews.size(), reviewed.getMetadata("reviewBlocks"));
+        assertEquals(plain.getScore().getCourseHours(), reviewed.getScore().getCourseHours());
+        assertEquals(plain.getBlocks().size() + reviews.size(), reviewed.getBlocks().size());
+        Set<String> days = new HashSet<>();
+        for (Schedule.ScheduledBlock review : reviews) {
+            assertEquals(30, review.getDurationMinutes());
+            assertTrue(days.add(review.getCourseId() + review.getDate()), "two reviews on " + review);
+            assertTrue(reviewed.getBlocksForCourse(review.getCourseId()).stream()
+                    .anyMatch(b -> !b.isReview() && b.getDate().isBefore(review.getDate())), review.toString());
+            assertTrue(reviewed.getBlocksForCourse(review.getCourseId()).stream()
+                    .noneMatch(b -> !b.isReview() && b.getDate().equals(review.getDate())), review.toString());
+            if (review.getCourseId().equals("B")) {
+                assertTrue(review.getDate().isBefore(plan.getCourse("B").getExamDate()));
+            }
+        }
+        for (LocalDate date = start; date.isBefore(start.plusDays(28)); date = date.plusDays(1)) {
+            double hours = reviewed.getBlocksForDate(date).stream()
+                    .mapToDouble(Schedule.ScheduledBlock::getDurationHours).sum();
+            assertTrue(hours <= plan.getAvailability(date) + 1e-9, date + " holds " + hours + "h");
+        }
+
+        // Replanned reviews stay off the kept blocks and do not count as studied hours
+        LocalDate today = start.plusDays(5);
+        reviewed.markBlocks(null, start, BlockStatus.DONE);
+        Schedule replanned = schedulerService.replanSchedule(plan, reviewed, today);
+        assertTrue(replanned.validate(plan.getBusyCalendar()).isValid(),
+                () -> replanned.validate().getErrors().toString());
+        assertTrue(replanned.getBlocks().stream().anyMatch(b -> b.isReview() && !b.getDate().isBefore(today)));
+        assertEquals(reviewed.getScheduledHoursForCourse("A"), replanned.getScheduledHoursForCourse("A"), 1e-9);
+    }
+
+    private List<String> describe(Schedule schedule) {
+        return schedule.getBlocks().stream()
+                .map(b -> b.getCourseId() + "@" + b.getDate() + " " + b.getStartTime() + "-" + b.getEndTime())
+                .toList();
+    }
 }
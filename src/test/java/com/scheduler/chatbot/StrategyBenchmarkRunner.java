@@ -0,0 +1,75 @@
+package com.scheduler.chatbot;
+
+import com.scheduler.chatbot.engine.ScheduleOptimizer;
+import com.scheduler.chatbot.engine.SchedulingStrategy;
+import com.scheduler.chatbot.model.PlanSpec;
+import com.scheduler.chatbot.model.Priority;
+import com.scheduler.chatbot.model.Schedule;
+import com.scheduler.chatbot.service.SchedulerService;
+
+import java.time.LocalDate;
+import java.util.Random;
+//Compare the registered scheduling engines on generated plans: time per run and schedule score
+//"quality" is the score Schedule.recalculateScore gives with blocks in date order, comparable across engines
+//Run this class with optional args: <courses> <days> <runs> <load> (workload / availability, default 0.8)
+//e.g. 1000 365 3 0.95 for the large min-cost flow case
+public class StrategyBenchmarkRunner {
+
+    public static void main(String[] args) {
+        int courses = args.length > 0 ? Integer.parseInt(args[0]) : 40;
+        int days = args.length > 1 ? Integer.parseInt(args[1]) : 60;
+        int runs = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        double load = args.length > 3 ? Double.parseDouble(args[3]) : 0.8;
+
+        SchedulerService service = new SchedulerService();
+        PlanSpec plan = makePlan(courses, days, load, new Random(42));
+
+        System.out.printf("Plan: %d courses, %d days, %.0f h workload / %.0f h available%n",
+                courses, days, plan.getTotalWorkloadHours(), plan.getTotalAvailableHours());
+        System.out.printf("%-12s %12s %10s %10s %10s %10s%n", "engine", "ms/run", "score", "quality", "hours", "blocks");
+        for (SchedulingStrategy strategy : service.getStrategies()) {
+            PlanSpec.ValidationResult validation = plan.validate();
+            // Warm up
+            for (int i = 0; i < 3; i++) {
+                strategy.generate(plan, validation);
+            }
+            Schedule schedule = null;
+            long started = System.nanoTime();
+            for (int i = 0; i < runs; i++) {
+                schedule = strategy.generate(plan, validation);
+            }
+            double millis = (System.nanoTime() - started) / 1e6 / runs;
+            System.out.printf("%-12s %12.2f %10.1f %10.1f %10.1f %10d%n", strategy.getName(), millis,
+                    schedule.getScore().getOverallScore(), ScheduleOptimizer.evaluate(schedule),
+                    schedule.getScore().getTotalScheduledHours(),
+                    schedule.getBlocks().size());
+        }
+    }
+
+    private static PlanSpec makePlan(int courses, int days, double load, Random random) {
+        PlanSpec plan = new PlanSpec("Benchmark");
+        LocalDate start = LocalDate.of(2030, 1, 7);
+        plan.setStartDate(start);
+        plan.setEndDate(start.plusDays(days - 1));
+        double available = 0;
+        for (int i = 0; i < days; i++) {
+            double hours = 2 + random.nextInt(5);
+            plan.setAvailability(start.plusDays(i), hours);
+            available += hours;
+        }
+        Priority[] priorities = Priority.values();
+        // Random sizes scaled so the total workload is load * availability
+        double[] sizes = new double[courses];
+        double total = 0;
+        for (int i = 0; i < courses; i++) {
+            sizes[i] = 0.5 + random.nextDouble();
+            total += sizes[i];
+        }
+        for (int i = 0; i < courses; i++) {
+            double hours = Math.max(1, Math.round(sizes[i] / total * available * load));
+            plan.addCourse(new PlanSpec.CourseSpec(String.format("C%03d", i),
+                    priorities[random.nextInt(priorities.length)], hours));
+        }
+        return plan;
+    }
+}
@@ -0,0 +1,129 @@
+package com.scheduler.chatbot.engine;
+
+import com.scheduler.chatbot.model.PlanSpec;
+import com.scheduler.chatbot.model.Schedule;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Conformance suite plus hard-constraint checks for the constraint engine
+ */
+class ConstraintStrategyTest extends SchedulingStrategyConformanceTest {
+
+    @Override
+    protected SchedulingStrategy createStrategy() {
+        return new ConstraintStrategy();
+    }
+
+    // ==================== ConstraintSolver ====================
+
+    @Test
+    @DisplayName("Should refute a pigeonhole by counting, and place what fits in a dive")
+    void testSolverPigeonhole() {
+        // Three blocks, one day with two positions
+        BitSet both = new BitSet();
+        both.set(0, 2);
+        ConstraintSolver solver = new ConstraintSolver(1, 2, new int[] {2}, 1);
+        for (int i = 0; i < 3; i++) {
+            solver.addVariable(0, both, 0);
+        }
+        assertEquals(ConstraintSolver.Outcome.INFEASIBLE, solver.solve(1000));
+        assertEquals(0, solver.getNodes());
+
+        ConstraintSolver dive = new ConstraintSolver(1, 2, new int[] {2}, 1);
+        for (int i = 0; i < 3; i++) {
+            dive.addVariable(0, both, 0);
+        }
+        dive.dive();
+        assertEquals(List.of(ConstraintSolver.DROPPED, 0, 1), IntStream.range(0, 3)
+                .map(dive::valueOf).sorted().boxed().collect(Collectors.toList()));
+    }
+
+    // ==================== Hard constraints ====================
+
+    @Test
+    @DisplayName("Should honour day, time and per-day constraints while covering the workload")
+    void testHardConstraints() {
+        PlanSpec plan = makePlan();
+        plan.getRules().addConstraint(PlanSpec.HardConstraint.notOn("PHYS", EnumSet.of(DayOfWeek.MONDAY)));
+        plan.getRules().addConstraint(PlanSpec.HardConstraint.before("MATH", LocalTime.of(12, 0)));
+        plan.getRules().addConstraint(PlanSpec.HardConstraint.maxPerDay(null, 1));
+        Schedule schedule = createStrategy().generate(plan, plan.validate());
+
+        assertFalse(schedule.getExplanations().stream().anyMatch(e -> e.contains("unscheduled")));
+        for (Schedule.ScheduledBlock block : schedule.getBlocksForCourse("PHYS")) {
+            assertNotEquals(DayOfWeek.MONDAY, block.getDate().getDayOfWeek(), block.toString());
+        }
+        for (Schedule.ScheduledBlock block : schedule.getBlocksForCourse("MATH")) {
+            assertTrue(LocalTime.parse(block.getEndTime()).compareTo(LocalTime.of(12, 0)) <= 0, block.toString());
+        }
+        Map<String, Long> perCourseDay = schedule.getBlocks().stream()
+                .collect(Collectors.groupingBy(b -> b.getCourseId() + b.getDate(), Collectors.counting()));
+        assertTrue(perCourseDay.values().stream().allMatch(n -> n == 1), perCourseDay.toString());
+    }
+
+    @Test
+    @DisplayName("Should finish a component before its due date")
+    void testComponentDueDate() {
+        PlanSpec plan = makePlan();
+        LocalDate due = plan.getStartDate().plusDays(3);
+        plan.getCourse("CHEM").addComponent(new PlanSpec.ComponentSpec("Lab report", 3, due));
+        Schedule schedule = createStrategy().generate(plan, plan.validate());
+
+        List<Schedule.ScheduledBlock> lab = schedule.getBlocksForCourse("CHEM").stream()
+                .filter(b -> "Lab report".equals(b.getComponentName()))
+                .collect(Collectors.toList());
+        assertEquals(2, lab.size());
+        lab.forEach(b -> assertTrue(b.getDate().isBefore(due), b.toString()));
+    }
+
+    @Test
+    @DisplayName("Should name the minimal conflicting constraints when no placement exists")
+    void testConflictExplanation() {
+        PlanSpec plan = makePlan();
+        PlanSpec.CourseSpec phys = plan.getCourse("PHYS");
+        // Six PHYS blocks, three days before the exam, one block a day
+        phys.setExamDate(plan.getStartDate().plusDays(3));
+        plan.getRules().addConstraint(PlanSpec.HardConstraint.before("MATH", LocalTime.of(12, 0)));
+        plan.getRules().addConstraint(PlanSpec.HardConstraint.maxPerDay("PHYS", 1));
+        Schedule schedule = createStrategy().generate(plan, plan.validate());
+
+        assertEquals(List.of("at most 1 block(s) a day of 'PHYS'", "'PHYS' before its exam on 2025-03-06"),
+                schedule.getMetadata("conflict"));
+        assertTrue(schedule.getExplanations().stream().anyMatch(e -> e.contains("unscheduled")));
+        // What is placed still satisfies every constraint
+        List<Schedule.ScheduledBlock> placed = schedule.getBlocksForCourse("PHYS");
+        assertEquals(3, placed.size());
+        assertEquals(3, placed.stream().map(Schedule.ScheduledBlock::getDate).distinct().count());
+        placed.forEach(b -> assertTrue(b.getDate().isBefore(phys.getExamDate()), b.toString()));
+        assertEquals(8, schedule.getBlocksForCourse("MATH").size());
+    }
+
+    @Test
+    @DisplayName("Should not name a conflict when the search only ran out of decisions")
+    void testSearchLimitNamesNoConflict() {
+        PlanSpec plan = makePlan();
+        plan.getRules().addConstraint(PlanSpec.HardConstraint.maxPerDay("PHYS", 1));
+        // Feasible, but a zero budget stops the search at its first decision
+        Schedule schedule = new ConstraintStrategy(0).generate(plan, plan.validate());
+
+        assertEquals(List.of(), schedule.getMetadata("conflict"));
+        assertTrue(schedule.getExplanations().contains("No conflict could be proven within the search limit"));
+        assertFalse(schedule.getExplanations().stream().anyMatch(e -> e.contains("cannot hold together")));
+    }
+}
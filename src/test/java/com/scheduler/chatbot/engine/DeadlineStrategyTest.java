@@ -0,0 +1,149 @@
+package com.scheduler.chatbot.engine;
+
+import com.scheduler.chatbot.model.PlanSpec;
+import com.scheduler.chatbot.model.Priority;
+import com.scheduler.chatbot.model.Schedule;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Conformance suite plus deadline-specific checks for the EDF engine
+ */
+class DeadlineStrategyTest extends SchedulingStrategyConformanceTest {
+
+    @Override
+    protected SchedulingStrategy createStrategy() {
+        return new DeadlineStrategy();
+    }
+
+    private Schedule generate(PlanSpec plan) {
+        PlanSpec.ValidationResult validation = plan.validate();
+        assertTrue(validation.isValid(), () -> "Plan invalid: " + validation.getErrors());
+        return createStrategy().generate(plan, validation);
+    }
+
+    // ==================== Components ====================
+
+    @Test
+    @DisplayName("Should finish every component before its due date and label its blocks")
+    void testComponentsMeetDueDates() {
+        PlanSpec plan = makePlan();
+        LocalDate hwDue = plan.getStartDate().plusDays(4);
+        LocalDate projectDue = plan.getStartDate().plusDays(10);
+        plan.getCourse("PHYS").addComponent("HW", 3, hwDue);
+        plan.getCourse("PHYS").addComponent("Project", 4.5, projectDue);
+        Schedule schedule = generate(plan);
+
+        List<Schedule.ScheduledBlock> hw = schedule.getBlocks().stream()
+                .filter(b -> "HW".equals(b.getComponentName())).toList();
+        List<Schedule.ScheduledBlock> project = schedule.getBlocks().stream()
+                .filter(b -> "Project".equals(b.getComponentName())).toList();
+        assertEquals(2, hw.size());
+        assertEquals(3, project.size());
+        hw.forEach(b -> {
+            assertTrue(b.getDate().isBefore(hwDue), b.toString());
+            assertEquals(hwDue, b.getDeadline());
+        });
+        project.forEach(b -> assertTrue(b.getDate().isBefore(projectDue), b.toString()));
+        // The last half hour of PHYS rounds up to a whole block
+        assertEquals(9.0, schedule.getScore().getCourseHours().get("PHYS"), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Should take the earliest deadline first, before higher priority work")
+    void testEarliestDeadlineFirst() {
+        PlanSpec plan = makePlan();
+        plan.getCourse("CHEM").addComponent("Quiz", 2, plan.getStartDate().plusDays(2));
+        Schedule schedule = generate(plan);
+
+        Schedule.ScheduledBlock quiz = schedule.getBlocks().stream()
+                .filter(b -> "Quiz".equals(b.getComponentName())).findFirst().orElseThrow();
+        assertEquals(plan.getStartDate(), quiz.getDate());
+        assertEquals("08:00", quiz.getStartTime());
+    }
+
+    @Test
+    @DisplayName("Should finish high priority components with a buffer before the due date")
+    void testPriorityBuffer() {
+        PlanSpec plan = makePlan();
+        LocalDate due = plan.getStartDate().plusDays(7);
+        plan.getCourse("MATH").addComponent("HW", 4, due);
+        Schedule schedule = generate(plan);
+
+        assertEquals(true, schedule.getMetadata("bufferedDeadlines"));
+        schedule.getBlocks().stream()
+                .filter(b -> "HW".equals(b.getComponentName()))
+                .forEach(b -> assertTrue(b.getDate().isBefore(due.minusDays(2)), b.toString()));
+    }
+
+    @Test
+    @DisplayName("Should report the latest start and slack of each component")
+    void testSlack() {
+        // Days 0-3 hold 4, 2, 2, 4 blocks and an item takes at most 2 a day: done as late as
+        // possible the work starts on day 3
+        PlanSpec plan = makePlan();
+        plan.setCourses(List.of());
+        plan.addCourse(new PlanSpec.CourseSpec("ART", Priority.LOW, 3));
+        plan.getCourse("ART").addComponent("Sketch", 3, plan.getStartDate().plusDays(4));
+        Schedule schedule = generate(plan);
+
+        assertEquals(3, schedule.getMetadata("minSlackDays"));
+        assertTrue(schedule.getExplanations().stream().anyMatch(e ->
+                e.contains("Sketch (ART): 2/2 blocks") && e.contains("latest start " + plan.getStartDate().plusDays(3))));
+    }
+
+    @Test
+    @DisplayName("Should report the blocks a component cannot finish in time")
+    void testMissedDeadlineReported() {
+        // Only day 0 is usable and one course takes at most 2 blocks a day
+        PlanSpec plan = makePlan();
+        plan.getCourse("CHEM").addComponent("Report", 6, plan.getStartDate().plusDays(1));
+        Schedule schedule = generate(plan);
+
+        assertTrue(schedule.getExplanations().stream().anyMatch(e ->
+                e.contains("Report (CHEM): 2/4 blocks") && e.contains("cannot be done in time")));
+        assertTrue(schedule.getExplanations().stream().anyMatch(e -> e.contains("CHEM: 3.0 hours unscheduled")));
+        assertEquals(12.0, schedule.getScore().getCourseHours().get("MATH"), 1e-9);
+    }
+
+    // ==================== Scale ====================
+
+    @Test
+    @DisplayName("Should meet every deadline for thousands of components")
+    void testManyComponents() {
+        PlanSpec plan = new PlanSpec("Many components");
+        LocalDate start = LocalDate.of(2025, 1, 6);
+        int days = 730;
+        plan.setStartDate(start);
+        plan.setEndDate(start.plusDays(days - 1));
+        for (int i = 0; i < days; i++) {
+            plan.setAvailability(start.plusDays(i), 6.0);
+        }
+        Random random = new Random(7);
+        Priority[] priorities = Priority.values();
+        for (int c = 0; c < 100; c++) {
+            PlanSpec.CourseSpec course = new PlanSpec.CourseSpec(String.format("C%03d", c),
+                    priorities[c % priorities.length], 20 * 1.5);
+            for (int i = 0; i < 20; i++) {
+                course.addComponent("Task " + i, 1.5, start.plusDays(5 + random.nextInt(days - 5)));
+            }
+            plan.addCourse(course);
+        }
+        Schedule schedule = generate(plan);
+
+        assertEquals(2000, schedule.getBlocks().size());
+        for (Schedule.ScheduledBlock block : schedule.getBlocks()) {
+            assertTrue(block.getDate().isBefore(block.getDeadline()), block.toString());
+        }
+        assertFalse(schedule.getExplanations().stream().anyMatch(e -> e.contains("cannot be done in time")));
+        assertTrue(schedule.validate().isValid());
+    }
+}
@@ -0,0 +1,100 @@
+package com.scheduler.chatbot.engine;
+
+import com.scheduler.chatbot.model.PlanSpec;
+import com.scheduler.chatbot.model.Priority;
+import com.scheduler.chatbot.model.Schedule;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Conformance suite plus exam-horizon checks
+ */
+class ExamHorizonStrategyTest extends SchedulingStrategyConformanceTest {
+
+    @Override
+    protected SchedulingStrategy createStrategy() {
+        return new ExamHorizonStrategy();
+    }
+
+    private Schedule generate(PlanSpec plan) {
+        PlanSpec.ValidationResult validation = plan.validate();
+        assertTrue(validation.isValid(), () -> "Plan invalid: " + validation.getErrors());
+        return createStrategy().generate(plan, validation);
+    }
+
+    // ==================== Horizons ====================
+
+    @Test
+    @DisplayName("Should keep every course before its exam where the fixed split would not")
+    void testBlocksBeforeExam() {
+        PlanSpec plan = makePlan();
+        LocalDate exam = plan.getStartDate().plusDays(6);
+        plan.getCourse("PHYS").setExamDate(exam);
+
+        Schedule greedy = new GreedyFrontLoadStrategy().generate(plan, plan.validate());
+        Schedule horizon = generate(plan);
+
+        assertTrue(greedy.getBlocksForCourse("PHYS").stream().anyMatch(b -> !b.getDate().isBefore(exam)));
+        List<Schedule.ScheduledBlock> phys = horizon.getBlocksForCourse("PHYS");
+        assertEquals(6, phys.size());
+        for (Schedule.ScheduledBlock block : phys) {
+            assertTrue(block.getDate().isBefore(exam), block.toString());
+            assertEquals(exam, block.getDeadline());
+        }
+    }
+
+    @Test
+    @DisplayName("Should split the front-load share at the midpoint of the course's own horizon")
+    void testSplitAtOwnMidpoint() {
+        // MATH: 8 blocks, exam on day 8; days 0-7 hold 6+4+4+6+4+0+6+4 = 34 hours, so the
+        // capacity split is day 3 (14 | 20) and HIGH puts 5 blocks in days 0-2
+        PlanSpec plan = makePlan();
+        plan.getCourse("MATH").setExamDate(plan.getStartDate().plusDays(8));
+        Schedule schedule = generate(plan);
+
+        LocalDate split = plan.getStartDate().plusDays(3);
+        long early = schedule.getBlocksForCourse("MATH").stream().filter(b -> b.getDate().isBefore(split)).count();
+        assertEquals(5, early);
+        assertTrue(schedule.getExplanations().stream().anyMatch(e -> e.contains("split " + split)));
+    }
+
+    @Test
+    @DisplayName("Should place the earliest exam first, ahead of higher priority courses")
+    void testEarliestExamFirst() {
+        PlanSpec plan = makePlan();
+        plan.getCourse("CHEM").setExamDate(plan.getStartDate().plusDays(3));
+        Schedule schedule = generate(plan);
+
+        Schedule.ScheduledBlock first = schedule.getBlocks().get(0);
+        assertEquals("CHEM", first.getCourseId());
+        assertEquals(plan.getStartDate(), first.getDate());
+        assertEquals("08:00", first.getStartTime());
+        assertTrue(schedule.getExplanations().stream().anyMatch(e -> e.startsWith("Exam order: CHEM")));
+    }
+
+    @Test
+    @DisplayName("Should move hours the first half cannot hold into the second half")
+    void testFirstHalfOverflow() {
+        // Only the second half of the calendar has time: 10 blocks for the 15 hours
+        PlanSpec plan = new PlanSpec("Late capacity");
+        LocalDate start = LocalDate.of(2025, 5, 5);
+        plan.setStartDate(start);
+        plan.setEndDate(start.plusDays(9));
+        for (int i = 5; i < 10; i++) {
+            plan.setAvailability(start.plusDays(i), 4.0);
+        }
+        plan.addCourse(new PlanSpec.CourseSpec("MATH", Priority.HIGH, 9));
+        plan.addCourse(new PlanSpec.CourseSpec("ART", Priority.LOW, 6));
+        Schedule schedule = generate(plan);
+
+        assertFalse(schedule.getExplanations().stream().anyMatch(e -> e.contains("unscheduled")));
+        assertEquals(15.0, schedule.getScore().getTotalScheduledHours(), 1e-9);
+    }
+}
@@ -0,0 +1,87 @@
+package com.scheduler.chatbot.engine;
+
+import com.scheduler.chatbot.model.PlanSpec;
+import com.scheduler.chatbot.model.Priority;
+import com.scheduler.chatbot.model.Schedule;
+import com.scheduler.chatbot.model.SplitStrategy;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Conformance suite for the default engine
+ */
+class GreedyFrontLoadStrategyTest extends SchedulingStrategyConformanceTest {
+
+    @Override
+    protected SchedulingStrategy createStrategy() {
+        return new GreedyFrontLoadStrategy();
+    }
+
+    // ==================== Split ====================
+
+    @Test
+    @DisplayName("Should split by available hours so a late-heavy calendar does not starve the first half")
+    void testCapacityWeightedSplit() {
+        // Time only on days 5-9: the calendar midpoint (day 5) leaves the first half empty,
+        // the capacity split (day 7) gives each half 8 hours
+        PlanSpec plan = new PlanSpec("Late capacity");
+        LocalDate start = LocalDate.of(2025, 5, 5);
+        plan.setStartDate(start);
+        plan.setEndDate(start.plusDays(9));
+        for (int i = 5; i < 10; i++) {
+            plan.setAvailability(start.plusDays(i), 4.0);
+        }
+        plan.addCourse(new PlanSpec.CourseSpec("MATH", Priority.HIGH, 8));
+
+        Schedule weighted = createStrategy().generate(plan, plan.validate());
+        assertTrue(weighted.getExplanations().contains("Split date: " + start.plusDays(7) + " (CAPACITY_WEIGHTED)"));
+        assertFalse(weighted.getExplanations().stream().anyMatch(e -> e.contains("unscheduled")));
+
+        plan.getRules().setSplitStrategy(SplitStrategy.CALENDAR_MIDPOINT);
+        Schedule midpoint = createStrategy().generate(plan, plan.validate());
+        assertTrue(midpoint.getExplanations().contains("Split date: " + start.plusDays(5) + " (CALENDAR_MIDPOINT)"));
+        assertTrue(midpoint.getExplanations().stream().anyMatch(e -> e.contains("unscheduled")));
+    }
+
+    @Test
+    @DisplayName("Should lay out blocks from the plan's scheduling rules")
+    void testHonorsRules() {
+        PlanSpec plan = makePlan();
+        plan.getRules().setBlockDurationMinutes(60);
+        plan.getRules().setMaxContinuousBlockMinutes(60);
+        plan.getRules().setBreakDurationMinutes(30);
+        Schedule schedule = createStrategy().generate(plan, plan.validate());
+
+        assertTrue(schedule.validate().isValid());
+        for (Schedule.ScheduledBlock block : schedule.getBlocks()) {
+            assertEquals(60, block.getDurationMinutes());
+        }
+        // One-hour runs with 30-minute breaks, 480 / 90 = 5 blocks on the 6-hour first day
+        List<String> firstDay = schedule.getBlocksForDate(plan.getStartDate()).stream()
+                .map(Schedule.ScheduledBlock::getStartTime).toList();
+        assertEquals(List.of("08:00", "09:30", "11:00", "12:30", "14:00"), firstDay);
+    }
+
+    @Test
+    @DisplayName("Should place blocks at the first template positions a busy interval leaves free")
+    void testFirstFitAroundBusy() {
+        PlanSpec plan = makePlan();
+        LocalDate day = plan.getStartDate();
+        plan.addBusyInterval(new PlanSpec.BusyInterval("Lecture", day, LocalTime.of(9, 0), LocalTime.of(10, 5)));
+        Schedule schedule = createStrategy().generate(plan, plan.validate());
+
+        assertTrue(schedule.validate().isValid());
+        // 08:00 and 09:30 overlap the lecture; 11:15 and 12:45 are the first fits
+        List<String> firstDay = schedule.getBlocksForDate(day).stream()
+                .map(Schedule.ScheduledBlock::getStartTime).sorted().toList();
+        assertEquals(List.of("11:15", "12:45"), firstDay);
+    }
+}
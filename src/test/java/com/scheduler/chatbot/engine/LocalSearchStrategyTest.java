@@ -0,0 +1,193 @@
+package com.scheduler.chatbot.engine;
+
+import com.scheduler.chatbot.model.PlanSpec;
+import com.scheduler.chatbot.model.Schedule;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Conformance suite plus optimizer and Pareto front checks for the local search engine
+ */
+class LocalSearchStrategyTest extends SchedulingStrategyConformanceTest {
+
+    @Override
+    protected SchedulingStrategy createStrategy() {
+        // Generous time budget so the iteration budget decides (deterministic)
+        return new LocalSearchStrategy(new GreedyFrontLoadStrategy(),
+                new ScheduleOptimizer(60_000, 20_000, 3, 7L));
+    }
+
+    private Schedule generate(SchedulingStrategy strategy, PlanSpec plan) {
+        return strategy.generate(plan, plan.validate());
+    }
+
+    @Test
+    @DisplayName("Should never score below the greedy start")
+    void testImprovesOnGreedy() {
+        PlanSpec plan = makePlan();
+        Schedule greedy = generate(new GreedyFrontLoadStrategy(), plan);
+        Schedule optimized = generate(createStrategy(), plan);
+
+        double before = ScheduleOptimizer.evaluate(greedy);
+        assertEquals(before, (Double) optimized.getMetadata("initialScore"), 1e-9);
+        assertTrue(optimized.getScore().getOverallScore() >= before - 1e-9);
+        assertTrue(optimized.getScore().getOverallScore() > before, "Fixture leaves room for improvement");
+    }
+
+    @Test
+    @DisplayName("Should track the same score Schedule.recalculateScore reports")
+    void testIncrementalScoreMatchesFull() {
+        Schedule optimized = generate(createStrategy(), makePlan());
+        double reported = optimized.getScore().getOverallScore();
+        optimized.recalculateScore();
+        assertEquals(optimized.getScore().getOverallScore(), reported, 1e-9);
+        assertEquals(ScheduleOptimizer.evaluate(optimized), reported, 1e-9);
+    }
+
+    @Test
+    @DisplayName("Should keep each course's hours in each half of the calendar")
+    void testKeepsFrontLoadSplit() {
+        PlanSpec plan = makePlan();
+        Schedule greedy = generate(new GreedyFrontLoadStrategy(), plan);
+        Schedule optimized = generate(createStrategy(), plan);
+        assertEquals(halves(greedy), halves(optimized));
+    }
+
+    @Test
+    @DisplayName("Should depend on the seed only")
+    void testSeeded() {
+        PlanSpec plan = makePlan();
+        SchedulingStrategy other = new LocalSearchStrategy(new GreedyFrontLoadStrategy(),
+                new ScheduleOptimizer(60_000, 20_000, 3, 8L));
+        assertEquals(describe(generate(createStrategy(), plan)), describe(generate(createStrategy(), plan)));
+        assertNotEquals(describe(generate(createStrategy(), plan)), describe(generate(other, plan)));
+    }
+
+    @Test
+    @DisplayName("Should return a valid schedule when the time budget is tiny")
+    void testAnytime() {
+        PlanSpec plan = makePlan();
+        SchedulingStrategy rushed = new LocalSearchStrategy(new GreedyFrontLoadStrategy(),
+                new ScheduleOptimizer(1, Long.MAX_VALUE, 2, 1L));
+        Schedule schedule = generate(rushed, plan);
+        assertTrue(schedule.validate().isValid());
+        assertEquals(generate(new GreedyFrontLoadStrategy(), plan).getBlocks().size(), schedule.getBlocks().size());
+    }
+
+    @Test
+    @DisplayName("Should weight the score terms by the soft preferences")
+    void testWeightedScore() {
+        PlanSpec plan = makePlan();
+        plan.getSoftPrefs().setPreferSpreadness(false);
+        plan.getSoftPrefs().setBufferWeight(0.0);
+        Schedule optimized = generate(createStrategy(), plan);
+
+        Schedule.ScheduleScore score = optimized.getScore();
+        assertEquals(score.getInterleaveScore(), score.getOverallScore(), 1e-9);
+        assertEquals(score.getInterleaveScore(), (Double) optimized.getMetadata("optimizedScore"), 1e-9);
+        assertEquals(50.0, plan.getSoftPrefs().weightedScore(40.0, 90.0, 50.0), 1e-9);
+    }
+
+    // ==================== Pareto front ====================
+
+    @Test
+    @DisplayName("Should cover the weight simplex")
+    void testWeightVectors() {
+        List<double[]> vectors = ParetoExplorer.weightVectors(4);
+        assertEquals(15, vectors.size());
+        assertArrayEquals(new double[] {1.0, 0.0, 0.0}, vectors.get(0));
+        for (double[] weights : vectors) {
+            assertEquals(1.0, weights[0] + weights[1] + weights[2], 1e-9);
+        }
+    }
+
+    @Test
+    @DisplayName("Should find the same skyline as a pairwise check")
+    void testSkylineMatchesBruteForce() {
+        Random random = new Random(3);
+        for (int round = 0; round < 50; round++) {
+            // Small integer grid, so ties and duplicates are common
+            double[][] points = new double[1 + random.nextInt(40)][3];
+            for (double[] point : points) {
+                for (int k = 0; k < 3; k++) {
+                    point[k] = random.nextInt(5);
+                }
+            }
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < points.length; i++) {
+                boolean kept = true;
+                for (int j = 0; j < points.length && kept; j++) {
+                    boolean duplicateBefore = j < i && Arrays.equals(points[i], points[j]);
+                    kept = !duplicateBefore && !dominates(points[j], points[i]);
+                }
+                if (kept) {
+                    expected.add(i);
+                }
+            }
+            assertEquals(expected, Arrays.stream(ParetoExplorer.skyline(points)).boxed().toList());
+        }
+    }
+
+    @Test
+    @DisplayName("Should return valid, mutually non-dominated schedules")
+    void testParetoFront() {
+        PlanSpec plan = makePlan();
+        ParetoExplorer explorer = new ParetoExplorer(new GreedyFrontLoadStrategy(),
+                new ScheduleOptimizer(60_000, 5_000, 1, 7L), ForkJoinPool.commonPool());
+        List<ParetoExplorer.Point> front = explorer.explore(plan, plan.validate(), 3);
+        int blocks = generate(new GreedyFrontLoadStrategy(), plan).getBlocks().size();
+
+        assertFalse(front.isEmpty());
+        assertTrue(front.size() <= ParetoExplorer.weightVectors(3).size());
+        for (ParetoExplorer.Point point : front) {
+            assertTrue(point.getSchedule().validate().isValid());
+            assertEquals(blocks, point.getSchedule().getBlocks().size());
+            for (ParetoExplorer.Point other : front) {
+                assertFalse(dominates(objectives(other), objectives(point)));
+            }
+        }
+        for (int i = 1; i < front.size(); i++) {
+            assertTrue(front.get(i - 1).getSpreadnessScore() >= front.get(i).getSpreadnessScore());
+        }
+        // Deterministic: same seed, iteration budget inside the time budget
+        assertEquals(front.size(), explorer.explore(plan, plan.validate(), 3).size());
+    }
+
+    private static double[] objectives(ParetoExplorer.Point point) {
+        return new double[] {point.getSpreadnessScore(), point.getBufferScore(), point.getInterleaveScore()};
+    }
+
+    private static boolean dominates(double[] a, double[] b) {
+        boolean better = false;
+        for (int k = 0; k < 3; k++) {
+            if (a[k] < b[k]) {
+                return false;
+            }
+            better |= a[k] > b[k];
+        }
+        return better;
+    }
+
+    private static List<String> halves(Schedule schedule) {
+        List<String> halves = new ArrayList<>();
+        long split = schedule.getStartDate().toEpochDay()
+                + (schedule.getEndDate().toEpochDay() - schedule.getStartDate().toEpochDay() + 1) / 2;
+        for (Schedule.ScheduledBlock block : schedule.getBlocks()) {
+            halves.add(block.getCourseId() + (block.getDate().toEpochDay() < split ? " first" : " second"));
+        }
+        halves.sort(null);
+        return halves;
+    }
+}
@@ -0,0 +1,100 @@
+package com.scheduler.chatbot.engine;
+
+import com.scheduler.chatbot.model.PlanSpec;
+import com.scheduler.chatbot.model.Priority;
+import com.scheduler.chatbot.model.Schedule;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Conformance suite plus flow-specific checks for the min-cost flow engine
+ */
+class MinCostFlowStrategyTest extends SchedulingStrategyConformanceTest {
+
+    @Override
+    protected SchedulingStrategy createStrategy() {
+        return new MinCostFlowStrategy();
+    }
+
+    // ==================== MinCostFlow ====================
+
+    @Test
+    @DisplayName("Should find max flow at minimum cost")
+    void testMinCostFlow() {
+        // 0 -> {2, 3} -> 1; cheap path 0-2-1 limited to 2 units, expensive 0-3-1 takes the rest
+        MinCostFlow network = new MinCostFlow(4, 4);
+        network.addEdge(0, 2, 5, 1);
+        network.addEdge(0, 3, 5, 4);
+        int cheap = network.addEdge(2, 1, 2, 1);
+        int expensive = network.addEdge(3, 1, 2, 1);
+        assertArrayEquals(new long[] {4, 2 * 2 + 2 * 5}, network.solve(0, 1));
+        assertEquals(2, network.flow(cheap));
+        assertEquals(2, network.flow(expensive));
+    }
+
+    @Test
+    @DisplayName("Should reroute earlier flow when that lowers the total cost")
+    void testMinCostFlowReroutes() {
+        // Both 2 and 3 prefer 4; the optimum sends 2 to 5 so that 3 can use 4
+        MinCostFlow network = new MinCostFlow(6, 7);
+        network.addEdge(0, 2, 1, 0);
+        network.addEdge(0, 3, 1, 0);
+        network.addEdge(2, 4, 1, 1);
+        network.addEdge(2, 5, 1, 2);
+        network.addEdge(3, 4, 1, 1);
+        network.addEdge(4, 1, 1, 0);
+        network.addEdge(5, 1, 1, 0);
+        assertArrayEquals(new long[] {2, 3}, network.solve(0, 1));
+    }
+
+    // ==================== Allocation ====================
+
+    @Test
+    @DisplayName("Should use capacity the greedy engine leaves idle")
+    void testNoIdleCapacityShortfall() {
+        // Only the second half has time: greedy cannot place the first-half share.
+        // 5 days of two 90-minute blocks hold the 15 hours exactly
+        PlanSpec plan = new PlanSpec("Late capacity");
+        LocalDate start = LocalDate.of(2025, 5, 5);
+        plan.setStartDate(start);
+        plan.setEndDate(start.plusDays(9));
+        for (int i = 5; i < 10; i++) {
+            plan.setAvailability(start.plusDays(i), 4.0);
+        }
+        plan.addCourse(new PlanSpec.CourseSpec("MATH", Priority.HIGH, 9));
+        plan.addCourse(new PlanSpec.CourseSpec("ART", Priority.LOW, 6));
+
+        Schedule greedy = new GreedyFrontLoadStrategy().generate(plan, plan.validate());
+        Schedule flow = createStrategy().generate(plan, plan.validate());
+
+        assertTrue(greedy.getExplanations().stream().anyMatch(e -> e.contains("unscheduled")));
+        assertFalse(flow.getExplanations().stream().anyMatch(e -> e.contains("unscheduled")));
+        assertEquals(15.0, flow.getScore().getTotalScheduledHours(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Should keep blocks before the exam and give high priority the early days")
+    void testExamAndPriority() {
+        PlanSpec plan = makePlan();
+        PlanSpec.CourseSpec chem = plan.getCourse("CHEM");
+        chem.setExamDate(plan.getStartDate().plusDays(4));
+        Schedule schedule = createStrategy().generate(plan, plan.validate());
+
+        for (Schedule.ScheduledBlock block : schedule.getBlocksForCourse("CHEM")) {
+            assertTrue(block.getDate().isBefore(chem.getExamDate()), block.toString());
+            assertEquals(chem.getExamDate(), block.getDeadline());
+        }
+        double high = schedule.getBlocksForCourse("MATH").stream()
+                .mapToLong(b -> b.getDate().toEpochDay()).average().orElse(0);
+        double low = schedule.getBlocksForCourse("PHYS").stream()
+                .mapToLong(b -> b.getDate().toEpochDay()).average().orElse(0);
+        assertTrue(high <= low, "HIGH priority should sit no later than MEDIUM on average");
+    }
+}
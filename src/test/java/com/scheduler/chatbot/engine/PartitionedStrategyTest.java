@@ -0,0 +1,121 @@
+package com.scheduler.chatbot.engine;
+
+import com.scheduler.chatbot.model.PlanSpec;
+import com.scheduler.chatbot.model.Priority;
+import com.scheduler.chatbot.model.Schedule;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Conformance suite plus window and repair checks for the partitioned engine
+ */
+class PartitionedStrategyTest extends SchedulingStrategyConformanceTest {
+
+    @Override
+    protected SchedulingStrategy createStrategy() {
+        // Weekly windows, so the 14-day fixture is cut in two
+        return new PartitionedStrategy(new GreedyFrontLoadStrategy(), Period.ofWeeks(1), ForkJoinPool.commonPool());
+    }
+
+    private Schedule generate(SchedulingStrategy strategy, PlanSpec plan) {
+        PlanSpec.ValidationResult validation = plan.validate();
+        assertTrue(validation.isValid(), () -> "Plan invalid: " + validation.getErrors());
+        return strategy.generate(plan, validation);
+    }
+
+    // ==================== Windows ====================
+
+    @Test
+    @DisplayName("Should share blocks out in proportion to window capacity")
+    void testApportion() {
+        assertArrayEquals(new int[] {3, 0, 7}, PartitionedStrategy.apportion(10, new long[] {3, 0, 7}));
+        assertArrayEquals(new int[] {2, 2, 1}, PartitionedStrategy.apportion(5, new long[] {1, 1, 1}));
+        assertArrayEquals(new int[] {0, 0}, PartitionedStrategy.apportion(4, new long[] {0, 0}));
+    }
+
+    @Test
+    @DisplayName("Should cover a long plan with monthly windows")
+    void testLongHorizon() {
+        PlanSpec plan = new PlanSpec("Year");
+        LocalDate start = LocalDate.of(2031, 1, 6);
+        plan.setStartDate(start);
+        plan.setEndDate(start.plusDays(364));
+        for (int i = 0; i < 365; i++) {
+            if (i % 7 != 6) {
+                plan.setAvailability(start.plusDays(i), i % 2 == 0 ? 6.0 : 3.0);
+            }
+        }
+        for (int i = 0; i < 30; i++) {
+            PlanSpec.CourseSpec course = new PlanSpec.CourseSpec(String.format("C%02d", i),
+                    Priority.values()[i % 3], 30 + i);
+            if (i % 4 == 0) {
+                course.setExamDate(start.plusDays(60 + 10 * i));
+            }
+            plan.addCourse(course);
+        }
+        Schedule schedule = generate(new PartitionedStrategy(), plan);
+
+        assertEquals(12, schedule.getMetadata("windows"));
+        assertTrue(schedule.validate().isValid());
+        for (PlanSpec.CourseSpec course : plan.getCourses()) {
+            List<Schedule.ScheduledBlock> blocks = schedule.getBlocksForCourse(course.getId());
+            double hours = blocks.stream().mapToDouble(Schedule.ScheduledBlock::getDurationHours).sum();
+            assertTrue(hours >= course.getWorkloadHours() - 1e-9, course.getId() + " got " + hours);
+            assertTrue(hours < course.getWorkloadHours() + 1.5, course.getId() + " got " + hours);
+            for (Schedule.ScheduledBlock block : blocks) {
+                assertTrue(course.getExamDate() == null || block.getDate().isBefore(course.getExamDate()));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should give the same schedule on one worker as on many")
+    void testParallelMatchesSequential() {
+        PlanSpec plan = makePlan();
+        Schedule parallel = generate(createStrategy(), plan);
+        Schedule sequential = generate(new PartitionedStrategy(new GreedyFrontLoadStrategy(),
+                Period.ofWeeks(1), new ForkJoinPool(1)), plan);
+        assertEquals(describe(parallel), describe(sequential));
+    }
+
+    // ==================== Repair ====================
+
+    @Test
+    @DisplayName("Should carry blocks a window cannot hold before the exam to another window")
+    void testCarryOver() {
+        // 2 blocks a day; in week two HIGH Y fills days 7-8 first, so X's share lands on
+        // or after its exam (day 9) and moves to free days in week one
+        PlanSpec plan = new PlanSpec("Carry");
+        LocalDate start = LocalDate.of(2031, 3, 3);
+        plan.setStartDate(start);
+        plan.setEndDate(start.plusDays(13));
+        for (int i = 0; i < 14; i++) {
+            plan.setAvailability(start.plusDays(i), 4.0);
+        }
+        PlanSpec.CourseSpec x = new PlanSpec.CourseSpec("X", Priority.MEDIUM, 9);
+        x.setExamDate(start.plusDays(9));
+        plan.addCourse(x);
+        plan.addCourse(new PlanSpec.CourseSpec("Y", Priority.HIGH, 18));
+
+        Schedule schedule = generate(createStrategy(), plan);
+
+        assertTrue((Integer) schedule.getMetadata("carriedOverBlocks") > 0);
+        assertTrue(schedule.getExplanations().stream().anyMatch(e -> e.contains("carried over between windows")));
+        List<Schedule.ScheduledBlock> blocks = schedule.getBlocksForCourse("X");
+        assertEquals(6, blocks.size());
+        for (Schedule.ScheduledBlock block : blocks) {
+            assertTrue(block.getDate().isBefore(x.getExamDate()), block.toString());
+        }
+        assertEquals(12, schedule.getBlocksForCourse("Y").size());
+        assertTrue(schedule.validate().isValid());
+    }
+}
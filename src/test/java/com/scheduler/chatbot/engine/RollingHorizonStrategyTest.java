@@ -0,0 +1,128 @@
+package com.scheduler.chatbot.engine;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.scheduler.chatbot.model.PlanSpec;
+import com.scheduler.chatbot.model.Priority;
+import com.scheduler.chatbot.model.Schedule;
+import com.scheduler.chatbot.model.SlotTemplate;
+
+import java.time.LocalDate;
+import java.time.Period;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Conformance suite plus lazy expansion checks for the rolling-horizon engine
+ */
+class RollingHorizonStrategyTest extends SchedulingStrategyConformanceTest {
+
+    @Override
+    protected SchedulingStrategy createStrategy() {
+        // Weekly windows, all of the 14-day fixture materialized up front
+        return new RollingHorizonStrategy(new GreedyFrontLoadStrategy(), Period.ofWeeks(1), 14);
+    }
+
+    private Schedule generate(RollingHorizonStrategy strategy, PlanSpec plan) {
+        PlanSpec.ValidationResult validation = plan.validate();
+        assertTrue(validation.isValid(), () -> "Plan invalid: " + validation.getErrors());
+        return strategy.generate(plan, validation);
+    }
+
+    /**
+     * Eight weeks with an exam in week three, so budgets and carries span several windows
+     */
+    private PlanSpec makeLongPlan() {
+        PlanSpec plan = new PlanSpec("Semester");
+        LocalDate start = LocalDate.of(2031, 3, 3);
+        plan.setStartDate(start);
+        plan.setEndDate(start.plusDays(55));
+        for (int i = 0; i < 56; i++) {
+            if (i % 7 != 6) {
+                plan.setAvailability(start.plusDays(i), i % 2 == 0 ? 4.0 : 2.0);
+            }
+        }
+        PlanSpec.CourseSpec math = new PlanSpec.CourseSpec("MATH", Priority.HIGH, 30);
+        math.setExamDate(start.plusDays(17));
+        plan.addCourse(math);
+        plan.addCourse(new PlanSpec.CourseSpec("PHYS", Priority.MEDIUM, 40));
+        plan.addCourse(new PlanSpec.CourseSpec("CHEM", Priority.LOW, 25));
+        return plan;
+    }
+
+    // ==================== Lazy expansion ====================
+
+    @Test
+    @DisplayName("Should only create blocks for the eager window")
+    void testOnlyNearWindowMaterialized() {
+        PlanSpec plan = makeLongPlan();
+        Schedule schedule = generate(new RollingHorizonStrategy(new GreedyFrontLoadStrategy(), Period.ofWeeks(1), 7), plan);
+
+        SlotTemplate template = SlotTemplate.of(plan.getRules());
+        assertFalse(schedule.isFullyMaterialized());
+        assertEquals(plan.getStartDate().plusDays(6), schedule.getRollingHorizon().getMaterializedThrough());
+        assertEquals(8, schedule.getRollingHorizon().getWindows().size());
+        assertFalse(schedule.getBlocks().isEmpty());
+        for (Schedule.ScheduledBlock block : schedule.getBlocks()) {
+            assertTrue(block.getDate().isBefore(plan.getStartDate().plusDays(7)), block.toString());
+        }
+        // Nothing is lost: what is not a block yet is still budgeted
+        for (PlanSpec.CourseSpec course : plan.getCourses()) {
+            int blocks = schedule.getBlocksForCourse(course.getId()).size()
+                    + schedule.getRollingHorizon().pendingBlocks(course.getId());
+            assertEquals(template.blocksNeeded(course.getWorkloadHours()), blocks, course.getId());
+        }
+        assertFalse(schedule.getExplanations().stream().anyMatch(e -> e.contains("unscheduled")));
+    }
+
+    @Test
+    @DisplayName("Should expand to the same blocks in steps as all at once")
+    void testStepwiseMatchesEager() {
+        PlanSpec plan = makeLongPlan();
+        RollingHorizonStrategy lazy = new RollingHorizonStrategy(new GreedyFrontLoadStrategy(), Period.ofWeeks(1), 7);
+        Schedule stepwise = generate(lazy, plan);
+        lazy.expand(stepwise, plan, plan.getStartDate().plusDays(20));
+        lazy.expand(stepwise, plan, plan.getStartDate().plusDays(20));
+        lazy.expand(stepwise, plan, plan.getEndDate());
+
+        Schedule once = generate(lazy, plan);
+        lazy.expand(once, plan, plan.getEndDate());
+
+        Schedule eager = generate(new RollingHorizonStrategy(new GreedyFrontLoadStrategy(), Period.ofWeeks(1), 56), plan);
+
+        assertTrue(stepwise.isFullyMaterialized());
+        assertEquals(describe(eager), describe(stepwise));
+        assertEquals(describe(eager), describe(once));
+        assertTrue(stepwise.validate().isValid());
+        for (Schedule.ScheduledBlock block : stepwise.getBlocksForCourse("MATH")) {
+            assertTrue(block.getDate().isBefore(plan.getStartDate().plusDays(17)), block.toString());
+        }
+        for (PlanSpec.CourseSpec course : plan.getCourses()) {
+            double hours = stepwise.getBlocksForCourse(course.getId()).stream()
+                    .mapToDouble(Schedule.ScheduledBlock::getDurationHours).sum();
+            assertTrue(hours >= course.getWorkloadHours() - 1e-9, course.getId() + " got " + hours);
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep budgets through a JSON round trip and expand afterwards")
+    void testBudgetsSurviveSerialization() throws Exception {
+        PlanSpec plan = makeLongPlan();
+        RollingHorizonStrategy lazy = new RollingHorizonStrategy(new GreedyFrontLoadStrategy(), Period.ofWeeks(1), 7);
+        Schedule original = generate(lazy, plan);
+
+        ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        Schedule restored = mapper.readValue(mapper.writeValueAsString(original), Schedule.class);
+        assertNotNull(restored.getRollingHorizon());
+        assertEquals(1, restored.getRollingHorizon().getNextWindow());
+
+        lazy.expand(original, plan, plan.getEndDate());
+        lazy.expand(restored, plan, plan.getEndDate());
+        assertEquals(describe(original), describe(restored));
+    }
+}
@@ -0,0 +1,194 @@
+package com.scheduler.chatbot.engine;
+
+import com.scheduler.chatbot.model.PlanSpec;
+import com.scheduler.chatbot.model.Priority;
+import com.scheduler.chatbot.model.Schedule;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Contract every SchedulingStrategy must satisfy
+ *
+ * Subclass once per engine and return a fresh instance from createStrategy().
+ */
+public abstract class SchedulingStrategyConformanceTest {
+
+    private static final LocalDate START = LocalDate.of(2025, 3, 3);
+
+    protected abstract SchedulingStrategy createStrategy();
+
+    /**
+     * Plan with a gap day, mixed priorities and more capacity than workload
+     */
+    protected PlanSpec makePlan() {
+        PlanSpec plan = new PlanSpec("Conformance");
+        plan.setStartDate(START);
+        plan.setEndDate(START.plusDays(13));
+        for (int i = 0; i < 14; i++) {
+            if (i != 5) {
+                plan.setAvailability(START.plusDays(i), i % 3 == 0 ? 6.0 : 4.0);
+            }
+        }
+        plan.addCourse(new PlanSpec.CourseSpec("MATH", Priority.HIGH, 12));
+        plan.addCourse(new PlanSpec.CourseSpec("PHYS", Priority.MEDIUM, 8));
+        plan.addCourse(new PlanSpec.CourseSpec("CHEM", Priority.LOW, 6));
+        plan.addCourse(new PlanSpec.CourseSpec("BIO", Priority.HIGH, 4));
+        return plan;
+    }
+
+    private Schedule run(PlanSpec plan) {
+        PlanSpec.ValidationResult validation = plan.validate();
+        assertTrue(validation.isValid(), () -> "Fixture invalid: " + validation.getErrors());
+        Schedule schedule = createStrategy().generate(plan, validation);
+        assertNotNull(schedule);
+        return schedule;
+    }
+
+    // ==================== Feasibility ====================
+
+    @Test
+    @DisplayName("Should produce blocks without overlaps")
+    void testNoOverlaps() {
+        Schedule schedule = run(makePlan());
+        assertFalse(schedule.getBlocks().isEmpty());
+        assertTrue(schedule.validate().isValid(), () -> schedule.validate().getErrors().toString());
+    }
+
+    @Test
+    @DisplayName("Should stay inside the date range and on available days")
+    void testWithinRangeAndAvailability() {
+        PlanSpec plan = makePlan();
+        Schedule schedule = run(plan);
+        for (Schedule.ScheduledBlock block : schedule.getBlocks()) {
+            assertFalse(block.getDate().isBefore(plan.getStartDate()), block.toString());
+            assertFalse(block.getDate().isAfter(plan.getEndDate()), block.toString());
+            Double capacity = plan.getAvailability(block.getDate());
+            assertTrue(capacity != null && capacity > 0, "Block on unavailable day " + block.getDate());
+        }
+    }
+
+    @Test
+    @DisplayName("Should not exceed daily capacity")
+    void testDailyCapacity() {
+        PlanSpec plan = makePlan();
+        Map<LocalDate, Double> used = new TreeMap<>();
+        for (Schedule.ScheduledBlock block : run(plan).getBlocks()) {
+            used.merge(block.getDate(), block.getDurationHours(), Double::sum);
+        }
+        for (Map.Entry<LocalDate, Double> day : used.entrySet()) {
+            assertTrue(day.getValue() <= plan.getAvailability(day.getKey()) + 1e-9,
+                    day.getKey() + " uses " + day.getValue() + "h");
+        }
+    }
+
+    @Test
+    @DisplayName("Should only schedule known courses")
+    void testKnownCourses() {
+        PlanSpec plan = makePlan();
+        Set<String> ids = plan.getCourses().stream().map(PlanSpec.CourseSpec::getId).collect(Collectors.toSet());
+        for (Schedule.ScheduledBlock block : run(plan).getBlocks()) {
+            assertTrue(ids.contains(block.getCourseId()), block.getCourseId());
+        }
+    }
+
+    @Test
+    @DisplayName("Should place every hour when capacity is ample")
+    void testCoversWorkload() {
+        PlanSpec plan = makePlan();
+        Map<String, Double> hours = new TreeMap<>();
+        for (Schedule.ScheduledBlock block : run(plan).getBlocks()) {
+            hours.merge(block.getCourseId(), block.getDurationHours(), Double::sum);
+        }
+        for (PlanSpec.CourseSpec course : plan.getCourses()) {
+            assertTrue(hours.getOrDefault(course.getId(), 0.0) >= course.getWorkloadHours() - 1e-9,
+                    course.getId() + " got " + hours.get(course.getId()) + "h");
+        }
+    }
+
+    @Test
+    @DisplayName("Should report hours it could not place when capacity is tight")
+    void testShortfallReported() {
+        PlanSpec plan = makePlan();
+        // Workload equal to total availability: any fragmentation leaves hours unplaced
+        plan.addCourse(new PlanSpec.CourseSpec("HIST", Priority.LOW,
+                plan.getTotalAvailableHours() - plan.getTotalWorkloadHours()));
+        Schedule schedule = run(plan);
+        assertTrue(schedule.validate().isValid());
+        double placed = schedule.getBlocks().stream().mapToDouble(Schedule.ScheduledBlock::getDurationHours).sum();
+        assertTrue(placed <= plan.getTotalAvailableHours() + 1e-9);
+        if (placed < plan.getTotalWorkloadHours() - 0.1) {
+            assertTrue(schedule.getExplanations().stream().anyMatch(e -> e.contains("unscheduled")));
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep blocks clear of busy intervals")
+    void testBusyIntervalsRespected() {
+        PlanSpec plan = makePlan();
+        // Weekday lectures cover the first two positions, the exam the last two on one day
+        plan.addBusyInterval(new PlanSpec.BusyInterval("Lecture", START, START.plusDays(13),
+                EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY), LocalTime.of(9, 0), LocalTime.of(10, 0)));
+        plan.addBusyInterval(new PlanSpec.BusyInterval("Exam", START.plusDays(2),
+                LocalTime.of(12, 0), LocalTime.of(13, 0)));
+        Schedule schedule = run(plan);
+        assertTrue(schedule.validate(plan.getBusyCalendar()).isValid(),
+                () -> schedule.validate(plan.getBusyCalendar()).getErrors().toString());
+        assertTrue(schedule.getBlocksForDate(START.plusDays(2)).isEmpty());
+
+        Map<String, Double> hours = new TreeMap<>();
+        for (Schedule.ScheduledBlock block : schedule.getBlocks()) {
+            hours.merge(block.getCourseId(), block.getDurationHours(), Double::sum);
+        }
+        for (PlanSpec.CourseSpec course : plan.getCourses()) {
+            assertTrue(hours.getOrDefault(course.getId(), 0.0) >= course.getWorkloadHours() - 1e-9,
+                    course.getId() + " got " + hours.get(course.getId()) + "h");
+        }
+    }
+
+    // ==================== Determinism ====================
+
+    @Test
+    @DisplayName("Should give the same schedule for the same plan")
+    void testDeterministic() {
+        assertEquals(describe(run(makePlan())), describe(run(makePlan())));
+    }
+
+    @Test
+    @DisplayName("Should not depend on the order courses were added")
+    void testInsertionOrderIndependent() {
+        PlanSpec plan = makePlan();
+        List<PlanSpec.CourseSpec> shuffled = new ArrayList<>();
+        for (PlanSpec.CourseSpec course : plan.getCourses()) {
+            shuffled.add(course.copy());
+        }
+        Collections.shuffle(shuffled, new Random(7));
+        PlanSpec reordered = makePlan();
+        reordered.setCourses(shuffled);
+        assertEquals(describe(run(plan)), describe(run(reordered)));
+    }
+
+    protected static List<String> describe(Schedule schedule) {
+        return schedule.getBlocks().stream()
+                .map(b -> b.getDate() + " " + b.getStartTime() + "-" + b.getEndTime() + " " + b.getCourseId())
+                .sorted()
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,103 @@
+package com.scheduler.chatbot.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for AvailabilityCalendar (rules + overrides + Fenwick index)
+ */
+class AvailabilityCalendarTest {
+
+    private AvailabilityCalendar calendar;
+
+    @BeforeEach
+    void setUp() {
+        calendar = new AvailabilityCalendar();
+    }
+
+    @Test
+    @DisplayName("Should report empty calendar")
+    void testEmpty() {
+        assertTrue(calendar.isEmpty());
+        assertEquals(0.0, calendar.getTotalHours());
+        assertNull(calendar.getFirstDate());
+        assertTrue(calendar.getAvailableDates().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should combine weekly rules with overrides")
+    void testRulesAndOverrides() {
+        // 2025-01-06 is a Monday; 4 weeks of weekdays at 4h
+        calendar.addRule(new PlanSpec.AvailabilityRule(
+                LocalDate.of(2025, 1, 6), LocalDate.of(2025, 2, 2),
+                EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY), 4.0));
+        calendar.setCapacity(LocalDate.of(2025, 1, 11), 6.0); // Saturday
+        calendar.setCapacity(LocalDate.of(2025, 1, 13), 1.0); // Monday override
+
+        assertEquals(4.0, calendar.capacityOn(LocalDate.of(2025, 1, 6)));
+        assertEquals(6.0, calendar.capacityOn(LocalDate.of(2025, 1, 11)));
+        assertEquals(1.0, calendar.capacityOn(LocalDate.of(2025, 1, 13)));
+        assertEquals(0.0, calendar.capacityOn(LocalDate.of(2025, 1, 12)));
+        assertEquals(20 * 4.0 + 6.0 - 3.0, calendar.getTotalHours());
+        assertEquals(21, calendar.getAvailableDates().size());
+    }
+
+    @Test
+    @DisplayName("Should answer range sums and apply point updates")
+    void testRangeSumAndPointUpdate() {
+        for (int day = 1; day <= 10; day++) {
+            calendar.setCapacity(LocalDate.of(2025, 3, day), day);
+        }
+
+        assertEquals(55.0, calendar.getTotalHours());
+        assertEquals(3.0 + 4.0 + 5.0, calendar.sumBetween(LocalDate.of(2025, 3, 3), LocalDate.of(2025, 3, 5)));
+        assertEquals(55.0, calendar.sumBetween(LocalDate.of(2025, 2, 1), LocalDate.of(2025, 4, 1)));
+
+        // Inside the cached range: O(log n) update
+        calendar.setCapacity(LocalDate.of(2025, 3, 4), 0.0);
+        assertEquals(51.0, calendar.getTotalHours());
+        assertEquals(8.0, calendar.sumBetween(LocalDate.of(2025, 3, 3), LocalDate.of(2025, 3, 5)));
+
+        // Outside the cached range: range grows
+        calendar.setCapacity(LocalDate.of(2025, 3, 20), 2.0);
+        assertEquals(53.0, calendar.getTotalHours());
+        assertEquals(LocalDate.of(2025, 3, 20), calendar.getLastDate());
+    }
+
+    @Test
+    @DisplayName("Should find the date a running total reaches a number of hours")
+    void testDateReaching() {
+        // 2025-03-01..10 hold 1..10 hours, 03-04 is empty
+        for (int day = 1; day <= 10; day++) {
+            calendar.setCapacity(LocalDate.of(2025, 3, day), day == 4 ? 0 : day);
+        }
+
+        assertEquals(LocalDate.of(2025, 3, 1), calendar.dateReaching(LocalDate.of(2025, 3, 1), 1.0));
+        assertEquals(LocalDate.of(2025, 3, 3), calendar.dateReaching(LocalDate.of(2025, 3, 1), 6.0));
+        assertEquals(LocalDate.of(2025, 3, 5), calendar.dateReaching(LocalDate.of(2025, 3, 1), 6.5));
+        assertEquals(LocalDate.of(2025, 3, 5), calendar.dateReaching(LocalDate.of(2025, 3, 4), 5.0));
+        assertEquals(LocalDate.of(2025, 3, 1), calendar.dateReaching(LocalDate.of(2025, 2, 1), 0.5));
+        assertEquals(LocalDate.of(2025, 3, 7), calendar.dateReaching(LocalDate.of(2025, 3, 7), 0.0));
+        assertNull(calendar.dateReaching(LocalDate.of(2025, 3, 9), 20.0));
+        assertNull(calendar.dateReaching(LocalDate.of(2025, 4, 1), 1.0));
+
+        // Matches a linear scan for every start and target
+        for (int from = 1; from <= 10; from++) {
+            double running = 0;
+            for (int day = from; day <= 10; day++) {
+                running += calendar.capacityOn(LocalDate.of(2025, 3, day));
+                if (calendar.capacityOn(LocalDate.of(2025, 3, day)) > 0) {
+                    assertEquals(LocalDate.of(2025, 3, day), calendar.dateReaching(LocalDate.of(2025, 3, from), running));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.scheduler.chatbot.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for BusyCalendar (busy intervals + per-day sorted index)
+ */
+class BusyCalendarTest {
+
+    // 2025-01-06 is a Monday
+    private static final LocalDate MONDAY = LocalDate.of(2025, 1, 6);
+
+    private BusyCalendar calendar;
+
+    @BeforeEach
+    void setUp() {
+        calendar = new BusyCalendar();
+    }
+
+    private static int minute(int hour, int minute) {
+        return hour * 60 + minute;
+    }
+
+    @Test
+    @DisplayName("Should merge overlapping and touching intervals of a day")
+    void testMerge() {
+        calendar.add(new PlanSpec.BusyInterval("Lab", MONDAY, LocalTime.of(13, 0), LocalTime.of(15, 0)));
+        calendar.add(new PlanSpec.BusyInterval("Lecture", MONDAY, LocalTime.of(9, 0), LocalTime.of(11, 0)));
+        calendar.add(new PlanSpec.BusyInterval("Seminar", MONDAY, LocalTime.of(10, 0), LocalTime.of(12, 0)));
+        calendar.add(new PlanSpec.BusyInterval("Lunch", MONDAY, LocalTime.of(12, 0), LocalTime.of(12, 30)));
+
+        assertArrayEquals(new int[] {minute(9, 0), minute(12, 30), minute(13, 0), minute(15, 0)},
+                calendar.busyMinutes(MONDAY));
+        assertFalse(calendar.hasBusy(MONDAY.plusDays(1)));
+    }
+
+    @Test
+    @DisplayName("Should answer free checks and free windows")
+    void testQueries() {
+        calendar.add(new PlanSpec.BusyInterval("Lecture", MONDAY, LocalTime.of(9, 0), LocalTime.of(11, 0)));
+        calendar.add(new PlanSpec.BusyInterval("Lab", MONDAY, LocalTime.of(13, 0), LocalTime.of(15, 0)));
+
+        assertTrue(calendar.isFree(MONDAY, minute(8, 0), minute(9, 0)));
+        assertFalse(calendar.isFree(MONDAY, minute(8, 0), minute(9, 1)));
+        assertTrue(calendar.isFree(MONDAY, minute(11, 0), minute(13, 0)));
+        assertFalse(calendar.isFree(MONDAY, minute(14, 59), minute(16, 0)));
+        assertTrue(calendar.isFree(MONDAY.plusDays(1), minute(9, 0), minute(11, 0)));
+
+        List<String> windows = calendar.freeWindows(MONDAY, minute(8, 0), minute(18, 0)).stream()
+                .map(w -> w[0] + "-" + w[1])
+                .collect(Collectors.toList());
+        assertEquals(List.of(minute(8, 0) + "-" + minute(9, 0), minute(11, 0) + "-" + minute(13, 0),
+                minute(15, 0) + "-" + minute(18, 0)), windows);
+        assertEquals(1, calendar.freeWindows(MONDAY, minute(10, 0), minute(14, 0)).size());
+        assertEquals("Lab", calendar.conflicts(MONDAY, minute(14, 0), minute(16, 0)).get(0).getLabel());
+    }
+
+    @Test
+    @DisplayName("Should expand recurring intervals and rebuild after removal")
+    void testRecurringAndRemove() {
+        calendar.add(new PlanSpec.BusyInterval("Job", MONDAY, MONDAY.plusDays(27),
+                EnumSet.of(DayOfWeek.TUESDAY, DayOfWeek.THURSDAY), LocalTime.of(17, 0), LocalTime.of(21, 0)));
+        calendar.add(new PlanSpec.BusyInterval("Exam", MONDAY.plusDays(1), LocalTime.of(9, 0), LocalTime.of(11, 0)));
+
+        assertFalse(calendar.hasBusy(MONDAY));
+        assertEquals(4, calendar.busyMinutes(MONDAY.plusDays(1)).length);
+        assertFalse(calendar.isFree(MONDAY.plusDays(24), minute(18, 0), minute(19, 0)));
+        assertFalse(calendar.hasBusy(MONDAY.plusDays(29)));
+
+        assertEquals(1, calendar.removeLabel("job"));
+        assertArrayEquals(new int[] {minute(9, 0), minute(11, 0)}, calendar.busyMinutes(MONDAY.plusDays(1)));
+        assertTrue(calendar.isFree(MONDAY.plusDays(24), minute(18, 0), minute(19, 0)));
+    }
+}
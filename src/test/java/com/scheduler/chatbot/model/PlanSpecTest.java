@@ -1,11 +1,17 @@
 package com.scheduler.chatbot.model;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.util.EnumSet;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -90,6 +96,42 @@ class PlanSpecTest {
         assertNull(notFound);
     }
 
+    @Test
+    @DisplayName("Should keep course index in sync with removals and renames")
+    void testCourseIndex() {
+        PlanSpec.CourseSpec math = new PlanSpec.CourseSpec("MATH101", Priority.HIGH, 20.0);
+        planSpec.addCourse(math);
+        planSpec.addCourse(new PlanSpec.CourseSpec("MATH101", Priority.LOW, 5.0));
+        planSpec.addCourse(new PlanSpec.CourseSpec("PHYS101", Priority.MEDIUM, 15.0));
+
+        assertTrue(planSpec.hasDuplicateCourseIds());
+        assertSame(math, planSpec.getCourse("MATH101"));
+
+        math.setId("MATH201");
+        assertFalse(planSpec.hasDuplicateCourseIds());
+        assertSame(math, planSpec.getCourse("MATH201"));
+        assertEquals(Priority.LOW, planSpec.getCourse("MATH101").getPriority());
+
+        planSpec.removeCourse("MATH101");
+        assertEquals(2, planSpec.getCourses().size());
+        assertFalse(planSpec.containsCourse("MATH101"));
+        assertTrue(planSpec.containsCourse("PHYS101"));
+    }
+
+    @Test
+    @DisplayName("Should expose courses as a stable read-only snapshot")
+    void testCourseSnapshot() {
+        planSpec.addCourse(new PlanSpec.CourseSpec("MATH101", Priority.HIGH, 20.0));
+        var iterator = planSpec.getCourses().iterator();
+
+        planSpec.addCourse(new PlanSpec.CourseSpec("PHYS101", Priority.MEDIUM, 15.0));
+
+        assertEquals("MATH101", iterator.next().getId());
+        assertFalse(iterator.hasNext());
+        assertThrows(UnsupportedOperationException.class,
+                () -> planSpec.getCourses().add(new PlanSpec.CourseSpec("ART101", Priority.LOW, 5.0)));
+    }
+
     // ==================== Availability Tests ====================
 
     @Test
@@ -108,6 +150,37 @@ class PlanSpecTest {
         assertEquals(0.0, planSpec.getAvailability(date));
     }
 
+    @Test
+    @DisplayName("Should expand recurring availability rules lazily")
+    void testAvailabilityRule() {
+        // 2024-12-02 is a Monday; two full weeks of weekdays
+        planSpec.addAvailabilityRule(new PlanSpec.AvailabilityRule(
+                LocalDate.of(2024, 12, 2), LocalDate.of(2024, 12, 15),
+                EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY), 4.0));
+
+        assertTrue(planSpec.getAvailability().isEmpty());
+        assertEquals(4.0, planSpec.getAvailability(LocalDate.of(2024, 12, 2)));
+        assertEquals(0.0, planSpec.getAvailability(LocalDate.of(2024, 12, 7)));
+        assertEquals(10, planSpec.getAvailabilityRules().get(0).countMatchingDays());
+        assertEquals(10, planSpec.getAvailableDates().size());
+        assertEquals(40.0, planSpec.getTotalAvailableHours());
+    }
+
+    @Test
+    @DisplayName("Should let per-date availability override recurring rules")
+    void testAvailabilityOverride() {
+        planSpec.addAvailabilityRule(new PlanSpec.AvailabilityRule(
+                LocalDate.of(2024, 12, 2), LocalDate.of(2024, 12, 8),
+                EnumSet.allOf(DayOfWeek.class), 3.0));
+        planSpec.setAvailability(LocalDate.of(2024, 12, 4), 6.0);
+        planSpec.setAvailability(LocalDate.of(2024, 12, 20), 2.0);
+
+        assertEquals(6.0, planSpec.getAvailability(LocalDate.of(2024, 12, 4)));
+        assertEquals(3.0 * 6 + 6.0 + 2.0, planSpec.getTotalAvailableHours());
+        assertEquals(LocalDate.of(2024, 12, 2), planSpec.getFirstAvailabilityDate());
+        assertEquals(LocalDate.of(2024, 12, 20), planSpec.getLastAvailabilityDate());
+    }
+
     // ==================== Validation Tests - Success Cases ====================
 
     @Test
@@ -586,4 +659,138 @@ class PlanSpecTest {
         assertEquals(45.0, planSpec.getTotalWorkloadHours());
         assertEquals(60.0, planSpec.getTotalAvailableHours());
     }
+
+    // ==================== Validation Caching Tests ====================
+
+    @Test
+    @DisplayName("Should not modify the plan when deriving the date range")
+    void testValidateIsSideEffectFree() {
+        planSpec.setPlanName("Pure");
+        planSpec.setStartDate(null);
+        planSpec.addCourse(new PlanSpec.CourseSpec("MATH101", Priority.HIGH, 4.0));
+        planSpec.setAvailability(LocalDate.of(2024, 12, 1), 3.0);
+        planSpec.setAvailability(LocalDate.of(2024, 12, 5), 3.0);
+
+        PlanSpec.ValidationResult result = planSpec.validate();
+
+        assertTrue(result.isValid());
+        assertNull(planSpec.getStartDate());
+        assertNull(planSpec.getEndDate());
+        assertEquals(LocalDate.of(2024, 12, 1), result.getStartDate());
+        assertEquals(LocalDate.of(2024, 12, 5), result.getEndDate());
+    }
+
+    @Test
+    @DisplayName("Should reuse the cached result until the plan changes")
+    void testValidationCached() {
+        planSpec.setPlanName("Cached");
+        planSpec.setStartDate(LocalDate.of(2024, 12, 1));
+        PlanSpec.CourseSpec course = new PlanSpec.CourseSpec("MATH101", Priority.HIGH, 4.0);
+        planSpec.addCourse(course);
+        planSpec.setAvailability(LocalDate.of(2024, 12, 1), 5.0);
+
+        PlanSpec.ValidationResult first = planSpec.validate();
+        assertSame(first, planSpec.validate());
+
+        course.setWorkloadHours(10.0);
+        PlanSpec.ValidationResult second = planSpec.validate();
+        assertNotSame(first, second);
+        assertFalse(second.isValid());
+        assertEquals(10.0, planSpec.getTotalWorkloadHours());
+    }
+
+    @Test
+    @DisplayName("Should re-check only touched courses, dates and range-dependent courses")
+    void testIncrementalValidation() {
+        planSpec.setPlanName("Incremental");
+        planSpec.setStartDate(LocalDate.of(2024, 12, 1));
+        planSpec.setEndDate(LocalDate.of(2024, 12, 20));
+        PlanSpec.CourseSpec math = new PlanSpec.CourseSpec("MATH101", Priority.HIGH, 4.0);
+        math.setExamDate(LocalDate.of(2024, 12, 18));
+        planSpec.addCourse(math);
+        planSpec.setAvailability(LocalDate.of(2024, 12, 1), 5.0);
+        assertTrue(planSpec.validate().isValid());
+
+        // Moving the range re-checks the exam date
+        planSpec.setEndDate(LocalDate.of(2024, 12, 10));
+        assertTrue(planSpec.validate().getErrors().stream()
+                .anyMatch(e -> e.contains("Exam date is after plan end date")));
+        planSpec.setEndDate(LocalDate.of(2024, 12, 20));
+        assertTrue(planSpec.validate().isValid());
+
+        // Editing a single availability entry
+        planSpec.setAvailability(LocalDate.of(2024, 12, 2), -1.0);
+        assertTrue(planSpec.validate().getErrors().stream()
+                .anyMatch(e -> e.contains("Negative availability hours on 2024-12-02")));
+        planSpec.setAvailability(LocalDate.of(2024, 12, 2), 2.0);
+        assertTrue(planSpec.validate().isValid());
+
+        // Tightening the rules re-checks every date
+        planSpec.getRules().setMaxHoursPerDay(4.0);
+        assertFalse(planSpec.validate().isValid());
+
+        // Removing an invalid course clears its errors
+        planSpec.getRules().setMaxHoursPerDay(8.0);
+        planSpec.addCourse(new PlanSpec.CourseSpec("BAD", Priority.LOW, -1.0));
+        assertFalse(planSpec.validate().isValid());
+        planSpec.removeCourse("BAD");
+        assertTrue(planSpec.validate().isValid());
+    }
+
+    // ==================== Fingerprint Tests ====================
+
+    @Test
+    @DisplayName("Should fingerprint content, not insertion order or availability form")
+    void testFingerprintCanonical() {
+        PlanSpec a = new PlanSpec("Fingerprint");
+        PlanSpec b = new PlanSpec("Fingerprint");
+        a.setStartDate(LocalDate.of(2025, 1, 6));
+        b.setStartDate(LocalDate.of(2025, 1, 6));
+
+        a.addCourse(new PlanSpec.CourseSpec("MATH", Priority.HIGH, 10.0));
+        a.addCourse(new PlanSpec.CourseSpec("PHYS", Priority.LOW, 5.0));
+        b.addCourse(new PlanSpec.CourseSpec("PHYS", Priority.LOW, 5.0));
+        b.addCourse(new PlanSpec.CourseSpec("MATH", Priority.HIGH, 10.0));
+
+        // Mon-Wed as a rule vs. three per-date entries
+        a.addAvailabilityRule(new PlanSpec.AvailabilityRule(LocalDate.of(2025, 1, 6), LocalDate.of(2025, 1, 8),
+                EnumSet.allOf(DayOfWeek.class), 4.0));
+        b.setAvailability(LocalDate.of(2025, 1, 8), 4.0);
+        b.setAvailability(LocalDate.of(2025, 1, 6), 4.0);
+        b.setAvailability(LocalDate.of(2025, 1, 7), 4.0);
+
+        assertEquals(a.getFingerprint(), b.getFingerprint());
+        assertEquals(64, a.getFingerprint().length());
+    }
+
+    @Test
+    @DisplayName("Should change fingerprint when any scheduling input changes")
+    void testFingerprintSensitivity() {
+        planSpec.addCourse(new PlanSpec.CourseSpec("MATH", Priority.HIGH, 10.0));
+        planSpec.setAvailability(LocalDate.of(2025, 1, 6), 4.0);
+        String original = planSpec.getFingerprint();
+        assertSame(original, planSpec.getFingerprint());
+
+        planSpec.getCourse("MATH").setPriority(Priority.LOW);
+        String priorityChanged = planSpec.getFingerprint();
+        assertNotEquals(original, priorityChanged);
+
+        planSpec.getRules().setBlockDurationMinutes(60);
+        String rulesChanged = planSpec.getFingerprint();
+        assertNotEquals(priorityChanged, rulesChanged);
+
+        planSpec.getRules().setSplitStrategy(SplitStrategy.CALENDAR_MIDPOINT);
+        String splitChanged = planSpec.getFingerprint();
+        assertNotEquals(rulesChanged, splitChanged);
+
+        planSpec.getSoftPrefs().setBufferWeight(2.0);
+        assertNotEquals(splitChanged, planSpec.getFingerprint());
+
+        // Reverting restores the original fingerprint
+        planSpec.getCourse("MATH").setPriority(Priority.HIGH);
+        planSpec.getRules().setBlockDurationMinutes(90);
+        planSpec.getRules().setSplitStrategy(SplitStrategy.CAPACITY_WEIGHTED);
+        planSpec.getSoftPrefs().setBufferWeight(1.0);
+        assertEquals(original, planSpec.getFingerprint());
+    }
 }
@@ -0,0 +1,152 @@
+package com.scheduler.chatbot.model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for PersistentSortedMap, PlanVersion and PlanHistory
+ */
+class PlanVersionTest {
+
+    private PlanSpec plan;
+
+    @BeforeEach
+    void setUp() {
+        plan = new PlanSpec("Versioned");
+        plan.setStartDate(LocalDate.of(2025, 1, 1));
+        plan.addCourse(new PlanSpec.CourseSpec("MATH", Priority.HIGH, 10.0));
+        plan.addCourse(new PlanSpec.CourseSpec("PHYS", Priority.MEDIUM, 8.0));
+        plan.setAvailability(LocalDate.of(2025, 1, 1), 4.0);
+    }
+
+    // ==================== PersistentSortedMap Tests ====================
+
+    @Test
+    @DisplayName("Should leave earlier maps untouched and match a TreeMap")
+    void testPersistentMap() {
+        Random random = new Random(42);
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        PersistentSortedMap<Integer, Integer> map = PersistentSortedMap.empty();
+        List<PersistentSortedMap<Integer, Integer>> snapshots = new ArrayList<>();
+        List<Map<Integer, Integer>> expectedSnapshots = new ArrayList<>();
+
+        for (int i = 0; i < 2000; i++) {
+            int key = random.nextInt(300);
+            if (random.nextInt(3) == 0) {
+                map = map.remove(key);
+                expected.remove(key);
+            } else {
+                map = map.put(key, i);
+                expected.put(key, i);
+            }
+            if (i % 200 == 0) {
+                snapshots.add(map);
+                expectedSnapshots.add(new TreeMap<>(expected));
+            }
+        }
+
+        assertEquals(expected, map.toMap());
+        assertEquals(expected.size(), map.size());
+        assertEquals(expected.firstKey(), map.firstKey());
+        assertEquals(expected.lastKey(), map.lastKey());
+        for (int i = 0; i < snapshots.size(); i++) {
+            assertEquals(expectedSnapshots.get(i), snapshots.get(i).toMap());
+        }
+    }
+
+    @Test
+    @DisplayName("Should return the same map for no-op updates")
+    void testPersistentMapNoOp() {
+        PersistentSortedMap<String, Integer> map = PersistentSortedMap.<String, Integer>empty().put("a", 1);
+
+        assertSame(map, map.put("a", 1));
+        assertSame(map, map.remove("b"));
+        assertNull(map.get("b"));
+    }
+
+    // ==================== PlanVersion Tests ====================
+
+    @Test
+    @DisplayName("Should derive versions without changing the original")
+    void testWithersAreNonDestructive() {
+        PlanVersion base = PlanVersion.of(plan);
+
+        PlanSpec.CourseSpec bumped = base.getCourse("PHYS");
+        bumped.setPriority(Priority.HIGH);
+        PlanVersion whatIf = base.withCourse(bumped).withAvailability(LocalDate.of(2025, 1, 2), 3.0);
+
+        assertEquals(Priority.MEDIUM, base.getCourse("PHYS").getPriority());
+        assertEquals(Priority.HIGH, whatIf.getCourse("PHYS").getPriority());
+        assertNull(base.getAvailability(LocalDate.of(2025, 1, 2)));
+        assertEquals(3.0, whatIf.getAvailability(LocalDate.of(2025, 1, 2)));
+
+        PlanVersion removed = whatIf.withoutCourse("MATH");
+        assertFalse(removed.containsCourse("MATH"));
+        assertTrue(whatIf.containsCourse("MATH"));
+    }
+
+    @Test
+    @DisplayName("Should materialize a plan with the original course order")
+    void testToPlanSpec() {
+        PlanVersion version = PlanVersion.of(plan)
+                .withCourse(new PlanSpec.CourseSpec("MATH", Priority.LOW, 12.0))
+                .withCourse(new PlanSpec.CourseSpec("CHEM", Priority.LOW, 5.0));
+
+        PlanSpec restored = version.toPlanSpec();
+
+        assertEquals(List.of("MATH", "PHYS", "CHEM"), version.getCourseIds());
+        assertEquals("MATH", restored.getCourses().get(0).getId());
+        assertEquals(12.0, restored.getCourse("MATH").getWorkloadHours());
+        assertEquals(25.0, restored.getTotalWorkloadHours());
+        assertEquals(4.0, restored.getAvailability(LocalDate.of(2025, 1, 1)));
+        assertEquals(plan.getStartDate(), restored.getStartDate());
+
+        // Editing the materialized plan does not leak into the version
+        restored.getCourse("PHYS").setWorkloadHours(1.0);
+        assertEquals(8.0, version.getCourse("PHYS").getWorkloadHours());
+    }
+
+    // ==================== PlanHistory Tests ====================
+
+    @Test
+    @DisplayName("Should undo, fork and check out versions")
+    void testHistory() {
+        PlanHistory history = new PlanHistory(PlanVersion.of(plan));
+        PlanVersion v0 = history.getHead();
+
+        PlanVersion v1 = history.commit(v0.withoutCourse("PHYS"), "delete subject \"PHYS\"");
+        assertEquals(1, v1.getId());
+        assertSame(v0, v1.getParent());
+
+        assertSame(v0, history.undo());
+        assertNull(history.undo());
+
+        history.fork("what-if");
+        PlanSpec.CourseSpec bumped = history.getHead().getCourse("PHYS");
+        bumped.setPriority(Priority.HIGH);
+        PlanVersion v2 = history.commit(history.getHead().withCourse(bumped), "update subject \"PHYS\" priority HIGH");
+
+        assertEquals(Priority.HIGH, history.getHead().getCourse("PHYS").getPriority());
+        assertEquals(Priority.MEDIUM, history.checkoutBranch(PlanHistory.MAIN_BRANCH).getCourse("PHYS").getPriority());
+        assertEquals(Map.of("main", 0L, "what-if", v2.getId()), history.getBranches());
+
+        assertSame(v1, history.checkoutVersion(1));
+        assertEquals(2, history.log().size());
+        assertNull(history.checkoutBranch("missing"));
+        assertThrows(IllegalArgumentException.class, () -> history.fork("what-if"));
+    }
+}
@@ -439,6 +439,19 @@ class ScheduleTest {
         assertTrue(result.getErrors().get(0).contains("Overlapping blocks"));
     }
 
+    @Test
+    @DisplayName("Should detect a block overlapping a non-adjacent earlier block")
+    void testValidateNestedOverlap() {
+        schedule.addBlock(createBlock("MATH101", LocalDate.of(2024, 12, 1), "09:00", "13:00", 240));
+        schedule.addBlock(createBlock("PHYS101", LocalDate.of(2024, 12, 1), "09:30", "10:00", 30));
+        schedule.addBlock(createBlock("CHEM101", LocalDate.of(2024, 12, 1), "11:00", "12:00", 60));
+        
+        Schedule.ValidationResult result = schedule.validate();
+        
+        assertEquals(2, result.getErrors().size());
+        assertTrue(result.getErrors().get(1).contains("MATH101 (09:00-13:00) and CHEM101"));
+    }
+
     @Test
     @DisplayName("Should detect blocks before start date")
     void testValidateBlockBeforeStart() {
@@ -515,6 +528,44 @@ class ScheduleTest {
         assertTrue(str.contains("10:30"));
     }
 
+    // ==================== Progress Tests ====================
+
+    @Test
+    @DisplayName("Should mark the blocks of a date and log each change")
+    void testMarkBlocks() {
+        LocalDate day = LocalDate.of(2024, 12, 2);
+        schedule.addBlock(createBlock("Math", day, "08:00", "10:00", 120));
+        schedule.addBlock(createBlock("Physics", day, "10:15", "12:15", 120));
+        schedule.addBlock(createBlock("Math", day.plusDays(1), "08:00", "10:00", 120));
+
+        assertEquals(1, schedule.markBlocks("math", day, BlockStatus.DONE));
+        assertEquals(1, schedule.markBlocks("Physics", day, BlockStatus.MISSED));
+        assertEquals(0, schedule.markBlocks("Physics", day, BlockStatus.MISSED));
+
+        assertEquals(BlockStatus.DONE, schedule.getBlocksForDate(day).get(0).getStatus());
+        assertEquals(BlockStatus.MISSED, schedule.getBlocksForDate(day).get(1).getStatus());
+        assertEquals(BlockStatus.PLANNED, schedule.getBlocksForDate(day.plusDays(1)).get(0).getStatus());
+        assertEquals(2.0, schedule.getHoursByStatus(BlockStatus.DONE).get("Math"), 0.01);
+        assertEquals(2.0, schedule.getHoursByStatus(BlockStatus.MISSED).get("Physics"), 0.01);
+
+        assertEquals(2, schedule.getProgressLog().size());
+        Schedule.ProgressEntry entry = schedule.getProgressLog().get(1);
+        assertEquals("Physics", entry.getCourseId());
+        assertEquals("10:15", entry.getStartTime());
+        assertEquals(BlockStatus.MISSED, entry.getStatus());
+        assertNotNull(entry.getReportedAt());
+    }
+
+    @Test
+    @DisplayName("Should copy block status")
+    void testBlockStatusCopy() {
+        Schedule.ScheduledBlock block = createBlock("Math", startDate, "08:00", "10:00", 120);
+        block.setStatus(BlockStatus.DONE);
+        assertEquals(BlockStatus.DONE, block.copy().getStatus());
+        block.setStatus(null);
+        assertEquals(BlockStatus.PLANNED, block.getStatus());
+    }
+
     // ==================== ScheduleScore Tests ====================
 
     @Test
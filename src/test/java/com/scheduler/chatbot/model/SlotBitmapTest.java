@@ -0,0 +1,131 @@
+package com.scheduler.chatbot.model;
+
+import java.time.LocalTime;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for SlotBitmap (per-day occupancy and first-fit search)
+ */
+class SlotBitmapTest {
+
+    private SlotBitmap day;
+
+    @BeforeEach
+    void setUp() {
+        day = new SlotBitmap(5);
+    }
+
+    @Test
+    @DisplayName("Should map times to 5-minute slots")
+    void testSlots() {
+        assertEquals(288, day.size());
+        assertEquals(96, day.slotOf(LocalTime.of(8, 0)));
+        assertEquals(24, day.slotsFor(120));
+        assertEquals(3, day.slotsFor(15));
+        assertEquals(LocalTime.of(10, 15), day.timeOf(123));
+        assertThrows(IllegalArgumentException.class, () -> new SlotBitmap(7));
+    }
+
+    @Test
+    @DisplayName("Should occupy ranges across word boundaries")
+    void testOccupy() {
+        day.occupy(60, 10);
+        assertEquals(10, day.occupiedSlots());
+        assertFalse(day.isFree(55, 6));
+        assertTrue(day.isFree(50, 10));
+        assertTrue(day.isFree(70, 100));
+        day.occupy(LocalTime.of(23, 0), LocalTime.MIDNIGHT);
+        assertFalse(day.isFree(287, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> day.occupy(280, 10));
+    }
+
+    @Test
+    @DisplayName("Should place blocks back to back with a break")
+    void testFirstFitSequence() {
+        int block = day.slotsFor(120);
+        int start = day.slotOf(LocalTime.of(8, 0));
+        String[] expected = {"08:00", "10:15", "12:30", "14:45"};
+        for (String time : expected) {
+            int slot = day.firstFit(block, start, 3, 48);
+            assertEquals(LocalTime.parse(time), day.timeOf(slot));
+            day.occupy(slot, block);
+        }
+    }
+
+    @Test
+    @DisplayName("Should reuse gaps and skip blocked-out periods")
+    void testFirstFitGaps() {
+        int block = day.slotsFor(60);
+        day.occupy(LocalTime.of(9, 0), LocalTime.of(12, 0));  // class
+        day.occupy(LocalTime.of(13, 30), LocalTime.of(14, 0)); // lunch meeting
+
+        // 07:45-08:45 leaves exactly the 15-minute break before 09:00, 07:50-08:50 does not
+        assertEquals(LocalTime.of(7, 45), day.timeOf(day.firstFit(block, day.slotOf(LocalTime.of(7, 45)), 3, 48)));
+        assertEquals(LocalTime.of(12, 15), day.timeOf(day.firstFit(block, day.slotOf(LocalTime.of(7, 50)), 3, 48)));
+        assertEquals(LocalTime.of(12, 15), day.timeOf(day.firstFit(block, day.slotOf(LocalTime.of(8, 0)), 3, 48)));
+        // 1.5 hours do not fit in the 12:00-13:30 gap
+        assertEquals(LocalTime.of(14, 15), day.timeOf(day.firstFit(18, day.slotOf(LocalTime.of(8, 0)), 3, 48)));
+        // Nothing fits once the day is full
+        day.occupy(0, day.size());
+        assertEquals(-1, day.firstFit(1, 0, 0, 48));
+    }
+
+    @Test
+    @DisplayName("Should not create runs longer than the continuous limit")
+    void testFirstFitMaxRun() {
+        day.occupy(96, 24); // 08:00-10:00
+        // No break: a 2h block right after would make a 4h run; limit 3h forces a gap
+        int slot = day.firstFit(24, 96, 0, 36);
+        assertEquals(LocalTime.of(10, 5), day.timeOf(slot));
+        assertEquals(120, day.firstFit(24, 96, 0, 48));
+        assertEquals(-1, day.firstFit(60, 0, 0, 48));
+    }
+
+    @Test
+    @DisplayName("Should match a slot-by-slot search")
+    void testFirstFitMatchesNaive() {
+        Random random = new Random(11);
+        for (int trial = 0; trial < 500; trial++) {
+            SlotBitmap bitmap = new SlotBitmap(5);
+            for (int k = random.nextInt(8); k > 0; k--) {
+                int from = random.nextInt(280);
+                bitmap.occupy(from, 1 + random.nextInt(Math.min(40, 288 - from)));
+            }
+            int length = 1 + random.nextInt(40);
+            int earliest = random.nextInt(200);
+            int gap = random.nextInt(10);
+            int maxRun = length + random.nextInt(30);
+            assertEquals(naiveFirstFit(bitmap, length, earliest, gap, maxRun),
+                    bitmap.firstFit(length, earliest, gap, maxRun), "trial " + trial);
+        }
+    }
+
+    private static int naiveFirstFit(SlotBitmap bitmap, int length, int earliest, int gap, int maxRun) {
+        for (int s = earliest; s + length <= bitmap.size(); s++) {
+            int from = Math.max(0, s - gap);
+            int to = Math.min(bitmap.size(), s + length + gap);
+            if (!bitmap.isFree(from, to - from)) {
+                continue;
+            }
+            int run = length;
+            for (int i = s - 1; i >= 0 && !bitmap.isFree(i, 1); i--) {
+                run++;
+            }
+            for (int i = s + length; i < bitmap.size() && !bitmap.isFree(i, 1); i++) {
+                run++;
+            }
+            if (run <= maxRun) {
+                return s;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,114 @@
+package com.scheduler.chatbot.model;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for SlotTemplate (day layout derived from SchedulingRules)
+ */
+class SlotTemplateTest {
+
+    @Test
+    @DisplayName("Should lay out runs of back-to-back blocks separated by breaks")
+    void testDefaultLayout() {
+        // 90-minute blocks, 3-hour runs, 15-minute breaks, at most 480 / 105 = 4 blocks
+        SlotTemplate template = SlotTemplate.of(new PlanSpec.SchedulingRules());
+
+        assertEquals(4, template.size());
+        assertEquals(2, template.getRunBlocks());
+        assertEquals("08:00", template.startTime(0));
+        assertEquals("09:30", template.endTime(0));
+        assertEquals("09:30", template.startTime(1));
+        assertEquals("11:15", template.startTime(2));
+        assertEquals("14:15", template.endTime(3));
+        assertFalse(template.endsRun(0));
+        assertTrue(template.endsRun(1));
+    }
+
+    @Test
+    @DisplayName("Should give a day as many positions as its capacity and the daily cap allow")
+    void testBlocksFor() {
+        SlotTemplate template = SlotTemplate.of(new PlanSpec.SchedulingRules());
+
+        assertEquals(0, template.blocksFor(0.0));
+        assertEquals(0, template.blocksFor(1.0));
+        assertEquals(2, template.blocksFor(4.0));
+        assertEquals(4, template.blocksFor(6.0));
+        assertEquals(4, template.blocksFor(12.0));
+        assertEquals(8, template.blocksNeeded(12.0));
+        assertEquals(3, template.blocksNeeded(4.0));
+    }
+
+    @Test
+    @DisplayName("Should follow custom rules and a custom day start")
+    void testCustomRules() {
+        // 2-hour blocks one at a time, 10 hours a day: 600 / 135 = 4 blocks
+        PlanSpec.SchedulingRules rules = new PlanSpec.SchedulingRules(10.0, 120, 120, 15);
+        SlotTemplate template = new SlotTemplate(rules, LocalTime.of(9, 0));
+
+        assertEquals(4, template.size());
+        assertEquals(1, template.getRunBlocks());
+        assertEquals("11:15", template.startTime(1));
+        assertEquals("15:30", template.endTime(2));
+        assertNotEquals(SlotTemplate.of(rules), template);
+        assertEquals(new SlotTemplate(rules.copy(), LocalTime.of(9, 0)), template);
+    }
+
+    @Test
+    @DisplayName("Should stop at midnight")
+    void testEndOfDay() {
+        PlanSpec.SchedulingRules rules = new PlanSpec.SchedulingRules(24.0, 240, 240, 0);
+        SlotTemplate template = new SlotTemplate(rules, LocalTime.of(20, 0));
+
+        assertEquals(1, template.size());
+        assertEquals("00:00", template.endTime(0));
+    }
+
+    @Test
+    @DisplayName("Should drop the positions busy intervals overlap and number the rest")
+    void testBusyPositions() {
+        LocalDate day = LocalDate.of(2025, 1, 6);
+        // Positions 08:00, 09:30, 11:15, 12:45; a lecture from 09:00 to 10:00 takes the first two
+        SlotTemplate template = new SlotTemplate(new PlanSpec.SchedulingRules(), SlotTemplate.DEFAULT_DAY_START,
+                List.of(new PlanSpec.BusyInterval("Lecture", day, LocalTime.of(9, 0), LocalTime.of(10, 0))));
+
+        assertArrayEquals(new int[] {2, 3}, template.positions(day));
+        assertEquals(2, template.blocksFor(day, 6.0));
+        assertEquals(1, template.blocksFor(day, 1.5));
+        assertEquals("11:15", template.startTime(day, 0));
+        assertEquals("14:15", template.endTime(day, 1));
+        assertEquals(4, template.blocksFor(day.plusDays(1), 6.0));
+        assertEquals("08:00", template.startTime(day.plusDays(1), 0));
+        assertNotEquals(SlotTemplate.of(new PlanSpec.SchedulingRules()), template);
+    }
+
+    @Test
+    @DisplayName("Should put positions and busy time on one slot grid")
+    void testOccupancyGrid() {
+        LocalDate day = LocalDate.of(2025, 1, 6);
+        // 08:00 start, 90-minute blocks and 15-minute breaks share a 15-minute grid
+        SlotTemplate template = new SlotTemplate(new PlanSpec.SchedulingRules(), SlotTemplate.DEFAULT_DAY_START,
+                List.of(new PlanSpec.BusyInterval("Lecture", day, LocalTime.of(9, 0), LocalTime.of(10, 5))));
+
+        assertEquals(15, template.getSlotMinutes());
+        assertEquals(0, template.positionFrom(0));
+        assertEquals(2, template.positionFrom(9 * 60 + 31));
+        assertEquals(-1, template.positionFrom(13 * 60));
+
+        // The lecture is rounded outward to 09:00-10:15
+        SlotBitmap taken = template.occupancy(day);
+        assertEquals(5, taken.occupiedSlots());
+        assertTrue(taken.isFree(LocalTime.of(10, 15), LocalTime.of(11, 45)));
+        assertFalse(taken.isFree(LocalTime.of(9, 30), LocalTime.of(11, 0)));
+        assertEquals(0, template.occupancy(day.plusDays(1)).occupiedSlots());
+    }
+}
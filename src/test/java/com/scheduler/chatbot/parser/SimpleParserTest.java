@@ -1,9 +1,17 @@
 package com.scheduler.chatbot.parser;
 
+import com.scheduler.chatbot.model.BlockStatus;
+import com.scheduler.chatbot.model.PlanSpec;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.EnumSet;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @DisplayName("Simple DSL Parser Test")
@@ -36,6 +44,188 @@ public class SimpleParserTest {
         System.out.println("\nAll tests passed!\n");
     }
 
+    @Test
+    @DisplayName("Test Range Availability Commands")
+    public void testRangeAvailability() {
+        PlanSpec plan = parser.parseCommand(
+                "set availability from 2025-01-06 to 2025-05-30 on weekdays capacity 4 hours");
+
+        assertEquals("SET_AVAILABILITY_RANGE", plan.getCommandType());
+        assertTrue(plan.getAvailability().isEmpty());
+        assertEquals(1, plan.getAvailabilityRules().size());
+
+        PlanSpec.AvailabilityRule rule = plan.getAvailabilityRules().get(0);
+        assertEquals(LocalDate.of(2025, 1, 6), rule.getStartDate());
+        assertEquals(LocalDate.of(2025, 5, 30), rule.getEndDate());
+        assertEquals(5, rule.getDaysOfWeek().size());
+        assertFalse(rule.getDaysOfWeek().contains(DayOfWeek.SATURDAY));
+        assertEquals(4.0, rule.getCapacityHours());
+
+        PlanSpec days = parser.parseCommand(
+                "set availability from 01/02/2025 to 28/02/2025 on monday, thursday capacity 2 hours");
+        assertEquals(2, days.getAvailabilityRules().get(0).getDaysOfWeek().size());
+
+        testCommand("set availability from 2025-01-01 to 2025-01-31 capacity 3 hours", true);
+        testCommand("set availability from 2025-01-01 to 2025-01-31 on weekends capacity 6 hours", true);
+        testCommand("set availability from 2025-02-01 to 2025-01-01 capacity 3 hours", false);
+        testCommand("set availability from 2025-01-01 to 2025-01-31 on holidays capacity 3 hours", false);
+    }
+
+    @Test
+    @DisplayName("Test Plan Version Commands")
+    public void testVersionCommands() {
+        assertEquals("UNDO", parser.parseCommand("undo").getCommandType());
+        assertEquals("SHOW_VERSIONS", parser.parseCommand("show versions").getCommandType());
+
+        PlanSpec fork = parser.parseCommand("fork plan \"physics-high\"");
+        assertEquals("FORK_PLAN", fork.getCommandType());
+        assertEquals("physics-high", fork.getTargetBranch());
+
+        PlanSpec checkoutPlan = parser.parseCommand("checkout plan \"main\"");
+        assertEquals("CHECKOUT", checkoutPlan.getCommandType());
+        assertEquals("main", checkoutPlan.getTargetBranch());
+
+        PlanSpec checkoutVersion = parser.parseCommand("checkout version 3");
+        assertEquals(3L, checkoutVersion.getTargetVersion());
+        assertNull(checkoutVersion.getTargetBranch());
+
+        testCommand("fork plan \"\"", false);
+        testCommand("checkout version", false);
+    }
+
+    @Test
+    @DisplayName("Test engine selection commands")
+    public void testEngineCommands() {
+        PlanSpec use = parser.parseCommand("use engine \"Greedy\"");
+        assertEquals("SET_ENGINE", use.getCommandType());
+        assertEquals("greedy", use.getTargetEngine());
+
+        PlanSpec generate = parser.parseCommand("generate schedule with engine \"greedy\"");
+        assertEquals("GENERATE_SCHEDULE", generate.getCommandType());
+        assertEquals("greedy", generate.getTargetEngine());
+        assertNull(parser.parseCommand("generate schedule").getTargetEngine());
+
+        assertEquals("LIST_ENGINES", parser.parseCommand("list engines").getCommandType());
+        testCommand("use engine \"\"", false);
+    }
+
+    @Test
+    @DisplayName("Test add component command")
+    public void testAddComponent() {
+        PlanSpec plan = parser.parseCommand("add component \"Lab 1\" to \"MATH101\" hours 6 due 2025-05-10");
+        assertEquals("ADD_COMPONENT", plan.getCommandType());
+        assertEquals("MATH101", plan.getTargetSubject());
+        assertEquals("Lab 1", plan.getTargetComponent().getName());
+        assertEquals(6.0, plan.getTargetComponent().getEstimatedHours(), 1e-9);
+        assertEquals(LocalDate.of(2025, 5, 10), plan.getTargetComponent().getDueDate());
+
+        assertNull(parser.parseCommand("add component \"Essay\" to \"HIST\" hours 2.5").getTargetComponent().getDueDate());
+        testCommand("add component \"\" to \"MATH101\" hours 6", false);
+        testCommand("add component \"Lab\" to \"MATH101\" hours 0", false);
+        testCommand("add component \"Lab\" hours 6", false);
+    }
+
+    @Test
+    @DisplayName("Test set exam command")
+    public void testSetExam() {
+        PlanSpec plan = parser.parseCommand("set exam \"MATH101\" on 20/05/2025");
+        assertEquals("SET_EXAM", plan.getCommandType());
+        assertEquals("MATH101", plan.getTargetSubject());
+        assertEquals(LocalDate.of(2025, 5, 20), plan.getTargetExamDate());
+        testCommand("set exam \"MATH101\"", false);
+        testCommand("set exam \"\" on 2025-05-20", false);
+    }
+
+    @Test
+    @DisplayName("Test progress and replan commands")
+    public void testProgressCommands() {
+        PlanSpec mark = parser.parseCommand("mark \"MATH101\" on 2025-05-06 done");
+        assertEquals("MARK_BLOCKS", mark.getCommandType());
+        assertEquals("MATH101", mark.getTargetSubject());
+        assertEquals(LocalDate.of(2025, 5, 6), mark.getTargetDate());
+        assertEquals(BlockStatus.DONE, mark.getTargetStatus());
+
+        PlanSpec missed = parser.parseCommand("mark on 06/05/2025 missed");
+        assertNull(missed.getTargetSubject());
+        assertEquals(BlockStatus.MISSED, missed.getTargetStatus());
+
+        PlanSpec replan = parser.parseCommand("replan from 2025-05-07");
+        assertEquals("REPLAN", replan.getCommandType());
+        assertEquals(LocalDate.of(2025, 5, 7), replan.getTargetDate());
+        assertNull(parser.parseCommand("replan").getTargetDate());
+
+        assertEquals("SHOW_PROGRESS", parser.parseCommand("show progress").getCommandType());
+        testCommand("mark \"MATH101\" on 2025-05-06", false);
+        testCommand("mark \"MATH101\" on 2025-05-06 skipped", false);
+    }
+
+    @Test
+    public void testBusyCommands() {
+        PlanSpec once = parser.parseCommand("add busy \"Chemistry exam\" on 2025-05-06 from 9:00 to 11:30");
+        assertEquals("ADD_BUSY", once.getCommandType());
+        PlanSpec.BusyInterval exam = once.getBusyIntervals().get(0);
+        assertEquals("Chemistry exam", exam.getLabel());
+        assertEquals(LocalDate.of(2025, 5, 6), exam.getStartDate());
+        assertEquals(LocalTime.of(9, 0), exam.getStartTime());
+        assertEquals(LocalTime.of(11, 30), exam.getEndTime());
+        assertFalse(exam.isRecurring());
+
+        PlanSpec weekly = parser.parseCommand(
+                "add busy \"Job\" from 2025-05-05 to 2025-06-29 on tuesday, thursday from 17:00 to 21:00");
+        PlanSpec.BusyInterval job = weekly.getBusyIntervals().get(0);
+        assertTrue(job.isRecurring());
+        assertEquals(EnumSet.of(DayOfWeek.TUESDAY, DayOfWeek.THURSDAY), job.getDaysOfWeek());
+        assertEquals(16, job.countMatchingDays());
+
+        PlanSpec delete = parser.parseCommand("delete busy \"Job\"");
+        assertEquals("DELETE_BUSY", delete.getCommandType());
+        assertEquals("Job", delete.getTargetSubject());
+        assertEquals("LIST_BUSY", parser.parseCommand("list busy").getCommandType());
+        testCommand("add busy \"Job\" on 2025-05-06 from 17:00 to 09:00", false);
+        testCommand("add busy \"Job\" on 2025-05-06 from 17:00", false);
+
+        // Calendars are uploaded (POST /busy/import), never read from a server path
+        testCommand("import busy \"Uni\" from \"timetable.ics\"", false);
+    }
+
+    @Test
+    public void testReviewCommands() {
+        PlanSpec reviews = parser.parseCommand("set reviews after 1, 3, 7, 14 days for 20 minutes");
+        assertEquals("SET_REVIEWS", reviews.getCommandType());
+        assertEquals(List.of(1, 3, 7, 14), reviews.getRules().getReviewIntervals());
+        assertEquals(20, reviews.getRules().getReviewDurationMinutes());
+
+        PlanSpec off = parser.parseCommand("set reviews off");
+        assertEquals("SET_REVIEWS", off.getCommandType());
+        assertFalse(off.getRules().hasReviews());
+        testCommand("set reviews after 3, 1 days", false);
+        testCommand("set reviews after 1.5 days", false);
+        testCommand("set reviews after 1, 3 days for 0 minutes", false);
+    }
+
+    @Test
+    public void testConstraintCommands() {
+        PlanSpec notOn = parser.parseCommand("require \"Physics\" not on monday, friday");
+        assertEquals("ADD_CONSTRAINT", notOn.getCommandType());
+        assertEquals(List.of(PlanSpec.HardConstraint.notOn("Physics", EnumSet.of(DayOfWeek.MONDAY, DayOfWeek.FRIDAY))),
+                notOn.getRules().getConstraints());
+
+        PlanSpec before = parser.parseCommand("require \"Math\" before 12:00");
+        assertEquals(List.of(PlanSpec.HardConstraint.before("Math", LocalTime.of(12, 0))),
+                before.getRules().getConstraints());
+
+        PlanSpec perDay = parser.parseCommand("require at most 2 blocks per day");
+        assertEquals(List.of(PlanSpec.HardConstraint.maxPerDay(null, 2)), perDay.getRules().getConstraints());
+        assertNull(perDay.getTargetSubject());
+
+        assertEquals("Physics", parser.parseCommand("delete constraints \"Physics\"").getTargetSubject());
+        assertEquals("DELETE_CONSTRAINTS", parser.parseCommand("delete constraints").getCommandType());
+        assertEquals("LIST_CONSTRAINTS", parser.parseCommand("list constraints").getCommandType());
+        testCommand("require at most 0 blocks per day", false);
+        testCommand("require at most 1.5 blocks per day of \"Math\"", false);
+        testCommand("require \"Math\" before noon", false);
+    }
+
     private void testCommand(String command, boolean expectedValid) {
         try {
             parser.parseCommand(command);